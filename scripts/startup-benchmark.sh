@@ -0,0 +1,86 @@
+#!/usr/bin/env bash
+# Compares the time until /actuator/health reports UP, and the resident memory at that point, for the launch variants:
+#   jvm     java -jar (always)
+#   jvm-cds java -XX:SharedArchiveFile -jar on the extracted jar, like the Dockerfile (always, the archive is trained first)
+#   jvm-aot java -Dspring.aot.enabled=true -jar (jar built with mvn -Pnative -DskipTests package)
+#   native  target/hotelmanager (native image, built with GraalVM and mvn -Pnative -DskipTests package)
+# The database of the active profile must be running, e.g. docker compose up -d postgres.
+#
+# Usage: scripts/startup-benchmark.sh [runs] [extra application arguments...]
+set -euo pipefail
+
+RUNS=${1:-5}
+shift || true
+HEALTH_URL=${HEALTH_URL:-http://localhost:8081/actuator/health}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+CDS_DIR=target/cds
+CDS_TRAINING_OPTIONS="-Dspring.context.exit=onRefresh -Dspring.flyway.enabled=false -Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect -Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false"
+
+cd "$(dirname "$0")/.."
+JAR=$(ls target/hotelmanager-*.jar 2>/dev/null | grep -v original | head -n 1 || true)
+if [ -z "$JAR" ]; then
+  echo "No jar found in target, run mvn -DskipTests package first." >&2
+  exit 1
+fi
+
+now_ms() {
+  date +%s%3N
+}
+
+# Starts the command, waits for UP and prints the elapsed milliseconds and the resident memory in KB
+measure() {
+  local start pid elapsed rss
+  start=$(now_ms)
+  "$@" > /dev/null 2>&1 &
+  pid=$!
+  until curl -sf "$HEALTH_URL" 2>/dev/null | grep -q '"status":"UP"'; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "Application exited before it was UP: $*" >&2
+      return 1
+    fi
+    if [ $(( $(now_ms) - start )) -gt $(( TIMEOUT_SECONDS * 1000 )) ]; then
+      kill "$pid"
+      echo "Application was not UP within ${TIMEOUT_SECONDS}s: $*" >&2
+      return 1
+    fi
+    sleep 0.05
+  done
+  elapsed=$(( $(now_ms) - start ))
+  rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$elapsed $rss"
+}
+
+# Extracts the jar like the Dockerfile and creates the CDS archive with a training run
+train_cds() {
+  rm -rf "$CDS_DIR"
+  java -Djarmode=tools -jar "$JAR" extract --destination "$CDS_DIR" > /dev/null
+  # shellcheck disable=SC2086
+  (cd "$CDS_DIR" && java -XX:ArchiveClassesAtExit=app.jsa -Xlog:cds=off -Xlog:cds+dynamic=off $CDS_TRAINING_OPTIONS -jar "$(basename "$JAR")" > /dev/null)
+}
+
+benchmark() {
+  local name=$1
+  shift
+  local times=() total=0 total_rss=0 time rss
+  for ((i = 0; i < RUNS; i++)); do
+    read -r time rss < <(measure "$@")
+    times+=("$time")
+    total=$(( total + time ))
+    total_rss=$(( total_rss + rss ))
+  done
+  printf '%-8s mean %6d ms, min %6d ms, max %6d ms, rss %5d MB\n' "$name" $(( total / RUNS )) \
+    "$(printf '%s\n' "${times[@]}" | sort -n | head -n 1)" "$(printf '%s\n' "${times[@]}" | sort -n | tail -n 1)" \
+    $(( total_rss / RUNS / 1024 ))
+}
+
+benchmark jvm java -jar "$JAR" "$@"
+train_cds
+benchmark jvm-cds java -XX:SharedArchiveFile="$CDS_DIR/app.jsa" -jar "$CDS_DIR/$(basename "$JAR")" "$@"
+if unzip -Z1 "$JAR" | grep '__ApplicationContextInitializer' > /dev/null; then
+  benchmark jvm-aot java -Dspring.aot.enabled=true -jar "$JAR" "$@"
+fi
+if [ -x target/hotelmanager ]; then
+  benchmark native target/hotelmanager "$@"
+fi
@@ -0,0 +1,95 @@
+package de.mteklic.hotelmanager.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Dispatches controller work onto the bounded executor of its {@link Workload}.
+ * ---
+ * The request thread is released right away and the response is written once the returned future completes.
+ * If the threads and the queue of a workload are exhausted, the request is rejected with 503, so a flood of searches
+ * fills up only the read bulkhead. Like open-in-view on the request thread, every task has an EntityManager bound
+ * for its whole duration, so lazy associations can still be loaded while the DTOs are built. Rejections are counted in hotelmanager.bulkhead.rejected (tag workload).
+ */
+@Component
+public class Bulkhead {
+
+    private static final Logger log = LoggerFactory.getLogger(Bulkhead.class);
+
+    private final Executor readExecutor;
+
+    private final Executor writeExecutor;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final Counter readRejected;
+
+    private final Counter writeRejected;
+
+    public Bulkhead(@Qualifier("readExecutor") Executor readExecutor, @Qualifier("writeExecutor") Executor writeExecutor, EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry){
+        this.readExecutor = readExecutor;
+        this.writeExecutor = writeExecutor;
+        this.entityManagerFactory = entityManagerFactory;
+        this.readRejected = Counter.builder("hotelmanager.bulkhead.rejected").tag("workload", "read").register(meterRegistry);
+        this.writeRejected = Counter.builder("hotelmanager.bulkhead.rejected").tag("workload", "write").register(meterRegistry);
+    }
+
+    /**
+     * Runs a query on the read executor.
+     *
+     * @param task The query, its checked exceptions complete the future exceptionally.
+     * @return The future result.
+     */
+    public <T> CompletableFuture<T> read(Callable<T> task) {
+        return submit(this.readExecutor, this.readRejected, Workload.READ, task);
+    }
+
+    /**
+     * Runs a change on the write executor.
+     *
+     * @param task The change, its checked exceptions complete the future exceptionally.
+     * @return The future result.
+     */
+    public <T> CompletableFuture<T> write(Callable<T> task) {
+        return submit(this.writeExecutor, this.writeRejected, Workload.WRITE, task);
+    }
+
+    private <T> CompletableFuture<T> submit(Executor executor, Counter rejected, Workload workload, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                EntityManager entityManager = this.entityManagerFactory.createEntityManager();
+                TransactionSynchronizationManager.bindResource(this.entityManagerFactory, new EntityManagerHolder(entityManager));
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    TransactionSynchronizationManager.unbindResource(this.entityManagerFactory);
+                    EntityManagerFactoryUtils.closeEntityManager(entityManager);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.debug("{} bulkhead is full, request rejected", workload);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Service is overloaded, please retry shortly.");
+        }
+        return future;
+    }
+}
@@ -0,0 +1,22 @@
+package de.mteklic.hotelmanager.bulkhead;
+
+/**
+ * Workload classes which are isolated from each other, each with its own threads and database connections.
+ */
+public enum Workload {
+
+    /**
+     * Room and booking queries of the API, e.g. room searches.
+     */
+    READ,
+
+    /**
+     * Room and booking changes of the API, e.g. booking creation.
+     */
+    WRITE,
+
+    /**
+     * Everything else: scheduled jobs, event listeners, imports and the remaining endpoints.
+     */
+    BACKGROUND
+}
@@ -0,0 +1,39 @@
+package de.mteklic.hotelmanager.bulkhead;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Holds the {@link Workload} of the current thread, which selects its connection pool.
+ * Threads of the read and write executors are marked by their {@link TaskDecorator}, all other threads are background.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    /**
+     * @return The workload of the current thread.
+     */
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.BACKGROUND;
+    }
+
+    /**
+     * @param workload Workload of the tasks.
+     * @return A decorator which runs every task as the workload.
+     */
+    public static TaskDecorator taskDecorator(Workload workload) {
+        return task -> () -> {
+            Workload previous = CURRENT.get();
+            CURRENT.set(workload);
+            try {
+                task.run();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package de.mteklic.hotelmanager.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DataSource with one connection pool per {@link Workload}. Connections are taken from the pool of the current thread's
+ * workload, so expensive searches can exhaust the read pool but never the connections of booking writes.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final Map<Workload, HikariDataSource> pools;
+
+    /**
+     * @param pools A pool for every workload.
+     */
+    public WorkloadRoutingDataSource(Map<Workload, HikariDataSource> pools) {
+        this.pools = pools;
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(Workload.BACKGROUND));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+
+    @Override
+    public void close() {
+        this.pools.values().forEach(HikariDataSource::close);
+    }
+}
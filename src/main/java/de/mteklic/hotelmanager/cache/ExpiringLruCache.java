@@ -0,0 +1,73 @@
+package de.mteklic.hotelmanager.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small, thread safe in-memory cache with a maximum size and a time to live per entry.
+ * If the cache is full, the least recently used entry is evicted. Expired entries are removed when they are read.
+ *
+ * @param <K> Type of the keys.
+ * @param <V> Type of the values.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final Map<K, Entry<V>> entries;
+
+    private final long ttlMillis;
+
+    private final Clock clock;
+
+    public ExpiringLruCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    public ExpiringLruCache(int maxSize, Duration ttl, Clock clock) {
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param key Key of the entry.
+     * @return The value, or null if there is none or it has expired.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = this.entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= this.clock.millis()) {
+            this.entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * Stores a value, which expires after the time to live of this cache.
+     *
+     * @param key   Key of the entry.
+     * @param value Value of the entry.
+     */
+    public synchronized void put(K key, V value) {
+        this.entries.put(key, new Entry<>(value, this.clock.millis() + this.ttlMillis));
+    }
+
+    /**
+     * @return The number of entries, including expired entries which have not been read since.
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+}
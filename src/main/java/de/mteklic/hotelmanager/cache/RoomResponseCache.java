@@ -0,0 +1,122 @@
+package de.mteklic.hotelmanager.cache;
+
+import de.mteklic.hotelmanager.model.BookingsArchivedEvent;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the serialised (and gzip compressed) JSON responses of the room catalog endpoints.
+ * ---
+ * Every entry belongs to a catalog version. Each committed change of a room or booking increments the version,
+ * which invalidates all entries at once. Responses computed from an older version are never served, even if they
+ * are stored after the change happened. The catalog changes rarely, so per room invalidation is not worth it.
+ */
+@Component
+public class RoomResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomResponseCache.class);
+
+    private final Map<String, CachedResponse> responses = new ConcurrentHashMap<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final int maxEntries;
+
+    public RoomResponseCache(@Value("${hotelmanager.cache.rooms.max-entries:10000}") int maxEntries){
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * A serialised response body in all supported encodings.
+     *
+     * @param version Catalog version the body has been computed from.
+     * @param json    Uncompressed JSON body.
+     * @param gzip    Gzip compressed JSON body.
+     * @param etag    Strong ETag of the body, including quotes.
+     */
+    public record CachedResponse(long version, byte[] json, byte[] gzip, String etag) {
+    }
+
+    /**
+     * @return The current catalog version. Has to be read before the response is computed.
+     */
+    public long version() {
+        return this.version.get();
+    }
+
+    /**
+     * Returns the cached response for the key, if it belongs to the current catalog version.
+     *
+     * @param key Cache key, e.g. the request path.
+     * @return The cached response or null.
+     */
+    public CachedResponse get(String key) {
+        CachedResponse response = this.responses.get(key);
+        return response != null && response.version() == this.version.get() ? response : null;
+    }
+
+    /**
+     * Stores a response body, compressing it once.
+     *
+     * @param key     Cache key, e.g. the request path.
+     * @param version Catalog version read before the body has been computed.
+     * @param json    Uncompressed JSON body.
+     * @return The stored response, or null if it is already outdated or the cache is full.
+     */
+    public CachedResponse put(String key, long version, byte[] json) {
+        if (version != this.version.get() || (this.responses.size() >= this.maxEntries && !this.responses.containsKey(key))) {
+            return null;
+        }
+        CachedResponse response = new CachedResponse(version, json, gzip(json), "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        this.responses.put(key, response);
+        return response;
+    }
+
+    /**
+     * Invalidates all cached responses after a room or booking change has been committed.
+     * Runs immediately if the change has been published outside a transaction.
+     *
+     * @param event The event contains the id of the changed room.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleRoomChangedEvent(RoomChangedEvent event) {
+        long newVersion = this.version.incrementAndGet();
+        this.responses.clear();
+        log.debug("Room {} changed, room response cache invalidated (version {})", event.getRoomId(), newVersion);
+    }
+
+    /**
+     * Invalidates all cached responses after bookings have been archived, they are no longer listed with their rooms.
+     *
+     * @param event The event contains the ids of the rooms whose bookings have been archived.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleBookingsArchivedEvent(BookingsArchivedEvent event) {
+        long newVersion = this.version.incrementAndGet();
+        this.responses.clear();
+        log.debug("Bookings of {} rooms archived, room response cache invalidated (version {})", event.getRoomIds().size(), newVersion);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,184 @@
+package de.mteklic.hotelmanager.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Serves GET /api/v1/rooms and GET /api/v1/rooms/{id} from the {@link RoomResponseCache}.
+ * ---
+ * On a hit the stored bytes are written directly, gzip compressed if the client accepts it, so neither the
+ * database, the DTO conversion nor Jackson is involved. On a miss the controller runs as usual and its JSON
+ * body is captured and stored. Conditional requests (If-None-Match) are answered with 304.
+ * Requests which do not accept JSON (e.g. other content types) are passed through untouched.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+@ConditionalOnProperty(prefix = "hotelmanager.cache.rooms", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RoomResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern CACHEABLE_PATH = Pattern.compile("/api/v1/rooms(/\\d+)?");
+
+    private static final String VERSION_ATTRIBUTE = RoomResponseCacheFilter.class.getName() + ".VERSION";
+
+    private final RoomResponseCache roomResponseCache;
+
+    public RoomResponseCacheFilter(RoomResponseCache roomResponseCache){
+        this.roomResponseCache = roomResponseCache;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || request.getQueryString() != null
+                || !CACHEABLE_PATH.matcher(request.getRequestURI()).matches()
+                || !acceptsJson(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // The controllers complete asynchronously, the body is captured when the result is dispatched
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getRequestURI();
+
+        if (isAsyncDispatch(request)) {
+            // The result is written into the wrapper of the initial dispatch, which is the response of the async context
+            ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+            filterChain.doFilter(request, response);
+            if (wrapper != null && request.getAttribute(VERSION_ATTRIBUTE) instanceof Long version) {
+                store(request, key, version, wrapper);
+            }
+            return;
+        }
+
+        RoomResponseCache.CachedResponse cached = this.roomResponseCache.get(key);
+        if (cached != null) {
+            write(request, response, cached);
+            return;
+        }
+
+        // Read the version before the response is computed, so a concurrent change cannot be cached as current
+        long version = this.roomResponseCache.version();
+        request.setAttribute(VERSION_ATTRIBUTE, version);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        store(request, key, version, wrapper);
+    }
+
+    /**
+     * Stores a successful JSON response and copies it to the client, unless the response is still computed asynchronously.
+     */
+    private void store(HttpServletRequest request, String key, long version, ContentCachingResponseWrapper wrapper) throws IOException {
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        if (wrapper.getStatus() == HttpStatus.OK.value() && isJson(wrapper.getContentType())) {
+            RoomResponseCache.CachedResponse stored = this.roomResponseCache.put(key, version, wrapper.getContentAsByteArray());
+            if (stored != null) {
+                wrapper.setHeader(HttpHeaders.ETAG, stored.etag());
+                wrapper.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, RoomResponseCache.CachedResponse cached) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, cached.etag());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.equals("*") || ifNoneMatch.contains(cached.etag()))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        byte[] body = cached.json();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = cached.gzip();
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Checks whether gzip is an acceptable content coding, i.e. listed with q > 0, either by name or via "*".
+     * An explicit gzip entry wins over "*", so "*, gzip;q=0" does not accept gzip.
+     *
+     * @param acceptEncoding Value of the Accept-Encoding header, may be null.
+     * @return True if the response may be gzip compressed.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        // An invalid weight makes the coding unacceptable
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if (name.equals("*")) {
+                any = quality;
+            }
+        }
+        Double quality = gzip != null ? gzip : any;
+        return quality != null && quality > 0;
+    }
+
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            // Only the preferred media type counts, a JSON fallback (e.g. */*;q=0.1) must not win over other types
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            return !mediaTypes.isEmpty() && mediaTypes.get(0).includes(MediaType.APPLICATION_JSON);
+        } catch (InvalidMediaTypeException e) {
+            // Leave the error response to Spring MVC
+            return false;
+        }
+    }
+
+    private static boolean isJson(String contentType) {
+        return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+}
@@ -0,0 +1,109 @@
+package de.mteklic.hotelmanager.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical computations: while a computation for a key is running, further calls with the same
+ * key wait for its result instead of computing it again.
+ * Optionally, a completed result is reused for a short time to live, which also merges calls arriving just after.
+ * Failures are passed to all waiting callers, but never reused.
+ *
+ * @param <K> Type of the keys, must implement equals and hashCode.
+ * @param <V> Type of the results. Results are shared between callers and should be immutable.
+ */
+public class SingleFlight<K, V> {
+
+    private static final class Flight<V> {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+
+        private volatile long expiresAt;
+
+        private volatile boolean completed;
+    }
+
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    private final long ttlNanos;
+
+    /**
+     * @param ttl How long a completed result is reused, zero to only coalesce calls which overlap.
+     */
+    public SingleFlight(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the result of the running or recently completed computation for the key, or computes it.
+     *
+     * @param key      Key identifying identical computations.
+     * @param supplier The computation, only called if there is no running or reusable one.
+     * @return The result of the computation.
+     */
+    public V execute(K key, Supplier<V> supplier) {
+        while (true) {
+            Flight<V> flight = this.flights.get(key);
+            if (flight != null) {
+                if (!flight.completed || flight.expiresAt - System.nanoTime() > 0) {
+                    return await(flight);
+                }
+                this.flights.remove(key, flight);
+                continue;
+            }
+
+            Flight<V> own = new Flight<>();
+            if (this.flights.putIfAbsent(key, own) == null) {
+                return compute(key, own, supplier);
+            }
+        }
+    }
+
+    /**
+     * @return Number of running or reusable computations.
+     */
+    public int size() {
+        return this.flights.size();
+    }
+
+    private V compute(K key, Flight<V> flight, Supplier<V> supplier) {
+        V value;
+        try {
+            value = supplier.get();
+        } catch (RuntimeException | Error e) {
+            this.flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+
+        if (this.ttlNanos > 0) {
+            flight.expiresAt = System.nanoTime() + this.ttlNanos;
+            flight.completed = true;
+            // Removes the result even if the key is never requested again
+            CompletableFuture.delayedExecutor(this.ttlNanos, TimeUnit.NANOSECONDS).execute(() -> this.flights.remove(key, flight));
+        } else {
+            this.flights.remove(key, flight);
+        }
+        flight.result.complete(value);
+        return value;
+    }
+
+    private V await(Flight<V> flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package de.mteklic.hotelmanager.configuration;
 
+import de.mteklic.hotelmanager.bulkhead.Workload;
+import de.mteklic.hotelmanager.bulkhead.WorkloadContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Configuration class that enables asynchronous execution and configures a custom thread pool for async tasks.
@@ -14,6 +21,8 @@ import java.util.concurrent.Executor;
 @EnableAsync
 public class AsyncConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
     /**
      * Defines a custom Executor bean for managing asynchronous tasks.
      * This bean configures a ThreadPoolTaskExecutor with specific parameters:
@@ -33,4 +42,152 @@ public class AsyncConfig {
         executor.setThreadNamePrefix("Housekeeper-");
         return executor;
     }
+
+    /**
+     * Defines the Executor used to compute analytics over several room partitions in parallel.
+     * Every partition is one database query, so the pool size also limits the number of connections used at once.
+     * - Core & max pool size: hotelmanager.analytics.partitions (default 4)
+     * - Queue capacity: 0 (tasks run in the caller thread if all threads are busy)
+     * - Thread name prefix: "Analytics-"
+     *
+     * @param partitions Number of partitions which can be computed in parallel.
+     * @return An Executor instance configured for analytic tasks.
+     */
+    @Bean
+    public Executor analyticsExecutor(@Value("${hotelmanager.analytics.partitions:4}") int partitions){
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(partitions);
+        executor.setMaxPoolSize(partitions);
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("Analytics-");
+        return executor;
+    }
+
+    /**
+     * Defines the Executor which matches released booking days against the waitlist.
+     * A single thread processes the releases one after another. If the queue is full, a release is dropped with a
+     * warning instead of being matched on the committing request thread: its entries stay waiting for later releases.
+     * - Core & max pool size: 1
+     * - Queue capacity: hotelmanager.waitlist.queue-capacity (default 1000)
+     * - Thread name prefix: "Waitlist-"
+     *
+     * @param queueCapacity Number of releases which can wait for matching.
+     * @return An Executor instance configured for waitlist matching.
+     */
+    @Bean
+    public Executor waitlistExecutor(@Value("${hotelmanager.waitlist.queue-capacity:1000}") int queueCapacity){
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler((task, pool) -> log.warn("Waitlist queue is full, released days are not matched."));
+        executor.setThreadNamePrefix("Waitlist-");
+        return executor;
+    }
+
+    /**
+     * Defines the Executor which drains the queued events of the availability stream subscribers.
+     * At most one task per subscriber is queued. The writes themselves run on the availabilityStreamWriteExecutor,
+     * a drain waits for a write at most hotelmanager.availability-stream.write-timeout.
+     * - Core & max pool size: hotelmanager.availability-stream.threads (default 4)
+     * - Queue capacity: hotelmanager.availability-stream.max-subscribers (default 10000)
+     * - Thread name prefix: "AvailabilityStream-"
+     *
+     * @param threads        Number of subscribers which are drained at once.
+     * @param maxSubscribers Maximum number of subscribers.
+     * @return An Executor instance configured for the availability stream.
+     */
+    @Bean
+    public Executor availabilityStreamExecutor(@Value("${hotelmanager.availability-stream.threads:4}") int threads,
+                                               @Value("${hotelmanager.availability-stream.max-subscribers:10000}") int maxSubscribers){
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(maxSubscribers);
+        executor.setThreadNamePrefix("AvailabilityStream-");
+        return executor;
+    }
+
+    /**
+     * Defines the Executor which writes the events of the availability stream to the clients.
+     * A write to a client which does not read blocks until the container times the connection out. Such a thread is
+     * left behind by the drain task, so the pool grows beyond its core size for them instead of queueing writes.
+     * - Core pool size: hotelmanager.availability-stream.threads (default 4)
+     * - Max pool size: hotelmanager.availability-stream.max-writers (default 64), further writes are rejected and
+     *   their subscribers evicted
+     * - Queue capacity: 0
+     * - Thread name prefix: "AvailabilityStreamWrite-"
+     *
+     * @param threads    Number of threads which are kept.
+     * @param maxWriters Maximum number of writes at once, including stalled ones.
+     * @return An Executor instance configured for the availability stream writes.
+     */
+    @Bean
+    public Executor availabilityStreamWriteExecutor(@Value("${hotelmanager.availability-stream.threads:4}") int threads,
+                                                    @Value("${hotelmanager.availability-stream.max-writers:64}") int maxWriters){
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(Math.max(threads, maxWriters));
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("AvailabilityStreamWrite-");
+        return executor;
+    }
+
+    /**
+     * Defines the Executor of the read bulkhead, which runs room and booking queries of the API.
+     * Its threads use the read connection pool, see DataSourceConfig.
+     * - Core & max pool size: hotelmanager.bulkhead.read.threads (default 16)
+     * - Queue capacity: hotelmanager.bulkhead.read.queue-capacity (default 200), further queries are rejected with 503
+     * - Thread name prefix: "Read-"
+     *
+     * @param threads       Number of queries which are executed at once.
+     * @param queueCapacity Number of queries which can wait for a thread.
+     * @return An Executor instance configured for read requests.
+     */
+    @Bean
+    public Executor readExecutor(@Value("${hotelmanager.bulkhead.read.threads:16}") int threads,
+                                 @Value("${hotelmanager.bulkhead.read.queue-capacity:200}") int queueCapacity){
+        return bulkheadExecutor(Workload.READ, threads, queueCapacity, "Read-");
+    }
+
+    /**
+     * Defines the Executor of the write bulkhead, which runs room and booking changes of the API.
+     * Its threads use the write connection pool, see DataSourceConfig.
+     * - Core & max pool size: hotelmanager.bulkhead.write.threads (default 8)
+     * - Queue capacity: hotelmanager.bulkhead.write.queue-capacity (default 100), further changes are rejected with 503
+     * - Thread name prefix: "Write-"
+     *
+     * @param threads       Number of changes which are executed at once.
+     * @param queueCapacity Number of changes which can wait for a thread.
+     * @return An Executor instance configured for write requests.
+     */
+    @Bean
+    public Executor writeExecutor(@Value("${hotelmanager.bulkhead.write.threads:8}") int threads,
+                                  @Value("${hotelmanager.bulkhead.write.queue-capacity:100}") int queueCapacity){
+        return bulkheadExecutor(Workload.WRITE, threads, queueCapacity, "Write-");
+    }
+
+    /**
+     * Defines the ForkJoinPool of the flexible search, which evaluates the rooms in recursively split partitions.
+     * The work is CPU bound (the bookings are loaded before), so one thread per core is enough.
+     * - Parallelism: hotelmanager.flexible-search.parallelism (default 0, i.e. the number of cores)
+     *
+     * @param parallelism Number of worker threads, or 0 for the number of cores.
+     * @return A ForkJoinPool instance configured for the flexible search.
+     */
+    @Bean
+    public ForkJoinPool flexibleSearchPool(@Value("${hotelmanager.flexible-search.parallelism:0}") int parallelism){
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    private static Executor bulkheadExecutor(Workload workload, int threads, int queueCapacity, String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(WorkloadContext.taskDecorator(workload));
+        executor.setThreadNamePrefix(threadNamePrefix);
+        return executor;
+    }
 }
@@ -0,0 +1,59 @@
+package de.mteklic.hotelmanager.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import de.mteklic.hotelmanager.bulkhead.Workload;
+import de.mteklic.hotelmanager.bulkhead.WorkloadRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration class that partitions the database connections by {@link Workload}.
+ * ---
+ * Every workload gets its own Hikari pool (hotelmanager-read, hotelmanager-write, hotelmanager-background) with the
+ * connection settings of spring.datasource.*, so a flood of searches cannot take the connections of booking writes.
+ * The pool sizes are configured with hotelmanager.bulkhead.*.pool-size, spring.datasource.hikari.* is not applied.
+ * Pool metrics are available as hikaricp.connections.* with the tag pool.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfig {
+
+    /**
+     * Defines the DataSource which routes every connection request to the pool of the current thread's workload.
+     *
+     * @param dataSourceProperties Connection settings of spring.datasource.*.
+     * @param meterRegistry        Registry of the pool metrics.
+     * @param readPoolSize         Connections of the read bulkhead.
+     * @param writePoolSize        Connections of the write bulkhead.
+     * @param backgroundPoolSize   Connections of everything else, e.g. scheduled jobs and event listeners.
+     * @return A DataSource with one pool per workload.
+     */
+    @Bean
+    public WorkloadRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+                                                MeterRegistry meterRegistry,
+                                                @Value("${hotelmanager.bulkhead.read.pool-size:6}") int readPoolSize,
+                                                @Value("${hotelmanager.bulkhead.write.pool-size:4}") int writePoolSize,
+                                                @Value("${hotelmanager.bulkhead.background.pool-size:5}") int backgroundPoolSize){
+        Map<Workload, HikariDataSource> pools = new EnumMap<>(Workload.class);
+        pools.put(Workload.READ, pool(dataSourceProperties, meterRegistry, Workload.READ, readPoolSize));
+        pools.put(Workload.WRITE, pool(dataSourceProperties, meterRegistry, Workload.WRITE, writePoolSize));
+        pools.put(Workload.BACKGROUND, pool(dataSourceProperties, meterRegistry, Workload.BACKGROUND, backgroundPoolSize));
+        return new WorkloadRoutingDataSource(pools);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry, Workload workload, int poolSize) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("hotelmanager-" + workload.name().toLowerCase());
+        pool.setMaximumPoolSize(poolSize);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
@@ -0,0 +1,46 @@
+package de.mteklic.hotelmanager.configuration;
+
+import de.mteklic.hotelmanager.model.*;
+import de.mteklic.hotelmanager.model.dto.*;
+import de.mteklic.hotelmanager.serialization.ProtobufList;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image, which Spring AOT cannot derive on its own.
+ * ---
+ * - JPA entities: Hibernate accesses their fields and constructors reflectively. Spring AOT registers the managed
+ *   entity types, the composite key class of {@link RoomDayStatus} and the constructor of the {@link BookingInterval}
+ *   projection (instantiated by a JPQL constructor expression) are registered here.
+ * - DTO records: Jackson binds the DTOs reflectively. DTOs used as controller parameters and return types are registered
+ *   by Spring, but several are also (de)serialised directly via the ObjectMapper (idempotency replays, NDJSON imports,
+ *   ApiError responses of filters, protobuf lists).
+ * - Lombok builders need no hints, they are plain generated classes which are called directly.
+ * - Flyway migrations: Spring Boot registers db/migration, the seed location of the local profile is registered here.
+ */
+public class HotelmanagerRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> ENTITIES = List.of(Room.class, Booking.class, RoomDayStatus.class, RoomDayStatus.Key.class, IdempotencyKey.class, ChangeLogEntry.class, ChangeLogEntry.Key.class);
+
+    private static final List<Class<?>> DTOS = List.of(RoomDto.class, BookingDto.class, RoomImportDto.class, OccupancyDto.class, AvailabilityDeltaDto.class, SyncDto.class, FlexibleSearchDto.class, ApiError.class, ProtobufList.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        hints.reflection().registerType(BookingInterval.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+        bindingRegistrar.registerReflectionHints(hints.reflection(), DTOS.toArray(Class<?>[]::new));
+
+        hints.resources().registerPattern("db/seed/*.sql");
+    }
+}
@@ -0,0 +1,14 @@
+package de.mteklic.hotelmanager.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Configuration class for the native image build (mvn -Pnative package).
+ * Spring AOT evaluates conditions at build time: beans switched by properties or profiles
+ * (e.g. hotelmanager.reactive.enabled, the perf profile) are included as configured during the build.
+ */
+@Configuration
+@ImportRuntimeHints(HotelmanagerRuntimeHints.class)
+public class NativeConfig {
+}
@@ -0,0 +1,150 @@
+package de.mteklic.hotelmanager.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.mteklic.hotelmanager.controller.impl.ReactiveRoomHandler;
+import de.mteklic.hotelmanager.service.ReactiveRoomService;
+import de.mteklic.hotelmanager.service.impl.ReactiveRoomServiceImpl;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+/**
+ * Configuration of the optional reactive read path for rooms (hotelmanager.reactive.enabled=true).
+ * ---
+ * The application itself stays a servlet application. The read endpoints of rooms are additionally served by a
+ * Reactor Netty server on its own port (hotelmanager.reactive.port), running on a small fixed number of event loop
+ * threads and reading via R2DBC. A load balancer may route GET /api/v1/rooms/** of bursty clients to this port.
+ * ---
+ * The R2DBC ConnectionFactory is intentionally not registered as a bean. Otherwise Spring Boot would consider it
+ * for transaction management and database initialization.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "hotelmanager.reactive", name = "enabled", havingValue = "true")
+public class ReactiveConfig implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveConfig.class);
+
+    private final ConnectionPool connectionPool;
+
+    private final LoopResources loopResources;
+
+    /**
+     * Creates the R2DBC connection pool for the same database as the JDBC datasource.
+     *
+     * @param url      R2DBC url, derived from spring.datasource.url if hotelmanager.reactive.url is not set.
+     * @param jdbcUrl  JDBC url of the datasource.
+     * @param username Database user.
+     * @param password Database password.
+     * @param poolSize Maximum number of R2DBC connections.
+     * @param threads  Number of event loop threads, hotelmanager.reactive.threads (default 4).
+     */
+    public ReactiveConfig(@Value("${hotelmanager.reactive.url:}") String url,
+                          @Value("${spring.datasource.url}") String jdbcUrl,
+                          @Value("${spring.datasource.username}") String username,
+                          @Value("${spring.datasource.password}") String password,
+                          @Value("${hotelmanager.reactive.pool-size:10}") int poolSize,
+                          @Value("${hotelmanager.reactive.threads:4}") int threads) {
+        String r2dbcUrl = url.isBlank() ? jdbcUrl.replaceFirst("^jdbc:", "r2dbc:") : url;
+
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(poolSize)
+                .name("reactive-rooms")
+                .build());
+        this.loopResources = LoopResources.create("reactive-rooms", threads, true);
+    }
+
+    /**
+     * Defines the reactive room service, reading from the R2DBC connection pool.
+     *
+     * @return ReactiveRoomService instance.
+     */
+    @Bean
+    public ReactiveRoomService reactiveRoomService() {
+        return new ReactiveRoomServiceImpl(DatabaseClient.create(this.connectionPool));
+    }
+
+    /**
+     * Starts the reactive server serving the read endpoints of rooms.
+     * - Port: hotelmanager.reactive.port (default 8082)
+     *
+     * @param reactiveRoomService Service used by the handler.
+     * @param objectMapper        ObjectMapper of the application, so JSON looks the same as on the servlet endpoints.
+     * @param port                Port of the reactive server.
+     * @return The running server, disposed when the context is closed.
+     */
+    @Bean(destroyMethod = "disposeNow")
+    public DisposableServer reactiveRoomServer(ReactiveRoomService reactiveRoomService,
+                                               ObjectMapper objectMapper,
+                                               @Value("${hotelmanager.reactive.port:8082}") int port) {
+        ReactiveRoomHandler handler = new ReactiveRoomHandler(reactiveRoomService);
+
+        // Order matters: /filter must be matched before /{id}
+        RouterFunction<ServerResponse> routes = RouterFunctions.route()
+                .GET("/api/v1/rooms/filter", handler::getFilteredRooms)
+                .GET("/api/v1/rooms/{id}", handler::getRoom)
+                .route(GET("/api/v1/rooms"), handler::getAllRooms)
+                .build();
+
+        // Same CORS settings as WebConfig
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.addAllowedOrigin("*");
+        cors.addAllowedMethod("*");
+        UrlBasedCorsConfigurationSource corsSource = new UrlBasedCorsConfigurationSource();
+        corsSource.registerCorsConfiguration("/**", cors);
+
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .webFilter(new CorsWebFilter(corsSource))
+                .build();
+
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes, strategies);
+
+        DisposableServer server = HttpServer.create()
+                .port(port)
+                .runOn(this.loopResources)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+
+        log.info("Reactive room endpoints started on port {}", server.port());
+        return server;
+    }
+
+    @Override
+    public void destroy() {
+        this.connectionPool.dispose();
+        this.loopResources.dispose();
+    }
+}
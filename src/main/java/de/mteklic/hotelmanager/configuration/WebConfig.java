@@ -4,20 +4,56 @@ import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import de.mteklic.hotelmanager.serialization.EpochDayModule;
+import de.mteklic.hotelmanager.serialization.JacksonProtobufHttpMessageConverter;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public WebConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
                 .allowedOrigins("*") // of course not a production setting. Should be a specific Host, maybe injected via env var with @Value("${...}")
                 .allowedMethods("*");
     }
+
+    /**
+     * Adds binary formats for service-to-service calls, next to JSON which stays the default:
+     * - application/cbor
+     * - application/x-protobuf, schemas are generated from the DTO records
+     * Both encode dates as epoch day ints. The mappers are built from Spring Boot's builder, so they share its settings.
+     *
+     * @param converters Converters configured by Spring Boot.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Replace the default CBOR converter, which does not know about the application's Jackson settings
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+
+        converters.add(new MappingJackson2CborHttpMessageConverter(this.objectMapperBuilder.build()
+                .copyWith(new CBORFactory())
+                .registerModule(new EpochDayModule())));
+        converters.add(new JacksonProtobufHttpMessageConverter(this.objectMapperBuilder.build()
+                .copyWith(new ProtobufFactory())
+                .registerModule(new EpochDayModule())));
+    }
 }
@@ -0,0 +1,32 @@
+package de.mteklic.hotelmanager.controller;
+
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
+import de.mteklic.hotelmanager.model.dto.OccupancyDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
+
+/**
+ * REST controller interface for analytics over rooms and bookings in a hotel management system.
+ * Interface makes multiple api-Version of controllers possible. Also, documentation in an interface looks way prettier.
+ */
+public interface AnalyticsController {
+
+    /**
+     * Endpoint to retrieve the daily occupancy per room size for a date range.
+     *
+     * @param startDate First day of the range (inclusive).
+     * @param endDate   Last day of the range (inclusive).
+     * @param parallel  Whether the calculation should run in parallel over room partitions.
+     * @return ResponseEntity containing the OccupancyDto for the range.
+     * @throws StartAndOrEndDateNullException  If start or end date is missing.
+     * @throws EndDateBeforeStartDateException If the end date is before the start date.
+     */
+    @GetMapping("/occupancy")
+    ResponseEntity<OccupancyDto> getOccupancy(@RequestParam(required = false) LocalDate startDate,
+                                              @RequestParam(required = false) LocalDate endDate,
+                                              @RequestParam(defaultValue = "false") boolean parallel) throws StartAndOrEndDateNullException, EndDateBeforeStartDateException;
+}
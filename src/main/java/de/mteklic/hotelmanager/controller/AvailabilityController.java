@@ -0,0 +1,33 @@
+package de.mteklic.hotelmanager.controller;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST controller interface for pushed availability changes.
+ * Interface makes multiple api-Version of controllers possible. Also, documentation in an interface looks way prettier.
+ */
+public interface AvailabilityController {
+
+    /**
+     * Endpoint to subscribe to availability changes as Server-Sent Events, instead of polling the rooms.
+     * Every change is an event named availability with the room id, the date range and whether it has been booked or freed.
+     * Heartbeat comments are sent while nothing changes. A client which falls behind is disconnected and should reload
+     * the rooms after reconnecting.
+     *
+     * @param roomIds   Only changes of these rooms are sent (optional, all rooms if omitted).
+     * @param startDate Only changes overlapping the days from this date are sent (optional).
+     * @param endDate   Only changes overlapping the days until this date are sent (optional).
+     * @return SseEmitter of the subscription (status code 503 if there are too many subscribers).
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter streamAvailability(@RequestParam(value = "roomIds", required = false) List<Long> roomIds,
+                                  @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                  @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate);
+}
@@ -1,15 +1,19 @@
 package de.mteklic.hotelmanager.controller;
 
 import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.GroupBookedOutException;
+import de.mteklic.hotelmanager.exception.IdempotencyKeyReusedException;
 import de.mteklic.hotelmanager.exception.RoomBookedOutException;
 import de.mteklic.hotelmanager.exception.StartAndOrEndDateBeforeNowException;
 import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
 import de.mteklic.hotelmanager.model.dto.BookingDto;
+import de.mteklic.hotelmanager.model.dto.GroupBookingDto;
 import org.apache.coyote.BadRequestException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller interface for managing bookings in a hotel management system.
@@ -20,15 +24,32 @@ public interface BookingController {
     /**
      * Endpoint to add a booking for a specific room.
      *
-     * @param roomId    ID of the room to book.
-     * @param bookingDto bookingDto which contains start & endDate
+     * If an Idempotency-Key header is sent, retries with the same key return the booking created by the first request.
+     *
+     * @param roomId         ID of the room to book.
+     * @param bookingDto     bookingDto which contains start & endDate
+     * @param idempotencyKey Optional key, unique per booking attempt of the client.
      * @return ResponseEntity containing the updated BookingDto after adding the booking.
      * @throws RoomBookedOutException              If the room is already booked for the specified dates.
      * @throws StartAndOrEndDateBeforeNowException If start or end date is before the current date.
      * @throws EndDateBeforeStartDateException     If the end date is before the start date.
+     * @throws IdempotencyKeyReusedException       If the idempotency key has been used for a different booking.
      */
     @PostMapping("/{roomId}")
-    ResponseEntity<BookingDto> createBooking(@PathVariable("roomId") Long roomId, @RequestBody BookingDto bookingDto) throws RoomBookedOutException, StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException, StartAndOrEndDateNullException;
+    CompletableFuture<ResponseEntity<BookingDto>> createBooking(@PathVariable("roomId") Long roomId, @RequestBody BookingDto bookingDto, @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) throws RoomBookedOutException, StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException, StartAndOrEndDateNullException, IdempotencyKeyReusedException;
+
+    /**
+     * Endpoint to book several rooms of the same kind for the same dates at once, e.g. {"rooms": 8, "roomSize": "DOUBLE", ...}.
+     * Either all rooms are booked or none.
+     *
+     * @param groupBookingDto Number of rooms, optional roomSize and hasMinibar, start and end date.
+     * @return ResponseEntity containing the group booking with the IDs of the booked rooms and bookings.
+     * @throws GroupBookedOutException             If fewer matching rooms than requested are available.
+     * @throws StartAndOrEndDateBeforeNowException If start or end date is before the current date.
+     * @throws EndDateBeforeStartDateException     If the end date is before the start date.
+     */
+    @PostMapping("/group")
+    CompletableFuture<ResponseEntity<GroupBookingDto>> createGroupBooking(@RequestBody GroupBookingDto groupBookingDto) throws GroupBookedOutException, StartAndOrEndDateNullException, StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException;
 
     /**
      * Endpoint to retrieve all bookings for a specific room.
@@ -37,7 +58,7 @@ public interface BookingController {
      * @return ResponseEntity containing a list of BookingDto for the specified room.
      */
     @GetMapping
-    ResponseEntity<List<BookingDto>> getBookingsByRoomId(@RequestParam("roomId") Long roomId);
+    CompletableFuture<ResponseEntity<List<BookingDto>>> getBookingsByRoomId(@RequestParam("roomId") Long roomId);
 
     /**
      * Endpoint to retrieve a specific booking by its ID.
@@ -46,7 +67,7 @@ public interface BookingController {
      * @return ResponseEntity containing the BookingDto for the specified ID.
      */
     @GetMapping("/{id}")
-    ResponseEntity<BookingDto> getBookingsById(@PathVariable("id") Long id);
+    CompletableFuture<ResponseEntity<BookingDto>> getBookingsById(@PathVariable("id") Long id);
 
     /**
      * Endpoint to update a booking for a specific room.
@@ -58,7 +79,7 @@ public interface BookingController {
      * @throws EndDateBeforeStartDateException     If the end date is before the start date.
      */
     @PutMapping
-    ResponseEntity<BookingDto> updateBooking(@RequestBody BookingDto bookingDto) throws StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException, RoomBookedOutException;
+    CompletableFuture<ResponseEntity<BookingDto>> updateBooking(@RequestBody BookingDto bookingDto) throws StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException, RoomBookedOutException;
 
     /**
      * Endpoint to delete a booking by its ID.
@@ -67,5 +88,5 @@ public interface BookingController {
      * @return ResponseEntity indicating success or failure of the deletion operation.
      */
     @DeleteMapping("/{id}")
-    ResponseEntity<Void> deleteById(@PathVariable("id") Long id);
+    CompletableFuture<ResponseEntity<Void>> deleteById(@PathVariable("id") Long id);
 }
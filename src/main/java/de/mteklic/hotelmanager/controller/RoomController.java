@@ -1,15 +1,22 @@
 package de.mteklic.hotelmanager.controller;
 
 import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.FlexibleSearchDto;
 import de.mteklic.hotelmanager.model.dto.RoomDto;
+import de.mteklic.hotelmanager.model.dto.RoomFacetsDto;
+import de.mteklic.hotelmanager.model.dto.RoomImportDto;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller interface for managing bookings in a hotel management system.
@@ -24,7 +31,7 @@ public interface RoomController {
      * @return ResponseEntity containing the added RoomDto with generated ID.
      */
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
-    ResponseEntity<RoomDto> createRoom(@RequestBody @Valid RoomDto roomDto);
+    CompletableFuture<ResponseEntity<RoomDto>> createRoom(@RequestBody @Valid RoomDto roomDto);
 
     /**
      * Endpoint to retrieve all hotel rooms.
@@ -32,7 +39,7 @@ public interface RoomController {
      * @return ResponseEntity containing a list of all RoomDto objects.
      */
     @GetMapping
-    ResponseEntity<List<RoomDto>> getAllRooms();
+    CompletableFuture<ResponseEntity<List<RoomDto>>> getAllRooms();
 
     /**
      * Endpoint to retrieve a specific hotel room by its ID.
@@ -41,7 +48,7 @@ public interface RoomController {
      * @return ResponseEntity containing the RoomDto for the specified ID.
      */
     @GetMapping("/{id}")
-    ResponseEntity<RoomDto> getRoom(@PathVariable("id") Long id) throws ResponseStatusException;
+    CompletableFuture<ResponseEntity<RoomDto>> getRoom(@PathVariable("id") Long id) throws ResponseStatusException;
 
     /**
      * Endpoint to filter hotel rooms based on various criteria.
@@ -55,7 +62,7 @@ public interface RoomController {
      * @return ResponseEntity containing a list of RoomDto objects that match the filter criteria.
      */
     @GetMapping("/filter")
-    ResponseEntity<List<RoomDto>> getFilteredRooms(@RequestParam(required = false) List<Long> ids,
+    CompletableFuture<ResponseEntity<List<RoomDto>>> getFilteredRooms(@RequestParam(required = false) List<Long> ids,
                                                    @RequestParam(required = false) String name,
                                                    @RequestParam(required = false) String description,
                                                    @RequestParam(required = false) LocalDate startDate,
@@ -63,6 +70,62 @@ public interface RoomController {
                                                    @RequestParam(required = false) Boolean hasMinibar,
                                                    @RequestParam(required = false) RoomSize roomSize);
 
+    /**
+     * Endpoint to count hotel rooms per room size and minibar, with the same criteria as the filter endpoint.
+     * Each facet is counted without its own criterion, e.g. roomSize=SUITE still returns the counts of all sizes.
+     *
+     * @param ids             List of IDs to filter by.
+     * @param name            Exact name to filter by.
+     * @param description     Exact description to filter by.
+     * @param startDate       Start date for available rooms.
+     * @param endDate         End date for available rooms.
+     * @param hasMinibar      Whether rooms should have a minibar or not.
+     * @param roomSize        Size of the rooms.
+     * @return ResponseEntity containing the number of matching rooms and the counts per facet value.
+     */
+    @GetMapping("/facets")
+    CompletableFuture<ResponseEntity<RoomFacetsDto>> getRoomFacets(@RequestParam(required = false) List<Long> ids,
+                                                @RequestParam(required = false) String name,
+                                                @RequestParam(required = false) String description,
+                                                @RequestParam(required = false) LocalDate startDate,
+                                                @RequestParam(required = false) LocalDate endDate,
+                                                @RequestParam(required = false) Boolean hasMinibar,
+                                                @RequestParam(required = false) RoomSize roomSize);
+
+    /**
+     * Endpoint to find hotel rooms with a number of consecutive free nights anywhere in a date range,
+     * e.g. nights=5&startDate=2025-06-01&endDate=2025-06-30 for any 5 nights in June.
+     *
+     * @param nights    Number of consecutive free nights.
+     * @param startDate First night of the range.
+     * @param endDate   Last night of the range.
+     * @return ResponseEntity containing a list of RoomDto objects which have the free nights.
+     */
+    @GetMapping("/free-nights")
+    CompletableFuture<ResponseEntity<List<RoomDto>>> getRoomsWithFreeNights(@RequestParam int nights,
+                                                                            @RequestParam LocalDate startDate,
+                                                                            @RequestParam LocalDate endDate);
+
+    /**
+     * Endpoint to find hotel rooms for a stay with flexible dates, e.g. flexibleDays=3 for up to 3 days earlier or later.
+     * The options are ranked by the distance of their dates to the requested ones, then by room ID.
+     *
+     * @param startDate    First night of the requested stay.
+     * @param endDate      Last night of the requested stay.
+     * @param flexibleDays Number of days the stay may be moved earlier or later.
+     * @param roomSize     Optional size of the room.
+     * @param hasMinibar   Optional minibar filter.
+     * @param limit        Maximum number of options.
+     * @return ResponseEntity containing the FlexibleSearchDto with the best options.
+     */
+    @GetMapping("/flexible")
+    CompletableFuture<ResponseEntity<FlexibleSearchDto>> getFlexibleOptions(@RequestParam LocalDate startDate,
+                                                                            @RequestParam LocalDate endDate,
+                                                                            @RequestParam(defaultValue = "3") int flexibleDays,
+                                                                            @RequestParam(required = false) RoomSize roomSize,
+                                                                            @RequestParam(required = false) Boolean hasMinibar,
+                                                                            @RequestParam(defaultValue = "20") int limit);
+
     /**
      * Endpoint to edit a hotel room with full updates.
      *
@@ -70,7 +133,7 @@ public interface RoomController {
      * @return ResponseEntity containing the updated RoomDto.
      */
     @PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
-    ResponseEntity<RoomDto> updateRoom(@RequestBody @Valid RoomDto roomDto) throws ResponseStatusException;
+    CompletableFuture<ResponseEntity<RoomDto>> updateRoom(@RequestBody @Valid RoomDto roomDto) throws ResponseStatusException;
 
     /**
      * Endpoint to delete a hotel room by its ID.
@@ -79,5 +142,16 @@ public interface RoomController {
      * @return ResponseEntity indicating success (status code 204) or failure (status code 404 if room not found).
      */
     @DeleteMapping("/{id}")
-    ResponseEntity<Void> deleteById(@PathVariable("id") Long id) throws ResponseStatusException;
+    CompletableFuture<ResponseEntity<Void>> deleteById(@PathVariable("id") Long id) throws ResponseStatusException;
+
+    /**
+     * Endpoint to import many hotel rooms at once, e.g. curl --data-binary @rooms.csv -H "Content-Type: text/csv".
+     * Rows are validated like single rooms, invalid rows are skipped and listed in the report.
+     *
+     * @param contentType text/csv (with header line) or application/x-ndjson (one RoomDto per line).
+     * @param body        Rows to import.
+     * @return ResponseEntity containing the number of imported and rejected rows and the errors of rejected rows.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    ResponseEntity<RoomImportDto> importRooms(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException;
 }
@@ -0,0 +1,26 @@
+package de.mteklic.hotelmanager.controller;
+
+import de.mteklic.hotelmanager.model.dto.SyncDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * REST controller interface for the delta sync of offline clients.
+ * Interface makes multiple api-Version of controllers possible. Also, documentation in an interface looks way prettier.
+ */
+public interface SyncController {
+
+    /**
+     * Endpoint to retrieve the rooms and bookings which have been created, updated or deleted since a sync token.
+     * Without token all rooms and bookings are returned. The returned token is passed to the next call; while more is
+     * true, further changes can be fetched right away.
+     *
+     * @param token Token of the previous sync (optional).
+     * @param limit Maximum number of changes (optional).
+     * @return ResponseEntity containing the changes and the next token (status code 410 if the token has expired).
+     */
+    @GetMapping
+    ResponseEntity<SyncDto> getChanges(@RequestParam(value = "token", required = false) String token,
+                                       @RequestParam(value = "limit", required = false) Integer limit);
+}
@@ -0,0 +1,45 @@
+package de.mteklic.hotelmanager.controller;
+
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateBeforeNowException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
+import de.mteklic.hotelmanager.model.dto.WaitlistEntryDto;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller interface for the waitlist of booking requests.
+ * Interface makes multiple api-Version of controllers possible. Also, documentation in an interface looks way prettier.
+ */
+public interface WaitlistController {
+
+    /**
+     * Endpoint to put a request for a room size and date range on the waitlist.
+     * As soon as a matching room becomes free, it is offered or, with autoBook, booked. The status shows the outcome.
+     *
+     * @param waitlistEntryDto Room size, start and end date and whether to book automatically.
+     * @return ResponseEntity containing the waiting entry with its ID.
+     * @throws StartAndOrEndDateBeforeNowException If start or end date is before the current date.
+     * @throws EndDateBeforeStartDateException     If the end date is before the start date.
+     */
+    @PostMapping
+    ResponseEntity<WaitlistEntryDto> createEntry(@RequestBody WaitlistEntryDto waitlistEntryDto) throws StartAndOrEndDateNullException, StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException;
+
+    /**
+     * Endpoint to retrieve a waitlist entry with its status, offered or booked room and booking.
+     *
+     * @param id ID of the entry.
+     * @return ResponseEntity containing the WaitlistEntryDto for the specified ID.
+     */
+    @GetMapping("/{id}")
+    ResponseEntity<WaitlistEntryDto> getEntry(@PathVariable("id") Long id);
+
+    /**
+     * Endpoint to remove an entry from the waitlist.
+     *
+     * @param id ID of the entry.
+     * @return ResponseEntity indicating success (status code 204) or failure (status code 404 if the entry is not found).
+     */
+    @DeleteMapping("/{id}")
+    ResponseEntity<Void> deleteById(@PathVariable("id") Long id);
+}
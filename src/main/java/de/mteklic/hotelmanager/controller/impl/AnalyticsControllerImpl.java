@@ -0,0 +1,34 @@
+package de.mteklic.hotelmanager.controller.impl;
+
+import de.mteklic.hotelmanager.controller.AnalyticsController;
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
+import de.mteklic.hotelmanager.model.dto.OccupancyDto;
+import de.mteklic.hotelmanager.service.impl.AnalyticsServiceImpl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * REST controller implementation for analytics over rooms and bookings.
+ */
+@RestController
+@RequestMapping("/api/v1/analytics")
+public class AnalyticsControllerImpl implements AnalyticsController {
+
+    private final AnalyticsServiceImpl analyticsServiceImpl;
+
+    public AnalyticsControllerImpl(AnalyticsServiceImpl analyticsServiceImpl){
+        this.analyticsServiceImpl = analyticsServiceImpl;
+    }
+
+    @Override
+    public ResponseEntity<OccupancyDto> getOccupancy(@RequestParam(required = false) LocalDate startDate,
+                                                     @RequestParam(required = false) LocalDate endDate,
+                                                     @RequestParam(defaultValue = "false") boolean parallel) throws StartAndOrEndDateNullException, EndDateBeforeStartDateException {
+        return ResponseEntity.ok(this.analyticsServiceImpl.getOccupancy(startDate, endDate, parallel));
+    }
+}
@@ -0,0 +1,33 @@
+package de.mteklic.hotelmanager.controller.impl;
+
+import de.mteklic.hotelmanager.controller.AvailabilityController;
+import de.mteklic.hotelmanager.service.impl.AvailabilityStreamServiceImpl;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST controller for pushed availability changes.
+ */
+@RestController
+@RequestMapping("/api/v1/availability")
+public class AvailabilityControllerImpl implements AvailabilityController {
+
+    private final AvailabilityStreamServiceImpl availabilityStreamServiceImpl;
+
+    public AvailabilityControllerImpl(AvailabilityStreamServiceImpl availabilityStreamServiceImpl){
+        this.availabilityStreamServiceImpl = availabilityStreamServiceImpl;
+    }
+
+    @Override
+    public SseEmitter streamAvailability(@RequestParam(value = "roomIds", required = false) List<Long> roomIds,
+                                         @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                         @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return this.availabilityStreamServiceImpl.subscribe(roomIds, startDate, endDate);
+    }
+}
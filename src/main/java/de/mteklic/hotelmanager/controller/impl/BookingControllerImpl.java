@@ -1,18 +1,23 @@
 package de.mteklic.hotelmanager.controller.impl;
 
+import de.mteklic.hotelmanager.bulkhead.Bulkhead;
 import de.mteklic.hotelmanager.controller.BookingController;
-import de.mteklic.hotelmanager.exception.*;
 import de.mteklic.hotelmanager.model.dto.BookingDto;
+import de.mteklic.hotelmanager.model.dto.GroupBookingDto;
 import de.mteklic.hotelmanager.service.impl.BookingServiceImpl;
+import de.mteklic.hotelmanager.service.impl.GroupBookingServiceImpl;
+import de.mteklic.hotelmanager.service.impl.IdempotencyServiceImpl;
 import org.apache.coyote.BadRequestException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller implementation for managing bookings in a hotel management system.
+ * Queries run on the read bulkhead, changes on the write bulkhead.
  */
 @RestController
 @RequestMapping("/api/v1/bookings")
@@ -20,34 +25,57 @@ public class BookingControllerImpl implements BookingController {
 
     private final BookingServiceImpl bookingServiceImpl;
 
-    public BookingControllerImpl(BookingServiceImpl bookingServiceImpl){
+    private final IdempotencyServiceImpl idempotencyServiceImpl;
+
+    private final GroupBookingServiceImpl groupBookingServiceImpl;
+
+    private final Bulkhead bulkhead;
+
+    public BookingControllerImpl(BookingServiceImpl bookingServiceImpl, IdempotencyServiceImpl idempotencyServiceImpl, GroupBookingServiceImpl groupBookingServiceImpl, Bulkhead bulkhead){
         this.bookingServiceImpl = bookingServiceImpl;
+        this.idempotencyServiceImpl = idempotencyServiceImpl;
+        this.groupBookingServiceImpl = groupBookingServiceImpl;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<BookingDto>> createBooking(@PathVariable("roomId") Long roomId, @RequestBody BookingDto bookingDto, @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return this.bulkhead.write(() -> {
+            if (idempotencyKey != null) {
+                return new ResponseEntity<>(this.idempotencyServiceImpl.createBooking(idempotencyKey, roomId, bookingDto), HttpStatus.CREATED);
+            }
+            return new ResponseEntity<>(this.bookingServiceImpl.createBooking(roomId, bookingDto), HttpStatus.CREATED);
+        });
     }
 
     @Override
-    public ResponseEntity<BookingDto> createBooking(@PathVariable("roomId") Long roomId, @RequestBody BookingDto bookingDto) throws RoomBookedOutException, StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException, StartAndOrEndDateNullException {
-        return new ResponseEntity<>(this.bookingServiceImpl.createBooking(roomId, bookingDto), HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<GroupBookingDto>> createGroupBooking(@RequestBody GroupBookingDto groupBookingDto) {
+        return this.bulkhead.write(() -> new ResponseEntity<>(this.groupBookingServiceImpl.createGroupBooking(groupBookingDto), HttpStatus.CREATED));
     }
 
     @Override
-    public ResponseEntity<List<BookingDto>> getBookingsByRoomId(@RequestParam("roomId") Long roomId) {
-        return ResponseEntity.ok(this.bookingServiceImpl.getBookingsByRoomId(roomId));
+    public CompletableFuture<ResponseEntity<List<BookingDto>>> getBookingsByRoomId(@RequestParam("roomId") Long roomId) {
+        return this.bulkhead.read(() -> ResponseEntity.ok(this.bookingServiceImpl.getBookingsByRoomId(roomId)));
     }
 
     @Override
-    public ResponseEntity<BookingDto> getBookingsById(@PathVariable("id") Long id) {
-        return ResponseEntity.ok(this.bookingServiceImpl.getBookingById(id));
+    public CompletableFuture<ResponseEntity<BookingDto>> getBookingsById(@PathVariable("id") Long id) {
+        return this.bulkhead.read(() -> ResponseEntity.ok(this.bookingServiceImpl.getBookingById(id)));
     }
 
     @Override
-    public ResponseEntity<BookingDto> updateBooking(@RequestBody BookingDto bookingDto) throws StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException, RoomBookedOutException {
-        this.bookingServiceImpl.updateBooking(bookingDto);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<BookingDto>> updateBooking(@RequestBody BookingDto bookingDto) {
+        return this.bulkhead.write(() -> {
+            this.bookingServiceImpl.updateBooking(bookingDto);
+            return ResponseEntity.noContent().build();
+        });
     }
 
     @Override
-    public ResponseEntity<Void> deleteById(@PathVariable("id") Long id) {
-        this.bookingServiceImpl.deleteBooking(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteById(@PathVariable("id") Long id) {
+        return this.bulkhead.write(() -> {
+            this.bookingServiceImpl.deleteBooking(id);
+            return ResponseEntity.<Void>noContent().build();
+        });
     }
 }
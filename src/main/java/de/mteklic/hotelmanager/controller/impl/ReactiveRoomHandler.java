@@ -0,0 +1,120 @@
+package de.mteklic.hotelmanager.controller.impl;
+
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.ApiError;
+import de.mteklic.hotelmanager.model.dto.RoomDto;
+import de.mteklic.hotelmanager.service.ReactiveRoomService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Functional handler serving the read endpoints of {@link de.mteklic.hotelmanager.controller.RoomController}
+ * on the reactive server. Same paths, parameters and DTOs as the servlet controller.
+ * Lists are returned as JSON array or, if requested via Accept header, as newline delimited JSON stream.
+ */
+public class ReactiveRoomHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRoomHandler.class);
+
+    private final ReactiveRoomService reactiveRoomService;
+
+    public ReactiveRoomHandler(ReactiveRoomService reactiveRoomService){
+        this.reactiveRoomService = reactiveRoomService;
+    }
+
+    /**
+     * Endpoint to get all rooms.
+     *
+     * @param request Incoming request.
+     * @return ServerResponse streaming all RoomDto.
+     */
+    public Mono<ServerResponse> getAllRooms(ServerRequest request) {
+        return ok(request, this.reactiveRoomService.getAllRooms());
+    }
+
+    /**
+     * Endpoint to get a room by its id.
+     *
+     * @param request Incoming request, containing the path variable id.
+     * @return ServerResponse containing the RoomDto, or an ApiError if the room does not exist.
+     */
+    public Mono<ServerResponse> getRoom(ServerRequest request) {
+        return Mono.fromCallable(() -> Long.valueOf(request.pathVariable("id")))
+                .onErrorMap(NumberFormatException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid id: " + request.pathVariable("id")))
+                .flatMap(this.reactiveRoomService::getRoom)
+                .flatMap(room -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(room))
+                .onErrorResume(ResponseStatusException.class, e -> error(request, e));
+    }
+
+    /**
+     * Endpoint to get filtered rooms. Accepts the same query parameters as the servlet endpoint.
+     *
+     * @param request Incoming request, containing the optional filter parameters.
+     * @return ServerResponse streaming the filtered RoomDto, or an ApiError if a parameter is invalid.
+     */
+    public Mono<ServerResponse> getFilteredRooms(ServerRequest request) {
+        Flux<RoomDto> rooms;
+        try {
+            rooms = this.reactiveRoomService.getFilteredRooms(
+                    ids(request),
+                    request.queryParam("name").orElse(null),
+                    request.queryParam("description").orElse(null),
+                    request.queryParam("startDate").map(LocalDate::parse).orElse(null),
+                    request.queryParam("endDate").map(LocalDate::parse).orElse(null),
+                    request.queryParam("hasMinibar").map(Boolean::valueOf).orElse(null),
+                    request.queryParam("roomSize").map(RoomSize::valueOf).orElse(null));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return error(request, new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+        }
+        return ok(request, rooms);
+    }
+
+    /**
+     * Reads the ids parameter, which may be repeated (ids=1&ids=2) or comma separated (ids=1,2) like in Spring MVC.
+     */
+    private List<Long> ids(ServerRequest request) {
+        List<String> values = request.queryParams().get("ids");
+        if (values == null) {
+            return null;
+        }
+        return values.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .filter(value -> !value.isBlank())
+                .map(value -> Long.valueOf(value.trim()))
+                .toList();
+    }
+
+    private Mono<ServerResponse> ok(ServerRequest request, Flux<RoomDto> rooms) {
+        boolean stream = request.headers().accept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        return ServerResponse.ok()
+                .contentType(stream ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(rooms, RoomDto.class);
+    }
+
+    private Mono<ServerResponse> error(ServerRequest request, ResponseStatusException e) {
+        HttpStatusCode status = e.getStatusCode();
+        log.debug("Reactive request {} failed: {}", request.path(), e.getReason());
+
+        ApiError apiError = ApiError.builder()
+                .path(request.path())
+                .message(e.getMessage())
+                .statusCode(status.value())
+                .localDateTime(LocalDateTime.now())
+                .build();
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(apiError);
+    }
+}
@@ -1,22 +1,35 @@
 package de.mteklic.hotelmanager.controller.impl;
 
+import de.mteklic.hotelmanager.bulkhead.Bulkhead;
 import de.mteklic.hotelmanager.controller.RoomController;
 import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.FlexibleSearchDto;
 import de.mteklic.hotelmanager.model.dto.RoomDto;
+import de.mteklic.hotelmanager.model.dto.RoomFacetsDto;
+import de.mteklic.hotelmanager.model.dto.RoomImportDto;
+import de.mteklic.hotelmanager.service.impl.FlexibleSearchServiceImpl;
+import de.mteklic.hotelmanager.service.impl.RoomFacetServiceImpl;
+import de.mteklic.hotelmanager.service.impl.RoomImportServiceImpl;
 import de.mteklic.hotelmanager.service.impl.RoomServiceImpl;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST controller for managing hotel rooms.
+ * Queries run on the read bulkhead, changes on the write bulkhead. The import streams the request body and stays on the request thread.
  */
 @RestController
 @RequestMapping("/api/v1/rooms")
@@ -24,45 +37,95 @@ public class RoomControllerImpl implements RoomController {
 
     private final RoomServiceImpl roomServiceImpl;
 
-    public RoomControllerImpl(RoomServiceImpl roomServiceImpl){
+    private final RoomImportServiceImpl roomImportServiceImpl;
+
+    private final RoomFacetServiceImpl roomFacetServiceImpl;
+
+    private final FlexibleSearchServiceImpl flexibleSearchServiceImpl;
+
+    private final Bulkhead bulkhead;
+
+    public RoomControllerImpl(RoomServiceImpl roomServiceImpl, RoomImportServiceImpl roomImportServiceImpl, RoomFacetServiceImpl roomFacetServiceImpl,
+                              FlexibleSearchServiceImpl flexibleSearchServiceImpl, Bulkhead bulkhead){
         this.roomServiceImpl = roomServiceImpl;
+        this.roomImportServiceImpl = roomImportServiceImpl;
+        this.roomFacetServiceImpl = roomFacetServiceImpl;
+        this.flexibleSearchServiceImpl = flexibleSearchServiceImpl;
+        this.bulkhead = bulkhead;
     }
 
     @Override
-    public ResponseEntity<RoomDto> createRoom(@RequestBody @Valid RoomDto roomDto) {
-        return new ResponseEntity<>(this.roomServiceImpl.createRoom(roomDto), HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<RoomDto>> createRoom(@RequestBody @Valid RoomDto roomDto) {
+        return this.bulkhead.write(() -> new ResponseEntity<>(this.roomServiceImpl.createRoom(roomDto), HttpStatus.CREATED));
     }
 
     @Override
-    public ResponseEntity<List<RoomDto>> getAllRooms() {
-        return ResponseEntity.ok(this.roomServiceImpl.getAllRooms());
+    public CompletableFuture<ResponseEntity<List<RoomDto>>> getAllRooms() {
+        return this.bulkhead.read(() -> ResponseEntity.ok(this.roomServiceImpl.getAllRooms()));
     }
 
     @Override
-    public ResponseEntity<RoomDto> getRoom(@PathVariable("id") Long id) throws ResponseStatusException {
-        return ResponseEntity.ok(this.roomServiceImpl.getRoom(id));
+    public CompletableFuture<ResponseEntity<RoomDto>> getRoom(@PathVariable("id") Long id) throws ResponseStatusException {
+        return this.bulkhead.read(() -> ResponseEntity.ok(this.roomServiceImpl.getRoom(id)));
     }
 
     @Override
-    public ResponseEntity<List<RoomDto>> getFilteredRooms(@RequestParam(required = false) List<Long> ids,
+    public CompletableFuture<ResponseEntity<List<RoomDto>>> getFilteredRooms(@RequestParam(required = false) List<Long> ids,
                                                           @RequestParam(required = false) String name,
                                                           @RequestParam(required = false) String description,
                                                           @RequestParam(required = false) LocalDate startDate,
                                                           @RequestParam(required = false) LocalDate endDate,
                                                           @RequestParam(required = false) Boolean hasMinibar,
                                                           @RequestParam(required = false) RoomSize roomSize) {
-        return ResponseEntity.ok(this.roomServiceImpl.getFilteredRooms(ids, name, description, startDate, endDate, hasMinibar, roomSize));
+        return this.bulkhead.read(() -> ResponseEntity.ok(this.roomServiceImpl.getFilteredRooms(ids, name, description, startDate, endDate, hasMinibar, roomSize)));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<RoomFacetsDto>> getRoomFacets(@RequestParam(required = false) List<Long> ids,
+                                                       @RequestParam(required = false) String name,
+                                                       @RequestParam(required = false) String description,
+                                                       @RequestParam(required = false) LocalDate startDate,
+                                                       @RequestParam(required = false) LocalDate endDate,
+                                                       @RequestParam(required = false) Boolean hasMinibar,
+                                                       @RequestParam(required = false) RoomSize roomSize) {
+        return this.bulkhead.read(() -> ResponseEntity.ok(this.roomFacetServiceImpl.getFacets(ids, name, description, startDate, endDate, hasMinibar, roomSize)));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<List<RoomDto>>> getRoomsWithFreeNights(@RequestParam int nights,
+                                                                                   @RequestParam LocalDate startDate,
+                                                                                   @RequestParam LocalDate endDate) {
+        return this.bulkhead.read(() -> ResponseEntity.ok(this.roomServiceImpl.getRoomsWithFreeNights(nights, startDate, endDate)));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<FlexibleSearchDto>> getFlexibleOptions(@RequestParam LocalDate startDate,
+                                                                                   @RequestParam LocalDate endDate,
+                                                                                   @RequestParam(defaultValue = "3") int flexibleDays,
+                                                                                   @RequestParam(required = false) RoomSize roomSize,
+                                                                                   @RequestParam(required = false) Boolean hasMinibar,
+                                                                                   @RequestParam(defaultValue = "20") int limit) {
+        return this.bulkhead.read(() -> ResponseEntity.ok(this.flexibleSearchServiceImpl.search(startDate, endDate, flexibleDays, roomSize, hasMinibar, limit)));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<RoomDto>> updateRoom(@RequestBody @Valid RoomDto roomDto) throws ResponseStatusException {
+        return this.bulkhead.write(() -> {
+            this.roomServiceImpl.updateRoom(roomDto);
+            return ResponseEntity.noContent().build();
+        });
     }
 
     @Override
-    public ResponseEntity<RoomDto> updateRoom(@RequestBody @Valid RoomDto roomDto) throws ResponseStatusException {
-        this.roomServiceImpl.updateRoom(roomDto);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteById(@PathVariable("id") Long id) throws ResponseStatusException {
+        return this.bulkhead.write(() -> {
+            this.roomServiceImpl.deleteRoom(id);
+            return ResponseEntity.<Void>noContent().build();
+        });
     }
 
     @Override
-    public ResponseEntity<Void> deleteById(@PathVariable("id") Long id) throws ResponseStatusException {
-        this.roomServiceImpl.deleteRoom(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<RoomImportDto> importRooms(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        return ResponseEntity.ok(this.roomImportServiceImpl.importRooms(body, MediaType.parseMediaType(contentType)));
     }
 }
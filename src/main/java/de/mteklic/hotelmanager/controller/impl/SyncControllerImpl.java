@@ -0,0 +1,29 @@
+package de.mteklic.hotelmanager.controller.impl;
+
+import de.mteklic.hotelmanager.controller.SyncController;
+import de.mteklic.hotelmanager.model.dto.SyncDto;
+import de.mteklic.hotelmanager.service.impl.SyncServiceImpl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the delta sync of offline clients.
+ */
+@RestController
+@RequestMapping("/api/v1/sync")
+public class SyncControllerImpl implements SyncController {
+
+    private final SyncServiceImpl syncServiceImpl;
+
+    public SyncControllerImpl(SyncServiceImpl syncServiceImpl){
+        this.syncServiceImpl = syncServiceImpl;
+    }
+
+    @Override
+    public ResponseEntity<SyncDto> getChanges(@RequestParam(value = "token", required = false) String token,
+                                              @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(this.syncServiceImpl.getChanges(token, limit));
+    }
+}
@@ -0,0 +1,41 @@
+package de.mteklic.hotelmanager.controller.impl;
+
+import de.mteklic.hotelmanager.controller.WaitlistController;
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateBeforeNowException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
+import de.mteklic.hotelmanager.model.dto.WaitlistEntryDto;
+import de.mteklic.hotelmanager.service.impl.WaitlistServiceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the waitlist of booking requests.
+ */
+@RestController
+@RequestMapping("/api/v1/waitlist")
+public class WaitlistControllerImpl implements WaitlistController {
+
+    private final WaitlistServiceImpl waitlistServiceImpl;
+
+    public WaitlistControllerImpl(WaitlistServiceImpl waitlistServiceImpl){
+        this.waitlistServiceImpl = waitlistServiceImpl;
+    }
+
+    @Override
+    public ResponseEntity<WaitlistEntryDto> createEntry(@RequestBody WaitlistEntryDto waitlistEntryDto) throws StartAndOrEndDateNullException, StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException {
+        return new ResponseEntity<>(this.waitlistServiceImpl.createEntry(waitlistEntryDto), HttpStatus.CREATED);
+    }
+
+    @Override
+    public ResponseEntity<WaitlistEntryDto> getEntry(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(this.waitlistServiceImpl.getEntry(id));
+    }
+
+    @Override
+    public ResponseEntity<Void> deleteById(@PathVariable("id") Long id) {
+        this.waitlistServiceImpl.deleteEntry(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,18 +4,21 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import de.mteklic.hotelmanager.model.dto.ApiError;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -244,4 +247,63 @@ public class DefaultExceptionHandler {
 
         return new ResponseEntity<>(apiError, HttpStatus.BAD_REQUEST);
     }
-}
\ No newline at end of file
+
+    /**
+     * Handles IdempotencyKeyReusedException and returns a ResponseEntity with a custom status error response body.
+     *
+     * @param ex The IdempotencyKeyReusedException that occurred.
+     * @return ResponseEntity containing a custom status error response.
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    protected ResponseEntity<ApiError> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex, HttpServletRequest request) {
+        log.error("Exception handler for IdempotencyKeyReusedException");
+        log.error(ex.getMessage());
+
+        ApiError apiError = ApiError
+                .builder()
+                .path(request.getRequestURI())
+                .message(ex.getMessage())
+                .statusCode(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .localDateTime(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(apiError, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Handles GroupBookedOutException and returns a ResponseEntity with a custom status error response body.
+     *
+     * @param ex The GroupBookedOutException that occurred.
+     * @return ResponseEntity containing a custom status error response.
+     */
+    @ExceptionHandler(GroupBookedOutException.class)
+    protected ResponseEntity<ApiError> handleGroupBookedOutException(GroupBookedOutException ex, HttpServletRequest request) {
+        log.error("Exception handler for GroupBookedOutException");
+        log.error(ex.getMessage());
+
+        ApiError apiError = ApiError
+                .builder()
+                .path(request.getRequestURI())
+                .message(ex.getMessage())
+                .statusCode(HttpStatus.CONFLICT.value())
+                .localDateTime(LocalDateTime.now())
+                .build();
+
+        return new ResponseEntity<>(apiError, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles IOExceptions of event streams, which occur whenever a subscriber disconnects. The response is already
+     * committed, so nothing is written. Other IOExceptions are rethrown and handled by the default error handling.
+     *
+     * @param ex The IOException that occurred.
+     * @throws IOException If the response is not an event stream.
+     */
+    @ExceptionHandler(IOException.class)
+    protected void handleIOException(IOException ex, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (response.getContentType() == null || !response.getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+            throw ex;
+        }
+        log.debug("Event stream {} closed: {}", request.getRequestURI(), ex.getMessage());
+    }
+}
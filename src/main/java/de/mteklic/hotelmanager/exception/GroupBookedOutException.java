@@ -0,0 +1,21 @@
+package de.mteklic.hotelmanager.exception;
+
+import java.time.LocalDate;
+
+/**
+ * Exception thrown when not enough matching rooms are available for a group booking.
+ */
+public class GroupBookedOutException extends Exception {
+
+    /**
+     * Constructs a GroupBookedOutException with the requested and the available number of rooms.
+     *
+     * @param requested the number of requested rooms
+     * @param available the number of available rooms
+     * @param startDate the start date of the group booking
+     * @param endDate   the end date of the group booking
+     */
+    public GroupBookedOutException(int requested, int available, LocalDate startDate, LocalDate endDate) {
+        super(String.format("Only %d of %d requested rooms are available from start date %s to end date %s.", available, requested, startDate, endDate));
+    }
+}
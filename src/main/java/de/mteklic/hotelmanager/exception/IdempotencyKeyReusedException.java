@@ -0,0 +1,16 @@
+package de.mteklic.hotelmanager.exception;
+
+/**
+ * Exception thrown when an idempotency key is sent again, but with a different request.
+ */
+public class IdempotencyKeyReusedException extends Exception {
+
+    /**
+     * Constructs an IdempotencyKeyReusedException with the specified key.
+     *
+     * @param key the reused idempotency key
+     */
+    public IdempotencyKeyReusedException(String key) {
+        super(String.format("Idempotency key %s has already been used for a different request.", key));
+    }
+}
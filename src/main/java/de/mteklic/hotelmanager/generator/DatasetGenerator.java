@@ -0,0 +1,234 @@
+package de.mteklic.hotelmanager.generator;
+
+import de.mteklic.hotelmanager.model.Booking;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomSize;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a reproducible hotel dataset: rooms of all sizes and a booking history for each of them.
+ * ---
+ * Every room has its own random generator derived from the seed and the index of the room, so a room always gets
+ * the same bookings, independent of the number of rooms and the order in which they are generated.
+ * The booking history follows simple but realistic distributions:
+ * - seasonal density: occupancy peaks in summer and around christmas and is higher on friday and saturday nights
+ * - length of stay: mostly one to four nights, with a second peak at one week and a long tail up to four weeks
+ * - lead time: exponentially distributed, bookings are created on average three weeks before the stay
+ * Bookings of a room never overlap.
+ */
+public class DatasetGenerator {
+
+    private static final String[] CITIES = {"Berlin", "Hamburg", "Munich", "Cologne", "Dresden", "Leipzig", "Bremen", "Hannover", "Stuttgart", "Freiburg"};
+
+    private static final RoomSize[] ROOM_SIZES = RoomSize.values();
+
+    /**
+     * Share of the room sizes in the order of {@link RoomSize#values()}: many doubles, few suites.
+     */
+    private static final double[] ROOM_SIZE_WEIGHTS = {0.35, 0.5, 0.15};
+
+    /**
+     * Probability of 1 to 28 nights. Index 0 is one night.
+     */
+    private static final double[] LENGTH_OF_STAY_WEIGHTS = {
+            0.20, 0.24, 0.16, 0.10, 0.06, 0.04, 0.09,
+            0.015, 0.015, 0.01, 0.01, 0.01, 0.01, 0.025,
+            0.004, 0.004, 0.004, 0.004, 0.004, 0.004, 0.008,
+            0.002, 0.002, 0.002, 0.002, 0.002, 0.002, 0.004};
+
+    private static final double MEAN_LEAD_TIME_DAYS = 21;
+
+    private static final double MAX_OCCUPANCY = 0.95;
+
+    private final DatasetProperties properties;
+
+    private final double[] lengthOfStayCdf;
+
+    private final double meanLengthOfStay;
+
+    /**
+     * Occupancy of every day of the history, relative to the average occupancy (mean 1).
+     */
+    private final double[] seasonality;
+
+    /**
+     * Sum of the seasonality from every day to the end of the history.
+     */
+    private final double[] remainingSeasonality;
+
+    public DatasetGenerator(DatasetProperties properties){
+        this.properties = properties;
+        this.lengthOfStayCdf = cdf(LENGTH_OF_STAY_WEIGHTS);
+
+        double meanLengthOfStay = 0;
+        for (int i = 0; i < LENGTH_OF_STAY_WEIGHTS.length; i++) {
+            meanLengthOfStay += (i + 1) * LENGTH_OF_STAY_WEIGHTS[i];
+        }
+        this.meanLengthOfStay = meanLengthOfStay / this.lengthOfStayCdf[this.lengthOfStayCdf.length - 1];
+
+        this.seasonality = new double[properties.days()];
+        double sum = 0;
+        for (int day = 0; day < properties.days(); day++) {
+            LocalDate date = properties.startDate().plusDays(day);
+            double season = 1 + 0.3 * Math.cos(2 * Math.PI * (date.getDayOfYear() - 200) / 365.25);
+            if (date.getMonthValue() == 12 && date.getDayOfMonth() >= 20 || date.getMonthValue() == 1 && date.getDayOfMonth() <= 2) {
+                season += 0.3;
+            }
+            if (date.getDayOfWeek() == DayOfWeek.FRIDAY || date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+                season += 0.15;
+            }
+            this.seasonality[day] = season;
+            sum += season;
+        }
+        double mean = sum / properties.days();
+        this.remainingSeasonality = new double[properties.days()];
+        for (int day = properties.days() - 1; day >= 0; day--) {
+            this.seasonality[day] /= mean;
+            this.remainingSeasonality[day] = this.seasonality[day] + (day + 1 < properties.days() ? this.remainingSeasonality[day + 1] : 0);
+        }
+    }
+
+    /**
+     * @return All rooms, created lazily. The ids are not set.
+     */
+    public Iterator<Room> rooms() {
+        return new Iterator<>() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < properties.rooms();
+            }
+
+            @Override
+            public Room next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return room(this.index++);
+            }
+        };
+    }
+
+    /**
+     * Generates the room with the given index.
+     *
+     * @param index Index of the room, from 0 to rooms - 1.
+     * @return The room, without id.
+     */
+    public Room room(int index) {
+        SplittableRandom random = random(index, 0);
+        RoomSize roomSize = ROOM_SIZES[sample(cdf(ROOM_SIZE_WEIGHTS), random)];
+        String city = CITIES[index % CITIES.length];
+        return Room.builder()
+                .name(city + letters(index / CITIES.length))
+                .description(roomSize.name().charAt(0) + roomSize.name().substring(1).toLowerCase() + " room in " + city + ", floor " + (1 + random.nextInt(12)) + ".")
+                .roomSize(roomSize)
+                .hasMinibar(roomSize == RoomSize.SUITE || random.nextDouble() < 0.4)
+                .build();
+    }
+
+    /**
+     * Generates the booking history of a room.
+     *
+     * @param index Index of the room, from 0 to rooms - 1.
+     * @param room  The room with its id, referenced by the bookings.
+     * @return The bookings ordered by start date, without ids.
+     */
+    public List<Booking> bookings(int index, Room room) {
+        long count = bookingsOfRoom(index);
+        List<Booking> bookings = new ArrayList<>((int) Math.min(count, 4096));
+        if (count == 0) {
+            return bookings;
+        }
+
+        SplittableRandom random = random(index, 1);
+
+        int day = 0;
+        while (bookings.size() < count && day < this.properties.days()) {
+            long remaining = count - bookings.size();
+            // Days which can be spent on this stay and its gap, if every remaining booking gets at least one night
+            long slack = this.properties.days() - day - remaining;
+
+            // Occupancy needed to place the remaining bookings into the remaining days, which corrects random deviations
+            double occupancy = remaining * this.meanLengthOfStay / this.remainingSeasonality[day];
+            double dayOccupancy = Math.min(MAX_OCCUPANCY, occupancy * this.seasonality[day]);
+
+            int nights = (int) Math.min(1 + sample(this.lengthOfStayCdf, random), 1 + Math.max(0, slack));
+            // Free days before the stay, so that the stay and its gap have the occupancy of the season on average
+            long gap = Math.round(exponential(random, nights * (1 - dayOccupancy) / dayOccupancy));
+            day += (int) Math.min(gap, Math.max(0, slack - (nights - 1)));
+
+            LocalDate startDate = this.properties.startDate().plusDays(day);
+            LocalDateTime createdAt = startDate.atStartOfDay()
+                    .minusDays((long) exponential(random, MEAN_LEAD_TIME_DAYS))
+                    .minusMinutes(1 + random.nextInt(24 * 60));
+            bookings.add(Booking.builder()
+                    .room(room)
+                    .startDate(startDate)
+                    .endDate(startDate.plusDays(nights - 1L))
+                    .createdAt(createdAt)
+                    .updatedAt(createdAt)
+                    .build());
+            day += nights;
+        }
+        return bookings;
+    }
+
+    /**
+     * @return Number of bookings the room gets if it has enough space, the remainder goes to the first rooms.
+     */
+    private long bookingsOfRoom(int index) {
+        long perRoom = this.properties.bookings() / this.properties.rooms();
+        return perRoom + (index < this.properties.bookings() % this.properties.rooms() ? 1 : 0);
+    }
+
+    private SplittableRandom random(int index, int stream) {
+        return new SplittableRandom(this.properties.seed() * 0x9E3779B97F4A7C15L + index * 31L + stream);
+    }
+
+    private static double exponential(SplittableRandom random, double mean) {
+        return -mean * Math.log(1 - random.nextDouble());
+    }
+
+    private static int sample(double[] cdf, SplittableRandom random) {
+        double value = random.nextDouble() * cdf[cdf.length - 1];
+        for (int i = 0; i < cdf.length; i++) {
+            if (value < cdf[i]) {
+                return i;
+            }
+        }
+        return cdf.length - 1;
+    }
+
+    private static double[] cdf(double[] weights) {
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cdf[i] = sum;
+        }
+        return cdf;
+    }
+
+    /**
+     * Encodes a number with letters only, because room names must not contain digits: 0 = A, 25 = Z, 26 = Ab, ...
+     */
+    private static String letters(int number) {
+        StringBuilder letters = new StringBuilder();
+        do {
+            letters.append((char) ((letters.isEmpty() ? 'A' : 'a') + number % 26));
+            number /= 26;
+        } while (number > 0);
+        return letters.toString();
+    }
+}
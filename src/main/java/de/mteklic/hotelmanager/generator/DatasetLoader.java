@@ -0,0 +1,160 @@
+package de.mteklic.hotelmanager.generator;
+
+import de.mteklic.hotelmanager.model.Booking;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.BookingPartitionService;
+import de.mteklic.hotelmanager.service.RoomDayStatusService;
+import de.mteklic.hotelmanager.service.SyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Loads the synthetic dataset of {@link DatasetGenerator} on startup of the perf profile,
+ * e.g. SPRING_PROFILES_ACTIVE=local,perf for 100k rooms and 10M bookings (see application-perf.properties).
+ * ---
+ * Rooms and bookings are streamed into the database with COPY, afterwards room_day_status is rebuilt in monthly chunks
+ * and the new rooms and bookings are recorded in the change log in short batches.
+ * Nothing is loaded if the database already contains bookings, so a restart does not duplicate the dataset.
+ */
+@Component
+@Profile("perf")
+@EnableConfigurationProperties(DatasetProperties.class)
+public class DatasetLoader implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetLoader.class);
+
+    private static final int REBUILD_CHUNK_DAYS = 31;
+
+    private final DatasetProperties properties;
+
+    private final RoomRepository roomRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final RoomDayStatusService roomDayStatusService;
+
+    private final BookingPartitionService bookingPartitionService;
+
+    private final SyncService syncService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DatasetLoader(DatasetProperties properties,
+                         RoomRepository roomRepository,
+                         BookingRepository bookingRepository,
+                         RoomDayStatusService roomDayStatusService,
+                         BookingPartitionService bookingPartitionService,
+                         SyncService syncService,
+                         JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         ApplicationEventPublisher eventPublisher){
+        this.properties = properties;
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+        this.roomDayStatusService = roomDayStatusService;
+        this.bookingPartitionService = bookingPartitionService;
+        this.syncService = syncService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (this.bookingRepository.count() > 0) {
+            log.info("Database already contains bookings, the generated dataset is not loaded.");
+            return;
+        }
+
+        log.info("Generating dataset with seed {}: {} rooms, {} bookings from {} to {}",
+                this.properties.seed(), this.properties.rooms(), this.properties.bookings(), this.properties.startDate(), this.properties.endDate());
+        DatasetGenerator generator = new DatasetGenerator(this.properties);
+        long started = System.currentTimeMillis();
+        long lastRoomId = this.roomRepository.findMaxId();
+        long lastBookingId = this.bookingRepository.findMaxId();
+
+        List<Long> roomIds = this.transactionTemplate.execute(status -> {
+            this.roomRepository.copyAll(generator.rooms());
+            // COPY assigns the identity values in input order, so the n-th new id belongs to the n-th generated room
+            return this.jdbcTemplate.queryForList("SELECT id FROM rooms WHERE id > ? ORDER BY id", Long.class, lastRoomId);
+        });
+        log.info("Loaded {} rooms after {} ms", roomIds.size(), System.currentTimeMillis() - started);
+
+        // Otherwise all bookings end up in the default partition and are moved later
+        this.bookingPartitionService.createPartitions(this.properties.startDate(), this.properties.endDate());
+        Long bookings = this.transactionTemplate.execute(status -> this.bookingRepository.copyAll(new BookingIterator(generator, roomIds)));
+        log.info("Loaded {} bookings after {} ms", bookings, System.currentTimeMillis() - started);
+
+        int bookedDays = 0;
+        for (LocalDate chunkStart = this.properties.startDate(); !chunkStart.isAfter(this.properties.endDate()); chunkStart = chunkStart.plusDays(REBUILD_CHUNK_DAYS)) {
+            LocalDate chunkEnd = chunkStart.plusDays(REBUILD_CHUNK_DAYS - 1L);
+            bookedDays += this.roomDayStatusService.rebuild(chunkStart, chunkEnd.isAfter(this.properties.endDate()) ? this.properties.endDate() : chunkEnd);
+        }
+        this.jdbcTemplate.execute("ANALYZE rooms, bookings, room_day_status");
+        log.info("Rebuilt {} booked room days after {} ms", bookedDays, System.currentTimeMillis() - started);
+
+        long recorded = this.syncService.recordCreatedRooms(lastRoomId) + this.syncService.recordCreatedBookings(lastBookingId);
+        log.info("Recorded {} changes for the delta sync, dataset loaded after {} ms", recorded, System.currentTimeMillis() - started);
+
+        this.eventPublisher.publishEvent(new RoomChangedEvent(this, null));
+    }
+
+    /**
+     * Generates the bookings room by room while they are copied, so only the bookings of one room are held in memory.
+     */
+    private static class BookingIterator implements Iterator<Booking> {
+
+        private final DatasetGenerator generator;
+
+        private final List<Long> roomIds;
+
+        private int roomIndex;
+
+        private Iterator<Booking> bookings = Collections.emptyIterator();
+
+        BookingIterator(DatasetGenerator generator, List<Long> roomIds) {
+            this.generator = generator;
+            this.roomIds = roomIds;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!this.bookings.hasNext() && this.roomIndex < this.roomIds.size()) {
+                Room room = Room.builder().id(this.roomIds.get(this.roomIndex)).build();
+                this.bookings = this.generator.bookings(this.roomIndex, room).iterator();
+                this.roomIndex++;
+            }
+            return this.bookings.hasNext();
+        }
+
+        @Override
+        public Booking next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.bookings.next();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package de.mteklic.hotelmanager.generator;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.LocalDate;
+
+/**
+ * Configuration of the synthetic dataset of the perf profile, prefix hotelmanager.generator.
+ * The same configuration always generates the same dataset.
+ *
+ * @param seed      Seed of all random decisions.
+ * @param rooms     Number of generated rooms.
+ * @param bookings  Number of generated bookings, spread evenly over the rooms. Fewer bookings are generated if the rooms are full.
+ * @param startDate First day of the booking history.
+ * @param days      Number of days of the booking history, may reach into the future.
+ */
+@ConfigurationProperties(prefix = "hotelmanager.generator")
+public record DatasetProperties(@DefaultValue("42") long seed,
+                                @DefaultValue("100000") int rooms,
+                                @DefaultValue("10000000") long bookings,
+                                @DefaultValue("2025-01-01") LocalDate startDate,
+                                @DefaultValue("1095") int days) {
+
+    public DatasetProperties {
+        if (rooms < 0 || bookings < 0 || days < 1) {
+            throw new IllegalArgumentException("rooms and bookings must not be negative and days must be positive");
+        }
+    }
+
+    /**
+     * @return Last day of the booking history (inclusive).
+     */
+    public LocalDate endDate() {
+        return this.startDate.plusDays(this.days - 1L);
+    }
+}
@@ -0,0 +1,164 @@
+package de.mteklic.hotelmanager.index;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the free days of all rooms, for finding rooms with k consecutive free nights in a date range.
+ * ---
+ * Every room has a {@link FreeNightsTree} over a fixed window of days starting at the origin. Days outside the
+ * window are not indexed: updates are clipped to it, queries only look at the part of the range within it.
+ * A night is the day it starts on, like the booked days of a booking (start date to end date, inclusive).
+ * Rooms are checked one after another in O(log n) each, trees are locked individually.
+ */
+public class FreeNightsIndex {
+
+    private final LocalDate origin;
+
+    private final int days;
+
+    private final Map<Long, FreeNightsTree> trees = new ConcurrentHashMap<>();
+
+    /**
+     * @param origin First indexed day.
+     * @param days   Number of indexed days.
+     */
+    public FreeNightsIndex(LocalDate origin, int days) {
+        this.origin = origin;
+        this.days = days;
+    }
+
+    /**
+     * @return First indexed day.
+     */
+    public LocalDate origin() {
+        return this.origin;
+    }
+
+    /**
+     * @return Last indexed day.
+     */
+    public LocalDate end() {
+        return this.origin.plusDays(this.days - 1L);
+    }
+
+    /**
+     * Adds a room without bookings, if it is not indexed yet.
+     *
+     * @param roomId ID of the room.
+     */
+    public void addRoom(Long roomId) {
+        this.trees.computeIfAbsent(roomId, id -> new FreeNightsTree(this.days));
+    }
+
+    /**
+     * Removes a room, if it is indexed.
+     *
+     * @param roomId ID of the room.
+     */
+    public void removeRoom(Long roomId) {
+        this.trees.remove(roomId);
+    }
+
+    /**
+     * Marks the days of a room as booked or free, adding the room if it is not indexed yet.
+     *
+     * @param roomId    ID of the room.
+     * @param startDate First day.
+     * @param endDate   Last day.
+     * @param booked    True if the days have been booked, false if they have been released.
+     */
+    public void set(Long roomId, LocalDate startDate, LocalDate endDate, boolean booked) {
+        int from = (int) Math.max(0, ChronoUnit.DAYS.between(this.origin, startDate));
+        int to = (int) Math.min(this.days - 1L, ChronoUnit.DAYS.between(this.origin, endDate));
+        FreeNightsTree tree = this.trees.computeIfAbsent(roomId, id -> new FreeNightsTree(this.days));
+        if (from > to) {
+            return;
+        }
+        synchronized (tree) {
+            tree.set(from, to, booked);
+        }
+    }
+
+    /**
+     * Replaces the days of a room within the range by the given booked days, adding the room if it is not indexed yet.
+     * The whole range is written under the lock of the room, so queries never see it partially updated.
+     *
+     * @param roomId     ID of the room.
+     * @param startDate  First day.
+     * @param endDate    Last day.
+     * @param bookedDays Booked days of the room within the range, in ascending order. All other days are free.
+     */
+    public void replace(Long roomId, LocalDate startDate, LocalDate endDate, List<LocalDate> bookedDays) {
+        int from = (int) Math.max(0, ChronoUnit.DAYS.between(this.origin, startDate));
+        int to = (int) Math.min(this.days - 1L, ChronoUnit.DAYS.between(this.origin, endDate));
+        FreeNightsTree tree = this.trees.computeIfAbsent(roomId, id -> new FreeNightsTree(this.days));
+        if (from > to) {
+            return;
+        }
+        synchronized (tree) {
+            tree.set(from, to, false);
+            // Consecutive days are marked as one run
+            int runStart = -1;
+            int runEnd = -1;
+            for (LocalDate bookedDay : bookedDays) {
+                int day = (int) ChronoUnit.DAYS.between(this.origin, bookedDay);
+                if (day < from || day > to) {
+                    continue;
+                }
+                if (runStart >= 0 && day == runEnd + 1) {
+                    runEnd = day;
+                    continue;
+                }
+                if (runStart >= 0) {
+                    tree.set(runStart, runEnd, true);
+                }
+                runStart = day;
+                runEnd = day;
+            }
+            if (runStart >= 0) {
+                tree.set(runStart, runEnd, true);
+            }
+        }
+    }
+
+    /**
+     * Finds all rooms which have at least the given number of consecutive free nights within the range.
+     *
+     * @param nights    Number of consecutive free nights.
+     * @param startDate First night of the range.
+     * @param endDate   Last night of the range.
+     * @return IDs of the matching rooms in ascending order.
+     */
+    public List<Long> findRooms(int nights, LocalDate startDate, LocalDate endDate) {
+        int from = (int) Math.max(0, ChronoUnit.DAYS.between(this.origin, startDate));
+        int to = (int) Math.min(this.days - 1L, ChronoUnit.DAYS.between(this.origin, endDate));
+        if (nights < 1 || to - from + 1 < nights) {
+            return List.of();
+        }
+        List<Long> roomIds = new ArrayList<>();
+        this.trees.forEach((roomId, tree) -> {
+            int longestFreeRun;
+            synchronized (tree) {
+                longestFreeRun = tree.longestFreeRun(from, to);
+            }
+            if (longestFreeRun >= nights) {
+                roomIds.add(roomId);
+            }
+        });
+        Collections.sort(roomIds);
+        return roomIds;
+    }
+
+    /**
+     * @return Number of indexed rooms.
+     */
+    public int size() {
+        return this.trees.size();
+    }
+}
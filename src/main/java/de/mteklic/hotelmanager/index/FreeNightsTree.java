@@ -0,0 +1,194 @@
+package de.mteklic.hotelmanager.index;
+
+import java.util.Arrays;
+
+/**
+ * Segment tree over the day slots of one room, for finding the longest run of consecutive free days in a range.
+ * ---
+ * Every node stores the free run at the start of its days (prefix), at the end (suffix) and the longest one (best).
+ * Two neighbouring nodes combine in O(1): a run can continue from the suffix of the left into the prefix of the right.
+ * To keep the tree small for large catalogs, leaves are words of 64 days (one bit per day, set if booked) instead of
+ * single days. The runs of a word are computed with bit operations, so a year of one room takes a few hundred bytes.
+ * Updates and queries take O(log n) node visits plus O(1) per touched word. Days are numbered from 0.
+ * Not thread-safe, callers synchronise on the tree.
+ */
+public class FreeNightsTree {
+
+    private static final int WORD = 64;
+
+    private final int days;
+
+    /**
+     * Number of leaves, a power of two. Leaf i is node leaves + i, the root is node 1.
+     */
+    private final int leaves;
+
+    /**
+     * Booked days, one bit per day. Days after the last day and words after the last word count as booked,
+     * so that runs never extend beyond the tree.
+     */
+    private final long[] booked;
+
+    private final short[] prefix;
+
+    private final short[] suffix;
+
+    private final short[] best;
+
+    /**
+     * Creates a tree in which all days are free.
+     *
+     * @param days Number of day slots, at most 32767.
+     */
+    public FreeNightsTree(int days) {
+        if (days < 1 || days > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Days must be between 1 and " + Short.MAX_VALUE + ": " + days);
+        }
+        this.days = days;
+        int words = (days + WORD - 1) / WORD;
+        this.leaves = Integer.highestOneBit(words) == words ? words : Integer.highestOneBit(words) << 1;
+        this.booked = new long[this.leaves];
+        Arrays.fill(this.booked, -1L);
+        Arrays.fill(this.booked, 0, words, 0L);
+        if (days % WORD != 0) {
+            this.booked[words - 1] = -1L << (days % WORD);
+        }
+        this.prefix = new short[2 * this.leaves];
+        this.suffix = new short[2 * this.leaves];
+        this.best = new short[2 * this.leaves];
+        for (int word = 0; word < this.leaves; word++) {
+            updateLeaf(word);
+        }
+        for (int node = this.leaves - 1; node > 0; node--) {
+            updateNode(node);
+        }
+    }
+
+    /**
+     * @return Number of day slots.
+     */
+    public int days() {
+        return this.days;
+    }
+
+    /**
+     * Marks the days as booked or free.
+     *
+     * @param from   First day, inclusive.
+     * @param to     Last day, inclusive.
+     * @param booked True to book the days, false to free them.
+     */
+    public void set(int from, int to, boolean booked) {
+        checkRange(from, to);
+        int firstWord = from / WORD;
+        int lastWord = to / WORD;
+        for (int word = firstWord; word <= lastWord; word++) {
+            int lo = word == firstWord ? from % WORD : 0;
+            int hi = word == lastWord ? to % WORD : WORD - 1;
+            long mask = mask(hi - lo + 1) << lo;
+            this.booked[word] = booked ? this.booked[word] | mask : this.booked[word] & ~mask;
+            updateLeaf(word);
+        }
+        // Parents of the touched leaves, level by level
+        for (int lo = (this.leaves + firstWord) >> 1, hi = (this.leaves + lastWord) >> 1; lo > 0; lo >>= 1, hi >>= 1) {
+            for (int node = lo; node <= hi; node++) {
+                updateNode(node);
+            }
+        }
+    }
+
+    /**
+     * @param day The day.
+     * @return True if the day is booked.
+     */
+    public boolean isBooked(int day) {
+        checkRange(day, day);
+        return (this.booked[day / WORD] >>> (day % WORD) & 1L) != 0;
+    }
+
+    /**
+     * Finds the longest run of consecutive free days within the range.
+     *
+     * @param from First day, inclusive.
+     * @param to   Last day, inclusive.
+     * @return Number of days of the longest free run, 0 if all days are booked.
+     */
+    public int longestFreeRun(int from, int to) {
+        checkRange(from, to);
+        return query(1, 0, this.leaves * WORD - 1, from, to).best();
+    }
+
+    /**
+     * Runs of a range of days.
+     */
+    private record Runs(int length, int prefix, int suffix, int best) {
+
+        Runs then(Runs next) {
+            return new Runs(this.length + next.length,
+                    this.prefix == this.length ? this.length + next.prefix : this.prefix,
+                    next.suffix == next.length ? next.length + this.suffix : next.suffix,
+                    Math.max(Math.max(this.best, next.best), this.suffix + next.prefix));
+        }
+    }
+
+    private Runs query(int node, int nodeFrom, int nodeTo, int from, int to) {
+        if (from <= nodeFrom && nodeTo <= to) {
+            return new Runs(nodeTo - nodeFrom + 1, this.prefix[node], this.suffix[node], this.best[node]);
+        }
+        if (node >= this.leaves) {
+            return runsOfWord(this.booked[node - this.leaves], Math.max(from, nodeFrom) - nodeFrom, Math.min(to, nodeTo) - nodeFrom);
+        }
+        int middle = (nodeFrom + nodeTo) >>> 1;
+        if (to <= middle) {
+            return query(2 * node, nodeFrom, middle, from, to);
+        }
+        if (from > middle) {
+            return query(2 * node + 1, middle + 1, nodeTo, from, to);
+        }
+        return query(2 * node, nodeFrom, middle, from, to).then(query(2 * node + 1, middle + 1, nodeTo, from, to));
+    }
+
+    private void updateLeaf(int word) {
+        Runs runs = runsOfWord(this.booked[word], 0, WORD - 1);
+        int node = this.leaves + word;
+        this.prefix[node] = (short) runs.prefix();
+        this.suffix[node] = (short) runs.suffix();
+        this.best[node] = (short) runs.best();
+    }
+
+    private void updateNode(int node) {
+        int left = 2 * node;
+        int right = left + 1;
+        // Both children cover the same number of days
+        int length = WORD << (31 - Integer.numberOfLeadingZeros(this.leaves) - (31 - Integer.numberOfLeadingZeros(left)));
+        this.prefix[node] = (short) (this.prefix[left] == length ? length + this.prefix[right] : this.prefix[left]);
+        this.suffix[node] = (short) (this.suffix[right] == length ? length + this.suffix[left] : this.suffix[right]);
+        this.best[node] = (short) Math.max(Math.max(this.best[left], this.best[right]), this.suffix[left] + this.prefix[right]);
+    }
+
+    /**
+     * Runs of the bits lo to hi (inclusive) of a word, a cleared bit is a free day.
+     */
+    private static Runs runsOfWord(long booked, int lo, int hi) {
+        int length = hi - lo + 1;
+        long free = ~booked >>> lo & mask(length);
+        int prefix = Math.min(length, Long.numberOfTrailingZeros(~free));
+        int suffix = Math.min(length, Long.numberOfLeadingZeros(~(free << (WORD - length))));
+        // Every step shortens all runs by one day
+        int best = 0;
+        for (long runs = free; runs != 0; runs &= runs >>> 1) {
+            best++;
+        }
+        return new Runs(length, prefix, suffix, best);
+    }
+
+    private static long mask(int bits) {
+        return bits == WORD ? -1L : (1L << bits) - 1;
+    }
+
+    private void checkRange(int from, int to) {
+        if (from < 0 || to >= this.days || from > to) {
+            throw new IndexOutOfBoundsException("Days " + from + " to " + to + " are not within 0 to " + (this.days - 1));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package de.mteklic.hotelmanager.index;
+
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.RoomFacetsDto;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory index of the facet values of all rooms, for counting rooms per value without a database query.
+ * ---
+ * Every room gets a dense ordinal, and every facet value is a compressed bitmap of the ordinals of its rooms.
+ * Counts are intersections of these bitmaps, so they cost microseconds even for large catalogs.
+ * Updates copy the changed bitmaps and publish a new snapshot, readers never block and never see half an update.
+ * Ordinals of deleted rooms are not reused until the next {@link #rebuild(Iterable)}.
+ */
+public class RoomFacetIndex {
+
+    /**
+     * An indexed attribute of rooms.
+     *
+     * @param name    Name of the facet, as used in requests and responses.
+     * @param values  All possible values, in the order they are listed.
+     * @param valueOf Value of a room.
+     */
+    public record Facet(String name, List<String> values, Function<Room, String> valueOf) {
+    }
+
+    /**
+     * The indexed facets. Further attributes of rooms are added here.
+     */
+    public static final List<Facet> FACETS = List.of(
+            new Facet("roomSize", Arrays.stream(RoomSize.values()).map(Enum::name).toList(), room -> room.getRoomSize().name()),
+            new Facet("hasMinibar", List.of("true", "false"), room -> String.valueOf(room.getHasMinibar())));
+
+    /**
+     * Immutable state of the index, except for the ordinals, which only grow between rebuilds.
+     *
+     * @param ordinals Ordinals of the room ids. Ordinals of rooms which are not in rooms are ignored.
+     * @param rooms    Ordinals of all indexed rooms.
+     * @param bitmaps  Ordinals per facet and value.
+     */
+    private record Snapshot(Map<Long, Integer> ordinals, RoaringBitmap rooms, Map<String, Map<String, RoaringBitmap>> bitmaps) {
+    }
+
+    private volatile Snapshot snapshot = emptySnapshot();
+
+    /**
+     * Next free ordinal, guarded by this.
+     */
+    private int nextOrdinal;
+
+    /**
+     * Replaces the content of the index with the given rooms.
+     *
+     * @param rooms All rooms.
+     */
+    public synchronized void rebuild(Iterable<Room> rooms) {
+        Snapshot snapshot = emptySnapshot();
+        this.nextOrdinal = 0;
+        for (Room room : rooms) {
+            int ordinal = this.nextOrdinal++;
+            snapshot.ordinals().put(room.getId(), ordinal);
+            snapshot.rooms().add(ordinal);
+            for (Facet facet : FACETS) {
+                snapshot.bitmaps().get(facet.name()).get(facet.valueOf().apply(room)).add(ordinal);
+            }
+        }
+        snapshot.rooms().runOptimize();
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Adds a new room or updates the facet values of an indexed room.
+     *
+     * @param room The room with its current values.
+     */
+    public synchronized void put(Room room) {
+        Snapshot current = this.snapshot;
+        int ordinal = current.ordinals().computeIfAbsent(room.getId(), id -> this.nextOrdinal++);
+
+        RoaringBitmap rooms = current.rooms();
+        if (!rooms.contains(ordinal)) {
+            rooms = rooms.clone();
+            rooms.add(ordinal);
+        }
+        Map<String, Map<String, RoaringBitmap>> bitmaps = new HashMap<>(current.bitmaps());
+        for (Facet facet : FACETS) {
+            String value = facet.valueOf().apply(room);
+            Map<String, RoaringBitmap> values = new LinkedHashMap<>(bitmaps.get(facet.name()));
+            values.replaceAll((v, bitmap) -> {
+                if (v.equals(value) == bitmap.contains(ordinal)) {
+                    return bitmap;
+                }
+                RoaringBitmap copy = bitmap.clone();
+                copy.flip(ordinal);
+                return copy;
+            });
+            bitmaps.put(facet.name(), values);
+        }
+        this.snapshot = new Snapshot(current.ordinals(), rooms, bitmaps);
+    }
+
+    /**
+     * Removes a room from the index, if it is indexed.
+     *
+     * @param roomId Id of the deleted room.
+     */
+    public synchronized void remove(Long roomId) {
+        Snapshot current = this.snapshot;
+        Integer ordinal = current.ordinals().remove(roomId);
+        if (ordinal == null) {
+            return;
+        }
+        RoaringBitmap rooms = current.rooms().clone();
+        rooms.remove(ordinal);
+        // The facet bitmaps may keep the ordinal, counts are always intersected with rooms
+        this.snapshot = new Snapshot(current.ordinals(), rooms, current.bitmaps());
+    }
+
+    /**
+     * @return Number of indexed rooms.
+     */
+    public int size() {
+        return this.snapshot.rooms().getCardinality();
+    }
+
+    /**
+     * Counts the rooms per facet value.
+     *
+     * @param roomIds  Rooms which match the criteria that are not facets, or null for all rooms.
+     * @param selected Selected value per facet name. Facets which are not selected are not restricted.
+     * @return The number of rooms matching all criteria and the counts per facet value, see {@link RoomFacetsDto}.
+     */
+    public RoomFacetsDto count(Collection<Long> roomIds, Map<String, String> selected) {
+        Snapshot snapshot = this.snapshot;
+
+        RoaringBitmap base = snapshot.rooms();
+        if (roomIds != null) {
+            RoaringBitmap candidates = new RoaringBitmap();
+            for (Long roomId : roomIds) {
+                Integer ordinal = snapshot.ordinals().get(roomId);
+                if (ordinal != null) {
+                    candidates.add(ordinal);
+                }
+            }
+            base = RoaringBitmap.and(base, candidates);
+        }
+
+        Map<String, RoaringBitmap> selections = new HashMap<>();
+        for (Facet facet : FACETS) {
+            String value = selected.get(facet.name());
+            if (value != null) {
+                selections.put(facet.name(), snapshot.bitmaps().get(facet.name()).getOrDefault(value, new RoaringBitmap()));
+            }
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (Facet facet : FACETS) {
+            // Restricted by all selections except the own one
+            RoaringBitmap restricted = base;
+            for (Map.Entry<String, RoaringBitmap> selection : selections.entrySet()) {
+                if (!selection.getKey().equals(facet.name())) {
+                    restricted = RoaringBitmap.and(restricted, selection.getValue());
+                }
+            }
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (Map.Entry<String, RoaringBitmap> value : snapshot.bitmaps().get(facet.name()).entrySet()) {
+                counts.put(value.getKey(), (long) RoaringBitmap.andCardinality(restricted, value.getValue()));
+            }
+            facets.put(facet.name(), counts);
+        }
+
+        RoaringBitmap matching = base;
+        for (RoaringBitmap selection : selections.values()) {
+            matching = RoaringBitmap.and(matching, selection);
+        }
+
+        return RoomFacetsDto.builder()
+                .total(matching.getCardinality())
+                .facets(facets)
+                .build();
+    }
+
+    private static Snapshot emptySnapshot() {
+        Map<String, Map<String, RoaringBitmap>> bitmaps = new HashMap<>();
+        for (Facet facet : FACETS) {
+            Map<String, RoaringBitmap> values = new LinkedHashMap<>();
+            facet.values().forEach(value -> values.put(value, new RoaringBitmap()));
+            bitmaps.put(facet.name(), values);
+        }
+        return new Snapshot(new ConcurrentHashMap<>(), new RoaringBitmap(), bitmaps);
+    }
+}
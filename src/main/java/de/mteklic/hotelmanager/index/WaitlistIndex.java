@@ -0,0 +1,94 @@
+package de.mteklic.hotelmanager.index;
+
+import de.mteklic.hotelmanager.model.RoomSize;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * In-memory interval index of waiting waitlist entries, for finding the entries which fit into free dates.
+ * ---
+ * Per room size, entries are sorted by start date and, within a start date, by end date. An entry fits into the
+ * free range [from, to] if from <= start and end <= to, so only the start dates within the range are visited and
+ * for each of them only the fitting end dates: O(d * log n + k) for d days in the range and k matches.
+ * Released ranges are a few days long, so d is small compared to the number of entries.
+ */
+public class WaitlistIndex {
+
+    private record Entry(Long id, RoomSize roomSize, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private final Map<RoomSize, NavigableMap<LocalDate, NavigableMap<LocalDate, Set<Long>>>> entries = new EnumMap<>(RoomSize.class);
+
+    private final Map<Long, Entry> entriesById = new HashMap<>();
+
+    /**
+     * Adds an entry, or moves it if it is indexed already.
+     *
+     * @param id        ID of the entry.
+     * @param roomSize  Requested room size.
+     * @param startDate First requested day.
+     * @param endDate   Last requested day.
+     */
+    public synchronized void add(Long id, RoomSize roomSize, LocalDate startDate, LocalDate endDate) {
+        remove(id);
+        Entry entry = new Entry(id, roomSize, startDate, endDate);
+        this.entriesById.put(id, entry);
+        this.entries.computeIfAbsent(roomSize, size -> new TreeMap<>())
+                .computeIfAbsent(startDate, start -> new TreeMap<>())
+                .computeIfAbsent(endDate, end -> new TreeSet<>())
+                .add(id);
+    }
+
+    /**
+     * Removes an entry, if it is indexed.
+     *
+     * @param id ID of the entry.
+     */
+    public synchronized void remove(Long id) {
+        Entry entry = this.entriesById.remove(id);
+        if (entry == null) {
+            return;
+        }
+        NavigableMap<LocalDate, NavigableMap<LocalDate, Set<Long>>> byStartDate = this.entries.get(entry.roomSize());
+        NavigableMap<LocalDate, Set<Long>> byEndDate = byStartDate.get(entry.startDate());
+        Set<Long> ids = byEndDate.get(entry.endDate());
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            byEndDate.remove(entry.endDate());
+            if (byEndDate.isEmpty()) {
+                byStartDate.remove(entry.startDate());
+            }
+        }
+    }
+
+    /**
+     * Finds all entries for the room size which lie completely within the range.
+     *
+     * @param roomSize Size of the free room.
+     * @param from     First free day.
+     * @param to       Last free day.
+     * @return IDs of the fitting entries in ascending order, i.e. in the order the entries have been created.
+     */
+    public synchronized List<Long> findContained(RoomSize roomSize, LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, NavigableMap<LocalDate, Set<Long>>> byStartDate = this.entries.get(roomSize);
+        if (byStartDate == null || to.isBefore(from)) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (NavigableMap<LocalDate, Set<Long>> byEndDate : byStartDate.subMap(from, true, to, true).values()) {
+            for (Set<Long> fitting : byEndDate.headMap(to, true).values()) {
+                ids.addAll(fitting);
+            }
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    /**
+     * @return Number of indexed entries.
+     */
+    public synchronized int size() {
+        return this.entriesById.size();
+    }
+}
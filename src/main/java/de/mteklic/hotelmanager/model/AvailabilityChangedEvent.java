@@ -0,0 +1,30 @@
+package de.mteklic.hotelmanager.model;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDate;
+
+/**
+ * Published when days of a room have been booked or freed by a booking change.
+ * A moved booking publishes the freed old range first and the booked new range afterwards.
+ */
+@Getter
+public class AvailabilityChangedEvent extends ApplicationEvent {
+
+    private final Long roomId;
+
+    private final LocalDate startDate;
+
+    private final LocalDate endDate;
+
+    private final boolean booked;
+
+    public AvailabilityChangedEvent(Object source, Long roomId, LocalDate startDate, LocalDate endDate, boolean booked) {
+        super(source);
+        this.roomId = roomId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.booked = booked;
+    }
+}
@@ -0,0 +1,23 @@
+package de.mteklic.hotelmanager.model;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Published when bookings have been created, updated or deleted.
+ */
+@Getter
+public class BookingChangedEvent extends ApplicationEvent {
+
+    private final List<Long> bookingIds;
+
+    private final boolean deleted;
+
+    public BookingChangedEvent(Object source, List<Long> bookingIds, boolean deleted) {
+        super(source);
+        this.bookingIds = bookingIds;
+        this.deleted = deleted;
+    }
+}
@@ -0,0 +1,15 @@
+package de.mteklic.hotelmanager.model;
+
+import java.time.LocalDate;
+
+/**
+ * Lightweight read-only projection of a {@link Booking}.
+ * Used by queries which only need the booked date range of a room and should not load full entities.
+ *
+ * @param roomId    ID of the booked room.
+ * @param roomSize  Size of the booked room.
+ * @param startDate First booked day (inclusive).
+ * @param endDate   Last booked day (inclusive).
+ */
+public record BookingInterval(Long roomId, RoomSize roomSize, LocalDate startDate, LocalDate endDate) {
+}
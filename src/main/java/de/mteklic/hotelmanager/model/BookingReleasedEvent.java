@@ -0,0 +1,27 @@
+package de.mteklic.hotelmanager.model;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDate;
+
+/**
+ * Published when the days of a booking have been released, because the booking has been deleted or moved.
+ * Some of the days might be booked again by the changed booking.
+ */
+@Getter
+public class BookingReleasedEvent extends ApplicationEvent {
+
+    private final Long roomId;
+
+    private final LocalDate startDate;
+
+    private final LocalDate endDate;
+
+    public BookingReleasedEvent(Object source, Long roomId, LocalDate startDate, LocalDate endDate) {
+        super(source);
+        this.roomId = roomId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+}
@@ -0,0 +1,22 @@
+package de.mteklic.hotelmanager.model;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Published when past bookings have been moved from bookings to bookings_archive.
+ * The rooms themselves are unchanged, only their lists of bookings are shorter. The days of archived bookings lie
+ * before the window of the availability indexes, so they are not affected either.
+ */
+@Getter
+public class BookingsArchivedEvent extends ApplicationEvent {
+
+    private final List<Long> roomIds;
+
+    public BookingsArchivedEvent(Object source, List<Long> roomIds) {
+        super(source);
+        this.roomIds = roomIds;
+    }
+}
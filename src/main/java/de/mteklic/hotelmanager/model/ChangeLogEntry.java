@@ -0,0 +1,63 @@
+package de.mteklic.hotelmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Latest change of a room or booking, the source of the delta sync.
+ * Every change replaces the entry of the entity with a new, higher seq, so a sync transfers every entity at most once.
+ * Deleted entities are kept as tombstones until they are purged.
+ */
+@Entity
+@Table(name = "change_log")
+@IdClass(ChangeLogEntry.Key.class)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ChangeLogEntry {
+
+    public enum EntityType {
+        ROOM,
+        BOOKING
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type")
+    private EntityType entityType;
+
+    @Id
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(nullable = false)
+    private Long seq;
+
+    @Column(nullable = false)
+    private Boolean deleted;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    /**
+     * Composite primary key (entity_type, entity_id).
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private EntityType entityType;
+        private Long entityId;
+    }
+}
@@ -0,0 +1,13 @@
+package de.mteklic.hotelmanager.model;
+
+import java.time.LocalDate;
+
+/**
+ * A room which is free for a whole date range, together with its nearest booked days around the range.
+ *
+ * @param roomId            ID of the room.
+ * @param previousBookedDay Last booked day before the range, or null if there is none within the searched horizon.
+ * @param nextBookedDay     First booked day after the range, or null if there is none within the searched horizon.
+ */
+public record FreeRoom(Long roomId, LocalDate previousBookedDay, LocalDate nextBookedDay) {
+}
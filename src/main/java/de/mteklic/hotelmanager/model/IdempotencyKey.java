@@ -0,0 +1,41 @@
+package de.mteklic.hotelmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored result of a request which has been sent with an Idempotency-Key header.
+ * The key is the primary key, so only one of several concurrent requests with the same key can insert it and gets executed.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "createdAt"))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    /**
+     * Hash of the request the key has been used for first. A reuse of the key for another request is rejected.
+     */
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    /**
+     * Serialised response, null while the first request is still running.
+     */
+    @Column(columnDefinition = "text")
+    @ToString.Exclude
+    private String responseBody;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package de.mteklic.hotelmanager.model;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published whenever a room or one of its bookings has been created, updated or deleted.
+ * A roomId of null means that any room might have changed.
+ */
+@Getter
+public class RoomChangedEvent extends ApplicationEvent {
+
+    private final Long roomId;
+
+    public RoomChangedEvent(Object source, Long roomId) {
+        super(source);
+        this.roomId = roomId;
+    }
+}
@@ -0,0 +1,48 @@
+package de.mteklic.hotelmanager.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Materialised availability of a room on a single day.
+ * A row exists for every day on which a room is booked, free days have no row.
+ * The table is derived from {@link Booking} and maintained in the same transaction as the bookings,
+ * so availability checks can run as an (index-only) anti-join instead of interval comparisons on the bookings table.
+ */
+@Entity
+@Table(name = "room_day_status")
+@IdClass(RoomDayStatus.Key.class)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class RoomDayStatus {
+
+    @Id
+    @Column(name = "room_id")
+    private Long roomId;
+
+    @Id
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private Boolean booked;
+
+    /**
+     * Composite primary key (room_id, day). The primary key index covers all anti-join lookups.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long roomId;
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,26 @@
+package de.mteklic.hotelmanager.model;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Normalised criteria of a room search, so that searches with the same meaning are equal.
+ * - ids are sorted and distinct
+ * - blank name and description are ignored
+ * - dates are only kept if both are present
+ */
+public record RoomFilter(List<Long> ids, String name, String description, LocalDate startDate, LocalDate endDate, Boolean hasMinibar, RoomSize roomSize) {
+
+    public static RoomFilter of(List<Long> ids, String name, String description, LocalDate startDate, LocalDate endDate, Boolean hasMinibar, RoomSize roomSize) {
+        boolean hasDateRange = startDate != null && endDate != null;
+        return new RoomFilter(
+                ids != null ? ids.stream().filter(Objects::nonNull).distinct().sorted().toList() : null,
+                name != null && !name.isBlank() ? name : null,
+                description != null && !description.isBlank() ? description : null,
+                hasDateRange ? startDate : null,
+                hasDateRange ? endDate : null,
+                hasMinibar,
+                roomSize);
+    }
+}
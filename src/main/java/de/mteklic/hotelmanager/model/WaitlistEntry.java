@@ -0,0 +1,68 @@
+package de.mteklic.hotelmanager.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A request for a room of a size for a date range, which could not be booked when it was made.
+ * When a booking is cancelled or shortened, waiting entries which fit into the released dates get the room.
+ */
+@Entity
+@Table(name = "waitlist_entries")
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @NotNull
+    private RoomSize roomSize;
+
+    @NotNull
+    private LocalDate startDate;
+
+    @NotNull
+    private LocalDate endDate;
+
+    /**
+     * Whether a matching room is booked directly, otherwise it is only offered.
+     */
+    @NotNull
+    private Boolean autoBook;
+
+    @Enumerated(EnumType.STRING)
+    @NotNull
+    private WaitlistStatus status;
+
+    /**
+     * The offered or booked room.
+     */
+    private Long roomId;
+
+    /**
+     * The booking, if the room has been booked automatically.
+     */
+    private Long bookingId;
+
+    @CreationTimestamp
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(updatable = false)
+    LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Temporal(TemporalType.TIMESTAMP)
+    LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package de.mteklic.hotelmanager.model;
+
+/**
+ * State of a {@link WaitlistEntry}.
+ */
+public enum WaitlistStatus {
+    /**
+     * Waits for matching dates to become free.
+     */
+    WAITING,
+    /**
+     * A matching room has become free and has been offered, it is not reserved.
+     */
+    OFFERED,
+    /**
+     * A matching room has become free and has been booked automatically.
+     */
+    BOOKED,
+    /**
+     * The start date has passed without a match.
+     */
+    EXPIRED
+}
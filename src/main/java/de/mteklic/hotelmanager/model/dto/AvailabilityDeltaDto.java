@@ -0,0 +1,18 @@
+package de.mteklic.hotelmanager.model.dto;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+/**
+ * Change of the availability of a room, pushed to the subscribers of the availability stream.
+ * The days from startDate to endDate (inclusive) have been booked or freed.
+ */
+@Builder
+public record AvailabilityDeltaDto(Long roomId, LocalDate startDate, LocalDate endDate, Change change) {
+
+    public enum Change {
+        BOOKED,
+        FREED
+    }
+}
@@ -0,0 +1,21 @@
+package de.mteklic.hotelmanager.model.dto;
+
+import de.mteklic.hotelmanager.model.RoomSize;
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Best free (room, date range) options of a flexible search, closest to the requested dates first.
+ */
+@Builder
+public record FlexibleSearchDto(LocalDate startDate, LocalDate endDate, int flexibleDays, List<Option> options) {
+
+    /**
+     * A room which is free from startDate to endDate, shiftDays before (negative) or after the requested dates.
+     */
+    @Builder
+    public record Option(Long roomId, String roomName, RoomSize roomSize, LocalDate startDate, LocalDate endDate, int shiftDays) {
+    }
+}
@@ -0,0 +1,18 @@
+package de.mteklic.hotelmanager.model.dto;
+
+import de.mteklic.hotelmanager.model.RoomSize;
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Booking of several rooms for the same date range, e.g. "8 DOUBLE rooms, 14-18 May".
+ * roomSize and hasMinibar are optional criteria, bookings are only set in responses.
+ */
+@Builder
+public record GroupBookingDto(Integer rooms, RoomSize roomSize, Boolean hasMinibar, LocalDate startDate, LocalDate endDate, List<Entry> bookings) {
+    @Builder
+    public record Entry(Long roomId, Long bookingId) {
+    }
+}
@@ -0,0 +1,18 @@
+package de.mteklic.hotelmanager.model.dto;
+
+import de.mteklic.hotelmanager.model.RoomSize;
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Daily occupancy per room size for a date range.
+ * The n-th value of {@link Entry#occupiedRooms()} belongs to the day startDate + n.
+ */
+@Builder
+public record OccupancyDto(LocalDate startDate, LocalDate endDate, List<Entry> entries) {
+    @Builder
+    public record Entry(RoomSize roomSize, long capacity, int[] occupiedRooms) {
+    }
+}
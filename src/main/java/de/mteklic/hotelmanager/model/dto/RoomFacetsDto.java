@@ -0,0 +1,14 @@
+package de.mteklic.hotelmanager.model.dto;
+
+import lombok.Builder;
+
+import java.util.Map;
+
+/**
+ * Facet counts of a room search, e.g. {"roomSize": {"SINGLE": 3, "DOUBLE": 7, "SUITE": 1}, "hasMinibar": {...}}.
+ * Each facet is counted with all criteria except its own value, so the counts show how many rooms
+ * each alternative value would find. total is the number of rooms which match all criteria.
+ */
+@Builder
+public record RoomFacetsDto(long total, Map<String, Map<String, Long>> facets) {
+}
@@ -0,0 +1,16 @@
+package de.mteklic.hotelmanager.model.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Report of a bulk room import.
+ * Only the first errors are listed, rejected counts all rows which have not been imported.
+ */
+@Builder
+public record RoomImportDto(long imported, long rejected, List<Error> errors) {
+    @Builder
+    public record Error(long line, String fieldName, String message, Object invalidValue) {
+    }
+}
@@ -0,0 +1,20 @@
+package de.mteklic.hotelmanager.model.dto;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rooms and bookings changed since a sync token. Rooms are sent without their bookings.
+ * The token of the response is passed to the next sync, as long as more is true there are further changes.
+ */
+@Builder
+public record SyncDto(String token, Boolean more, List<RoomDto> rooms, List<BookingEntry> bookings, List<Long> deletedRoomIds, List<Long> deletedBookingIds) {
+
+    /**
+     * A booking together with the ID of its room.
+     */
+    public record BookingEntry(Long id, Long roomId, LocalDate startDate, LocalDate endDate) {
+    }
+}
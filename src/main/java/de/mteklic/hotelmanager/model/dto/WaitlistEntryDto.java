@@ -0,0 +1,14 @@
+package de.mteklic.hotelmanager.model.dto;
+
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.WaitlistStatus;
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+/**
+ * Waitlist entry for a room size and date range. status, roomId and bookingId are only set in responses.
+ */
+@Builder
+public record WaitlistEntryDto(Long id, RoomSize roomSize, LocalDate startDate, LocalDate endDate, Boolean autoBook, WaitlistStatus status, Long roomId, Long bookingId) {
+}
@@ -0,0 +1,163 @@
+package de.mteklic.hotelmanager.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.mteklic.hotelmanager.model.dto.ApiError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Load shedding for the room and booking endpoints, see {@link ConcurrencyLimitProperties}.
+ * ---
+ * The requests served by BookingServiceImpl and RoomServiceImpl share one {@link GradientConcurrencyLimit}, which
+ * follows their latency. If the database slows down, the limit drops and further requests are rejected with 503
+ * right away, instead of queueing in front of the connection pool and slowing down every request.
+ * The filter runs after the rate limits and the room response cache, so throttled requests and cache hits do not count.
+ * Metrics: hotelmanager.concurrency-limit.limit, .in-flight and .requests (outcome admitted or rejected).
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "hotelmanager.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final List<PathPattern> patterns;
+
+    private final GradientConcurrencyLimit limit;
+
+    private final Counter admitted;
+
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry){
+        this.objectMapper = objectMapper;
+        this.patterns = properties.paths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+        this.limit = new GradientConcurrencyLimit(properties.initialLimit(), properties.minLimit(), properties.maxLimit(),
+                properties.smoothing(), properties.rttTolerance(), properties.longWindow(), properties.shortWindow());
+        this.admitted = Counter.builder("hotelmanager.concurrency-limit.requests").tag("outcome", "admitted").register(meterRegistry);
+        this.rejected = Counter.builder("hotelmanager.concurrency-limit.requests").tag("outcome", "rejected").register(meterRegistry);
+        Gauge.builder("hotelmanager.concurrency-limit.limit", this.limit, GradientConcurrencyLimit::getLimit).register(meterRegistry);
+        Gauge.builder("hotelmanager.concurrency-limit.in-flight", this.limit, GradientConcurrencyLimit::getInFlight).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        return this.patterns.stream().noneMatch(pattern -> pattern.matches(path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        int inFlight = this.limit.tryAcquire();
+        if (inFlight == 0) {
+            this.rejected.increment();
+            reject(request, response);
+            return;
+        }
+        this.admitted.increment();
+
+        long started = System.nanoTime();
+        boolean released = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // The request is still in flight until the asynchronous processing completes
+                request.getAsyncContext().addListener(new ReleasingListener(started, inFlight));
+                released = true;
+            }
+        } finally {
+            if (!released) {
+                this.limit.release(System.nanoTime() - started, inFlight, response.getStatus() < 500);
+            }
+        }
+    }
+
+    /**
+     * Releases an asynchronous request once it has completed, timed out or failed.
+     */
+    private class ReleasingListener implements AsyncListener {
+
+        private final long started;
+
+        private final int inFlight;
+
+        private boolean released;
+
+        ReleasingListener(long started, int inFlight) {
+            this.started = started;
+            this.inFlight = inFlight;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(((HttpServletResponse) event.getSuppliedResponse()).getStatus() < 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(false);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Re-registered by the container for a nested async start, nothing to release yet
+            event.getAsyncContext().addListener(this);
+        }
+
+        private synchronized void release(boolean sample) {
+            if (!this.released) {
+                this.released = true;
+                limit.release(System.nanoTime() - this.started, this.inFlight, sample);
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("Shed {} {}, {} requests in flight", request.getMethod(), request.getRequestURI(), this.limit.getInFlight());
+
+        ApiError apiError = ApiError.builder()
+                .path(request.getRequestURI())
+                .message("Service is overloaded, please retry shortly.")
+                .statusCode(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .localDateTime(LocalDateTime.now())
+                .build();
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        this.objectMapper.writeValue(response.getOutputStream(), apiError);
+    }
+}
@@ -0,0 +1,32 @@
+package de.mteklic.hotelmanager.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Configuration of the adaptive concurrency limit, prefix hotelmanager.concurrency-limit.
+ * See {@link GradientConcurrencyLimit} for the parameters of the algorithm.
+ *
+ * @param enabled      Whether concurrent requests are limited at all.
+ * @param paths        Path patterns of the limited requests, all of them share one limit.
+ * @param initialLimit Limit before the first measurement.
+ * @param minLimit     Lowest limit.
+ * @param maxLimit     Highest limit, should not exceed the number of request threads.
+ * @param smoothing    Share of a new limit in the smoothed limit (0 to 1).
+ * @param rttTolerance Factor by which the latency may rise before the limit shrinks.
+ * @param longWindow   Number of requests averaged into the baseline latency.
+ * @param shortWindow  Number of requests averaged into the current latency.
+ */
+@ConfigurationProperties(prefix = "hotelmanager.concurrency-limit")
+public record ConcurrencyLimitProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue({"/api/v1/rooms/**", "/api/v1/bookings/**"}) List<String> paths,
+                                         @DefaultValue("20") int initialLimit,
+                                         @DefaultValue("4") int minLimit,
+                                         @DefaultValue("200") int maxLimit,
+                                         @DefaultValue("0.2") double smoothing,
+                                         @DefaultValue("1.5") double rttTolerance,
+                                         @DefaultValue("600") int longWindow,
+                                         @DefaultValue("10") int shortWindow) {
+}
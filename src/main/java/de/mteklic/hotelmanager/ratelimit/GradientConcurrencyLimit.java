@@ -0,0 +1,123 @@
+package de.mteklic.hotelmanager.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive limit of concurrent requests, derived from their latency (gradient algorithm).
+ * ---
+ * The limit follows the gradient between the long-term average latency (the "no load" baseline) and the latency of
+ * the latest requests: gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1). While requests are as fast as usual
+ * the gradient is 1 and the limit grows by its square root, as soon as they queue up (e.g. for database connections)
+ * the limit shrinks proportionally. The limit only grows while it is actually used, so idle phases do not inflate it.
+ */
+public class GradientConcurrencyLimit {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private final double rttTolerance;
+
+    private final double longWindowFactor;
+
+    private final double shortWindowFactor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    private double longRtt;
+
+    private double shortRtt;
+
+    /**
+     * @param initialLimit Limit before the first measurement.
+     * @param minLimit     The limit never drops below, so a slow database cannot shut the service down.
+     * @param maxLimit     The limit never grows beyond, e.g. the number of request threads.
+     * @param smoothing    Share of a new limit in the smoothed limit (0 to 1).
+     * @param rttTolerance Factor by which the latency may rise before the limit shrinks, e.g. 1.5.
+     * @param longWindow   Number of requests averaged into the baseline latency.
+     * @param shortWindow  Number of requests averaged into the current latency.
+     */
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double rttTolerance, int longWindow, int shortWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.longWindowFactor = 2d / (longWindow + 1);
+        this.shortWindowFactor = 2d / (shortWindow + 1);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Tries to admit a request.
+     *
+     * @return The number of requests in flight including this one, or 0 if the limit is reached and the request must be rejected.
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = this.inFlight.get();
+            if (current >= (int) this.limit) {
+                return 0;
+            }
+            if (this.inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and adapts the limit to its latency.
+     *
+     * @param rttNanos Latency of the request in nanoseconds.
+     * @param inFlight Number of requests in flight when it has been admitted, see {@link #tryAcquire()}.
+     * @param sample   Whether the latency is representative. Failed requests are often fast and would raise the limit.
+     */
+    public void release(long rttNanos, int inFlight, boolean sample) {
+        this.inFlight.decrementAndGet();
+        if (sample) {
+            update(rttNanos, inFlight);
+        }
+    }
+
+    private synchronized void update(long rttNanos, int inFlight) {
+        if (this.longRtt == 0) {
+            this.longRtt = rttNanos;
+            this.shortRtt = rttNanos;
+            return;
+        }
+        this.shortRtt += (rttNanos - this.shortRtt) * this.shortWindowFactor;
+        this.longRtt += (rttNanos - this.longRtt) * this.longWindowFactor;
+
+        // After an overload the baseline has drifted up, let it recover quickly once the latency is low again
+        if (this.longRtt > 2 * this.shortRtt) {
+            this.longRtt *= 0.95;
+        }
+
+        // Not limited by the limit: the latency says nothing about a higher one
+        if (inFlight < this.limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1, this.rttTolerance * this.longRtt / this.shortRtt));
+        double newLimit = this.limit * gradient + Math.sqrt(this.limit);
+        newLimit = this.limit * (1 - this.smoothing) + newLimit * this.smoothing;
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, newLimit));
+    }
+
+    /**
+     * @return The current limit of concurrent requests.
+     */
+    public int getLimit() {
+        return (int) this.limit;
+    }
+
+    /**
+     * @return The number of requests in flight.
+     */
+    public int getInFlight() {
+        return this.inFlight.get();
+    }
+}
@@ -0,0 +1,203 @@
+package de.mteklic.hotelmanager.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.mteklic.hotelmanager.model.dto.ApiError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the configured (write) endpoints, see {@link RateLimitProperties}.
+ * ---
+ * Every client (known API key or IP address) has one {@link TokenBucket} per endpoint. Requests without a token
+ * are rejected with 429 and a Retry-After header before they reach a controller or a database connection.
+ * API keys are only trusted if they are configured, otherwise a client could get a new bucket per request by
+ * sending a new key every time. Buckets are looked up without a global lock. Their number is bounded: a new client
+ * evicts the least recently used of a small sample of buckets, and the idle eviction trims them to the exact bound.
+ * Admitted and throttled requests are counted per endpoint in the metric hotelmanager.rate-limit.requests.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 20)
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "hotelmanager.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    /**
+     * Number of buckets compared when a new client exceeds the maximum number of buckets.
+     */
+    private static final int EVICTION_SAMPLES = 16;
+
+    /**
+     * A configured endpoint with its parsed path pattern and counters.
+     */
+    private record Rule(RateLimitProperties.Endpoint endpoint, PathPattern pattern, Counter admitted, Counter throttled) {
+
+        boolean matches(HttpServletRequest request, PathContainer path) {
+            return this.endpoint.method().equalsIgnoreCase(request.getMethod()) && this.pattern.matches(path);
+        }
+    }
+
+    private final RateLimitProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final List<Rule> rules;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry){
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.rules = properties.endpoints().stream()
+                .map(endpoint -> new Rule(endpoint,
+                        PathPatternParser.defaultInstance.parse(endpoint.path()),
+                        Counter.builder("hotelmanager.rate-limit.requests").tag("endpoint", endpoint.name()).tag("outcome", "admitted").register(meterRegistry),
+                        Counter.builder("hotelmanager.rate-limit.requests").tag("endpoint", endpoint.name()).tag("outcome", "throttled").register(meterRegistry)))
+                .toList();
+        meterRegistry.gaugeMapSize("hotelmanager.rate-limit.buckets", List.of(), this.buckets);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Rule rule = findRule(request);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.nanoTime();
+        long waitNanos = bucket(rule, clientOf(request), now).tryConsume(now);
+        if (waitNanos == 0) {
+            rule.admitted().increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rule.throttled().increment();
+        reject(request, response, rule, waitNanos);
+    }
+
+    /**
+     * Removes the buckets of clients which have been idle for longer than the configured idle eviction.
+     * An evicted client starts with a full bucket again, which is the state its bucket would have reached anyway.
+     * If there are still more buckets than allowed (the eviction of new clients is only approximate), the least
+     * recently used ones are removed as well.
+     */
+    @Scheduled(fixedDelayString = "${hotelmanager.rate-limit.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        long idleSince = System.nanoTime() - this.properties.idleEviction().toNanos();
+        int before = this.buckets.size();
+        this.buckets.values().removeIf(bucket -> bucket.getLastAccessedAt() - idleSince < 0);
+        int idle = before - this.buckets.size();
+
+        int excess = this.buckets.size() - this.properties.maxBuckets();
+        if (excess > 0) {
+            this.buckets.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().getLastAccessedAt() - idleSince))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(this.buckets::remove);
+        }
+        log.debug("Evicted {} idle and {} least recently used rate limit buckets", idle, Math.max(0, excess));
+    }
+
+    private Rule findRule(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Rule rule : this.rules) {
+            if (rule.matches(request, path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(this.properties.clientHeader());
+        return apiKey != null && this.properties.apiKeys().contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private TokenBucket bucket(Rule rule, String client, long now) {
+        String key = rule.endpoint().name() + "|" + client;
+        TokenBucket bucket = this.buckets.get(key);
+        if (bucket == null) {
+            bucket = this.buckets.computeIfAbsent(key, k -> new TokenBucket(rule.endpoint().capacity(), rule.endpoint().refillPerSecond(), now));
+            // Bounds the memory if a flood of distinct clients (e.g. spoofed addresses) arrives
+            if (this.buckets.size() > this.properties.maxBuckets()) {
+                evictSampledBucket(key);
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Removes the least recently used bucket of a sample, other than the bucket of the new client.
+     * The sample is exact as long as there are not more buckets than samples.
+     */
+    private void evictSampledBucket(String newKey) {
+        String eldestKey = null;
+        long eldestAccessedAt = 0;
+        int sampled = 0;
+        for (Map.Entry<String, TokenBucket> entry : this.buckets.entrySet()) {
+            if (entry.getKey().equals(newKey)) {
+                continue;
+            }
+            long accessedAt = entry.getValue().getLastAccessedAt();
+            if (eldestKey == null || accessedAt - eldestAccessedAt < 0) {
+                eldestKey = entry.getKey();
+                eldestAccessedAt = accessedAt;
+            }
+            if (++sampled == EVICTION_SAMPLES) {
+                break;
+            }
+        }
+        if (eldestKey != null) {
+            this.buckets.remove(eldestKey);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, Rule rule, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.debug("Throttled {} {} of {}, retry after {}s", request.getMethod(), request.getRequestURI(), clientOf(request), retryAfterSeconds);
+
+        ApiError apiError = ApiError.builder()
+                .path(request.getRequestURI())
+                .message(String.format("Too many requests for %s, retry after %d seconds.", rule.endpoint().name(), retryAfterSeconds))
+                .statusCode(HttpStatus.TOO_MANY_REQUESTS.value())
+                .localDateTime(LocalDateTime.now())
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        this.objectMapper.writeValue(response.getOutputStream(), apiError);
+    }
+}
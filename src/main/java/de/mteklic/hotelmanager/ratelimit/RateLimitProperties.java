@@ -0,0 +1,40 @@
+package de.mteklic.hotelmanager.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Configuration of the rate limits, prefix hotelmanager.rate-limit.
+ *
+ * @param enabled       Whether requests are rate limited at all.
+ * @param clientHeader  Header carrying the API key of a client.
+ * @param apiKeys       Known API keys. Only a known key identifies a client, all other clients are identified by their IP address.
+ * @param idleEviction  Buckets of clients which have been idle for this time are removed.
+ * @param maxBuckets    Maximum number of buckets held in memory. If reached, the least recently used of a sample of buckets
+ *                      is removed, the idle eviction trims to the exact maximum.
+ * @param endpoints     Rate limited endpoints. Requests which match none of them are not limited.
+ */
+@ConfigurationProperties(prefix = "hotelmanager.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("X-API-Key") String clientHeader,
+                                  @DefaultValue Set<String> apiKeys,
+                                  @DefaultValue("10m") Duration idleEviction,
+                                  @DefaultValue("100000") int maxBuckets,
+                                  @DefaultValue List<Endpoint> endpoints) {
+
+    /**
+     * A rate limited endpoint. Every client has its own bucket per endpoint.
+     *
+     * @param name            Name of the endpoint, used in metrics.
+     * @param method          HTTP method, e.g. POST.
+     * @param path            Path pattern, e.g. /api/v1/bookings/*.
+     * @param capacity        Maximum burst of requests per client.
+     * @param refillPerSecond Sustained requests per second per client.
+     */
+    public record Endpoint(String name, String method, String path, long capacity, double refillPerSecond) {
+    }
+}
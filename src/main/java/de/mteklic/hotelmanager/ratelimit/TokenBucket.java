@@ -0,0 +1,63 @@
+package de.mteklic.hotelmanager.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket.
+ * The bucket holds up to capacity tokens and is refilled continuously. Every admitted request consumes one token.
+ * The state is replaced atomically (compare-and-set), so concurrent requests of the same client never block each other.
+ */
+public class TokenBucket {
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    private final long capacity;
+
+    private final double tokensPerNano;
+
+    private final AtomicReference<State> state;
+
+    private volatile long lastAccessedAt;
+
+    /**
+     * @param capacity        Maximum number of tokens, i.e. the allowed burst.
+     * @param refillPerSecond Number of tokens added per second, i.e. the sustained rate.
+     * @param nowNanos        Current time in nanoseconds, see {@link System#nanoTime()}.
+     */
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+        this.lastAccessedAt = nowNanos;
+    }
+
+    /**
+     * Tries to consume one token.
+     *
+     * @param nowNanos Current time in nanoseconds, see {@link System#nanoTime()}.
+     * @return 0 if a token has been consumed, otherwise the nanoseconds until the next token is available.
+     */
+    public long tryConsume(long nowNanos) {
+        this.lastAccessedAt = nowNanos;
+        while (true) {
+            State current = this.state.get();
+            long refilledAt = Math.max(nowNanos, current.refilledAt());
+            double tokens = Math.min(this.capacity, current.tokens() + (refilledAt - current.refilledAt()) * this.tokensPerNano);
+
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / this.tokensPerNano);
+            }
+            if (this.state.compareAndSet(current, new State(tokens - 1, refilledAt))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return Time of the last request in nanoseconds, used to evict buckets of idle clients.
+     */
+    public long getLastAccessedAt() {
+        return this.lastAccessedAt;
+    }
+}
@@ -1,17 +1,25 @@
 package de.mteklic.hotelmanager.repository;
 
 import de.mteklic.hotelmanager.model.Booking;
+import de.mteklic.hotelmanager.model.BookingInterval;
+import de.mteklic.hotelmanager.model.dto.SyncDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.ListCrudRepository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing {@link Booking} entities.
  */
-public interface BookingRepository extends ListCrudRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+public interface BookingRepository extends ListCrudRepository<Booking, Long>, JpaSpecificationExecutor<Booking>, BookingRepositoryCustom {
 
     /**
      * Retrieves all bookings associated with the specified room ID.
@@ -21,6 +29,18 @@ public interface BookingRepository extends ListCrudRepository<Booking, Long>, Jp
      */
     List<Booking> findAllByRoomId(Long roomId);
 
+    /**
+     * Checks whether the room has any booking which overlaps with the given date range.
+     * The condition on the end date restricts the query to the partitions of the range and later.
+     *
+     * @param roomId    the ID of the room
+     * @param startDate start of the range (inclusive)
+     * @param endDate   end of the range (inclusive)
+     * @return true if at least one booking overlaps
+     */
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.room.id = :roomId AND b.endDate >= :startDate AND b.startDate <= :endDate")
+    boolean existsOverlapping(Long roomId, LocalDate startDate, LocalDate endDate);
+
     /**
      * Retrieves all bookings associated with the specified list of room IDs using a native query.
      * ---
@@ -31,4 +51,58 @@ public interface BookingRepository extends ListCrudRepository<Booking, Long>, Jp
      */
     @Query(value = "SELECT * FROM booking WHERE room_id IN (:roomIds)", nativeQuery = true)
     List<Booking> findAllByRoomIds(List<Long> roomIds);
+
+    /**
+     * Retrieves the bookings with the specified IDs together with the IDs of their rooms, without loading the rooms.
+     *
+     * @param ids the IDs of the bookings
+     * @return the found bookings, missing IDs are skipped
+     */
+    @Query("SELECT new de.mteklic.hotelmanager.model.dto.SyncDto$BookingEntry(b.id, b.room.id, b.startDate, b.endDate) FROM Booking b WHERE b.id IN :ids")
+    List<SyncDto.BookingEntry> findSyncEntries(List<Long> ids);
+
+    /**
+     * Streams the date ranges of all bookings which overlap with the given date range.
+     * Only the projected columns are read, no entities are loaded into the persistence context.
+     * Must be called (and the stream consumed and closed) within a transaction.
+     *
+     * @param startDate start of the range (inclusive)
+     * @param endDate   end of the range (inclusive)
+     * @return a stream of overlapping booking intervals
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new de.mteklic.hotelmanager.model.BookingInterval(b.room.id, b.room.roomSize, b.startDate, b.endDate) " +
+            "FROM Booking b WHERE b.startDate <= :endDate AND b.endDate >= :startDate")
+    Stream<BookingInterval> streamOverlappingIntervals(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Same as {@link #streamOverlappingIntervals(LocalDate, LocalDate)}, but restricted to the rooms of one partition.
+     * A room belongs to partition {@code roomId % partitions}.
+     *
+     * @param startDate  start of the range (inclusive)
+     * @param endDate    end of the range (inclusive)
+     * @param partitions total number of partitions
+     * @param partition  the partition to read, between 0 and partitions - 1
+     * @return a stream of overlapping booking intervals of the partition
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new de.mteklic.hotelmanager.model.BookingInterval(b.room.id, b.room.roomSize, b.startDate, b.endDate) " +
+            "FROM Booking b WHERE b.startDate <= :endDate AND b.endDate >= :startDate AND MOD(b.room.id, :partitions) = :partition")
+    Stream<BookingInterval> streamOverlappingIntervals(LocalDate startDate, LocalDate endDate, long partitions, long partition);
+
+    /**
+     * Returns the last booked day over all bookings.
+     *
+     * @return the maximum end date, empty if there are no bookings at all
+     */
+    @Query("SELECT MAX(b.endDate) FROM Booking b")
+    Optional<LocalDate> findLastBookedDay();
+
+    /**
+     * Returns the highest ID of all bookings, e.g. to find the bookings created by a bulk insert.
+     *
+     * @return the maximum ID, 0 if there are no bookings at all
+     */
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM Booking b")
+    long findMaxId();
 }
@@ -0,0 +1,35 @@
+package de.mteklic.hotelmanager.repository;
+
+import de.mteklic.hotelmanager.model.Booking;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Custom repository methods for {@link Booking} entities, which are not covered by Spring Data.
+ */
+public interface BookingRepositoryCustom {
+
+    /**
+     * Inserts all bookings with PostgreSQL COPY, see {@link RoomRepositoryCustom#copyAll}.
+     * Only the id of the booked room is used. Timestamps which are not set default to now.
+     * Has to be called within a transaction, the room_day_status of the bookings is not maintained.
+     *
+     * @param bookings the bookings to insert
+     * @return the number of inserted bookings
+     */
+    long copyAll(Iterator<Booking> bookings);
+
+    /**
+     * Inserts one booking per room for the same date range with a single statement.
+     * The room_day_status of the bookings is not maintained.
+     *
+     * @param roomIds   the IDs of the booked rooms
+     * @param startDate the start date of all bookings
+     * @param endDate   the end date of all bookings
+     * @return the IDs of the inserted bookings by room ID
+     */
+    Map<Long, Long> insertAll(List<Long> roomIds, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,58 @@
+package de.mteklic.hotelmanager.repository;
+
+import de.mteklic.hotelmanager.model.Booking;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link BookingRepositoryCustom}, picked up by Spring Data via its name.
+ */
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private static final String COPY_BOOKINGS = "COPY bookings (room_id, start_date, end_date, created_at, updated_at) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT_BOOKINGS = "INSERT INTO bookings (room_id, start_date, end_date, created_at, updated_at) " +
+            "SELECT room_id, ?, ?, localtimestamp, localtimestamp FROM unnest(CAST(? AS bigint[])) AS room_id RETURNING id, room_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingRepositoryCustomImpl(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long copyAll(Iterator<Booking> bookings) {
+        String now = LocalDateTime.now().toString();
+        return PgCopy.copy(this.jdbcTemplate, COPY_BOOKINGS, bookings, booking -> toCsv(booking, now));
+    }
+
+    @Override
+    public Map<Long, Long> insertAll(List<Long> roomIds, LocalDate startDate, LocalDate endDate) {
+        Map<Long, Long> bookingIds = new HashMap<>();
+        this.jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_BOOKINGS);
+            statement.setDate(1, Date.valueOf(startDate));
+            statement.setDate(2, Date.valueOf(endDate));
+            statement.setArray(3, connection.createArrayOf("bigint", roomIds.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> bookingIds.put(rs.getLong("room_id"), rs.getLong("id")));
+        return bookingIds;
+    }
+
+    private static String toCsv(Booking booking, String now) {
+        return booking.getRoom().getId() + "," +
+                booking.getStartDate() + ',' +
+                booking.getEndDate() + ',' +
+                (booking.getCreatedAt() == null ? now : booking.getCreatedAt().toString()) + ',' +
+                (booking.getUpdatedAt() == null ? now : booking.getUpdatedAt().toString()) + '\n';
+    }
+}
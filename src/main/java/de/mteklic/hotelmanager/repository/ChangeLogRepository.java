@@ -0,0 +1,132 @@
+package de.mteklic.hotelmanager.repository;
+
+import de.mteklic.hotelmanager.model.ChangeLogEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link ChangeLogEntry} entities.
+ * All writes take the next seq from change_log_seq and must be called after {@link #lockSequence}.
+ */
+public interface ChangeLogRepository extends ListCrudRepository<ChangeLogEntry, ChangeLogEntry.Key> {
+
+    /**
+     * Key of the transaction level advisory lock which serialises the writers of the change log.
+     */
+    long SEQUENCE_LOCK = 0x63686c67L;
+
+    /**
+     * Waits for the advisory lock of the change log until the end of the transaction.
+     * Seqs taken while holding it are committed in ascending order.
+     *
+     * @param key the key of the lock, {@link #SEQUENCE_LOCK}
+     * @return always 1
+     */
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(:key)) l", nativeQuery = true)
+    long lockSequence(long key);
+
+    /**
+     * Finds the changes after the seq in the order they have been committed.
+     *
+     * @param seq   the seq of the last change the client has seen
+     * @param limit the maximum number of changes
+     * @return the changes ordered by seq
+     */
+    List<ChangeLogEntry> findAllBySeqGreaterThanOrderBySeq(long seq, Limit limit);
+
+    /**
+     * Records the existing rooms of the IDs as changed.
+     *
+     * @param roomIds the IDs of the rooms
+     * @return the number of recorded rooms, rooms which do not exist anymore are not counted
+     */
+    @Modifying
+    @Query(value = "INSERT INTO change_log (entity_type, entity_id, room_id, seq, deleted, changed_at) " +
+            "SELECT 'ROOM', r.id, r.id, nextval('change_log_seq'), false, now() FROM rooms r WHERE r.id IN (:roomIds) " +
+            "ON CONFLICT (entity_type, entity_id) DO UPDATE SET seq = EXCLUDED.seq, deleted = false, changed_at = EXCLUDED.changed_at", nativeQuery = true)
+    int recordRooms(List<Long> roomIds);
+
+    /**
+     * Records the existing bookings of the IDs as changed.
+     *
+     * @param bookingIds the IDs of the bookings
+     * @return the number of recorded bookings
+     */
+    @Modifying
+    @Query(value = "INSERT INTO change_log (entity_type, entity_id, room_id, seq, deleted, changed_at) " +
+            "SELECT 'BOOKING', b.id, b.room_id, nextval('change_log_seq'), false, now() FROM bookings b WHERE b.id IN (:bookingIds) " +
+            "ON CONFLICT (entity_type, entity_id) DO UPDATE SET room_id = EXCLUDED.room_id, seq = EXCLUDED.seq, deleted = false, changed_at = EXCLUDED.changed_at", nativeQuery = true)
+    int recordBookings(List<Long> bookingIds);
+
+    /**
+     * Replaces the entries of deleted entities by tombstones.
+     *
+     * @param entityType ROOM or BOOKING
+     * @param entityIds  the IDs of the deleted entities
+     * @return the number of tombstones
+     */
+    @Modifying
+    @Query(value = "UPDATE change_log SET seq = nextval('change_log_seq'), deleted = true, changed_at = now() " +
+            "WHERE entity_type = :entityType AND entity_id IN (:entityIds) AND NOT deleted", nativeQuery = true)
+    int recordDeleted(String entityType, List<Long> entityIds);
+
+    /**
+     * Replaces the entries of the bookings of a deleted room by tombstones, they are deleted together with the room.
+     *
+     * @param roomId the ID of the deleted room
+     * @return the number of tombstones
+     */
+    @Modifying
+    @Query(value = "UPDATE change_log SET seq = nextval('change_log_seq'), deleted = true, changed_at = now() " +
+            "WHERE entity_type = 'BOOKING' AND room_id = :roomId AND NOT deleted", nativeQuery = true)
+    int recordDeletedBookingsOfRoom(Long roomId);
+
+    /**
+     * Records the existing rooms with IDs in the range as changed, e.g. after a bulk import.
+     *
+     * @param fromId the first ID (inclusive)
+     * @param toId   the last ID (inclusive)
+     * @return the number of recorded rooms
+     */
+    @Modifying
+    @Query(value = "INSERT INTO change_log (entity_type, entity_id, room_id, seq, deleted, changed_at) " +
+            "SELECT 'ROOM', r.id, r.id, nextval('change_log_seq'), false, now() FROM rooms r WHERE r.id BETWEEN :fromId AND :toId " +
+            "ON CONFLICT (entity_type, entity_id) DO UPDATE SET seq = EXCLUDED.seq, deleted = false, changed_at = EXCLUDED.changed_at", nativeQuery = true)
+    int recordRoomRange(long fromId, long toId);
+
+    /**
+     * Records the existing bookings with IDs in the range as changed, e.g. after a bulk import.
+     *
+     * @param fromId the first ID (inclusive)
+     * @param toId   the last ID (inclusive)
+     * @return the number of recorded bookings
+     */
+    @Modifying
+    @Query(value = "INSERT INTO change_log (entity_type, entity_id, room_id, seq, deleted, changed_at) " +
+            "SELECT 'BOOKING', b.id, b.room_id, nextval('change_log_seq'), false, now() FROM bookings b WHERE b.id BETWEEN :fromId AND :toId " +
+            "ON CONFLICT (entity_type, entity_id) DO UPDATE SET room_id = EXCLUDED.room_id, seq = EXCLUDED.seq, deleted = false, changed_at = EXCLUDED.changed_at", nativeQuery = true)
+    int recordBookingRange(long fromId, long toId);
+
+    /**
+     * @return the highest seq of all purged tombstones, 0 if none has been purged
+     */
+    @Query(value = "SELECT purged_seq FROM change_log_state WHERE id = 1", nativeQuery = true)
+    long findPurgedSeq();
+
+    /**
+     * Deletes the tombstones which are older than the date and remembers the highest purged seq.
+     *
+     * @param before tombstones changed before are purged
+     * @return 1 if tombstones have been purged, otherwise 0
+     */
+    @Modifying
+    @Query(value = "WITH purged AS (DELETE FROM change_log WHERE deleted AND changed_at < :before RETURNING seq) " +
+            "UPDATE change_log_state SET purged_seq = GREATEST(purged_seq, (SELECT coalesce(max(seq), 0) FROM purged)) " +
+            "WHERE id = 1 AND EXISTS (SELECT 1 FROM purged)", nativeQuery = true)
+    int purgeTombstones(LocalDateTime before);
+}
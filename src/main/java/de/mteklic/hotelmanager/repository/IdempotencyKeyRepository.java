@@ -0,0 +1,50 @@
+package de.mteklic.hotelmanager.repository;
+
+import de.mteklic.hotelmanager.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for managing {@link IdempotencyKey} entities.
+ */
+public interface IdempotencyKeyRepository extends ListCrudRepository<IdempotencyKey, String> {
+
+    /**
+     * Inserts a key, unless a key with the same value exists which has been created after expiredBefore.
+     * An expired key is replaced. If another transaction is inserting the same key, this waits for its outcome.
+     *
+     * @param key           the idempotency key
+     * @param fingerprint   the hash of the request
+     * @param createdAt     the creation time
+     * @param expiredBefore keys created before this time are expired
+     * @return 1 if the key has been inserted, 0 if a valid key exists already
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at) VALUES (:key, :fingerprint, :createdAt) " +
+            "ON CONFLICT (idempotency_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, response_body = NULL, created_at = EXCLUDED.created_at " +
+            "WHERE idempotency_keys.created_at < :expiredBefore", nativeQuery = true)
+    int insertKey(String key, String fingerprint, LocalDateTime createdAt, LocalDateTime expiredBefore);
+
+    /**
+     * Stores the serialised response of a key.
+     *
+     * @param key          the idempotency key
+     * @param responseBody the serialised response
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.responseBody = :responseBody WHERE k.key = :key")
+    void storeResponse(String key, String responseBody);
+
+    /**
+     * Removes all keys which have been created before the specified time.
+     *
+     * @param createdAt the oldest creation time to keep
+     * @return the number of removed keys
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :createdAt")
+    int deleteAllByCreatedAtBefore(LocalDateTime createdAt);
+}
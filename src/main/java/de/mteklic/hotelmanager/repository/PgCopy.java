@@ -0,0 +1,68 @@
+package de.mteklic.hotelmanager.repository;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * Streams rows into PostgreSQL with COPY ... FROM STDIN, shared by the custom repository implementations.
+ */
+final class PgCopy {
+
+    /**
+     * Rows are sent to the database in chunks of about this size.
+     */
+    private static final int CHUNK_BYTES = 64 * 1024;
+
+    private PgCopy() {
+    }
+
+    /**
+     * Copies all elements on the connection of the current transaction, so they are committed or rolled back with it.
+     *
+     * @param jdbcTemplate JdbcTemplate of the data source.
+     * @param copySql      COPY statement reading CSV from STDIN.
+     * @param rows         Elements to copy, consumed lazily.
+     * @param toCsv        Converts an element into one CSV line, including the line break.
+     * @return Number of copied rows.
+     */
+    static <T> long copy(JdbcTemplate jdbcTemplate, String copySql, Iterator<T> rows, Function<T, String> toCsv) {
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+            try {
+                ByteArrayOutputStream chunk = new ByteArrayOutputStream(CHUNK_BYTES + 1024);
+                while (rows.hasNext()) {
+                    chunk.writeBytes(toCsv.apply(rows.next()).getBytes(StandardCharsets.UTF_8));
+                    if (chunk.size() >= CHUNK_BYTES) {
+                        copyIn.writeToCopy(chunk.toByteArray(), 0, chunk.size());
+                        chunk.reset();
+                    }
+                }
+                if (chunk.size() > 0) {
+                    copyIn.writeToCopy(chunk.toByteArray(), 0, chunk.size());
+                }
+                return copyIn.endCopy();
+            } catch (SQLException | RuntimeException e) {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+                throw e;
+            }
+        });
+        return copied == null ? 0 : copied;
+    }
+
+    /**
+     * Quotes a CSV value. Null is written as empty, unquoted value, which COPY reads as NULL.
+     */
+    static String quote(String value) {
+        return value == null ? "" : '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
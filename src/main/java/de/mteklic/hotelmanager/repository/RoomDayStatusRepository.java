@@ -0,0 +1,113 @@
+package de.mteklic.hotelmanager.repository;
+
+import de.mteklic.hotelmanager.model.RoomDayStatus;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link RoomDayStatus} entities.
+ * All writes are native set-based statements, one statement per booking instead of one per day.
+ */
+public interface RoomDayStatusRepository extends ListCrudRepository<RoomDayStatus, RoomDayStatus.Key> {
+
+    /**
+     * Marks every day of the range as booked for the room.
+     * Days which are already booked are left untouched and are not counted.
+     *
+     * @param roomId    the ID of the room
+     * @param startDate first day (inclusive)
+     * @param endDate   last day (inclusive)
+     * @return the number of days which have been marked
+     */
+    @Modifying
+    @Query(value = "INSERT INTO room_day_status (room_id, day, booked) " +
+            "SELECT :roomId, CAST(d AS date), true FROM generate_series(CAST(:startDate AS date), CAST(:endDate AS date), interval '1 day') AS d " +
+            "ON CONFLICT (room_id, day) DO NOTHING", nativeQuery = true)
+    int markBooked(Long roomId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Marks every day of the range as booked for all rooms, see {@link #markBooked}.
+     *
+     * @param roomIds   the IDs of the rooms
+     * @param startDate first day (inclusive)
+     * @param endDate   last day (inclusive)
+     * @return the number of days which have been marked, over all rooms
+     */
+    @Modifying
+    @Query(value = "INSERT INTO room_day_status (room_id, day, booked) " +
+            "SELECT r.id, CAST(d AS date), true FROM rooms r CROSS JOIN generate_series(CAST(:startDate AS date), CAST(:endDate AS date), interval '1 day') AS d " +
+            "WHERE r.id IN (:roomIds) " +
+            "ON CONFLICT (room_id, day) DO NOTHING", nativeQuery = true)
+    int markBookedAll(List<Long> roomIds, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Marks every day of the range as free for the room.
+     *
+     * @param roomId    the ID of the room
+     * @param startDate first day (inclusive)
+     * @param endDate   last day (inclusive)
+     * @return the number of days which have been freed
+     */
+    @Modifying
+    @Query(value = "DELETE FROM room_day_status WHERE room_id = :roomId AND day BETWEEN :startDate AND :endDate", nativeQuery = true)
+    int markFree(Long roomId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Finds the booked days of a room within a range.
+     *
+     * @param roomId    the ID of the room
+     * @param startDate first day (inclusive)
+     * @param endDate   last day (inclusive)
+     * @return the booked days in ascending order
+     */
+    @Query("SELECT s.day FROM RoomDayStatus s WHERE s.roomId = :roomId AND s.day BETWEEN :startDate AND :endDate ORDER BY s.day")
+    List<LocalDate> findBookedDays(Long roomId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Removes all days of a room, e.g. when the room itself gets deleted.
+     *
+     * @param roomId the ID of the room
+     * @return the number of removed days
+     */
+    @Modifying
+    @Query(value = "DELETE FROM room_day_status WHERE room_id = :roomId", nativeQuery = true)
+    int deleteAllByRoomId(Long roomId);
+
+    /**
+     * Removes all days of all rooms within the range. Used before rebuilding the range from the bookings table.
+     *
+     * @param startDate first day (inclusive)
+     * @param endDate   last day (inclusive)
+     * @return the number of removed days
+     */
+    @Modifying
+    @Query(value = "DELETE FROM room_day_status WHERE day BETWEEN :startDate AND :endDate", nativeQuery = true)
+    int deleteRange(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Rebuilds the booked days of all rooms within the range from the bookings table.
+     *
+     * @param startDate first day (inclusive)
+     * @param endDate   last day (inclusive)
+     * @return the number of inserted days
+     */
+    @Modifying
+    @Query(value = "INSERT INTO room_day_status (room_id, day, booked) " +
+            "SELECT b.room_id, CAST(d AS date), true FROM bookings b " +
+            "CROSS JOIN LATERAL generate_series(GREATEST(b.start_date, CAST(:startDate AS date)), LEAST(b.end_date, CAST(:endDate AS date)), interval '1 day') AS d " +
+            "WHERE b.start_date <= :endDate AND b.end_date >= :startDate " +
+            "ON CONFLICT (room_id, day) DO NOTHING", nativeQuery = true)
+    int rebuildRange(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Locks the table against concurrent writers (but not readers) until the end of the transaction.
+     * Prevents bookings from being changed while a range gets rebuilt.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE room_day_status IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+}
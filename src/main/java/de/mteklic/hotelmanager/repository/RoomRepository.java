@@ -1,7 +1,9 @@
 package de.mteklic.hotelmanager.repository;
 
 import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomSize;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.ListCrudRepository;
 
@@ -10,4 +12,39 @@ import java.util.List;
 /**
  * Repository interface for managing {@link Room} entities.
  */
-public interface RoomRepository extends ListCrudRepository<Room, Long>, JpaSpecificationExecutor<Room> { }
+public interface RoomRepository extends ListCrudRepository<Room, Long>, JpaSpecificationExecutor<Room>, RoomRepositoryCustom {
+
+    /**
+     * Counts all rooms of the specified size.
+     *
+     * @param roomSize the size of the rooms
+     * @return the number of rooms with this size
+     */
+    long countByRoomSize(RoomSize roomSize);
+
+    /**
+     * Returns the IDs of all rooms, without loading the rooms.
+     *
+     * @return the IDs of all rooms
+     */
+    @Query("SELECT r.id FROM Room r")
+    List<Long> findAllIds();
+
+    /**
+     * Returns the highest ID of all rooms, e.g. to find the rooms created by a bulk insert.
+     *
+     * @return the maximum ID, 0 if there are no rooms at all
+     */
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM Room r")
+    long findMaxId();
+
+    /**
+     * Returns the IDs of all rooms matching the optional criteria, without loading the rooms.
+     *
+     * @param roomSize   the size of the rooms, or null for all sizes
+     * @param hasMinibar whether the rooms have a minibar, or null for both
+     * @return the IDs of the matching rooms in ascending order
+     */
+    @Query("SELECT r.id FROM Room r WHERE (:roomSize IS NULL OR r.roomSize = :roomSize) AND (:hasMinibar IS NULL OR r.hasMinibar = :hasMinibar) ORDER BY r.id")
+    List<Long> findIds(RoomSize roomSize, Boolean hasMinibar);
+}
@@ -0,0 +1,38 @@
+package de.mteklic.hotelmanager.repository;
+
+import de.mteklic.hotelmanager.model.FreeRoom;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomSize;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Custom repository methods for {@link Room} entities, which are not covered by Spring Data.
+ */
+public interface RoomRepositoryCustom {
+
+    /**
+     * Inserts all rooms with PostgreSQL COPY, which is orders of magnitude faster than single inserts.
+     * The rooms are streamed to the database while the iterator is consumed, they are not held in memory.
+     * Has to be called within a transaction, the ids of the rooms are not set.
+     *
+     * @param rooms the rooms to insert
+     * @return the number of inserted rooms
+     */
+    long copyAll(Iterator<Room> rooms);
+
+    /**
+     * Finds all rooms matching the criteria which are not booked on any day of the range, in one query.
+     * The nearest booked days around the range are searched within the horizon only.
+     *
+     * @param roomSize    the size of the rooms, or null for all sizes
+     * @param hasMinibar  whether the rooms should have a minibar, or null for all rooms
+     * @param startDate   first day of the range (inclusive)
+     * @param endDate     last day of the range (inclusive)
+     * @param horizonDays number of days before and after the range which are searched for booked days
+     * @return the free rooms, ordered by id
+     */
+    List<FreeRoom> findFreeRooms(RoomSize roomSize, Boolean hasMinibar, LocalDate startDate, LocalDate endDate, int horizonDays);
+}
@@ -0,0 +1,74 @@
+package de.mteklic.hotelmanager.repository;
+
+import de.mteklic.hotelmanager.model.FreeRoom;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomSize;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Implementation of {@link RoomRepositoryCustom}, picked up by Spring Data via its name.
+ */
+public class RoomRepositoryCustomImpl implements RoomRepositoryCustom {
+
+    private static final String COPY_ROOMS = "COPY rooms (name, description, room_size, has_minibar, created_at, updated_at) FROM STDIN WITH (FORMAT csv)";
+
+    /**
+     * The free check and both neighbour lookups are answered from the primary key index of room_day_status.
+     */
+    private static final String FIND_FREE_ROOMS = "SELECT r.id, " +
+            "(SELECT max(s.day) FROM room_day_status s WHERE s.room_id = r.id AND s.day >= ? AND s.day < ?) AS previous_booked_day, " +
+            "(SELECT min(s.day) FROM room_day_status s WHERE s.room_id = r.id AND s.day > ? AND s.day <= ?) AS next_booked_day " +
+            "FROM rooms r " +
+            "WHERE NOT EXISTS (SELECT 1 FROM room_day_status s WHERE s.room_id = r.id AND s.day BETWEEN ? AND ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RoomRepositoryCustomImpl(JdbcTemplate jdbcTemplate){
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long copyAll(Iterator<Room> rooms) {
+        String now = LocalDateTime.now().toString();
+        return PgCopy.copy(this.jdbcTemplate, COPY_ROOMS, rooms, room -> toCsv(room, now));
+    }
+
+    private static String toCsv(Room room, String now) {
+        return PgCopy.quote(room.getName()) + ',' +
+                PgCopy.quote(room.getDescription()) + ',' +
+                room.getRoomSize().name() + ',' +
+                room.getHasMinibar() + ',' +
+                now + ',' +
+                now + '\n';
+    }
+
+    @Override
+    public List<FreeRoom> findFreeRooms(RoomSize roomSize, Boolean hasMinibar, LocalDate startDate, LocalDate endDate, int horizonDays) {
+        StringBuilder sql = new StringBuilder(FIND_FREE_ROOMS);
+        List<Object> args = new ArrayList<>(List.of(
+                Date.valueOf(startDate.minusDays(horizonDays)), Date.valueOf(startDate),
+                Date.valueOf(endDate), Date.valueOf(endDate.plusDays(horizonDays)),
+                Date.valueOf(startDate), Date.valueOf(endDate)));
+        if (roomSize != null) {
+            sql.append(" AND r.room_size = ?");
+            args.add(roomSize.name());
+        }
+        if (hasMinibar != null) {
+            sql.append(" AND r.has_minibar = ?");
+            args.add(hasMinibar);
+        }
+        sql.append(" ORDER BY r.id");
+
+        return this.jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new FreeRoom(
+                rs.getLong("id"),
+                rs.getObject("previous_booked_day", LocalDate.class),
+                rs.getObject("next_booked_day", LocalDate.class)), args.toArray());
+    }
+}
@@ -0,0 +1,84 @@
+package de.mteklic.hotelmanager.repository;
+
+import de.mteklic.hotelmanager.model.WaitlistEntry;
+import de.mteklic.hotelmanager.model.WaitlistStatus;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link WaitlistEntry} entities.
+ */
+public interface WaitlistEntryRepository extends ListCrudRepository<WaitlistEntry, Long> {
+
+    /**
+     * Finds all entries with the specified status.
+     *
+     * @param status the status of the entries
+     * @return the entries with this status
+     */
+    List<WaitlistEntry> findAllByStatus(WaitlistStatus status);
+
+    /**
+     * Finds all entries with the specified status which start before a date.
+     *
+     * @param status    the status of the entries
+     * @param startDate the first start date which is not returned
+     * @return the entries with this status which start before the date
+     */
+    List<WaitlistEntry> findAllByStatusAndStartDateBefore(WaitlistStatus status, LocalDate startDate);
+
+    /**
+     * Claims a waiting entry for a room. Only one of several concurrent claims of the same entry succeeds.
+     *
+     * @param id     the ID of the entry
+     * @param status the new status, OFFERED or BOOKED
+     * @param roomId the ID of the offered or booked room
+     * @return 1 if the entry has been claimed, 0 if it is not waiting anymore
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WaitlistEntry e SET e.status = :status, e.roomId = :roomId, e.updatedAt = LOCAL DATETIME " +
+            "WHERE e.id = :id AND e.status = de.mteklic.hotelmanager.model.WaitlistStatus.WAITING")
+    int claim(Long id, WaitlistStatus status, Long roomId);
+
+    /**
+     * Puts an entry claimed for booking back on the waitlist, e.g. if the room has been booked concurrently.
+     *
+     * @param id the ID of the entry
+     * @return 1 if the entry is waiting again, 0 if it has not been claimed for booking
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WaitlistEntry e SET e.status = de.mteklic.hotelmanager.model.WaitlistStatus.WAITING, e.roomId = null, e.updatedAt = LOCAL DATETIME " +
+            "WHERE e.id = :id AND e.status = de.mteklic.hotelmanager.model.WaitlistStatus.BOOKED AND e.bookingId IS NULL")
+    int unclaim(Long id);
+
+    /**
+     * Sets the booking of an entry which has been claimed for booking.
+     *
+     * @param id        the ID of the entry
+     * @param bookingId the ID of the booking
+     * @return the number of updated entries
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WaitlistEntry e SET e.bookingId = :bookingId, e.updatedAt = LOCAL DATETIME WHERE e.id = :id")
+    int setBookingId(Long id, Long bookingId);
+
+    /**
+     * Expires all waiting entries which start before a date. Entries claimed in the meantime are left untouched.
+     *
+     * @param startDate the first start date which is not expired
+     * @return the number of expired entries
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WaitlistEntry e SET e.status = de.mteklic.hotelmanager.model.WaitlistStatus.EXPIRED, e.updatedAt = LOCAL DATETIME " +
+            "WHERE e.status = de.mteklic.hotelmanager.model.WaitlistStatus.WAITING AND e.startDate < :startDate")
+    int expireAllStartingBefore(LocalDate startDate);
+}
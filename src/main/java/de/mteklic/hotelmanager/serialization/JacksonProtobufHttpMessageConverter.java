@@ -0,0 +1,137 @@
+package de.mteklic.hotelmanager.serialization;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schemagen.ProtobufSchemaGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads and writes application/x-protobuf with Jackson, without generated protobuf classes.
+ * ---
+ * The protobuf schema of every type is generated once from the Java type (e.g. the RoomDto and BookingDto records)
+ * and cached. Lists are wrapped into a {@link ProtobufList} message. Like in protobuf itself, empty nested lists
+ * are read back as null. Types for which no schema can be generated
+ * are not supported by this converter, so content negotiation falls back to another format.
+ */
+public class JacksonProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(JacksonProtobufHttpMessageConverter.class);
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<JavaType, Optional<ProtobufSchema>> schemas = new ConcurrentHashMap<>();
+
+    /**
+     * @param objectMapper ObjectMapper created with a ProtobufFactory.
+     */
+    public JacksonProtobufHttpMessageConverter(ObjectMapper objectMapper) {
+        super(APPLICATION_PROTOBUF);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        // Decided per type in canRead and canWrite
+        return true;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return canRead(mediaType) && schema(messageType(javaType(type, contextClass))) != null;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return canWrite(mediaType) && schema(messageType(javaType(type != null ? type : clazz, null))) != null;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+        JavaType javaType = javaType(type, contextClass);
+        return readJavaType(javaType, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException, HttpMessageNotReadableException {
+        return readJavaType(javaType(clazz, null), inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+        JavaType javaType = javaType(type != null ? type : object.getClass(), null);
+        JavaType messageType = messageType(javaType);
+        ProtobufSchema schema = schema(messageType);
+        if (schema == null) {
+            throw new HttpMessageNotWritableException("No protobuf schema for type " + javaType);
+        }
+
+        Object message = javaType.isCollectionLikeType() ? new ProtobufList<>(List.copyOf((Collection<?>) object)) : object;
+        this.objectMapper.writerFor(messageType).with(schema).writeValue(outputMessage.getBody(), message);
+    }
+
+    private Object readJavaType(JavaType javaType, HttpInputMessage inputMessage) throws IOException {
+        JavaType messageType = messageType(javaType);
+        ProtobufSchema schema = schema(messageType);
+        if (schema == null) {
+            throw new HttpMessageNotReadableException("No protobuf schema for type " + javaType, inputMessage);
+        }
+
+        Object message = this.objectMapper.readerFor(messageType).with(schema).readValue(inputMessage.getBody());
+        if (javaType.isCollectionLikeType()) {
+            // An empty list is encoded as empty message
+            List<?> items = message != null ? ((ProtobufList<?>) message).items() : null;
+            return items != null ? items : List.of();
+        }
+        return message;
+    }
+
+    private JavaType javaType(Type type, Class<?> contextClass) {
+        return this.objectMapper.constructType(GenericTypeResolver.resolveType(type, contextClass));
+    }
+
+    /**
+     * @return The type of the root message, i.e. the ProtobufList wrapper for collections.
+     */
+    private JavaType messageType(JavaType javaType) {
+        if (javaType.isCollectionLikeType()) {
+            return this.objectMapper.getTypeFactory().constructParametricType(ProtobufList.class, javaType.getContentType());
+        }
+        return javaType;
+    }
+
+    private ProtobufSchema schema(JavaType messageType) {
+        return this.schemas.computeIfAbsent(messageType, type -> {
+            if (type.isPrimitive() || type.isContainerType() || type.isJavaLangObject() || type.getRawClass().getName().startsWith("java.")) {
+                return Optional.empty();
+            }
+            try {
+                ProtobufSchemaGenerator generator = new ProtobufSchemaGenerator();
+                this.objectMapper.acceptJsonFormatVisitor(type, generator);
+                return Optional.of(generator.getGeneratedSchema());
+            } catch (JsonMappingException | RuntimeException e) {
+                log.debug("No protobuf schema for type {}: {}", type, e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+}
@@ -0,0 +1,12 @@
+package de.mteklic.hotelmanager.serialization;
+
+import java.util.List;
+
+/**
+ * Root message for lists in protobuf, which has no top-level repeated type.
+ *
+ * @param items The list elements.
+ * @param <T>   Type of the elements.
+ */
+public record ProtobufList<T>(List<T> items) {
+}
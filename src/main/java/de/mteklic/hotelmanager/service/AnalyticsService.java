@@ -0,0 +1,26 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
+import de.mteklic.hotelmanager.model.dto.OccupancyDto;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+
+public interface AnalyticsService {
+
+    /**
+     * Calculates the number of occupied rooms per room size for every day of a date range.
+     * All bookings overlapping with the range are streamed once and accumulated into per-day difference arrays,
+     * so a request costs O(bookings + days), independent of how the bookings are spread over the range.
+     *
+     * @param startDate First day of the range (inclusive).
+     * @param endDate   Last day of the range (inclusive).
+     * @param parallel  Whether the bookings should be read and accumulated in parallel over room partitions.
+     * @return OccupancyDto containing the daily occupancy for each room size.
+     * @throws StartAndOrEndDateNullException  If start or end date is null.
+     * @throws EndDateBeforeStartDateException If the end date is before the start date.
+     * @throws ResponseStatusException         If the range is longer than the supported maximum.
+     */
+    OccupancyDto getOccupancy(LocalDate startDate, LocalDate endDate, boolean parallel) throws StartAndOrEndDateNullException, EndDateBeforeStartDateException;
+}
@@ -0,0 +1,35 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.model.AvailabilityChangedEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Pushes availability changes of rooms to subscribed clients as Server-Sent Events.
+ */
+public interface AvailabilityStreamService {
+
+    /**
+     * Subscribes to the availability changes which match the filter.
+     *
+     * @param roomIds   Only changes of these rooms are sent, all rooms if null or empty.
+     * @param startDate Only changes overlapping the days from startDate are sent, unbounded if null.
+     * @param endDate   Only changes overlapping the days until endDate are sent, unbounded if null.
+     * @return The emitter of the subscription.
+     */
+    SseEmitter subscribe(List<Long> roomIds, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Sends the changed availability to all subscribers whose filter matches.
+     *
+     * @param event The booked or freed days of a room.
+     */
+    void handleAvailabilityChangedEvent(AvailabilityChangedEvent event);
+
+    /**
+     * Sends a heartbeat to all subscribers, which keeps idle connections open and detects closed ones.
+     */
+    void sendHeartbeats();
+}
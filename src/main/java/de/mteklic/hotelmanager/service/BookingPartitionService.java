@@ -0,0 +1,36 @@
+package de.mteklic.hotelmanager.service;
+
+import java.time.LocalDate;
+
+/**
+ * Maintains the monthly partitions of the bookings table (see db/migration/V1__create_schema.sql).
+ * ---
+ * Partition bookings_pYYYYMM holds all bookings which end in that month. Partitions of past months are moved to
+ * bookings_archive, so queries on bookings only touch the recent and future stays.
+ */
+public interface BookingPartitionService {
+
+    /**
+     * Creates the missing partitions of all months from startDate to endDate.
+     * Bookings of these months which are stored in the default partition are moved into the new partitions.
+     *
+     * @param startDate Any day of the first month.
+     * @param endDate   Any day of the last month.
+     * @return Number of created partitions.
+     */
+    int createPartitions(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Moves all partitions which end before the given day from bookings to bookings_archive.
+     *
+     * @param before First day which must stay in bookings.
+     * @return Number of archived partitions.
+     */
+    int archivePartitions(LocalDate before);
+
+    /**
+     * Creates the partitions of the coming months and archives the partitions of past months.
+     * This method is scheduled to run every night and on startup.
+     */
+    void maintainPartitions();
+}
@@ -0,0 +1,25 @@
+package de.mteklic.hotelmanager.service;
+
+import java.time.LocalDate;
+
+/**
+ * Moves past bookings from bookings to bookings_archive, so rooms and their payloads only carry recent and future stays.
+ * ---
+ * Complements the monthly partition archiving of {@link BookingPartitionService} with a shorter, day based retention.
+ */
+public interface BookingRetentionService {
+
+    /**
+     * Moves all bookings which ended before the given day, in batches of bounded size with a pause after every batch.
+     *
+     * @param before First day which is kept, bookings ending on an earlier day are archived.
+     * @return Number of archived bookings.
+     */
+    long archiveBookings(LocalDate before);
+
+    /**
+     * Archives all bookings which ended more than the configured number of days ago.
+     * This method is scheduled to run every night.
+     */
+    void applyRetention();
+}
@@ -0,0 +1,30 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.FlexibleSearchDto;
+
+import java.time.LocalDate;
+
+/**
+ * Searches free rooms for a stay whose dates may be moved by a few days ("I'm flexible ±3 days").
+ */
+public interface FlexibleSearchService {
+
+    /**
+     * Finds the free (room, date range) options for the stay, moved by up to flexibleDays in both directions.
+     * Options are ranked by the distance to the requested dates, earlier before later, then by room ID.
+     *
+     * @param startDate    Requested first night.
+     * @param endDate      Requested last night.
+     * @param flexibleDays Number of days the stay may be moved in both directions.
+     * @param roomSize     Optional size of the rooms.
+     * @param hasMinibar   Optional minibar criterion.
+     * @param limit        Maximum number of options.
+     * @return The best options.
+     * @throws StartAndOrEndDateNullException  If start or end date is missing.
+     * @throws EndDateBeforeStartDateException If the end date is before the start date.
+     */
+    FlexibleSearchDto search(LocalDate startDate, LocalDate endDate, int flexibleDays, RoomSize roomSize, Boolean hasMinibar, int limit) throws StartAndOrEndDateNullException, EndDateBeforeStartDateException;
+}
@@ -0,0 +1,26 @@
+package de.mteklic.hotelmanager.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Finds rooms with a number of consecutive free nights somewhere in a date range, e.g. "any 5 nights in June".
+ */
+public interface FreeNightsService {
+
+    /**
+     * Finds the rooms which have at least the given number of consecutive free nights within the range.
+     * Only nights from today up to the configured horizon are considered.
+     *
+     * @param nights    Number of consecutive free nights.
+     * @param startDate First night of the range.
+     * @param endDate   Last night of the range.
+     * @return IDs of the matching rooms in ascending order.
+     */
+    List<Long> findRoomIds(int nights, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Loads all rooms and their bookings into the index again, starting with today.
+     */
+    void rebuild();
+}
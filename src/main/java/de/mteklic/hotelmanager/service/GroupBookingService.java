@@ -0,0 +1,27 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.GroupBookedOutException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateBeforeNowException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
+import de.mteklic.hotelmanager.model.dto.GroupBookingDto;
+
+/**
+ * Books several rooms for the same date range at once, e.g. for groups and events.
+ */
+public interface GroupBookingService {
+
+    /**
+     * Chooses the requested number of free rooms matching the criteria and books all of them, or none.
+     * Rooms are chosen best-fit: rooms whose free gap around the range is filled most exactly are preferred,
+     * so the remaining free days of the calendar stay as long as possible.
+     *
+     * @param groupBookingDto Number of rooms, optional room size and minibar, start and end date.
+     * @return The group booking with the booked room and booking IDs.
+     * @throws GroupBookedOutException             If fewer matching rooms than requested are available.
+     * @throws StartAndOrEndDateNullException      If start or end date is missing.
+     * @throws StartAndOrEndDateBeforeNowException If start or end date is before the current date.
+     * @throws EndDateBeforeStartDateException     If the end date is before the start date.
+     */
+    GroupBookingDto createGroupBooking(GroupBookingDto groupBookingDto) throws GroupBookedOutException, StartAndOrEndDateNullException, StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException;
+}
@@ -0,0 +1,33 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.exception.*;
+import de.mteklic.hotelmanager.model.dto.BookingDto;
+
+/**
+ * Makes booking creation idempotent for clients which send an Idempotency-Key header.
+ * The first request with a key is executed and its response stored, retries with the same key get the stored response.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Creates a booking once per idempotency key, see {@link BookingService#createBooking}.
+     * A retry with the same key and request returns the stored result without creating the booking again.
+     *
+     * @param idempotencyKey Key sent by the client.
+     * @param roomId         ID of the room to book.
+     * @param bookingDto     BookingDto containing booking details.
+     * @return The created BookingDto, or the stored one on a retry.
+     * @throws IdempotencyKeyReusedException       If the key has been used for a different request.
+     * @throws RoomBookedOutException              If the room is already booked for the given date range.
+     * @throws EndDateBeforeStartDateException     If the end date is before the start date.
+     * @throws StartAndOrEndDateBeforeNowException If either the start date or end date is before the current date.
+     * @throws StartAndOrEndDateNullException      If start and/or end date is null.
+     */
+    BookingDto createBooking(String idempotencyKey, Long roomId, BookingDto bookingDto) throws IdempotencyKeyReusedException, RoomBookedOutException, EndDateBeforeStartDateException, StartAndOrEndDateBeforeNowException, StartAndOrEndDateNullException;
+
+    /**
+     * Removes all stored keys which are older than the configured time to live.
+     * This method is scheduled to run every hour.
+     */
+    void purgeExpiredKeys();
+}
@@ -0,0 +1,48 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.RoomDto;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Non-blocking, read-only counterpart of {@link RoomService}.
+ * Returns the same DTOs and applies the same filter semantics, but reads via R2DBC and honours backpressure,
+ * so slow clients do not hold a thread while they consume the result.
+ */
+public interface ReactiveRoomService {
+
+    /**
+     * Returns a single RoomDto by its Id.
+     *
+     * @param id ID of the room.
+     * @return Mono emitting the RoomDto colliding with the id.
+     * @throws ResponseStatusException (as error signal) If the room with the specified ID is not found.
+     */
+    Mono<RoomDto> getRoom(Long id);
+
+    /**
+     * Retrieves all rooms.
+     *
+     * @return Flux of RoomDto representing all rooms, ordered by id.
+     */
+    Flux<RoomDto> getAllRooms();
+
+    /**
+     * Filters rooms based on various criteria, see {@link RoomService#getFilteredRooms}.
+     *
+     * @param ids         List of room IDs to filter.
+     * @param name        Name (part) to filter.
+     * @param description Description (part) to filter.
+     * @param startDate   Start date of availability to filter.
+     * @param endDate     End date of availability to filter.
+     * @param hasMinibar  Whether rooms should have minibar.
+     * @param roomSize    Size of the rooms.
+     * @return Flux of RoomDto representing filtered rooms, ordered by id.
+     */
+    Flux<RoomDto> getFilteredRooms(List<Long> ids, String name, String description, LocalDate startDate, LocalDate endDate, Boolean hasMinibar, RoomSize roomSize);
+}
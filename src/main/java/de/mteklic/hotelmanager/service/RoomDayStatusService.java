@@ -0,0 +1,54 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.exception.RoomBookedOutException;
+
+import java.time.LocalDate;
+
+/**
+ * Maintains the materialised per-day availability of all rooms (table room_day_status).
+ * All write methods are expected to run within the transaction which changes the underlying bookings.
+ */
+public interface RoomDayStatusService {
+
+    /**
+     * Marks all days of the range as booked.
+     * Because every day can only be booked once, this also protects against two concurrent bookings of the same room.
+     *
+     * @param roomId    ID of the booked room.
+     * @param startDate First booked day (inclusive).
+     * @param endDate   Last booked day (inclusive).
+     * @throws RoomBookedOutException If any day of the range is already booked.
+     */
+    void book(Long roomId, LocalDate startDate, LocalDate endDate) throws RoomBookedOutException;
+
+    /**
+     * Marks all days of the range as free again.
+     *
+     * @param roomId    ID of the room.
+     * @param startDate First freed day (inclusive).
+     * @param endDate   Last freed day (inclusive).
+     */
+    void release(Long roomId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Removes all days of a room, used when the room gets deleted.
+     *
+     * @param roomId ID of the deleted room.
+     */
+    void releaseRoom(Long roomId);
+
+    /**
+     * Rebuilds all days of the range from the bookings table.
+     *
+     * @param startDate First day (inclusive).
+     * @param endDate   Last day (inclusive).
+     * @return Number of booked days within the range.
+     */
+    int rebuild(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Repairs the materialisation from today up to the last booked day, in monthly chunks.
+     * This method is scheduled to run every night, to fix drift caused e.g. by manual changes in the database.
+     */
+    void repair();
+}
@@ -0,0 +1,33 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.RoomFacetsDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Counts rooms per attribute value (facet), e.g. for the live counts of a filter panel.
+ */
+public interface RoomFacetService {
+
+    /**
+     * Counts the rooms per facet value, with the same criteria as {@link RoomService#getFilteredRooms}.
+     * Each facet is counted without its own criterion, all other criteria are applied.
+     *
+     * @param ids         List of room IDs to filter.
+     * @param name        Exact name to filter.
+     * @param description Exact description to filter.
+     * @param startDate   Start date of availability to filter.
+     * @param endDate     End date of availability to filter.
+     * @param hasMinibar  Whether rooms should have minibar.
+     * @param roomSize    Size of the rooms.
+     * @return Number of matching rooms and the counts per facet value.
+     */
+    RoomFacetsDto getFacets(List<Long> ids, String name, String description, LocalDate startDate, LocalDate endDate, Boolean hasMinibar, RoomSize roomSize);
+
+    /**
+     * Loads all rooms into the facet index again.
+     */
+    void rebuild();
+}
@@ -0,0 +1,29 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.model.dto.RoomImportDto;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Imports large numbers of rooms at once, e.g. when a new property is onboarded.
+ */
+public interface RoomImportService {
+
+    /**
+     * Media type of CSV imports. The first line is a header with the columns name, description, roomSize and hasMinibar.
+     */
+    MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    /**
+     * Validates every row with the same rules as single rooms and imports all valid rows.
+     * Invalid rows are skipped and reported, they do not prevent the import of the other rows.
+     *
+     * @param input     Stream of rows, read line by line.
+     * @param mediaType text/csv or application/x-ndjson (one RoomDto per line).
+     * @return Report containing the number of imported rows and the errors of rejected rows.
+     * @throws IOException If the input cannot be read.
+     */
+    RoomImportDto importRooms(InputStream input, MediaType mediaType) throws IOException;
+}
@@ -1,5 +1,7 @@
 package de.mteklic.hotelmanager.service;
 
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
 import de.mteklic.hotelmanager.model.Room;
 import de.mteklic.hotelmanager.model.RoomSize;
 import de.mteklic.hotelmanager.model.dto.RoomDto;
@@ -60,6 +62,19 @@ public interface RoomService {
      * @return List of RoomDto representing filtered rooms.
      */
     List<RoomDto> getFilteredRooms(List<Long> ids, String name, String description, LocalDate startDate, LocalDate endDate, Boolean hasMinibar, RoomSize roomSize);
+
+    /**
+     * Finds rooms which have a number of consecutive free nights anywhere in a date range, e.g. any 5 nights in June.
+     *
+     * @param nights    Number of consecutive free nights, at least 1.
+     * @param startDate First night of the range.
+     * @param endDate   Last night of the range.
+     * @return List of RoomDto representing the matching rooms, ordered by ID.
+     * @throws StartAndOrEndDateNullException  If start or end date is missing.
+     * @throws EndDateBeforeStartDateException If the end date is before the start date.
+     */
+    List<RoomDto> getRoomsWithFreeNights(int nights, LocalDate startDate, LocalDate endDate) throws StartAndOrEndDateNullException, EndDateBeforeStartDateException;
+
     /**
      * Converts a Room entity to RoomDto.
      *
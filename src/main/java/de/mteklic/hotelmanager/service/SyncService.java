@@ -0,0 +1,61 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.model.BookingChangedEvent;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import de.mteklic.hotelmanager.model.dto.SyncDto;
+
+/**
+ * Delta sync of rooms and bookings for offline clients, backed by the change log.
+ */
+public interface SyncService {
+
+    /**
+     * Returns the rooms and bookings which have been changed or deleted since the token.
+     *
+     * @param token Token of the previous sync, null for the first sync which returns all rooms and bookings.
+     * @param limit Maximum number of changes, limited by hotelmanager.sync.max-changes.
+     * @return The changes and the token of the next sync.
+     */
+    SyncDto getChanges(String token, Integer limit);
+
+    /**
+     * Records the changed room in the change log, before the transaction commits.
+     * If the room has been deleted, the room and its bookings are recorded as deleted.
+     * Events without room are ignored, bulk changes record their rooms and bookings themselves.
+     *
+     * @param event The changed room, or null if any room might have changed.
+     */
+    void handleRoomChangedEvent(RoomChangedEvent event);
+
+    /**
+     * Records the changed bookings in the change log, before the transaction commits.
+     *
+     * @param event The changed or deleted bookings.
+     */
+    void handleBookingChangedEvent(BookingChangedEvent event);
+
+    /**
+     * Records the rooms with IDs above the given one, which have been created in bulk without events (e.g. by COPY).
+     * The IDs are recorded in batches of hotelmanager.sync.batch-size. Joins the current transaction if there is one,
+     * otherwise every batch is a short transaction of its own, so writers wait for the sequence lock for one batch at most.
+     *
+     * @param afterId Highest ID of the rooms before the bulk insert.
+     * @return The number of recorded rooms.
+     */
+    long recordCreatedRooms(long afterId);
+
+    /**
+     * Records the bookings with IDs above the given one, which have been created in bulk without events.
+     * See {@link #recordCreatedRooms(long)}.
+     *
+     * @param afterId Highest ID of the bookings before the bulk insert.
+     * @return The number of recorded bookings.
+     */
+    long recordCreatedBookings(long afterId);
+
+    /**
+     * Purges the tombstones which are older than hotelmanager.sync.tombstone-retention.
+     * Clients whose token is older have to sync from scratch.
+     */
+    void purgeTombstones();
+}
@@ -0,0 +1,51 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateBeforeNowException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
+import de.mteklic.hotelmanager.model.BookingReleasedEvent;
+import de.mteklic.hotelmanager.model.dto.WaitlistEntryDto;
+
+/**
+ * Manages the waitlist of booking requests and matches it against released booking days.
+ */
+public interface WaitlistService {
+
+    /**
+     * Puts a request for a room size and date range on the waitlist.
+     *
+     * @param waitlistEntryDto Room size, start and end date and whether a match should be booked automatically.
+     * @return The waiting entry with its ID.
+     * @throws StartAndOrEndDateNullException      If start or end date is missing.
+     * @throws StartAndOrEndDateBeforeNowException If start or end date is before the current date.
+     * @throws EndDateBeforeStartDateException     If the end date is before the start date.
+     */
+    WaitlistEntryDto createEntry(WaitlistEntryDto waitlistEntryDto) throws StartAndOrEndDateNullException, StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException;
+
+    /**
+     * Returns a waitlist entry with its current status.
+     *
+     * @param id ID of the entry.
+     * @return The entry, including the offered or booked room.
+     */
+    WaitlistEntryDto getEntry(Long id);
+
+    /**
+     * Removes an entry from the waitlist.
+     *
+     * @param id ID of the entry.
+     */
+    void deleteEntry(Long id);
+
+    /**
+     * Offers or books the released room to the waiting entries which fit into its free days, first come first served.
+     *
+     * @param event The released room and days.
+     */
+    void handleBookingReleasedEvent(BookingReleasedEvent event);
+
+    /**
+     * Expires all waiting entries whose start date has passed.
+     */
+    void expireEntries();
+}
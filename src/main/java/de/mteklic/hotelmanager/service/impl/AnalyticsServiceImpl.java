@@ -0,0 +1,177 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
+import de.mteklic.hotelmanager.model.BookingInterval;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.OccupancyDto;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.AnalyticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Service class for analytics over the bookings of a hotel management system.
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+
+    /**
+     * Upper bound for the length of an analysed range, roughly 10 years.
+     * Keeps the per-day arrays of a single request small.
+     */
+    static final int MAX_RANGE_DAYS = 3660;
+
+    private static final RoomSize[] ROOM_SIZES = RoomSize.values();
+
+    private final BookingRepository bookingRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor analyticsExecutor;
+
+    private final int partitions;
+
+    public AnalyticsServiceImpl(BookingRepository bookingRepository, RoomRepository roomRepository, PlatformTransactionManager transactionManager,
+                                @Qualifier("analyticsExecutor") Executor analyticsExecutor, @Value("${hotelmanager.analytics.partitions:4}") int partitions){
+        this.bookingRepository = bookingRepository;
+        this.roomRepository = roomRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.analyticsExecutor = analyticsExecutor;
+        this.partitions = partitions;
+    }
+
+    @Override
+    public OccupancyDto getOccupancy(LocalDate startDate, LocalDate endDate, boolean parallel) throws StartAndOrEndDateNullException, EndDateBeforeStartDateException {
+        if (startDate == null || endDate == null) {
+            throw new StartAndOrEndDateNullException(startDate, endDate);
+        }
+
+        if (endDate.isBefore(startDate)) {
+            throw new EndDateBeforeStartDateException(startDate, endDate);
+        }
+
+        long days = endDate.toEpochDay() - startDate.toEpochDay() + 1;
+        if (days > MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format("Range must not be longer than %d days.", MAX_RANGE_DAYS));
+        }
+
+        log.debug("Calculate occupancy from {} to {}, parallel: {}", startDate, endDate, parallel);
+
+        int[][] diff = parallel && this.partitions > 1
+                ? accumulatePartitions(startDate, endDate, (int) days)
+                : inTransaction(() -> accumulate(this.bookingRepository.streamOverlappingIntervals(startDate, endDate), startDate, (int) days));
+
+        List<OccupancyDto.Entry> entries = new ArrayList<>(ROOM_SIZES.length);
+        for (RoomSize roomSize : ROOM_SIZES) {
+            entries.add(OccupancyDto.Entry.builder()
+                    .roomSize(roomSize)
+                    .capacity(this.roomRepository.countByRoomSize(roomSize))
+                    .occupiedRooms(prefixSum(diff[roomSize.ordinal()], (int) days))
+                    .build());
+        }
+
+        return OccupancyDto.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .entries(entries)
+                .build();
+    }
+
+    /**
+     * Reads every room partition in its own transaction on the analytics executor and merges the difference arrays.
+     *
+     * @param startDate First day of the range.
+     * @param endDate   Last day of the range.
+     * @param days      Number of days in the range.
+     * @return Merged difference arrays, indexed by room size ordinal.
+     */
+    private int[][] accumulatePartitions(LocalDate startDate, LocalDate endDate, int days) {
+        List<CompletableFuture<int[][]>> futures = new ArrayList<>(this.partitions);
+        for (int partition = 0; partition < this.partitions; partition++) {
+            final long p = partition;
+            futures.add(CompletableFuture.supplyAsync(() -> inTransaction(() -> accumulate(
+                    this.bookingRepository.streamOverlappingIntervals(startDate, endDate, this.partitions, p), startDate, days)), this.analyticsExecutor));
+        }
+
+        int[][] merged = futures.get(0).join();
+        for (int i = 1; i < futures.size(); i++) {
+            int[][] other = futures.get(i).join();
+            for (int size = 0; size < merged.length; size++) {
+                for (int day = 0; day < merged[size].length; day++) {
+                    merged[size][day] += other[size][day];
+                }
+            }
+        }
+        return merged;
+    }
+
+    private <T> T inTransaction(Supplier<T> supplier) {
+        return this.transactionTemplate.execute(status -> supplier.get());
+    }
+
+    /**
+     * Consumes (and closes) the stream and adds each booking to the difference array of its room size.
+     * A booking covering the days [from, to] of the range increments diff[from] and decrements diff[to + 1],
+     * the actual occupancy is restored later by a prefix sum.
+     *
+     * @param intervals Booking intervals overlapping with the range.
+     * @param startDate First day of the range.
+     * @param days      Number of days in the range.
+     * @return Difference arrays of length days + 1, indexed by room size ordinal.
+     */
+    static int[][] accumulate(Stream<BookingInterval> intervals, LocalDate startDate, int days) {
+        int[][] diff = new int[ROOM_SIZES.length][days + 1];
+        long first = startDate.toEpochDay();
+
+        try (intervals) {
+            intervals.forEach(interval -> {
+                int from = (int) Math.max(0, interval.startDate().toEpochDay() - first);
+                int to = (int) Math.min(days - 1, interval.endDate().toEpochDay() - first);
+                if (from > to) {
+                    return;
+                }
+                int[] sizeDiff = diff[interval.roomSize().ordinal()];
+                sizeDiff[from]++;
+                sizeDiff[to + 1]--;
+            });
+        }
+        return diff;
+    }
+
+    /**
+     * Turns a difference array into the absolute values, in place.
+     *
+     * @param diff Difference array of length days + 1.
+     * @param days Number of days in the range.
+     * @return Array with the absolute value of every day.
+     */
+    static int[] prefixSum(int[] diff, int days) {
+        for (int day = 1; day < days; day++) {
+            diff[day] += diff[day - 1];
+        }
+        return Arrays.copyOf(diff, days);
+    }
+}
@@ -0,0 +1,303 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import de.mteklic.hotelmanager.model.AvailabilityChangedEvent;
+import de.mteklic.hotelmanager.model.dto.AvailabilityDeltaDto;
+import de.mteklic.hotelmanager.service.AvailabilityStreamService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service class for the availability stream.
+ * ---
+ * Every subscriber has a bounded queue of pending events. Publishing only enqueues, the events are drained by the
+ * availability stream executor, so a slow client never blocks a booking request.
+ * A subscriber whose queue is full is evicted, the client reconnects and reloads the availability it is interested in.
+ * Writes to the client block while its TCP window is full and cannot be interrupted, so every write is made on the
+ * write executor and the drain task waits for it at most the write timeout. A subscriber whose write takes longer is
+ * evicted and the drain thread moves on to the other subscribers; the stalled write thread is released by the
+ * container once the connection times out and then completes the emitter. The emitter is never completed on a drain
+ * or publishing thread, since its methods are locked by a stalled write.
+ * Subscribers and evictions are measured in hotelmanager.availability-stream.subscribers and .evictions.
+ */
+@Service
+public class AvailabilityStreamServiceImpl implements AvailabilityStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityStreamServiceImpl.class);
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    /**
+     * A connected client with its filter and the events which have not been written yet.
+     */
+    private final class Subscriber {
+
+        private final long id;
+
+        private final SseEmitter emitter;
+
+        private final Set<Long> roomIds;
+
+        private final LocalDate startDate;
+
+        private final LocalDate endDate;
+
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+
+        /**
+         * Set while a drain task of this subscriber is scheduled or running, so the events are written in order.
+         */
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean evicted;
+
+        /**
+         * Set when a write has exceeded the write timeout, the stalled write completes the emitter once it returns.
+         */
+        private volatile boolean stalled;
+
+        Subscriber(long id, SseEmitter emitter, Set<Long> roomIds, LocalDate startDate, LocalDate endDate) {
+            this.id = id;
+            this.emitter = emitter;
+            this.roomIds = roomIds;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        boolean matches(AvailabilityChangedEvent event) {
+            return (this.roomIds.isEmpty() || this.roomIds.contains(event.getRoomId()))
+                    && (this.startDate == null || !event.getEndDate().isBefore(this.startDate))
+                    && (this.endDate == null || !event.getStartDate().isAfter(this.endDate));
+        }
+
+        void enqueue(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (!this.queue.offer(event)) {
+                evict(this, "slow consumer");
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void scheduleDrain() {
+            if (this.draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    this.draining.set(false);
+                    if (this.evicted) {
+                        close();
+                    } else {
+                        evict(this, "executor saturated");
+                    }
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while (!this.evicted && (event = this.queue.poll()) != null) {
+                    try {
+                        write(event);
+                    } catch (TimeoutException e) {
+                        evict(this, "write timeout");
+                    } catch (RejectedExecutionException e) {
+                        evict(this, "too many pending writes");
+                    } catch (IOException | IllegalStateException e) {
+                        // The client has disconnected or the emitter has completed
+                        log.debug("Availability subscriber {} is gone: {}", this.id, e.getMessage());
+                        remove(this);
+                        return;
+                    }
+                }
+                if (this.evicted) {
+                    this.queue.clear();
+                    close();
+                    return;
+                }
+                this.draining.set(false);
+                // An event or the eviction might have arrived after the last poll but before draining was reset
+            } while ((!this.queue.isEmpty() || this.evicted) && this.draining.compareAndSet(false, true));
+        }
+
+        /**
+         * Writes an event on the write executor and waits for it at most the write timeout.
+         */
+        private void write(Set<ResponseBodyEmitter.DataWithMediaType> event) throws IOException, TimeoutException {
+            CompletableFuture<Void> write = new CompletableFuture<>();
+            writeExecutor.execute(() -> {
+                try {
+                    this.emitter.send(event);
+                    write.complete(null);
+                } catch (Throwable e) {
+                    write.completeExceptionally(e);
+                }
+            });
+            try {
+                write.get(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                this.stalled = true;
+                write.whenComplete((result, error) -> this.emitter.complete());
+                throw e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while writing", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        /**
+         * Completes the emitter on the write executor, unless a stalled write still holds it.
+         */
+        private void close() {
+            if (this.stalled) {
+                return;
+            }
+            try {
+                writeExecutor.execute(this.emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // The container completes the response once the stalled write fails
+                log.debug("Availability subscriber {} is closed by the container", this.id);
+            }
+        }
+    }
+
+    private final Executor executor;
+
+    private final Executor writeExecutor;
+
+    private final long writeTimeoutMillis;
+
+    private final int queueCapacity;
+
+    private final int maxSubscribers;
+
+    private final long timeoutMillis;
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicLong subscriberIds = new AtomicLong();
+
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private final Counter evictions;
+
+    public AvailabilityStreamServiceImpl(@Qualifier("availabilityStreamExecutor") Executor executor,
+                                         @Qualifier("availabilityStreamWriteExecutor") Executor writeExecutor,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${hotelmanager.availability-stream.queue-capacity:256}") int queueCapacity,
+                                         @Value("${hotelmanager.availability-stream.max-subscribers:10000}") int maxSubscribers,
+                                         @Value("${hotelmanager.availability-stream.timeout:30m}") Duration timeout,
+                                         @Value("${hotelmanager.availability-stream.write-timeout:5s}") Duration writeTimeout){
+        this.executor = executor;
+        this.writeExecutor = writeExecutor;
+        this.writeTimeoutMillis = writeTimeout.toMillis();
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        this.evictions = Counter.builder("hotelmanager.availability-stream.evictions").register(meterRegistry);
+        meterRegistry.gaugeMapSize("hotelmanager.availability-stream.subscribers", List.of(), this.subscribers);
+    }
+
+    @Override
+    public SseEmitter subscribe(List<Long> roomIds, LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null && endDate.isBefore(startDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End date must not be before start date.");
+        }
+        if (this.subscribers.size() >= this.maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many availability subscribers, please poll or retry later.");
+        }
+
+        SseEmitter emitter = new SseEmitter(this.timeoutMillis);
+        Subscriber subscriber = new Subscriber(this.subscriberIds.incrementAndGet(), emitter,
+                roomIds == null ? Set.of() : Set.copyOf(roomIds), startDate, endDate);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        this.subscribers.put(subscriber.id, subscriber);
+
+        // Commits the response, so the client knows it is subscribed before the first change
+        subscriber.enqueue(HEARTBEAT);
+        log.debug("Availability subscriber {} connected, {} subscribers", subscriber.id, this.subscribers.size());
+        return emitter;
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleAvailabilityChangedEvent(AvailabilityChangedEvent event) {
+        if (this.subscribers.isEmpty()) {
+            return;
+        }
+        AvailabilityDeltaDto delta = AvailabilityDeltaDto.builder()
+                .roomId(event.getRoomId())
+                .startDate(event.getStartDate())
+                .endDate(event.getEndDate())
+                .change(event.isBooked() ? AvailabilityDeltaDto.Change.BOOKED : AvailabilityDeltaDto.Change.FREED)
+                .build();
+        // Serialised lazily by the emitters, the same event is shared by all subscribers
+        Set<ResponseBodyEmitter.DataWithMediaType> sseEvent = SseEmitter.event()
+                .id(String.valueOf(this.eventIds.incrementAndGet()))
+                .name("availability")
+                .data(delta)
+                .build();
+
+        for (Subscriber subscriber : this.subscribers.values()) {
+            if (subscriber.matches(event)) {
+                subscriber.enqueue(sseEvent);
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${hotelmanager.availability-stream.heartbeat-interval:15000}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : this.subscribers.values()) {
+            subscriber.enqueue(HEARTBEAT);
+        }
+    }
+
+    /**
+     * @return Number of connected subscribers.
+     */
+    public int getSubscriberCount() {
+        return this.subscribers.size();
+    }
+
+    private void evict(Subscriber subscriber, String reason) {
+        if (this.subscribers.remove(subscriber.id) == null) {
+            return;
+        }
+        log.info("Evict availability subscriber {}: {}", subscriber.id, reason);
+        this.evictions.increment();
+        subscriber.evicted = true;
+        // The emitter is completed by the drain task, which might still be writing to the client
+        subscriber.scheduleDrain();
+    }
+
+    private void remove(Subscriber subscriber) {
+        this.subscribers.remove(subscriber.id);
+    }
+}
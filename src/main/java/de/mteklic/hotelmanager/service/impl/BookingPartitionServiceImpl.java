@@ -0,0 +1,184 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import de.mteklic.hotelmanager.model.BookingChangedEvent;
+import de.mteklic.hotelmanager.model.BookingsArchivedEvent;
+import de.mteklic.hotelmanager.service.BookingPartitionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service class for maintaining the partitions of the bookings table.
+ * ---
+ * All changes take a transaction scoped advisory lock, so concurrent instances do not create or archive the same partition.
+ * Archiving a partition publishes its bookings as deleted, in batches, and the rooms they belonged to, like the
+ * retention of single bookings (see BookingRetentionServiceImpl).
+ */
+@Service
+public class BookingPartitionServiceImpl implements BookingPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingPartitionServiceImpl.class);
+
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("bookings_p(\\d{6})");
+
+    /**
+     * Maximum number of bookings per published event, bounds the ID lists of the change log updates.
+     */
+    private static final int EVENT_BATCH_SIZE = 1000;
+
+    /**
+     * ID and room of an archived booking.
+     */
+    private record Archived(long id, long roomId) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int monthsAhead;
+
+    private final int archiveAfterMonths;
+
+    private final boolean archiveEnabled;
+
+    public BookingPartitionServiceImpl(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${hotelmanager.partitioning.months-ahead:12}") int monthsAhead,
+                                       @Value("${hotelmanager.partitioning.archive-after-months:3}") int archiveAfterMonths,
+                                       @Value("${hotelmanager.partitioning.archive-enabled:true}") boolean archiveEnabled){
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.archiveEnabled = archiveEnabled;
+    }
+
+    @Override
+    public int createPartitions(LocalDate startDate, LocalDate endDate) {
+        int created = 0;
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+            YearMonth partitionMonth = month;
+            Boolean createdPartition = this.transactionTemplate.execute(status -> createPartition(partitionMonth));
+            created += Boolean.TRUE.equals(createdPartition) ? 1 : 0;
+        }
+        return created;
+    }
+
+    @Override
+    public int archivePartitions(LocalDate before) {
+        List<String> partitions = this.jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'bookings'::regclass ORDER BY c.relname",
+                String.class);
+
+        int archived = 0;
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(matcher.group(1), PARTITION_MONTH);
+            // Every booking in the partition has ended before the first day of the next month
+            if (!month.plusMonths(1).atDay(1).isAfter(before)) {
+                this.transactionTemplate.executeWithoutResult(status -> archivePartition(partition, month));
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    @Override
+    @Scheduled(cron = "${hotelmanager.partitioning.cron:0 15 3 * * *}")
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainPartitions() {
+        LocalDate today = LocalDate.now();
+        int created = createPartitions(today.withDayOfMonth(1).minusMonths(this.archiveAfterMonths), today.plusMonths(this.monthsAhead));
+        int archived = this.archiveEnabled ? archivePartitions(today.withDayOfMonth(1).minusMonths(this.archiveAfterMonths)) : 0;
+        log.info("Maintained booking partitions: {} created, {} archived", created, archived);
+    }
+
+    /**
+     * Creates the partition of a month, if it does not exist yet. Must be called within a transaction.
+     */
+    private boolean createPartition(YearMonth month) {
+        lock();
+        String partition = "bookings_p" + month.format(PARTITION_MONTH);
+        if (exists(partition)) {
+            return false;
+        }
+
+        this.jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE bookings INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        // Attaching fails if the default partition still contains bookings of the month
+        int moved = this.jdbcTemplate.update("WITH moved AS (DELETE FROM bookings_default WHERE end_date >= '" + month.atDay(1) + "' AND end_date < '" + month.plusMonths(1).atDay(1) + "' RETURNING *) " +
+                "INSERT INTO " + partition + " SELECT * FROM moved");
+        this.jdbcTemplate.execute("ALTER TABLE bookings ATTACH PARTITION " + partition + forValues(month));
+
+        log.debug("Created booking partition {}, moved {} bookings from the default partition", partition, moved);
+        return true;
+    }
+
+    /**
+     * Moves the partition of a month from bookings to bookings_archive and publishes its bookings as deleted.
+     * Must be called within a transaction.
+     */
+    private void archivePartition(String partition, YearMonth month) {
+        lock();
+        this.jdbcTemplate.execute("ALTER TABLE bookings DETACH PARTITION " + partition);
+        // Read before the merge below: the bookings of the default archive partition have been published when they were archived
+        List<Archived> archived = this.jdbcTemplate.query("SELECT id, room_id FROM " + partition + " ORDER BY id",
+                (rs, rowNum) -> new Archived(rs.getLong("id"), rs.getLong("room_id")));
+        // Archived bookings must not prevent the deletion of their rooms
+        List<String> foreignKeys = this.jdbcTemplate.queryForList(
+                "SELECT conname FROM pg_constraint WHERE conrelid = CAST(? AS regclass) AND contype = 'f'", String.class, partition);
+        for (String foreignKey : foreignKeys) {
+            this.jdbcTemplate.execute("ALTER TABLE " + partition + " DROP CONSTRAINT \"" + foreignKey + "\"");
+        }
+        // Bookings of the month which have already been archived one by one (see BookingRetentionService) join the partition
+        int moved = this.jdbcTemplate.update("WITH moved AS (DELETE FROM bookings_archive_default WHERE end_date >= '" + month.atDay(1) + "' AND end_date < '" + month.plusMonths(1).atDay(1) + "' RETURNING *) " +
+                "INSERT INTO " + partition + " SELECT * FROM moved");
+        this.jdbcTemplate.execute("ALTER TABLE bookings_archive ATTACH PARTITION " + partition + forValues(month));
+
+        for (int from = 0; from < archived.size(); from += EVENT_BATCH_SIZE) {
+            List<Long> bookingIds = archived.subList(from, Math.min(from + EVENT_BATCH_SIZE, archived.size())).stream().map(Archived::id).toList();
+            this.eventPublisher.publishEvent(new BookingChangedEvent(this, bookingIds, true));
+        }
+        if (!archived.isEmpty()) {
+            this.eventPublisher.publishEvent(new BookingsArchivedEvent(this, archived.stream().map(Archived::roomId).distinct().toList()));
+        }
+
+        log.debug("Archived booking partition {} with {} bookings, moved {} bookings from the default archive partition", partition, archived.size(), moved);
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(this.jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    private void lock() {
+        this.jdbcTemplate.execute("SELECT pg_advisory_xact_lock(hashtext('bookings_partitions'))");
+    }
+
+    private static String forValues(YearMonth month) {
+        return " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+}
@@ -0,0 +1,156 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import de.mteklic.hotelmanager.model.BookingChangedEvent;
+import de.mteklic.hotelmanager.model.BookingsArchivedEvent;
+import de.mteklic.hotelmanager.service.BookingRetentionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class for the retention of past bookings.
+ * ---
+ * Bookings are moved in keyset paged batches ordered by (end_date, id): every batch is one short transaction and
+ * continues after the last key of the previous one, so neither a long running transaction nor an offset scan over
+ * already archived rows slows down the foreground traffic. After every batch the job sleeps for the time the batch
+ * took multiplied with the configured pause ratio, which bounds its share of the database time.
+ * Every batch publishes the ids of its bookings as deleted and the rooms they belonged to, so the change log and the
+ * caches only deal with the bookings which have actually been moved.
+ */
+@Service
+public class BookingRetentionServiceImpl implements BookingRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingRetentionServiceImpl.class);
+
+    /**
+     * Deletes one batch from bookings, inserts it into bookings_archive and returns the moved bookings in key order.
+     */
+    private static final String MOVE_BATCH = "WITH batch AS (" +
+            "SELECT id, end_date FROM bookings WHERE end_date < ? AND (end_date, id) > (?, ?) ORDER BY end_date, id LIMIT ?" +
+            "), moved AS (" +
+            "DELETE FROM bookings b USING batch WHERE b.id = batch.id AND b.end_date = batch.end_date RETURNING b.*" +
+            "), archived AS (" +
+            "INSERT INTO bookings_archive SELECT * FROM moved RETURNING id, room_id, end_date" +
+            ") SELECT end_date, id, room_id FROM archived ORDER BY end_date, id";
+
+    /**
+     * Key and room of a moved booking.
+     */
+    private record Moved(LocalDate endDate, long id, long roomId) {
+    }
+
+    /**
+     * Last key of a batch and the number of bookings it moved.
+     */
+    private record Batch(LocalDate lastEndDate, long lastId, long moved) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean enabled;
+
+    private final int retentionDays;
+
+    private final int batchSize;
+
+    private final double pauseRatio;
+
+    public BookingRetentionServiceImpl(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${hotelmanager.retention.enabled:true}") boolean enabled,
+                                       @Value("${hotelmanager.retention.days:30}") int retentionDays,
+                                       @Value("${hotelmanager.retention.batch-size:1000}") int batchSize,
+                                       @Value("${hotelmanager.retention.pause-ratio:1.0}") double pauseRatio){
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.pauseRatio = pauseRatio;
+    }
+
+    @Override
+    public long archiveBookings(LocalDate before) {
+        // Smaller than every key (LocalDate.MIN is sent as -infinity), the first batch starts at the oldest booking
+        Batch batch = new Batch(LocalDate.MIN, Long.MIN_VALUE, 0);
+        long archived = 0;
+        int batches = 0;
+
+        do {
+            long started = System.nanoTime();
+            Batch previous = batch;
+            batch = this.transactionTemplate.execute(status -> moveBatch(before, previous));
+            if (batch == null) {
+                break;
+            }
+            archived += batch.moved();
+            batches++;
+
+            if (!pause((long) ((System.nanoTime() - started) * this.pauseRatio))) {
+                log.info("Booking retention interrupted after {} archived bookings", archived);
+                break;
+            }
+        } while (batch.moved() == this.batchSize);
+
+        log.info("Archived {} bookings which ended before {} in {} batches", archived, before, batches);
+        return archived;
+    }
+
+    @Override
+    @Scheduled(cron = "${hotelmanager.retention.cron:0 45 3 * * *}")
+    public void applyRetention() {
+        if (!this.enabled) {
+            return;
+        }
+        archiveBookings(LocalDate.now().minusDays(this.retentionDays));
+    }
+
+    /**
+     * Moves the next batch after the last key of the previous batch and publishes its bookings as deleted.
+     * Must be called within a transaction.
+     *
+     * @return The last key of the batch, or null if there are no more bookings to archive.
+     */
+    private Batch moveBatch(LocalDate before, Batch previous) {
+        List<Moved> moved = this.jdbcTemplate.query(MOVE_BATCH,
+                (rs, rowNum) -> new Moved(rs.getObject("end_date", LocalDate.class), rs.getLong("id"), rs.getLong("room_id")),
+                before, previous.lastEndDate(), previous.lastId(), this.batchSize);
+        if (moved.isEmpty()) {
+            return null;
+        }
+
+        this.eventPublisher.publishEvent(new BookingChangedEvent(this, moved.stream().map(Moved::id).toList(), true));
+        this.eventPublisher.publishEvent(new BookingsArchivedEvent(this, moved.stream().map(Moved::roomId).distinct().toList()));
+        Moved last = moved.get(moved.size() - 1);
+        return new Batch(last.endDate(), last.id(), moved.size());
+    }
+
+    /**
+     * @return false if the thread has been interrupted, e.g. on shutdown.
+     */
+    private static boolean pause(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import de.mteklic.hotelmanager.model.*;
 import de.mteklic.hotelmanager.model.BookingEvent;
 import de.mteklic.hotelmanager.repository.BookingRepository;
 import de.mteklic.hotelmanager.service.BookingService;
+import de.mteklic.hotelmanager.service.RoomDayStatusService;
 import de.mteklic.hotelmanager.service.RoomService;
 import de.mteklic.hotelmanager.specification.BookingSpecifications;
 import org.apache.coyote.BadRequestException;
@@ -22,6 +23,7 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -36,6 +38,8 @@ public class BookingServiceImpl implements BookingService {
 
     private final ApplicationEventPublisher eventPublisher;
 
+    private final RoomDayStatusService roomDayStatusService;
+
     /**
      * Prevent Circular dependency injection - Booking relies more on RoomService than otherwhise, that's the reason for setting @Lazy here.
      * Another solution would be to extract methods from both services and create another indepedent one, which both could @Autowire.
@@ -45,14 +49,18 @@ public class BookingServiceImpl implements BookingService {
     private RoomService roomService;
 
     @Lazy
-    public BookingServiceImpl(BookingRepository bookingRepository, RoomService roomService, ApplicationEventPublisher eventPublisher){
+    public BookingServiceImpl(BookingRepository bookingRepository, RoomService roomService, ApplicationEventPublisher eventPublisher, RoomDayStatusService roomDayStatusService){
         this.bookingRepository = bookingRepository;
         this.roomService = roomService;
         this.eventPublisher = eventPublisher;
+        this.roomDayStatusService = roomDayStatusService;
     }
 
+    /**
+     * Rolls back on checked exceptions too: the booked days might already be marked when a conflict is detected.
+     */
     @Override
-    @Transactional
+    @Transactional(rollbackFor = Exception.class)
     public BookingDto createBooking(Long roomId, BookingDto bookingDto) throws RoomBookedOutException, EndDateBeforeStartDateException, StartAndOrEndDateBeforeNowException, StartAndOrEndDateNullException {
         log.info("Create booking with dates: {} - {}", bookingDto.startDate(), bookingDto.endDate());
         if (bookingDto.startDate() == null || bookingDto.endDate() == null){
@@ -90,9 +98,15 @@ public class BookingServiceImpl implements BookingService {
         // Save the booking
         this.bookingRepository.save(booking);
 
+        // Mark the booked days in the same transaction, fails if the room has been booked concurrently
+        this.roomDayStatusService.book(roomDto.id(), booking.getStartDate(), booking.getEndDate());
+
         // Publish booking event
         BookingDto savedBookingDto = convertToDto(booking);
         eventPublisher.publishEvent(new BookingEvent(this, savedBookingDto));
+        eventPublisher.publishEvent(new BookingChangedEvent(this, Collections.singletonList(booking.getId()), false));
+        eventPublisher.publishEvent(new RoomChangedEvent(this, roomDto.id()));
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(this, roomDto.id(), booking.getStartDate(), booking.getEndDate(), true));
 
         return savedBookingDto;
     }
@@ -133,10 +147,8 @@ public class BookingServiceImpl implements BookingService {
      * @throws RoomBookedOutException If the room is already booked for the given date range.
      */
     private void isBookingAvailable(Long roomId, LocalDate startDate, LocalDate endDate) throws RoomBookedOutException {
-        List<Booking> bookings = this.bookingRepository.findAllByRoomId(roomId);
-
-        // Check fir overlapping bookings
-        if (!bookings.isEmpty() && hasAnyOverlap(bookings, startDate, endDate)) {
+        // Check for overlapping bookings, only current and future partitions are read
+        if (this.bookingRepository.existsOverlapping(roomId, startDate, endDate)) {
             throw new RoomBookedOutException(roomId, startDate, endDate);
         }
     }
@@ -155,22 +167,6 @@ public class BookingServiceImpl implements BookingService {
                         ((endDate.isAfter(b.startDate()) || endDate.isEqual(b.startDate()))))).toList();
     }
 
-    /**
-     * Checks if there is any overlap between existing bookings and the specified date range.
-     *
-     * @param bookings  List of existing bookings for the room.
-     * @param startDate Start date of the booking.
-     * @param endDate   End date of the booking.
-     * @return true if there is any overlap, false otherwise.
-     */
-    private boolean hasAnyOverlap(List<Booking> bookings, LocalDate startDate, LocalDate endDate) {
-        return bookings
-                .stream()
-                .anyMatch(b -> ((startDate.isBefore(b.getEndDate()) || startDate.isEqual(b.getEndDate())) &&
-                        ((endDate.isAfter(b.getStartDate()) || endDate.isEqual(b.getStartDate()))))
-                );
-    }
-
     @Override
     public List<BookingDto> getBookingsByRoomId(Long roomId) {
         return this.bookingRepository
@@ -191,13 +187,13 @@ public class BookingServiceImpl implements BookingService {
         Specification<Booking> specification = Specification.where(null);
 
         // Create spec for specific ids if specified
-        if (!roomIds.isEmpty()) {
-            specification.and(BookingSpecifications.hasRoomIds(roomIds));
+        if (roomIds != null && !roomIds.isEmpty()) {
+            specification = specification.and(BookingSpecifications.hasRoomIds(roomIds));
         }
 
         // Create spec for specific time range, which gets all unavailable bookings
         if (startDate != null && endDate != null) {
-            specification.and(BookingSpecifications.hasOverlap(startDate, endDate));
+            specification = specification.and(BookingSpecifications.hasOverlap(startDate, endDate));
         }
 
         // Fetch unavailable bookings based on the criteria
@@ -205,7 +201,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    @Transactional
+    @Transactional(rollbackFor = Exception.class)
     public BookingDto updateBooking(BookingDto bookingDto) throws StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException, RoomBookedOutException {
         Booking booking = this.bookingRepository.findById(bookingDto.id()).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity not found."));
 
@@ -224,9 +220,18 @@ public class BookingServiceImpl implements BookingService {
         // Check if more overlaps contained
         if (allOverlaps.isEmpty()) {
 
+            // Move the booked days from the old to the new range
+            this.roomDayStatusService.release(booking.getRoom().getId(), booking.getStartDate(), booking.getEndDate());
+            this.roomDayStatusService.book(booking.getRoom().getId(), bookingDto.startDate(), bookingDto.endDate());
+            eventPublisher.publishEvent(new BookingReleasedEvent(this, booking.getRoom().getId(), booking.getStartDate(), booking.getEndDate()));
+            eventPublisher.publishEvent(new AvailabilityChangedEvent(this, booking.getRoom().getId(), booking.getStartDate(), booking.getEndDate(), false));
+            eventPublisher.publishEvent(new AvailabilityChangedEvent(this, booking.getRoom().getId(), bookingDto.startDate(), bookingDto.endDate(), true));
+
             // Update start & end date
             booking.setStartDate(bookingDto.startDate());
             booking.setEndDate(bookingDto.endDate());
+            eventPublisher.publishEvent(new BookingChangedEvent(this, Collections.singletonList(booking.getId()), false));
+            eventPublisher.publishEvent(new RoomChangedEvent(this, booking.getRoom().getId()));
             return convertToDto(booking);
         } else {
             throw new RoomBookedOutException(booking.getRoom().getId(), bookingDto.startDate(), bookingDto.endDate());
@@ -234,10 +239,16 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional
     public void deleteBooking(Long id) {
         Booking booking = this.bookingRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity not found."));
+        this.roomDayStatusService.release(booking.getRoom().getId(), booking.getStartDate(), booking.getEndDate());
         this.bookingRepository.delete(booking);
+        this.eventPublisher.publishEvent(new BookingReleasedEvent(this, booking.getRoom().getId(), booking.getStartDate(), booking.getEndDate()));
+        this.eventPublisher.publishEvent(new AvailabilityChangedEvent(this, booking.getRoom().getId(), booking.getStartDate(), booking.getEndDate(), false));
+        this.eventPublisher.publishEvent(new BookingChangedEvent(this, Collections.singletonList(booking.getId()), true));
+        this.eventPublisher.publishEvent(new RoomChangedEvent(this, booking.getRoom().getId()));
     }
 
     @Override
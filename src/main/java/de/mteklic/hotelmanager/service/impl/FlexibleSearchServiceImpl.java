@@ -0,0 +1,270 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
+import de.mteklic.hotelmanager.model.BookingInterval;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.FlexibleSearchDto;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.FlexibleSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service class for flexible date searches.
+ * ---
+ * The bookings of all candidate date ranges are read with one query and stored as one bit per room and day.
+ * The (room, date range) combinations are then evaluated without the database: the rooms are split recursively on
+ * the flexible search ForkJoinPool, every leaf checks its rooms against all date ranges and keeps its best options,
+ * and the best options of two halves are merged. The evaluation is CPU bound, so it scales with the number of cores.
+ */
+@Service
+public class FlexibleSearchServiceImpl implements FlexibleSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlexibleSearchServiceImpl.class);
+
+    static final int MAX_FLEXIBLE_DAYS = 14;
+
+    static final int MAX_NIGHTS = 90;
+
+    static final int MAX_LIMIT = 100;
+
+    /**
+     * Rooms evaluated by one fork/join task without splitting further.
+     */
+    static final int LEAF_ROOMS = 1024;
+
+    private final RoomRepository roomRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ForkJoinPool flexibleSearchPool;
+
+    public FlexibleSearchServiceImpl(RoomRepository roomRepository, BookingRepository bookingRepository, PlatformTransactionManager transactionManager,
+                                     @Qualifier("flexibleSearchPool") ForkJoinPool flexibleSearchPool){
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.flexibleSearchPool = flexibleSearchPool;
+    }
+
+    @Override
+    public FlexibleSearchDto search(LocalDate startDate, LocalDate endDate, int flexibleDays, RoomSize roomSize, Boolean hasMinibar, int limit) throws StartAndOrEndDateNullException, EndDateBeforeStartDateException {
+        if (startDate == null || endDate == null) {
+            throw new StartAndOrEndDateNullException(startDate, endDate);
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new EndDateBeforeStartDateException(startDate, endDate);
+        }
+        int nights = (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+        if (nights > MAX_NIGHTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format("Stay must not be longer than %d nights.", MAX_NIGHTS));
+        }
+        if (flexibleDays < 0 || flexibleDays > MAX_FLEXIBLE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format("Flexible days must be between 0 and %d.", MAX_FLEXIBLE_DAYS));
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, String.format("Limit must be between 1 and %d.", MAX_LIMIT));
+        }
+
+        FlexibleSearchDto.FlexibleSearchDtoBuilder result = FlexibleSearchDto.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .flexibleDays(flexibleDays);
+
+        int[] shifts = shifts(startDate, flexibleDays, LocalDate.now());
+        if (shifts.length == 0) {
+            return result.options(List.of()).build();
+        }
+        int minShift = Arrays.stream(shifts).min().getAsInt();
+        int maxShift = Arrays.stream(shifts).max().getAsInt();
+        LocalDate from = startDate.plusDays(minShift);
+        LocalDate to = endDate.plusDays(maxShift);
+
+        BookedDays bookedDays = this.transactionTemplate.execute(status -> loadBookedDays(roomSize, hasMinibar, from, to));
+        List<Candidate> candidates = this.flexibleSearchPool.invoke(new SearchTask(bookedDays, shifts, minShift, nights, limit, 0, bookedDays.roomIds().length));
+        log.debug("Flexible search from {} to {} ±{} days: {} rooms, {} options", startDate, endDate, flexibleDays, bookedDays.roomIds().length, candidates.size());
+
+        Map<Long, Room> rooms = this.roomRepository.findAllById(candidates.stream().map(Candidate::roomId).distinct().toList()).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        return result.options(candidates.stream()
+                        .filter(candidate -> rooms.containsKey(candidate.roomId()))
+                        .map(candidate -> {
+                            Room room = rooms.get(candidate.roomId());
+                            int shift = shifts[candidate.rank()];
+                            return FlexibleSearchDto.Option.builder()
+                                    .roomId(room.getId())
+                                    .roomName(room.getName())
+                                    .roomSize(room.getRoomSize())
+                                    .startDate(startDate.plusDays(shift))
+                                    .endDate(endDate.plusDays(shift))
+                                    .shiftDays(shift)
+                                    .build();
+                        })
+                        .toList())
+                .build();
+    }
+
+    /**
+     * @return The shifts of the stay in the order of their rank: 0, -1, +1, -2, +2, ... Stays starting before today are left out.
+     */
+    static int[] shifts(LocalDate startDate, int flexibleDays, LocalDate today) {
+        int[] shifts = new int[2 * flexibleDays + 1];
+        int count = 0;
+        for (int distance = 0; distance <= flexibleDays; distance++) {
+            for (int shift : distance == 0 ? new int[]{0} : new int[]{-distance, distance}) {
+                if (!startDate.plusDays(shift).isBefore(today)) {
+                    shifts[count++] = shift;
+                }
+            }
+        }
+        return Arrays.copyOf(shifts, count);
+    }
+
+    /**
+     * Booked days of the candidate rooms from the first to the last day of all date ranges.
+     *
+     * @param roomIds IDs of the candidate rooms in ascending order.
+     * @param words   Words per room.
+     * @param booked  Bit d of room r is bit d % 64 of word r * words + d / 64, set if the day from + d is booked.
+     */
+    record BookedDays(long[] roomIds, int words, long[] booked) {
+
+        boolean isFree(int room, int fromDay, int days) {
+            int toDay = fromDay + days - 1;
+            for (int word = fromDay / 64; word <= toDay / 64; word++) {
+                int lo = word == fromDay / 64 ? fromDay % 64 : 0;
+                int hi = word == toDay / 64 ? toDay % 64 : 63;
+                long mask = (hi == 63 ? -1L : (1L << (hi + 1)) - 1) & (-1L << lo);
+                if ((this.booked[room * this.words + word] & mask) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private BookedDays loadBookedDays(RoomSize roomSize, Boolean hasMinibar, LocalDate from, LocalDate to) {
+        long[] roomIds = this.roomRepository.findIds(roomSize, hasMinibar).stream().mapToLong(Long::longValue).toArray();
+        int days = (int) (to.toEpochDay() - from.toEpochDay() + 1);
+        int words = (days + 63) / 64;
+        long[] booked = new long[roomIds.length * words];
+
+        try (Stream<BookingInterval> intervals = this.bookingRepository.streamOverlappingIntervals(from, to)) {
+            intervals.forEach(interval -> {
+                int room = Arrays.binarySearch(roomIds, interval.roomId());
+                if (room < 0) {
+                    // Room does not match the criteria
+                    return;
+                }
+                int first = (int) Math.max(0, interval.startDate().toEpochDay() - from.toEpochDay());
+                int last = (int) Math.min(days - 1, interval.endDate().toEpochDay() - from.toEpochDay());
+                for (int day = first; day <= last; day++) {
+                    booked[room * words + day / 64] |= 1L << (day % 64);
+                }
+            });
+        }
+        return new BookedDays(roomIds, words, booked);
+    }
+
+    /**
+     * A free option: a room and the rank of its shift.
+     */
+    record Candidate(long roomId, int rank) implements Comparable<Candidate> {
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byRank = Integer.compare(this.rank, other.rank);
+            return byRank != 0 ? byRank : Long.compare(this.roomId, other.roomId);
+        }
+    }
+
+    /**
+     * Evaluates the rooms fromRoom (inclusive) to toRoom (exclusive) and returns their best options, sorted.
+     */
+    static class SearchTask extends RecursiveTask<List<Candidate>> {
+
+        private final BookedDays bookedDays;
+
+        private final int[] shifts;
+
+        private final int minShift;
+
+        private final int nights;
+
+        private final int limit;
+
+        private final int fromRoom;
+
+        private final int toRoom;
+
+        SearchTask(BookedDays bookedDays, int[] shifts, int minShift, int nights, int limit, int fromRoom, int toRoom) {
+            this.bookedDays = bookedDays;
+            this.shifts = shifts;
+            this.minShift = minShift;
+            this.nights = nights;
+            this.limit = limit;
+            this.fromRoom = fromRoom;
+            this.toRoom = toRoom;
+        }
+
+        @Override
+        protected List<Candidate> compute() {
+            if (this.toRoom - this.fromRoom <= LEAF_ROOMS) {
+                return evaluate();
+            }
+            int middle = (this.fromRoom + this.toRoom) >>> 1;
+            SearchTask left = new SearchTask(this.bookedDays, this.shifts, this.minShift, this.nights, this.limit, this.fromRoom, middle);
+            SearchTask right = new SearchTask(this.bookedDays, this.shifts, this.minShift, this.nights, this.limit, middle, this.toRoom);
+            left.fork();
+            List<Candidate> rightCandidates = right.compute();
+            return merge(left.join(), rightCandidates);
+        }
+
+        private List<Candidate> evaluate() {
+            List<Candidate> candidates = new ArrayList<>();
+            for (int room = this.fromRoom; room < this.toRoom; room++) {
+                for (int rank = 0; rank < this.shifts.length; rank++) {
+                    if (this.bookedDays.isFree(room, this.shifts[rank] - this.minShift, this.nights)) {
+                        candidates.add(new Candidate(this.bookedDays.roomIds()[room], rank));
+                    }
+                }
+            }
+            Collections.sort(candidates);
+            return candidates.size() > this.limit ? new ArrayList<>(candidates.subList(0, this.limit)) : candidates;
+        }
+
+        private List<Candidate> merge(List<Candidate> left, List<Candidate> right) {
+            List<Candidate> merged = new ArrayList<>(Math.min(this.limit, left.size() + right.size()));
+            int l = 0;
+            int r = 0;
+            while (merged.size() < this.limit && (l < left.size() || r < right.size())) {
+                if (r == right.size() || l < left.size() && left.get(l).compareTo(right.get(r)) <= 0) {
+                    merged.add(left.get(l++));
+                } else {
+                    merged.add(right.get(r++));
+                }
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import de.mteklic.hotelmanager.index.FreeNightsIndex;
+import de.mteklic.hotelmanager.model.AvailabilityChangedEvent;
+import de.mteklic.hotelmanager.model.BookingInterval;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.RoomDayStatusRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.FreeNightsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Service class for free nights queries.
+ * ---
+ * The free days of all rooms are kept in a {@link FreeNightsIndex}, from today up to hotelmanager.free-nights.horizon-days.
+ * It is loaded on startup, rebuilt every night to move the window forward and updated after every committed change
+ * of booked days. Events of concurrent transactions can arrive in another order than they were committed, so an update
+ * does not apply the change of the event but re-reads the booked days of the range from room_day_status. Updates of
+ * the same room are serialised by a per room lock, so the last update of a range always writes its committed state.
+ * A rebuild does not block the updates: they keep going to the current index and are recorded meanwhile, and the
+ * recorded changes are re-read into the new index before it replaces the current one.
+ */
+@Service
+public class FreeNightsServiceImpl implements FreeNightsService {
+
+    private static final Logger log = LoggerFactory.getLogger(FreeNightsServiceImpl.class);
+
+    /**
+     * Number of locks the rooms are spread over.
+     */
+    private static final int ROOM_LOCKS = 256;
+
+    /**
+     * Changed days of a room, or a room which has been created or deleted if the dates are null.
+     */
+    private record Change(Long roomId, LocalDate startDate, LocalDate endDate) {
+
+        boolean isRoomChange() {
+            return this.startDate == null;
+        }
+    }
+
+    private final RoomRepository roomRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final RoomDayStatusRepository roomDayStatusRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int horizonDays;
+
+    private final Object[] roomLocks = new Object[ROOM_LOCKS];
+
+    private volatile FreeNightsIndex freeNightsIndex;
+
+    /**
+     * Changes committed while a rebuild is running, null otherwise.
+     */
+    private volatile Set<Change> pendingChanges;
+
+    public FreeNightsServiceImpl(RoomRepository roomRepository, BookingRepository bookingRepository, RoomDayStatusRepository roomDayStatusRepository,
+                                 PlatformTransactionManager transactionManager, @Value("${hotelmanager.free-nights.horizon-days:400}") int horizonDays){
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+        this.roomDayStatusRepository = roomDayStatusRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.horizonDays = horizonDays;
+        Arrays.setAll(this.roomLocks, i -> new Object());
+    }
+
+    @Override
+    public List<Long> findRoomIds(int nights, LocalDate startDate, LocalDate endDate) {
+        if (this.freeNightsIndex == null) {
+            rebuild();
+        }
+        FreeNightsIndex index = this.freeNightsIndex;
+        // Past nights cannot be booked anymore, the origin is yesterday until the nightly rebuild has run
+        LocalDate today = LocalDate.now();
+        return index.findRooms(nights, startDate.isBefore(today) ? today : startDate, endDate);
+    }
+
+    /**
+     * Builds a new index and replaces the current one. Only rebuilds are synchronised with each other, updates keep
+     * going to the current index. Changes committed after the recording has started might already be part of the
+     * read snapshot; re-reading them is harmless.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${hotelmanager.free-nights.rebuild-cron:0 5 0 * * *}")
+    public synchronized void rebuild() {
+        Set<Change> changes = ConcurrentHashMap.newKeySet();
+        this.pendingChanges = changes;
+        LocalDate today = LocalDate.now();
+        FreeNightsIndex index = new FreeNightsIndex(today, this.horizonDays);
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> {
+                this.roomRepository.findAllIds().forEach(index::addRoom);
+                try (Stream<BookingInterval> intervals = this.bookingRepository.streamOverlappingIntervals(index.origin(), index.end())) {
+                    intervals.forEach(interval -> index.set(interval.roomId(), interval.startDate(), interval.endDate(), true));
+                }
+            });
+            replay(index, changes);
+            this.freeNightsIndex = index;
+        } finally {
+            this.pendingChanges = null;
+        }
+        // An update which has been recorded after the replay has seen the new index, or is replayed here
+        replay(index, changes);
+        log.info("Free nights index built with {} rooms from {} to {}", index.size(), index.origin(), index.end());
+    }
+
+    /**
+     * Writes the committed state of the changed days into the index, after the change has been committed.
+     * The booked days are read from room_day_status instead of taken from the event, since an event of an earlier
+     * commit might arrive after a later one. During a rebuild the change is recorded for the new index as well.
+     *
+     * @param event The event contains the room and its changed days.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleAvailabilityChangedEvent(AvailabilityChangedEvent event) {
+        Change change = new Change(event.getRoomId(), event.getStartDate(), event.getEndDate());
+        record(change);
+        FreeNightsIndex index = this.freeNightsIndex;
+        if (index != null) {
+            apply(index, change);
+        }
+    }
+
+    /**
+     * Adds new and removes deleted rooms after the change has been committed. Booking changes publish the same event,
+     * the existence of the room is then checked by its primary key without changes to the index.
+     *
+     * @param event The event contains the id of the changed room, or null if any room might have changed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleRoomChangedEvent(RoomChangedEvent event) {
+        if (event.getRoomId() == null) {
+            if (this.freeNightsIndex != null) {
+                rebuild();
+            }
+            return;
+        }
+        Change change = new Change(event.getRoomId(), null, null);
+        record(change);
+        FreeNightsIndex index = this.freeNightsIndex;
+        if (index != null) {
+            apply(index, change);
+        }
+    }
+
+    /**
+     * Records a change for the running rebuild, if any. Must be called before the current index is read, so a change
+     * is either replayed by the rebuild or applied to the new index.
+     */
+    private void record(Change change) {
+        Set<Change> changes = this.pendingChanges;
+        if (changes != null) {
+            changes.add(change);
+        }
+    }
+
+    /**
+     * Applies the recorded changes to the index until none are left. Changes of days come first, so a room which
+     * has been deleted meanwhile is removed again.
+     */
+    private void replay(FreeNightsIndex index, Set<Change> changes) {
+        while (!changes.isEmpty()) {
+            List<Change> replayed = new ArrayList<>(changes);
+            changes.removeAll(replayed);
+            replayed.sort(Comparator.comparing(Change::isRoomChange));
+            replayed.forEach(change -> apply(index, change));
+        }
+    }
+
+    /**
+     * Writes the committed state of a change into the index. The state is read and written under the lock of the
+     * room, so an older state never overwrites a newer one.
+     */
+    private void apply(FreeNightsIndex index, Change change) {
+        synchronized (this.roomLocks[Math.floorMod(change.roomId().hashCode(), ROOM_LOCKS)]) {
+            if (change.isRoomChange()) {
+                if (this.roomRepository.existsById(change.roomId())) {
+                    index.addRoom(change.roomId());
+                } else {
+                    index.removeRoom(change.roomId());
+                }
+                return;
+            }
+            LocalDate startDate = change.startDate().isBefore(index.origin()) ? index.origin() : change.startDate();
+            LocalDate endDate = change.endDate().isAfter(index.end()) ? index.end() : change.endDate();
+            if (startDate.isAfter(endDate)) {
+                index.addRoom(change.roomId());
+                return;
+            }
+            List<LocalDate> bookedDays = this.roomDayStatusRepository.findBookedDays(change.roomId(), startDate, endDate);
+            index.replace(change.roomId(), startDate, endDate, bookedDays);
+        }
+    }
+}
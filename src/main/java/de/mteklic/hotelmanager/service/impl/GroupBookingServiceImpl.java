@@ -0,0 +1,139 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import de.mteklic.hotelmanager.exception.*;
+import de.mteklic.hotelmanager.model.AvailabilityChangedEvent;
+import de.mteklic.hotelmanager.model.BookingChangedEvent;
+import de.mteklic.hotelmanager.model.BookingEvent;
+import de.mteklic.hotelmanager.model.FreeRoom;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import de.mteklic.hotelmanager.model.dto.BookingDto;
+import de.mteklic.hotelmanager.model.dto.GroupBookingDto;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.RoomDayStatusRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.GroupBookingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for group bookings.
+ * ---
+ * All free candidates are read with one query, the best fitting rooms are chosen in memory and booked with one
+ * statement for the booked days and one for the bookings. The booked days are inserted first: if a room has been
+ * booked concurrently, fewer days are inserted and the whole group is rolled back.
+ */
+@Service
+public class GroupBookingServiceImpl implements GroupBookingService {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupBookingServiceImpl.class);
+
+    /**
+     * Free days before and after the range are counted up to this many days. Longer gaps are equally easy to sell.
+     */
+    private static final int FRAGMENTATION_HORIZON_DAYS = 28;
+
+    private final RoomRepository roomRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final RoomDayStatusRepository roomDayStatusRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int maxRooms;
+
+    public GroupBookingServiceImpl(RoomRepository roomRepository, BookingRepository bookingRepository, RoomDayStatusRepository roomDayStatusRepository, ApplicationEventPublisher eventPublisher,
+                                   @Value("${hotelmanager.group-booking.max-rooms:500}") int maxRooms){
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+        this.roomDayStatusRepository = roomDayStatusRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxRooms = maxRooms;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public GroupBookingDto createGroupBooking(GroupBookingDto groupBookingDto) throws GroupBookedOutException, StartAndOrEndDateNullException, StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException {
+        LocalDate startDate = groupBookingDto.startDate();
+        LocalDate endDate = groupBookingDto.endDate();
+        Integer rooms = groupBookingDto.rooms();
+        log.info("Create group booking of {} rooms with dates: {} - {}", rooms, startDate, endDate);
+
+        if (rooms == null || rooms < 1 || rooms > this.maxRooms) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A group booking must contain 1 to " + this.maxRooms + " rooms.");
+        }
+        if (startDate == null || endDate == null) {
+            throw new StartAndOrEndDateNullException(startDate, endDate);
+        }
+        LocalDate today = LocalDate.now();
+        if (startDate.isBefore(today) || endDate.isBefore(today)) {
+            throw new StartAndOrEndDateBeforeNowException(startDate, endDate);
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new EndDateBeforeStartDateException(startDate, endDate);
+        }
+
+        List<FreeRoom> freeRooms = this.roomRepository.findFreeRooms(groupBookingDto.roomSize(), groupBookingDto.hasMinibar(), startDate, endDate, FRAGMENTATION_HORIZON_DAYS);
+        if (freeRooms.size() < rooms) {
+            throw new GroupBookedOutException(rooms, freeRooms.size(), startDate, endDate);
+        }
+
+        List<Long> roomIds = freeRooms.stream()
+                .sorted(Comparator.comparingLong((FreeRoom freeRoom) -> remainingGap(freeRoom, startDate, endDate, today)).thenComparing(FreeRoom::roomId))
+                .limit(rooms)
+                .map(FreeRoom::roomId)
+                .toList();
+
+        // Days which are already booked are skipped by the insert - one of the rooms has been booked concurrently
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        int marked = this.roomDayStatusRepository.markBookedAll(roomIds, startDate, endDate);
+        if (marked < rooms * days) {
+            log.debug("Only {} of {} days could be marked as booked for the group", marked, rooms * days);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A room of the group has been booked concurrently, please retry.");
+        }
+
+        Map<Long, Long> bookingIds = this.bookingRepository.insertAll(roomIds, startDate, endDate);
+
+        List<GroupBookingDto.Entry> bookings = roomIds.stream()
+                .map(roomId -> new GroupBookingDto.Entry(roomId, bookingIds.get(roomId)))
+                .toList();
+        this.eventPublisher.publishEvent(new BookingChangedEvent(this, List.copyOf(bookingIds.values()), false));
+        for (GroupBookingDto.Entry booking : bookings) {
+            this.eventPublisher.publishEvent(new BookingEvent(this, new BookingDto(booking.bookingId(), startDate, endDate)));
+            this.eventPublisher.publishEvent(new RoomChangedEvent(this, booking.roomId()));
+            this.eventPublisher.publishEvent(new AvailabilityChangedEvent(this, booking.roomId(), startDate, endDate, true));
+        }
+
+        return GroupBookingDto.builder()
+                .rooms(rooms)
+                .roomSize(groupBookingDto.roomSize())
+                .hasMinibar(groupBookingDto.hasMinibar())
+                .startDate(startDate)
+                .endDate(endDate)
+                .bookings(bookings)
+                .build();
+    }
+
+    /**
+     * Free days which remain before and after the range if the room is booked, each side counted up to the horizon.
+     * Zero means the booking fills a gap exactly. Days before today cannot be booked anymore and are not counted.
+     */
+    private static long remainingGap(FreeRoom freeRoom, LocalDate startDate, LocalDate endDate, LocalDate today) {
+        LocalDate firstFreeDay = freeRoom.previousBookedDay() != null ? freeRoom.previousBookedDay().plusDays(1) : startDate.minusDays(FRAGMENTATION_HORIZON_DAYS);
+        long gapBefore = ChronoUnit.DAYS.between(firstFreeDay.isBefore(today) ? today : firstFreeDay, startDate);
+        long gapAfter = freeRoom.nextBookedDay() != null ? ChronoUnit.DAYS.between(endDate, freeRoom.nextBookedDay()) - 1 : FRAGMENTATION_HORIZON_DAYS;
+        return Math.min(gapBefore, FRAGMENTATION_HORIZON_DAYS) + Math.min(gapAfter, FRAGMENTATION_HORIZON_DAYS);
+    }
+}
@@ -0,0 +1,166 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.mteklic.hotelmanager.cache.ExpiringLruCache;
+import de.mteklic.hotelmanager.exception.*;
+import de.mteklic.hotelmanager.model.IdempotencyKey;
+import de.mteklic.hotelmanager.model.dto.BookingDto;
+import de.mteklic.hotelmanager.repository.IdempotencyKeyRepository;
+import de.mteklic.hotelmanager.service.BookingService;
+import de.mteklic.hotelmanager.service.IdempotencyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Service class for idempotent booking creation.
+ * ---
+ * Stored responses are kept in the idempotency_keys table and, for fast replays of retry storms, in a bounded
+ * in-memory LRU cache. Both expire after hotelmanager.idempotency.ttl.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * A stored response, together with the fingerprint of the request which produced it.
+     */
+    private record StoredResponse(String fingerprint, BookingDto bookingDto) {
+    }
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final BookingService bookingService;
+
+    private final ObjectMapper objectMapper;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final Duration ttl;
+
+    private final ExpiringLruCache<String, StoredResponse> storedResponses;
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository,
+                                  BookingService bookingService,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${hotelmanager.idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${hotelmanager.idempotency.cache-size:10000}") int cacheSize){
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
+        this.transactionManager = transactionManager;
+        this.ttl = ttl;
+        this.storedResponses = new ExpiringLruCache<>(cacheSize, ttl);
+    }
+
+    @Override
+    public BookingDto createBooking(String idempotencyKey, Long roomId, BookingDto bookingDto) throws IdempotencyKeyReusedException, RoomBookedOutException, EndDateBeforeStartDateException, StartAndOrEndDateBeforeNowException, StartAndOrEndDateNullException {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency key must have 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+        String fingerprint = fingerprint(roomId, bookingDto);
+
+        // Retries usually hit the same instance shortly after the first request
+        StoredResponse cached = this.storedResponses.get(idempotencyKey);
+        if (cached != null) {
+            log.debug("Replay idempotency key {} from cache", idempotencyKey);
+            return replay(idempotencyKey, cached, fingerprint);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        TransactionStatus status = this.transactionManager.getTransaction(new DefaultTransactionDefinition());
+        BookingDto createdBookingDto;
+        try {
+            // Waits for a concurrent request with the same key, then either wins the key or finds the stored response
+            if (this.idempotencyKeyRepository.insertKey(idempotencyKey, fingerprint, now, now.minus(this.ttl)) == 0) {
+                createdBookingDto = null;
+            } else {
+                createdBookingDto = this.bookingService.createBooking(roomId, bookingDto);
+                this.idempotencyKeyRepository.storeResponse(idempotencyKey, serialize(createdBookingDto));
+            }
+        } catch (Exception e) {
+            // Failed requests are not stored, a retry executes them again
+            this.transactionManager.rollback(status);
+            throw e;
+        }
+        this.transactionManager.commit(status);
+
+        if (createdBookingDto != null) {
+            this.storedResponses.put(idempotencyKey, new StoredResponse(fingerprint, createdBookingDto));
+            return createdBookingDto;
+        }
+
+        log.debug("Replay idempotency key {} from database", idempotencyKey);
+        IdempotencyKey stored = this.idempotencyKeyRepository.findById(idempotencyKey)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Idempotency key " + idempotencyKey + " has expired concurrently, please retry."));
+        if (stored.getResponseBody() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Request with idempotency key " + idempotencyKey + " is still in progress.");
+        }
+        StoredResponse storedResponse = new StoredResponse(stored.getFingerprint(), deserialize(stored.getResponseBody()));
+        this.storedResponses.put(idempotencyKey, storedResponse);
+        return replay(idempotencyKey, storedResponse, fingerprint);
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${hotelmanager.idempotency.purge-cron:0 0 * * * *}")
+    public void purgeExpiredKeys() {
+        int purged = this.idempotencyKeyRepository.deleteAllByCreatedAtBefore(LocalDateTime.now().minus(this.ttl));
+        log.debug("Purged {} expired idempotency keys", purged);
+    }
+
+    private BookingDto replay(String idempotencyKey, StoredResponse storedResponse, String fingerprint) throws IdempotencyKeyReusedException {
+        if (!storedResponse.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+        return storedResponse.bookingDto();
+    }
+
+    /**
+     * @return Hex encoded SHA-256 hash of the booking request.
+     */
+    private String fingerprint(Long roomId, BookingDto bookingDto) {
+        String request = roomId + "|" + bookingDto.startDate() + "|" + bookingDto.endDate();
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    private String serialize(BookingDto bookingDto) {
+        try {
+            return this.objectMapper.writeValueAsString(bookingDto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Booking could not be serialised", e);
+        }
+    }
+
+    private BookingDto deserialize(String responseBody) {
+        try {
+            return this.objectMapper.readValue(responseBody, BookingDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored booking could not be deserialised", e);
+        }
+    }
+}
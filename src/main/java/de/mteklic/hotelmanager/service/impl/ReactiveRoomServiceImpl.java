@@ -0,0 +1,156 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.BookingDto;
+import de.mteklic.hotelmanager.model.dto.RoomDto;
+import de.mteklic.hotelmanager.service.ReactiveRoomService;
+import io.r2dbc.spi.Readable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * R2DBC based implementation of {@link ReactiveRoomService}.
+ * Not a component on purpose: it is only created by the ReactiveConfig when the reactive read path is enabled.
+ * ---
+ * Rooms and their bookings are read with a single left join ordered by room id, and the rows of one room are
+ * folded into one RoomDto while streaming. Rows are fetched in chunks, as fast as the client consumes them.
+ */
+public class ReactiveRoomServiceImpl implements ReactiveRoomService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRoomServiceImpl.class);
+
+    /**
+     * Number of rows fetched from the database per demand signal.
+     */
+    private static final int FETCH_SIZE = 256;
+
+    private static final String SELECT_ROOMS_WITH_BOOKINGS = "SELECT r.id, r.name, r.description, r.has_minibar, r.room_size, " +
+            "b.id AS booking_id, b.start_date, b.end_date FROM rooms r LEFT JOIN bookings b ON b.room_id = r.id";
+
+    private static final String ORDER_BY = " ORDER BY r.id, b.id";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveRoomServiceImpl(DatabaseClient databaseClient){
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public Mono<RoomDto> getRoom(Long id) {
+        return query(SELECT_ROOMS_WITH_BOOKINGS + " WHERE r.id = :id" + ORDER_BY, Map.of("id", id))
+                .next()
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity not found")));
+    }
+
+    @Override
+    public Flux<RoomDto> getAllRooms() {
+        return query(SELECT_ROOMS_WITH_BOOKINGS + ORDER_BY, Map.of());
+    }
+
+    @Override
+    public Flux<RoomDto> getFilteredRooms(List<Long> ids, String name, String description, LocalDate startDate, LocalDate endDate, Boolean hasMinibar, RoomSize roomSize) {
+        // Same semantics as RoomServiceImpl: parts of name and description, availability for the whole range
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        if (ids != null) {
+            conditions.add("r.id = ANY(:ids)");
+            parameters.put("ids", ids.toArray(new Long[0]));
+        }
+        if (name != null && !name.isBlank()) {
+            conditions.add("r.name LIKE :name");
+            parameters.put("name", "%" + name + "%");
+        }
+        if (description != null && !description.isBlank()) {
+            conditions.add("r.description LIKE :description");
+            parameters.put("description", "%" + description + "%");
+        }
+        if (hasMinibar != null) {
+            conditions.add("r.has_minibar = :hasMinibar");
+            parameters.put("hasMinibar", hasMinibar);
+        }
+        if (roomSize != null) {
+            conditions.add("r.room_size = :roomSize");
+            parameters.put("roomSize", roomSize.name());
+        }
+        if (startDate != null && endDate != null) {
+            conditions.add("NOT EXISTS (SELECT 1 FROM room_day_status s WHERE s.room_id = r.id AND s.day BETWEEN :startDate AND :endDate)");
+            parameters.put("startDate", startDate);
+            parameters.put("endDate", endDate);
+        }
+
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        log.debug("Reactive room filter: {}", where);
+
+        return query(SELECT_ROOMS_WITH_BOOKINGS + where + ORDER_BY, parameters);
+    }
+
+    /**
+     * Executes the room query and folds consecutive rows of the same room into one RoomDto.
+     *
+     * @param sql        Query based on SELECT_ROOMS_WITH_BOOKINGS, ordered by room id.
+     * @param parameters Named parameters of the query.
+     * @return Flux of RoomDto in the order of the query.
+     */
+    private Flux<RoomDto> query(String sql, Map<String, Object> parameters) {
+        DatabaseClient.GenericExecuteSpec spec = this.databaseClient.sql(sql);
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+
+        return spec.filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(RoomRow::of)
+                .all()
+                .bufferUntilChanged(RoomRow::id)
+                .map(this::convertToDto);
+    }
+
+    private RoomDto convertToDto(List<RoomRow> rows) {
+        RoomRow room = rows.get(0);
+        return RoomDto.builder()
+                .id(room.id())
+                .name(room.name())
+                .description(room.description())
+                .hasMinibar(room.hasMinibar())
+                .roomSize(room.roomSize())
+                .bookings(rows.stream()
+                        .filter(row -> row.bookingId() != null)
+                        .map(row -> BookingDto.builder()
+                                .id(row.bookingId())
+                                .startDate(row.startDate())
+                                .endDate(row.endDate())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    /**
+     * One row of the left join, i.e. a room with at most one of its bookings.
+     */
+    private record RoomRow(Long id, String name, String description, Boolean hasMinibar, RoomSize roomSize,
+                           Long bookingId, LocalDate startDate, LocalDate endDate) {
+
+        static RoomRow of(Readable row) {
+            String roomSize = row.get("room_size", String.class);
+            return new RoomRow(row.get("id", Long.class),
+                    row.get("name", String.class),
+                    row.get("description", String.class),
+                    row.get("has_minibar", Boolean.class),
+                    roomSize != null ? RoomSize.valueOf(roomSize) : null,
+                    row.get("booking_id", Long.class),
+                    row.get("start_date", LocalDate.class),
+                    row.get("end_date", LocalDate.class));
+        }
+    }
+}
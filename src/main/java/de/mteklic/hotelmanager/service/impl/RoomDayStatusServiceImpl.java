@@ -0,0 +1,96 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import de.mteklic.hotelmanager.exception.RoomBookedOutException;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.RoomDayStatusRepository;
+import de.mteklic.hotelmanager.service.RoomDayStatusService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+/**
+ * Service class for maintaining the materialised per-day availability of rooms.
+ */
+@Service
+public class RoomDayStatusServiceImpl implements RoomDayStatusService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomDayStatusServiceImpl.class);
+
+    /**
+     * Number of days rebuilt per transaction during a repair. Keeps the table lock of each chunk short.
+     */
+    private static final int REPAIR_CHUNK_DAYS = 31;
+
+    private final RoomDayStatusRepository roomDayStatusRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public RoomDayStatusServiceImpl(RoomDayStatusRepository roomDayStatusRepository, BookingRepository bookingRepository, PlatformTransactionManager transactionManager){
+        this.roomDayStatusRepository = roomDayStatusRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional
+    public void book(Long roomId, LocalDate startDate, LocalDate endDate) throws RoomBookedOutException {
+        long days = endDate.toEpochDay() - startDate.toEpochDay() + 1;
+        int marked = this.roomDayStatusRepository.markBooked(roomId, startDate, endDate);
+
+        // Days which are already booked are skipped by the insert - the room has been booked concurrently
+        if (marked < days) {
+            log.debug("Only {} of {} days could be marked as booked for room {}", marked, days, roomId);
+            throw new RoomBookedOutException(roomId, startDate, endDate);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void release(Long roomId, LocalDate startDate, LocalDate endDate) {
+        this.roomDayStatusRepository.markFree(roomId, startDate, endDate);
+    }
+
+    @Override
+    @Transactional
+    public void releaseRoom(Long roomId) {
+        this.roomDayStatusRepository.deleteAllByRoomId(roomId);
+    }
+
+    @Override
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        Integer booked = this.transactionTemplate.execute(status -> {
+            this.roomDayStatusRepository.lockForRebuild();
+            this.roomDayStatusRepository.deleteRange(startDate, endDate);
+            return this.roomDayStatusRepository.rebuildRange(startDate, endDate);
+        });
+        log.debug("Rebuilt room day status from {} to {}: {} booked days", startDate, endDate, booked);
+        return booked == null ? 0 : booked;
+    }
+
+    @Override
+    @Scheduled(cron = "${hotelmanager.availability.repair-cron:0 30 3 * * *}")
+    public void repair() {
+        LocalDate lastBookedDay = this.bookingRepository.findLastBookedDay().orElse(null);
+        LocalDate today = LocalDate.now();
+
+        if (lastBookedDay == null || lastBookedDay.isBefore(today)) {
+            log.debug("No current or future bookings, nothing to repair.");
+            return;
+        }
+
+        int booked = 0;
+        for (LocalDate chunkStart = today; !chunkStart.isAfter(lastBookedDay); chunkStart = chunkStart.plusDays(REPAIR_CHUNK_DAYS)) {
+            LocalDate chunkEnd = chunkStart.plusDays(REPAIR_CHUNK_DAYS - 1L);
+            booked += rebuild(chunkStart, chunkEnd.isAfter(lastBookedDay) ? lastBookedDay : chunkEnd);
+        }
+        log.info("Repaired room day status from {} to {}: {} booked days", today, lastBookedDay, booked);
+    }
+}
@@ -0,0 +1,118 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import de.mteklic.hotelmanager.index.RoomFacetIndex;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import de.mteklic.hotelmanager.model.RoomFilter;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.RoomFacetsDto;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.RoomFacetService;
+import de.mteklic.hotelmanager.specification.RoomSpecifications;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for facet counts of rooms.
+ * ---
+ * Room size and minibar are counted in the {@link RoomFacetIndex}. Criteria which are not facets (name, description,
+ * availability) are resolved to room ids by the database first, ids are used as given.
+ * The index is loaded on startup and updated after every committed room change.
+ */
+@Service
+public class RoomFacetServiceImpl implements RoomFacetService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomFacetServiceImpl.class);
+
+    private final RoomRepository roomRepository;
+
+    private final RoomFacetIndex roomFacetIndex = new RoomFacetIndex();
+
+    private volatile boolean built;
+
+    public RoomFacetServiceImpl(RoomRepository roomRepository){
+        this.roomRepository = roomRepository;
+    }
+
+    @Override
+    public RoomFacetsDto getFacets(List<Long> ids, String name, String description, LocalDate startDate, LocalDate endDate, Boolean hasMinibar, RoomSize roomSize) {
+        if (!this.built) {
+            rebuild();
+        }
+        RoomFilter filter = RoomFilter.of(ids, name, description, startDate, endDate, hasMinibar, roomSize);
+
+        Map<String, String> selected = new HashMap<>();
+        if (filter.roomSize() != null) {
+            selected.put("roomSize", filter.roomSize().name());
+        }
+        if (filter.hasMinibar() != null) {
+            selected.put("hasMinibar", filter.hasMinibar().toString());
+        }
+        return this.roomFacetIndex.count(findCandidateIds(filter), selected);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        this.roomFacetIndex.rebuild(this.roomRepository.findAll());
+        this.built = true;
+        log.info("Facet index built with {} rooms", this.roomFacetIndex.size());
+    }
+
+    /**
+     * Updates the facet index after a room change has been committed. Booking changes publish the same event,
+     * the room is then reloaded by its primary key without changes to the index.
+     * Synchronised with {@link #rebuild()}, so a change is never overwritten by a rebuild which read the rooms before it.
+     *
+     * @param event The event contains the id of the changed room, or null if any room might have changed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void handleRoomChangedEvent(RoomChangedEvent event) {
+        if (!this.built) {
+            return;
+        }
+        if (event.getRoomId() == null) {
+            rebuild();
+            return;
+        }
+        this.roomRepository.findById(event.getRoomId()).ifPresentOrElse(
+                this.roomFacetIndex::put,
+                () -> this.roomFacetIndex.remove(event.getRoomId()));
+    }
+
+    /**
+     * @return Ids of the rooms matching the criteria which are not facets, or null if there are none.
+     */
+    private List<Long> findCandidateIds(RoomFilter filter) {
+        if (filter.name() == null && filter.description() == null && filter.startDate() == null) {
+            return filter.ids();
+        }
+
+        Specification<Room> specification = Specification.where(null);
+        if (filter.ids() != null) {
+            specification = specification.and(RoomSpecifications.hasId(filter.ids()));
+        }
+        if (filter.name() != null) {
+            specification = specification.and(RoomSpecifications.hasName("%" + filter.name() + "%"));
+        }
+        if (filter.description() != null) {
+            specification = specification.and(RoomSpecifications.hasDescription("%" + filter.description() + "%"));
+        }
+        if (filter.startDate() != null) {
+            specification = specification.and(RoomSpecifications.isAvailable(filter.startDate(), filter.endDate()));
+        }
+        return this.roomRepository.findAll(specification).stream()
+                .map(Room::getId)
+                .toList();
+    }
+}
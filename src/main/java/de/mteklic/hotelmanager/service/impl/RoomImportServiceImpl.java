@@ -0,0 +1,317 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.RoomDto;
+import de.mteklic.hotelmanager.model.dto.RoomImportDto;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.RoomImportService;
+import de.mteklic.hotelmanager.service.SyncService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Service class for bulk room imports.
+ * ---
+ * Rows are read, parsed and validated one by one while they are streamed into the database via COPY, so neither
+ * the input nor the rooms are held in memory. The import runs in one transaction: if the COPY fails, no room is imported.
+ * The imported rooms are recorded in the change log by their ID range within the same transaction.
+ */
+@Service
+public class RoomImportServiceImpl implements RoomImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomImportServiceImpl.class);
+
+    /**
+     * Maximum number of errors listed in the report, to keep it small for large, broken files.
+     */
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "roomsize", "hasminibar");
+
+    private final RoomRepository roomRepository;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SyncService syncService;
+
+    public RoomImportServiceImpl(RoomRepository roomRepository, Validator validator, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                                 SyncService syncService){
+        this.roomRepository = roomRepository;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.syncService = syncService;
+    }
+
+    @Override
+    @Transactional
+    public RoomImportDto importRooms(InputStream input, MediaType mediaType) throws IOException {
+        boolean csv = TEXT_CSV.isCompatibleWith(mediaType);
+        if (!csv && !MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType)) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Rooms can only be imported as text/csv or application/x-ndjson.");
+        }
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        ValidatingIterator rooms = csv ? new CsvIterator(reader) : new NdjsonIterator(reader);
+
+        long lastId = this.roomRepository.findMaxId();
+        long imported;
+        try {
+            imported = this.roomRepository.copyAll(rooms);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Imported {} rooms, rejected {} rows", imported, rooms.rejected);
+
+        if (imported > 0) {
+            // COPY assigns the identity values after the highest existing one
+            this.syncService.recordCreatedRooms(lastId);
+            this.eventPublisher.publishEvent(new RoomChangedEvent(this, null));
+        }
+
+        return RoomImportDto.builder()
+                .imported(imported)
+                .rejected(rooms.rejected)
+                .errors(rooms.errors)
+                .build();
+    }
+
+    /**
+     * Reads rows lazily and returns only the valid rooms, invalid rows are recorded as errors.
+     */
+    private abstract class ValidatingIterator implements Iterator<Room> {
+
+        private final BufferedReader reader;
+
+        private final List<RoomImportDto.Error> errors = new ArrayList<>();
+
+        private long line;
+
+        private long rejected;
+
+        private Room next;
+
+        ValidatingIterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Parses a row into a room.
+         *
+         * @param row  Content of the line.
+         * @param line Number of the line, starting with 1.
+         * @return The room, or null if the row could not be parsed (the error has been recorded).
+         */
+        abstract Room parse(String row, long line);
+
+        @Override
+        public boolean hasNext() {
+            while (this.next == null) {
+                String row = readLine();
+                if (row == null) {
+                    return false;
+                }
+                if (row.isBlank()) {
+                    continue;
+                }
+
+                Room room = parse(row, this.line);
+                if (room != null && isValid(room, this.line)) {
+                    this.next = room;
+                } else {
+                    this.rejected++;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Room next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Room room = this.next;
+            this.next = null;
+            return room;
+        }
+
+        String readLine() {
+            try {
+                String row = this.reader.readLine();
+                this.line++;
+                return row;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void error(long line, String fieldName, String message, Object invalidValue) {
+            if (this.errors.size() < MAX_REPORTED_ERRORS) {
+                this.errors.add(new RoomImportDto.Error(line, fieldName, message, invalidValue));
+            }
+        }
+
+        /**
+         * Validates the room with the bean validation rules of {@link Room}, like rooms created one by one.
+         */
+        private boolean isValid(Room room, long line) {
+            Set<ConstraintViolation<Room>> violations = validator.validate(room);
+            for (ConstraintViolation<Room> violation : violations) {
+                error(line, violation.getPropertyPath().toString(), violation.getMessage(), violation.getInvalidValue());
+            }
+            return violations.isEmpty();
+        }
+    }
+
+    /**
+     * Reads CSV with a header line. Values may be quoted with ", quotes within values are escaped as "".
+     */
+    private class CsvIterator extends ValidatingIterator {
+
+        private final int[] columns = new int[CSV_COLUMNS.size()];
+
+        CsvIterator(BufferedReader reader) {
+            super(reader);
+            String header = readLine();
+            if (header == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header is missing.");
+            }
+
+            List<String> names = split(header).stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+            for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+                this.columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+            }
+            if (this.columns[0] < 0 || this.columns[2] < 0 || this.columns[3] < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header must contain the columns name, roomSize and hasMinibar (description is optional).");
+            }
+        }
+
+        @Override
+        Room parse(String row, long line) {
+            List<String> values = split(row);
+            String roomSize = value(values, this.columns[2]);
+            String hasMinibar = value(values, this.columns[3]);
+
+            Room room = Room.builder()
+                    .name(value(values, this.columns[0]))
+                    .description(value(values, this.columns[1]))
+                    .build();
+
+            if (roomSize != null) {
+                try {
+                    room.setRoomSize(RoomSize.valueOf(roomSize.trim()));
+                } catch (IllegalArgumentException e) {
+                    error(line, "roomSize", "must be one of " + Arrays.toString(RoomSize.values()), roomSize);
+                    return null;
+                }
+            }
+            if (hasMinibar != null) {
+                if (!hasMinibar.trim().equalsIgnoreCase("true") && !hasMinibar.trim().equalsIgnoreCase("false")) {
+                    error(line, "hasMinibar", "must be true or false", hasMinibar);
+                    return null;
+                }
+                room.setHasMinibar(Boolean.parseBoolean(hasMinibar.trim()));
+            }
+            return room;
+        }
+
+        private static String value(List<String> values, int column) {
+            if (column < 0 || column >= values.size()) {
+                return null;
+            }
+            String value = values.get(column);
+            return value.isEmpty() ? null : value;
+        }
+
+        private static List<String> split(String row) {
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+
+            for (int i = 0; i < row.length(); i++) {
+                char c = row.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        value.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            values.add(value.toString());
+            return values;
+        }
+    }
+
+    /**
+     * Reads one RoomDto per line, ids and bookings are ignored.
+     */
+    private class NdjsonIterator extends ValidatingIterator {
+
+        NdjsonIterator(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        Room parse(String row, long line) {
+            try {
+                RoomDto roomDto = objectMapper.readValue(row, RoomDto.class);
+                return Room.builder()
+                        .name(roomDto.name())
+                        .description(roomDto.description())
+                        .roomSize(roomDto.roomSize())
+                        .hasMinibar(roomDto.hasMinibar())
+                        .build();
+            } catch (InvalidFormatException e) {
+                error(line, fieldName(e), e.getOriginalMessage(), e.getValue());
+            } catch (JsonProcessingException e) {
+                error(line, e instanceof JsonMappingException mappingException ? fieldName(mappingException) : null, e.getOriginalMessage(), row);
+            }
+            return null;
+        }
+
+        private static String fieldName(JsonMappingException e) {
+            return e.getPath().stream()
+                    .map(JsonMappingException.Reference::getFieldName)
+                    .filter(Objects::nonNull)
+                    .reduce((f1, f2) -> f1 + "." + f2)
+                    .orElse(null);
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package de.mteklic.hotelmanager.service.impl;
 
-import de.mteklic.hotelmanager.model.Booking;
+import de.mteklic.hotelmanager.cache.SingleFlight;
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
 import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import de.mteklic.hotelmanager.model.RoomFilter;
 import de.mteklic.hotelmanager.model.RoomSize;
 import de.mteklic.hotelmanager.model.dto.BookingDto;
 import de.mteklic.hotelmanager.model.dto.RoomDto;
 import de.mteklic.hotelmanager.repository.RoomRepository;
 import de.mteklic.hotelmanager.service.BookingService;
+import de.mteklic.hotelmanager.service.FreeNightsService;
+import de.mteklic.hotelmanager.service.RoomDayStatusService;
 import de.mteklic.hotelmanager.service.RoomService;
 import de.mteklic.hotelmanager.specification.RoomSpecifications;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -18,8 +26,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -36,10 +46,26 @@ public class RoomServiceImpl implements RoomService {
 
     private final BookingService bookingService;
 
-    public RoomServiceImpl(RoomRepository roomRepository, HousekeepingService housekeepingService, BookingService bookingService){
+    private final RoomDayStatusService roomDayStatusService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final FreeNightsService freeNightsService;
+
+    /**
+     * Identical concurrent searches (e.g. during sales) are executed only once, see {@link RoomFilter}.
+     */
+    private final SingleFlight<RoomFilter, List<RoomDto>> filteredRoomsFlight;
+
+    public RoomServiceImpl(RoomRepository roomRepository, HousekeepingService housekeepingService, BookingService bookingService, RoomDayStatusService roomDayStatusService, ApplicationEventPublisher eventPublisher, FreeNightsService freeNightsService,
+                           @Value("${hotelmanager.search.single-flight-ttl:0ms}") Duration singleFlightTtl){
         this.roomRepository = roomRepository;
         this.housekeepingService = housekeepingService;
         this.bookingService = bookingService;
+        this.roomDayStatusService = roomDayStatusService;
+        this.eventPublisher = eventPublisher;
+        this.freeNightsService = freeNightsService;
+        this.filteredRoomsFlight = new SingleFlight<>(singleFlightTtl);
     }
 
     @Override
@@ -70,14 +96,20 @@ public class RoomServiceImpl implements RoomService {
                 .roomSize(roomDto.roomSize())
                 .bookings(new ArrayList<>())
                 .build();
-        return convertToDto(this.roomRepository.save(room));
+        RoomDto savedRoomDto = convertToDto(this.roomRepository.save(room));
+        this.eventPublisher.publishEvent(new RoomChangedEvent(this, savedRoomDto.id()));
+        return savedRoomDto;
     }
 
     @Override
+    @Transactional
     public void deleteRoom(Long id)   {
         this.roomRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity not found."));
+        // Bookings are removed by cascade, their materialised days have to be removed explicitly
+        this.roomDayStatusService.releaseRoom(id);
         this.roomRepository.deleteById(id);
+        this.eventPublisher.publishEvent(new RoomChangedEvent(this, id));
     }
 
     @Override
@@ -107,12 +139,48 @@ public class RoomServiceImpl implements RoomService {
         }
 
         log.debug("Updated Room: {}", updateableRoom);
+        this.eventPublisher.publishEvent(new RoomChangedEvent(this, updateableRoom.getId()));
         // We are in a @Transactional method - we do not need to call save()-methode.
         return convertToDto(updateableRoom);
     }
 
     @Override
     public List<RoomDto> getFilteredRooms(List<Long> ids, String name, String description, LocalDate startDate, LocalDate endDate, Boolean hasMinibar, RoomSize roomSize) {
+        RoomFilter filter = RoomFilter.of(ids, name, description, startDate, endDate, hasMinibar, roomSize);
+        return this.filteredRoomsFlight.execute(filter, () -> findFilteredRooms(filter));
+    }
+
+    @Override
+    public List<RoomDto> getRoomsWithFreeNights(int nights, LocalDate startDate, LocalDate endDate) throws StartAndOrEndDateNullException, EndDateBeforeStartDateException {
+        if (startDate == null || endDate == null) {
+            throw new StartAndOrEndDateNullException(startDate, endDate);
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new EndDateBeforeStartDateException(startDate, endDate);
+        }
+        if (nights < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nights must be at least 1.");
+        }
+
+        // The index answers in O(log n) per room, only the matching rooms are loaded
+        List<Long> roomIds = this.freeNightsService.findRoomIds(nights, startDate, endDate);
+        log.debug("Rooms with {} free nights between {} and {}: {}", nights, startDate, endDate, roomIds.size());
+        return this.roomRepository.findAllById(roomIds)
+                .stream()
+                .sorted(Comparator.comparing(Room::getId))
+                .map(this::convertToDto)
+                .toList();
+    }
+
+    private List<RoomDto> findFilteredRooms(RoomFilter filter) {
+        List<Long> ids = filter.ids();
+        String name = filter.name();
+        String description = filter.description();
+        LocalDate startDate = filter.startDate();
+        LocalDate endDate = filter.endDate();
+        Boolean hasMinibar = filter.hasMinibar();
+        RoomSize roomSize = filter.roomSize();
+
         Specification<Room> specification = Specification.where(null);
 
         // Build specifications based on provided criteria
@@ -121,19 +189,15 @@ public class RoomServiceImpl implements RoomService {
         specification = applyDescriptionFilter(specification, description);
         specification = applyHasMinibarFilter(specification, hasMinibar);
         specification = applyRoomSizeFilter(specification, roomSize);
+        specification = applyDateRangeFilter(specification, startDate, endDate);
 
-        // Filter rooms based on specifications
+        // Filter rooms based on specifications, including availability
         List<Room> filteredRooms = this.roomRepository.findAll(specification);
 
-        log.debug("Filtered size after database findAll(specs): {}", filteredRooms.size());
-
-        // Returned list from repository might be immutable. Avoid errors and work with list from applyDateRangeFilter method
-        List<Room> mutableFilteredRooms = applyDateRangeFilter(filteredRooms, startDate, endDate);
-
-        log.debug("FilteredRooms size: {}", mutableFilteredRooms.size());
+        log.debug("FilteredRooms size: {}", filteredRooms.size());
 
         // Convert filtered rooms to RoomDto
-        return mutableFilteredRooms
+        return filteredRooms
                 .stream()
                 .map(this::convertToDto)
                 .toList();
@@ -181,29 +245,13 @@ public class RoomServiceImpl implements RoomService {
         return specification;
     }
 
-    public List<Room> applyDateRangeFilter(List<Room> rooms, LocalDate startDate, LocalDate endDate){
+    public Specification<Room> applyDateRangeFilter(Specification<Room> specification, LocalDate startDate, LocalDate endDate){
         // If start date and end date are provided, filter based on availability
         if (startDate != null && endDate != null) {
             log.debug("Add startDate: {} & endDate spec: {}", startDate, endDate);
-
-            // Create mutable list
-            List<Room> roomsMutable = new ArrayList<>(rooms);
-
-            //Get unavailable rooms within the specific date range
-            List<Long> availableRooms = this.bookingService.getUnavailableBookings(rooms.stream().map(Room::getId).toList(), startDate, endDate)
-                    .stream()
-                    .map(Booking::getRoom)
-                    .map(Room::getId)
-                    .toList();
-
-            // Filter rooms that are not available in the specific date range
-            roomsMutable.removeIf(room -> availableRooms.contains(room.getId()));
-
-            return roomsMutable;
+            specification = specification.and(RoomSpecifications.isAvailable(startDate, endDate));
         }
-
-        log.debug("Start and or end date was null, returning provided list.");
-        return rooms;
+        return specification;
     }
 
     @Override
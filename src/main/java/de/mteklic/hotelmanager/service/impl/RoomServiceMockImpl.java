@@ -73,6 +73,14 @@ public class RoomServiceMockImpl implements RoomService {
         return filteredRooms;
     }
 
+    @Override
+    public List<RoomDto> getRoomsWithFreeNights(int nights, LocalDate startDate, LocalDate endDate) {
+        // Mock implementation, returning a mock list
+        List<RoomDto> rooms = new ArrayList<>();
+        rooms.add(RoomDto.builder().id(1L).name("Free Room 1").build());
+        return rooms;
+    }
+
     @Override
     public RoomDto convertToDto(Room room) {
         // Mock implementation to convert Room entity to RoomDto
@@ -0,0 +1,225 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import de.mteklic.hotelmanager.model.BookingChangedEvent;
+import de.mteklic.hotelmanager.model.ChangeLogEntry;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import de.mteklic.hotelmanager.model.dto.RoomDto;
+import de.mteklic.hotelmanager.model.dto.SyncDto;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.ChangeLogRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.SyncService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Service class for the delta sync.
+ * ---
+ * Changes are recorded in the change log just before the changing transaction commits. Every writer holds the
+ * advisory lock of the change log from taking its seqs until its commit, so seqs become visible in ascending order and
+ * the seq of the last change a client has received is a complete sync position. The token is this seq, encoded.
+ * Bulk inserts (imports, the generated dataset) record their new rooms and bookings by ID range in short batches,
+ * archiving publishes the archived bookings as deleted. A RoomChangedEvent without room is therefore ignored here,
+ * no change is ever found by scanning the tables.
+ */
+@Service
+public class SyncServiceImpl implements SyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncServiceImpl.class);
+
+    private static final String TOKEN_PREFIX = "v1:";
+
+    private final ChangeLogRepository changeLogRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int maxChanges;
+
+    private final int batchSize;
+
+    private final Duration tombstoneRetention;
+
+    public SyncServiceImpl(ChangeLogRepository changeLogRepository,
+                           RoomRepository roomRepository,
+                           BookingRepository bookingRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${hotelmanager.sync.max-changes:1000}") int maxChanges,
+                           @Value("${hotelmanager.sync.batch-size:1000}") int batchSize,
+                           @Value("${hotelmanager.sync.tombstone-retention:30d}") Duration tombstoneRetention){
+        this.changeLogRepository = changeLogRepository;
+        this.roomRepository = roomRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxChanges = maxChanges;
+        this.batchSize = batchSize;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SyncDto getChanges(String token, Integer limit) {
+        long seq = token == null ? 0 : decode(token);
+        if (token != null && seq < this.changeLogRepository.findPurgedSeq()) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Sync token has expired, please sync without token.");
+        }
+        int max = limit == null ? this.maxChanges : Math.max(1, Math.min(limit, this.maxChanges));
+
+        List<ChangeLogEntry> changes = this.changeLogRepository.findAllBySeqGreaterThanOrderBySeq(seq, Limit.of(max));
+
+        List<Long> roomIds = new ArrayList<>();
+        List<Long> bookingIds = new ArrayList<>();
+        List<Long> deletedRoomIds = new ArrayList<>();
+        List<Long> deletedBookingIds = new ArrayList<>();
+        for (ChangeLogEntry change : changes) {
+            boolean room = change.getEntityType() == ChangeLogEntry.EntityType.ROOM;
+            if (change.getDeleted()) {
+                (room ? deletedRoomIds : deletedBookingIds).add(change.getEntityId());
+            } else {
+                (room ? roomIds : bookingIds).add(change.getEntityId());
+            }
+        }
+
+        // Entities deleted in the meantime are skipped, their tombstones follow with a higher seq
+        List<RoomDto> rooms = roomIds.isEmpty() ? List.of() : this.roomRepository.findAllById(roomIds).stream()
+                .map(r -> RoomDto.builder()
+                        .id(r.getId())
+                        .name(r.getName())
+                        .description(r.getDescription())
+                        .hasMinibar(r.getHasMinibar())
+                        .roomSize(r.getRoomSize())
+                        .build())
+                .toList();
+        List<SyncDto.BookingEntry> bookings = bookingIds.isEmpty() ? List.of() : this.bookingRepository.findSyncEntries(bookingIds);
+
+        long nextSeq = changes.isEmpty() ? seq : changes.get(changes.size() - 1).getSeq();
+        log.debug("Sync from seq {} to {}: {} changes", seq, nextSeq, changes.size());
+
+        return SyncDto.builder()
+                .token(encode(nextSeq))
+                .more(changes.size() == max)
+                .rooms(rooms)
+                .bookings(bookings)
+                .deletedRoomIds(deletedRoomIds)
+                .deletedBookingIds(deletedBookingIds)
+                .build();
+    }
+
+    @Override
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void handleRoomChangedEvent(RoomChangedEvent event) {
+        if (event.getRoomId() == null) {
+            return;
+        }
+        // Joins the transaction which is about to commit, or starts one if the event has been published without
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.changeLogRepository.lockSequence(ChangeLogRepository.SEQUENCE_LOCK);
+            if (this.changeLogRepository.recordRooms(List.of(event.getRoomId())) == 0) {
+                // Bookings are deleted together with their room
+                this.changeLogRepository.recordDeleted(ChangeLogEntry.EntityType.ROOM.name(), List.of(event.getRoomId()));
+                this.changeLogRepository.recordDeletedBookingsOfRoom(event.getRoomId());
+            }
+        });
+    }
+
+    @Override
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void handleBookingChangedEvent(BookingChangedEvent event) {
+        if (event.getBookingIds().isEmpty()) {
+            return;
+        }
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.changeLogRepository.lockSequence(ChangeLogRepository.SEQUENCE_LOCK);
+            if (event.isDeleted()) {
+                this.changeLogRepository.recordDeleted(ChangeLogEntry.EntityType.BOOKING.name(), event.getBookingIds());
+            } else {
+                this.changeLogRepository.recordBookings(event.getBookingIds());
+            }
+        });
+    }
+
+    @Override
+    public long recordCreatedRooms(long afterId) {
+        long recorded = recordRange(afterId, this.roomRepository.findMaxId(), this.changeLogRepository::recordRoomRange);
+        log.debug("Recorded {} rooms created in bulk after id {}", recorded, afterId);
+        return recorded;
+    }
+
+    @Override
+    public long recordCreatedBookings(long afterId) {
+        long recorded = recordRange(afterId, this.bookingRepository.findMaxId(), this.changeLogRepository::recordBookingRange);
+        log.debug("Recorded {} bookings created in bulk after id {}", recorded, afterId);
+        return recorded;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${hotelmanager.sync.purge-cron:0 30 3 * * *}")
+    public void purgeTombstones() {
+        int purged = this.changeLogRepository.purgeTombstones(LocalDateTime.now().minus(this.tombstoneRetention));
+        log.debug("Purged tombstones older than {}: {}", this.tombstoneRetention, purged > 0);
+    }
+
+    /**
+     * Records the IDs after afterId up to maxId in batches, every batch takes the sequence lock in its own transaction
+     * unless it joins the transaction of the caller.
+     */
+    private long recordRange(long afterId, long maxId, RangeRecorder recorder) {
+        long recorded = 0;
+        for (long fromId = afterId + 1; fromId <= maxId; fromId += this.batchSize) {
+            long batchFromId = fromId;
+            long batchToId = Math.min(maxId, fromId + this.batchSize - 1L);
+            Integer batch = this.transactionTemplate.execute(status -> {
+                this.changeLogRepository.lockSequence(ChangeLogRepository.SEQUENCE_LOCK);
+                return recorder.record(batchFromId, batchToId);
+            });
+            recorded += batch == null ? 0 : batch;
+        }
+        return recorded;
+    }
+
+    /**
+     * Records the entities with IDs in the range, see {@link ChangeLogRepository#recordRoomRange}.
+     */
+    @FunctionalInterface
+    private interface RangeRecorder {
+        int record(long fromId, long toId);
+    }
+
+    private static String encode(long seq) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((TOKEN_PREFIX + seq).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (decoded.startsWith(TOKEN_PREFIX)) {
+                return Long.parseLong(decoded.substring(TOKEN_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Not Base64 or no number, reported below
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sync token.");
+    }
+}
@@ -0,0 +1,246 @@
+package de.mteklic.hotelmanager.service.impl;
+
+import de.mteklic.hotelmanager.exception.*;
+import de.mteklic.hotelmanager.index.WaitlistIndex;
+import de.mteklic.hotelmanager.model.BookingReleasedEvent;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.WaitlistEntry;
+import de.mteklic.hotelmanager.model.WaitlistStatus;
+import de.mteklic.hotelmanager.model.dto.BookingDto;
+import de.mteklic.hotelmanager.model.dto.WaitlistEntryDto;
+import de.mteklic.hotelmanager.repository.RoomDayStatusRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.repository.WaitlistEntryRepository;
+import de.mteklic.hotelmanager.service.BookingService;
+import de.mteklic.hotelmanager.service.WaitlistService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Service class for the waitlist.
+ * ---
+ * Waiting entries are kept in a {@link WaitlistIndex}. After a booking has been deleted or moved, the free days around
+ * the released days are computed from room_day_status and only the entries which fit into them are loaded.
+ * Matching runs on the waitlist executor after the commit, the request which released the days does not wait for it.
+ * An entry is claimed with a conditional update (status WAITING) before it is offered or booked, so an entry never
+ * gets two rooms, even if two releases are matched at the same time.
+ */
+@Service
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistServiceImpl.class);
+
+    /**
+     * Free days before and after the released days are taken into account up to this many days.
+     */
+    private static final int FREE_DAYS_HORIZON = 28;
+
+    /**
+     * A range of free days of the released room.
+     */
+    private record FreeRange(LocalDate from, LocalDate to) {
+
+        boolean overlaps(LocalDate startDate, LocalDate endDate) {
+            return !startDate.isAfter(this.to) && !endDate.isBefore(this.from);
+        }
+    }
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final RoomDayStatusRepository roomDayStatusRepository;
+
+    private final BookingService bookingService;
+
+    private final Executor waitlistExecutor;
+
+    private final WaitlistIndex waitlistIndex = new WaitlistIndex();
+
+    public WaitlistServiceImpl(WaitlistEntryRepository waitlistEntryRepository, RoomRepository roomRepository, RoomDayStatusRepository roomDayStatusRepository, BookingService bookingService,
+                               @Qualifier("waitlistExecutor") Executor waitlistExecutor){
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.roomRepository = roomRepository;
+        this.roomDayStatusRepository = roomDayStatusRepository;
+        this.bookingService = bookingService;
+        this.waitlistExecutor = waitlistExecutor;
+    }
+
+    @Override
+    public WaitlistEntryDto createEntry(WaitlistEntryDto waitlistEntryDto) throws StartAndOrEndDateNullException, StartAndOrEndDateBeforeNowException, EndDateBeforeStartDateException {
+        LocalDate startDate = waitlistEntryDto.startDate();
+        LocalDate endDate = waitlistEntryDto.endDate();
+        if (waitlistEntryDto.roomSize() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The room size of a waitlist entry is required.");
+        }
+        if (startDate == null || endDate == null) {
+            throw new StartAndOrEndDateNullException(startDate, endDate);
+        }
+        LocalDate today = LocalDate.now();
+        if (startDate.isBefore(today) || endDate.isBefore(today)) {
+            throw new StartAndOrEndDateBeforeNowException(startDate, endDate);
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new EndDateBeforeStartDateException(startDate, endDate);
+        }
+
+        WaitlistEntry entry = this.waitlistEntryRepository.save(WaitlistEntry.builder()
+                .roomSize(waitlistEntryDto.roomSize())
+                .startDate(startDate)
+                .endDate(endDate)
+                .autoBook(Boolean.TRUE.equals(waitlistEntryDto.autoBook()))
+                .status(WaitlistStatus.WAITING)
+                .build());
+        this.waitlistIndex.add(entry.getId(), entry.getRoomSize(), entry.getStartDate(), entry.getEndDate());
+        log.debug("Waitlist entry created: {}", entry);
+        return convertToDto(entry);
+    }
+
+    @Override
+    public WaitlistEntryDto getEntry(Long id) {
+        return convertToDto(this.waitlistEntryRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity not found.")));
+    }
+
+    @Override
+    public void deleteEntry(Long id) {
+        WaitlistEntry entry = this.waitlistEntryRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Entity not found."));
+        this.waitlistIndex.remove(id);
+        this.waitlistEntryRepository.delete(entry);
+    }
+
+    /**
+     * Loads all waiting entries into the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        List<WaitlistEntry> entries = this.waitlistEntryRepository.findAllByStatus(WaitlistStatus.WAITING);
+        entries.forEach(entry -> this.waitlistIndex.add(entry.getId(), entry.getRoomSize(), entry.getStartDate(), entry.getEndDate()));
+        log.info("Waitlist index loaded with {} waiting entries", entries.size());
+    }
+
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleBookingReleasedEvent(BookingReleasedEvent event) {
+        this.waitlistExecutor.execute(() -> matchReleasedDays(event));
+    }
+
+    private void matchReleasedDays(BookingReleasedEvent event) {
+        Room room = this.roomRepository.findById(event.getRoomId()).orElse(null);
+        if (room == null) {
+            return;
+        }
+        for (FreeRange freeRange : findFreeRanges(event.getRoomId(), event.getStartDate(), event.getEndDate())) {
+            List<Long> ids = this.waitlistIndex.findContained(room.getRoomSize(), freeRange.from(), freeRange.to());
+            if (!ids.isEmpty()) {
+                match(room, freeRange, ids);
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${hotelmanager.waitlist.expire-cron:0 5 0 * * *}")
+    public void expireEntries() {
+        LocalDate today = LocalDate.now();
+        List<WaitlistEntry> entries = this.waitlistEntryRepository.findAllByStatusAndStartDateBefore(WaitlistStatus.WAITING, today);
+        entries.forEach(entry -> this.waitlistIndex.remove(entry.getId()));
+        int expired = this.waitlistEntryRepository.expireAllStartingBefore(today);
+        log.debug("Expired {} waitlist entries", expired);
+    }
+
+    /**
+     * Offers or books the room to the fitting entries, first come first served. Entries which overlap the dates of
+     * an earlier entry stay on the waitlist.
+     */
+    private void match(Room room, FreeRange freeRange, List<Long> ids) {
+        List<FreeRange> taken = new ArrayList<>();
+        for (Long id : ids) {
+            WaitlistEntry entry = this.waitlistEntryRepository.findById(id).orElse(null);
+            if (entry == null || entry.getStatus() != WaitlistStatus.WAITING) {
+                this.waitlistIndex.remove(id);
+                continue;
+            }
+            if (taken.stream().anyMatch(range -> range.overlaps(entry.getStartDate(), entry.getEndDate()))) {
+                continue;
+            }
+
+            WaitlistStatus status = entry.getAutoBook() ? WaitlistStatus.BOOKED : WaitlistStatus.OFFERED;
+            if (this.waitlistEntryRepository.claim(id, status, room.getId()) == 0) {
+                // Claimed by another release or expired in the meantime
+                this.waitlistIndex.remove(id);
+                continue;
+            }
+
+            if (entry.getAutoBook()) {
+                try {
+                    BookingDto bookingDto = this.bookingService.createBooking(room.getId(), new BookingDto(null, entry.getStartDate(), entry.getEndDate()));
+                    this.waitlistEntryRepository.setBookingId(id, bookingDto.id());
+                } catch (RoomBookedOutException | StartAndOrEndDateBeforeNowException | EndDateBeforeStartDateException | StartAndOrEndDateNullException e) {
+                    log.debug("Waitlist entry {} could not be booked into room {}: {}", id, room.getId(), e.getMessage());
+                    this.waitlistEntryRepository.unclaim(id);
+                    continue;
+                } catch (RuntimeException e) {
+                    this.waitlistEntryRepository.unclaim(id);
+                    throw e;
+                }
+            }
+            this.waitlistIndex.remove(id);
+            taken.add(new FreeRange(entry.getStartDate(), entry.getEndDate()));
+            log.info("Waitlist entry {} {} room {} from {} to {}", id, status == WaitlistStatus.BOOKED ? "booked" : "offered", room.getId(), entry.getStartDate(), entry.getEndDate());
+        }
+    }
+
+    /**
+     * Computes the ranges of free days which overlap the released days, extended by the free days around them.
+     * Days before today are not free anymore.
+     */
+    private List<FreeRange> findFreeRanges(Long roomId, LocalDate startDate, LocalDate endDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = startDate.minusDays(FREE_DAYS_HORIZON).isBefore(today) ? today : startDate.minusDays(FREE_DAYS_HORIZON);
+        LocalDate to = endDate.plusDays(FREE_DAYS_HORIZON);
+        if (to.isBefore(from)) {
+            return List.of();
+        }
+
+        List<FreeRange> freeRanges = new ArrayList<>();
+        LocalDate freeFrom = from;
+        for (LocalDate bookedDay : this.roomDayStatusRepository.findBookedDays(roomId, from, to)) {
+            if (bookedDay.isAfter(freeFrom)) {
+                freeRanges.add(new FreeRange(freeFrom, bookedDay.minusDays(1)));
+            }
+            freeFrom = bookedDay.plusDays(1);
+        }
+        if (!freeFrom.isAfter(to)) {
+            freeRanges.add(new FreeRange(freeFrom, to));
+        }
+        freeRanges.removeIf(range -> !range.overlaps(startDate, endDate));
+        return freeRanges;
+    }
+
+    private WaitlistEntryDto convertToDto(WaitlistEntry entry) {
+        return WaitlistEntryDto.builder()
+                .id(entry.getId())
+                .roomSize(entry.getRoomSize())
+                .startDate(entry.getStartDate())
+                .endDate(entry.getEndDate())
+                .autoBook(entry.getAutoBook())
+                .status(entry.getStatus())
+                .roomId(entry.getRoomId())
+                .bookingId(entry.getBookingId())
+                .build();
+    }
+}
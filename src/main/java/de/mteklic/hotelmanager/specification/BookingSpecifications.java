@@ -21,7 +21,7 @@ public class BookingSpecifications {
      * @return A specification to filter bookings by room ID.
      */
     public static Specification<Booking> hasRoomId(Long roomId) {
-        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("room_id"), roomId);
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("room").get("id"), roomId);
     }
 
     /**
@@ -31,7 +31,7 @@ public class BookingSpecifications {
      * @return A specification to filter bookings by room IDs.
      */
     public static Specification<Booking> hasRoomIds(List<Long> roomIds) {
-        return (root, query, criteriaBuilder) -> root.get("room_id").in(roomIds);
+        return (root, query, criteriaBuilder) -> root.get("room").get("id").in(roomIds);
     }
 
     /**
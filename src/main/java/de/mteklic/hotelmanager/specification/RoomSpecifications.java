@@ -1,9 +1,13 @@
 package de.mteklic.hotelmanager.specification;
 
 import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomDayStatus;
 import de.mteklic.hotelmanager.model.RoomSize;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -80,4 +84,24 @@ public class RoomSpecifications {
     public static Specification<Room> hasRoomSize(RoomSize roomSize) {
         return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("roomSize"), roomSize);
     }
+
+    /**
+     * Creates a specification for finding rooms which are not booked on any day of a given date range.
+     * Translates to an anti-join (NOT EXISTS) against the materialised room_day_status table,
+     * which is answered from its (room_id, day) primary key index.
+     *
+     * @param startDate The first day of the range (inclusive).
+     * @param endDate   The last day of the range (inclusive).
+     * @return A specification to filter rooms which are available for the whole range.
+     */
+    public static Specification<Room> isAvailable(LocalDate startDate, LocalDate endDate) {
+        return (root, query, criteriaBuilder) -> {
+            Subquery<Long> bookedDays = query.subquery(Long.class);
+            Root<RoomDayStatus> status = bookedDays.from(RoomDayStatus.class);
+            bookedDays.select(status.get("roomId"))
+                    .where(criteriaBuilder.equal(status.get("roomId"), root.get("id")),
+                            criteriaBuilder.between(status.get("day"), startDate, endDate));
+            return criteriaBuilder.not(criteriaBuilder.exists(bookedDays));
+        };
+    }
 }
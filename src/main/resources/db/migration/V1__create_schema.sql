@@ -0,0 +1,58 @@
+-- Initial schema. Applied migrations must never be changed, every change of the schema is a new migration.
+
+CREATE TABLE rooms (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        varchar(20)  NOT NULL,
+    description varchar(255),
+    room_size   varchar(255) NOT NULL CHECK (room_size IN ('SINGLE', 'DOUBLE', 'SUITE')),
+    has_minibar boolean      NOT NULL,
+    created_at  timestamp(6),
+    updated_at  timestamp(6)
+);
+
+-- Bookings are range partitioned by their last day (end_date), one partition per month.
+-- Queries for current and future stays (end_date >= today) are pruned to the few current partitions.
+-- Partitions are created and archived by BookingPartitionService; rows outside all partitions go to bookings_default.
+CREATE TABLE bookings (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY,
+    room_id    bigint NOT NULL REFERENCES rooms (id),
+    start_date date,
+    end_date   date   NOT NULL,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    PRIMARY KEY (id, end_date)
+) PARTITION BY RANGE (end_date);
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+-- Covers the per room queries (findAllByRoomId, existsOverlapping): the overlap condition
+-- end_date >= :startDate AND start_date <= :endDate is answered by an index only scan.
+CREATE INDEX bookings_room_id_end_date_idx ON bookings (room_id, end_date) INCLUDE (start_date, id);
+
+-- Date range scans over all rooms (analytics, room_day_status rebuilds, retention). Bookings are created roughly in
+-- the order of their stays, so the block ranges are narrow and the index stays a few pages per partition.
+CREATE INDEX bookings_dates_brin_idx ON bookings USING brin (start_date, end_date);
+
+-- Past partitions are detached from bookings and attached here, the application does not read them anymore.
+CREATE TABLE bookings_archive (LIKE bookings) PARTITION BY RANGE (end_date);
+
+CREATE TABLE bookings_archive_default PARTITION OF bookings_archive DEFAULT;
+
+-- The primary key (room_id, day) serves the availability anti-joins, the day index the rebuilds of day ranges.
+CREATE TABLE room_day_status (
+    room_id bigint  NOT NULL,
+    day     date    NOT NULL,
+    booked  boolean NOT NULL,
+    PRIMARY KEY (room_id, day)
+);
+
+CREATE INDEX room_day_status_day_idx ON room_day_status (day);
+
+CREATE TABLE idempotency_keys (
+    idempotency_key varchar(255) PRIMARY KEY,
+    fingerprint     varchar(64)  NOT NULL,
+    response_body   text,
+    created_at      timestamp(6) NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
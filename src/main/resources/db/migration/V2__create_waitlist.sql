@@ -0,0 +1,16 @@
+-- Booking requests which could not be served. Waiting entries are matched against released dates by WaitlistService.
+CREATE TABLE waitlist_entries (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    room_size  varchar(255) NOT NULL CHECK (room_size IN ('SINGLE', 'DOUBLE', 'SUITE')),
+    start_date date         NOT NULL,
+    end_date   date         NOT NULL,
+    auto_book  boolean      NOT NULL,
+    status     varchar(255) NOT NULL CHECK (status IN ('WAITING', 'OFFERED', 'BOOKED', 'EXPIRED')),
+    room_id    bigint,
+    booking_id bigint,
+    created_at timestamp(6),
+    updated_at timestamp(6)
+);
+
+-- Loading the waiting entries on startup and expiring them once their start date has passed.
+CREATE INDEX waitlist_entries_status_start_date_idx ON waitlist_entries (status, start_date);
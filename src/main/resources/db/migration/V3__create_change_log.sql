@@ -0,0 +1,35 @@
+-- Latest change of every room and booking, read by the delta sync (SyncService).
+-- seq is taken from change_log_seq while holding a transaction level advisory lock, so it increases in commit order
+-- and a client which has seen seq n never misses a change committed later with a smaller seq.
+-- Deleted entities are kept as tombstones (deleted = true) until they are purged after the retention time.
+CREATE SEQUENCE change_log_seq;
+
+CREATE TABLE change_log (
+    entity_type varchar(16)  NOT NULL CHECK (entity_type IN ('ROOM', 'BOOKING')),
+    entity_id   bigint       NOT NULL,
+    room_id     bigint       NOT NULL,
+    seq         bigint       NOT NULL,
+    deleted     boolean      NOT NULL,
+    changed_at  timestamp(6) NOT NULL,
+    PRIMARY KEY (entity_type, entity_id)
+);
+
+-- Reading the changes after a sync token.
+CREATE UNIQUE INDEX change_log_seq_idx ON change_log (seq);
+
+-- Tombstoning the bookings of a deleted room.
+CREATE INDEX change_log_room_id_idx ON change_log (room_id) WHERE entity_type = 'BOOKING';
+
+-- Highest seq of the purged tombstones. Older sync tokens might have missed a deletion and must resync completely.
+CREATE TABLE change_log_state (
+    id         int    PRIMARY KEY CHECK (id = 1),
+    purged_seq bigint NOT NULL
+);
+
+INSERT INTO change_log_state (id, purged_seq) VALUES (1, 0);
+
+INSERT INTO change_log (entity_type, entity_id, room_id, seq, deleted, changed_at)
+SELECT 'ROOM', id, id, nextval('change_log_seq'), false, now() FROM rooms ORDER BY id;
+
+INSERT INTO change_log (entity_type, entity_id, room_id, seq, deleted, changed_at)
+SELECT 'BOOKING', id, room_id, nextval('change_log_seq'), false, now() FROM bookings ORDER BY id;
@@ -1,3 +1,4 @@
+-- Sample rooms for local development and tests, not applied in prod (see spring.flyway.locations).
 INSERT INTO rooms (name, description, room_size, has_minibar) VALUES ('Berlin', 'Cozy room with berlin street art.', 'DOUBLE', true);
 INSERT INTO rooms (name, description, room_size, has_minibar) VALUES ('Hamburg', 'Real hanseatic experience.', 'SINGLE', true);
 INSERT INTO rooms (name, description, room_size, has_minibar) VALUES ('Munich', 'Beautiful room in bavarian style.', 'SUITE', false);
@@ -0,0 +1,71 @@
+package de.mteklic.hotelmanager.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BulkheadUnitTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(this.entityManagerFactory.createEntityManager()).thenReturn(mock(EntityManager.class));
+    }
+
+    @Test
+    public void testTasksRunAsTheirWorkload() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(decorated(Workload.READ), decorated(Workload.WRITE), this.entityManagerFactory, this.meterRegistry);
+
+        assertEquals(Workload.READ, bulkhead.read(WorkloadContext::current).get());
+        assertEquals(Workload.WRITE, bulkhead.write(WorkloadContext::current).get());
+        assertEquals(Workload.BACKGROUND, WorkloadContext.current());
+    }
+
+    @Test
+    public void testExceptionsCompleteTheFuture() {
+        Bulkhead bulkhead = new Bulkhead(Runnable::run, Runnable::run, this.entityManagerFactory, this.meterRegistry);
+
+        CompletableFuture<Object> future = bulkhead.write(() -> {
+            throw new Exception("booked out");
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertEquals("booked out", e.getCause().getMessage());
+    }
+
+    @Test
+    public void testFullBulkheadIsRejectedWithServiceUnavailable() {
+        Executor full = task -> {
+            throw new RejectedExecutionException();
+        };
+        Bulkhead bulkhead = new Bulkhead(full, Runnable::run, this.entityManagerFactory, this.meterRegistry);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> bulkhead.read(() -> "rooms"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertEquals(1, this.meterRegistry.get("hotelmanager.bulkhead.rejected").tag("workload", "read").counter().count());
+    }
+
+    private static Executor decorated(Workload workload) {
+        return task -> WorkloadContext.taskDecorator(workload).decorate(task).run();
+    }
+}
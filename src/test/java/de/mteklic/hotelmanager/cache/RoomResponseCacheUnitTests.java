@@ -0,0 +1,88 @@
+package de.mteklic.hotelmanager.cache;
+
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoomResponseCacheUnitTests {
+
+    private static final byte[] JSON = "[{\"id\":1,\"name\":\"Berlin\"}]".getBytes(StandardCharsets.UTF_8);
+
+    private RoomResponseCache roomResponseCache;
+
+    @BeforeEach
+    void setUp() {
+        roomResponseCache = new RoomResponseCache(2);
+    }
+
+    @Test
+    public void testPutAndGet() throws IOException {
+        RoomResponseCache.CachedResponse stored = roomResponseCache.put("/api/v1/rooms", roomResponseCache.version(), JSON);
+
+        RoomResponseCache.CachedResponse cached = roomResponseCache.get("/api/v1/rooms");
+
+        assertNotNull(cached);
+        assertSame(stored, cached);
+        assertArrayEquals(JSON, cached.json());
+        assertArrayEquals(JSON, new GZIPInputStream(new ByteArrayInputStream(cached.gzip())).readAllBytes());
+        assertTrue(cached.etag().startsWith("\"") && cached.etag().endsWith("\""));
+    }
+
+    @Test
+    public void testInvalidatedOnRoomChange() {
+        roomResponseCache.put("/api/v1/rooms", roomResponseCache.version(), JSON);
+
+        roomResponseCache.handleRoomChangedEvent(new RoomChangedEvent(this, 1L));
+
+        assertNull(roomResponseCache.get("/api/v1/rooms"));
+    }
+
+    @Test
+    public void testOutdatedResponseNotStored() {
+        // Version read before the response was computed, room changed in the meantime
+        long version = roomResponseCache.version();
+        roomResponseCache.handleRoomChangedEvent(new RoomChangedEvent(this, 1L));
+
+        assertNull(roomResponseCache.put("/api/v1/rooms", version, JSON));
+        assertNull(roomResponseCache.get("/api/v1/rooms"));
+    }
+
+    @Test
+    public void testMaxEntries() {
+        long version = roomResponseCache.version();
+        assertNotNull(roomResponseCache.put("/api/v1/rooms/1", version, JSON));
+        assertNotNull(roomResponseCache.put("/api/v1/rooms/2", version, JSON));
+
+        assertNull(roomResponseCache.put("/api/v1/rooms/3", version, JSON));
+        assertNotNull(roomResponseCache.put("/api/v1/rooms/2", version, JSON));
+    }
+
+    @Test
+    public void testAcceptsGzip() {
+        assertTrue(RoomResponseCacheFilter.acceptsGzip("gzip"));
+        assertTrue(RoomResponseCacheFilter.acceptsGzip("gzip, deflate, br"));
+        assertTrue(RoomResponseCacheFilter.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(RoomResponseCacheFilter.acceptsGzip("*"));
+        assertTrue(RoomResponseCacheFilter.acceptsGzip("identity, *;q=0.1"));
+    }
+
+    @Test
+    public void testAcceptsGzip_RefusedOrNotListed() {
+        assertFalse(RoomResponseCacheFilter.acceptsGzip(null));
+        assertFalse(RoomResponseCacheFilter.acceptsGzip(""));
+        assertFalse(RoomResponseCacheFilter.acceptsGzip("gzip;q=0"));
+        assertFalse(RoomResponseCacheFilter.acceptsGzip("gzip; q=0.000, deflate"));
+        assertFalse(RoomResponseCacheFilter.acceptsGzip("*, gzip;q=0"));
+        assertFalse(RoomResponseCacheFilter.acceptsGzip("*;q=0"));
+        assertFalse(RoomResponseCacheFilter.acceptsGzip("deflate, br"));
+        // Only codings named exactly gzip count
+        assertFalse(RoomResponseCacheFilter.acceptsGzip("notgzip, gzipx"));
+    }
+}
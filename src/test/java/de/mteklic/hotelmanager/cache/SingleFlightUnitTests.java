@@ -0,0 +1,84 @@
+package de.mteklic.hotelmanager.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightUnitTests {
+
+    @Test
+    public void testConcurrentCallsAreCoalesced() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ZERO);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("search", () -> {
+                computations.incrementAndGet();
+                awaitQuietly(release);
+                return 42;
+            })));
+        }
+        // Give all callers time to join the running computation
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<Integer> result : results) {
+            assertEquals(42, result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, computations.get());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    public void testSequentialCallsWithoutTtlAreComputedAgain() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ZERO);
+        AtomicInteger computations = new AtomicInteger();
+
+        singleFlight.execute("search", computations::incrementAndGet);
+        singleFlight.execute("search", computations::incrementAndGet);
+
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    public void testResultIsReusedWithinTtl() throws InterruptedException {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ofMillis(200));
+        AtomicInteger computations = new AtomicInteger();
+
+        assertEquals(1, singleFlight.execute("search", computations::incrementAndGet));
+        assertEquals(1, singleFlight.execute("search", computations::incrementAndGet));
+        assertEquals(2, singleFlight.execute("other", computations::incrementAndGet));
+
+        Thread.sleep(300);
+        assertEquals(3, singleFlight.execute("search", computations::incrementAndGet));
+    }
+
+    @Test
+    public void testFailureIsNotReused() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(Duration.ofSeconds(10));
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("search", () -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+
+        assertEquals(7, singleFlight.execute("search", () -> 7));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package de.mteklic.hotelmanager.configuration;
+
+import de.mteklic.hotelmanager.model.BookingInterval;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomDayStatus;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.ApiError;
+import de.mteklic.hotelmanager.model.dto.BookingDto;
+import de.mteklic.hotelmanager.model.dto.RoomImportDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HotelmanagerRuntimeHintsUnitTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new HotelmanagerRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    public void testEntityHints() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Room.class).withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RoomDayStatus.Key.class).withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onConstructor(BookingInterval.class.getConstructor(Long.class, RoomSize.class, LocalDate.class, LocalDate.class)).test(hints));
+    }
+
+    @Test
+    public void testDtoHints() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(BookingDto.class.getMethod("startDate")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ApiError.class.getMethod("message")).test(hints));
+        // Nested records are registered with their enclosing DTO
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(RoomImportDto.Error.class.getMethod("fieldName")).test(hints));
+    }
+
+    @Test
+    public void testResourceHints() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/seed/V1_1__seed_rooms.sql").test(hints));
+    }
+}
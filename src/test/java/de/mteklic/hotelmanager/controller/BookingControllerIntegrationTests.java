@@ -19,6 +19,9 @@ import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -29,6 +32,7 @@ import java.util.Collections;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -66,7 +70,7 @@ public class BookingControllerIntegrationTests {
 
         when(bookingServiceMock.getBookingsByRoomId(roomId)).thenReturn(Collections.emptyList());
 
-        mockMvc.perform(get("/api/v1/bookings")
+        performAsync(get("/api/v1/bookings")
                         .param("roomId", roomId.toString())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -84,7 +88,7 @@ public class BookingControllerIntegrationTests {
 
         when(bookingServiceMock.getBookingById(bookingId)).thenReturn(bookingDto);
 
-        mockMvc.perform(get("/api/v1/bookings/{id}", bookingId)
+        performAsync(get("/api/v1/bookings/{id}", bookingId)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(bookingId));
@@ -103,7 +107,7 @@ public class BookingControllerIntegrationTests {
         when(roomService.getRoom(anyLong())).thenReturn(roomDto);
         bookingServiceMock.createBooking(1L, bookingDto);
 
-        mockMvc.perform(delete("/api/v1/bookings/{id}", bookingId))
+        performAsync(delete("/api/v1/bookings/{id}", bookingId))
                 .andExpect(status().isNoContent());
 
         verify(bookingServiceMock, times(1)).deleteBooking(bookingId);
@@ -117,7 +121,7 @@ public class BookingControllerIntegrationTests {
         BookingDto bookingDto = new BookingDto(bookingId, startDate, endDate);
         when(bookingServiceMock.createBooking(anyLong(), any(BookingDto.class))).thenThrow(StartAndOrEndDateBeforeNowException.class);
 
-        mockMvc.perform(post("/api/v1/bookings/{roomId}", 1L)
+        performAsync(post("/api/v1/bookings/{roomId}", 1L)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(asJsonString(bookingDto)))
                 .andExpect(status().isBadRequest());
@@ -140,5 +144,14 @@ public class BookingControllerIntegrationTests {
             throw new RuntimeException(e);
         }
     }
-}
 
+    /**
+     * Performs a request to an endpoint which runs on a bulkhead and dispatches its asynchronous result.
+     */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,135 @@
+package de.mteklic.hotelmanager.controller;
+
+import de.mteklic.hotelmanager.model.Booking;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.RoomDto;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.netty.DisposableServer;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Tests the reactive read path end to end: Reactor Netty server, functional routes and R2DBC against PostgreSQL.
+ */
+@SpringBootTest(properties = {"hotelmanager.reactive.enabled=true", "hotelmanager.reactive.port=0"})
+@Testcontainers
+@TestPropertySource(locations = {"classpath:application-test.properties"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ReactiveRoomControllerIntegrationTests {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3");
+
+    @DynamicPropertySource
+    static void postgresqlProperties(DynamicPropertyRegistry registry){
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private DisposableServer reactiveRoomServer;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private WebTestClient webTestClient;
+
+    private Room berlin;
+
+    private Room hamburg;
+
+    @BeforeEach
+    public void setup() {
+        bookingRepository.deleteAll();
+        roomRepository.deleteAll();
+
+        berlin = roomRepository.save(Room.builder().name("Berlin").description("Room in Berlin style.").hasMinibar(true).roomSize(RoomSize.SUITE).build());
+        hamburg = roomRepository.save(Room.builder().name("Hamburg").description("Room in Hamburg style.").hasMinibar(false).roomSize(RoomSize.SINGLE).build());
+        LocalDate start = LocalDate.now().plusDays(10);
+        bookingRepository.save(Booking.builder().room(berlin).startDate(start).endDate(start.plusDays(1)).build());
+        bookingRepository.save(Booking.builder().room(berlin).startDate(start.plusDays(5)).endDate(start.plusDays(6)).build());
+
+        webTestClient = WebTestClient.bindToServer().baseUrl("http://localhost:" + reactiveRoomServer.port()).build();
+    }
+
+    @Test
+    public void testGetAllRooms() {
+        List<RoomDto> rooms = webTestClient.get().uri("/api/v1/rooms")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(RoomDto.class)
+                .returnResult().getResponseBody();
+
+        assertNotNull(rooms);
+        assertEquals(List.of(berlin.getId(), hamburg.getId()), rooms.stream().map(RoomDto::id).toList());
+        assertEquals(2, rooms.get(0).bookings().size());
+        assertEquals(0, rooms.get(1).bookings().size());
+    }
+
+    @Test
+    public void testGetAllRooms_AsNdjsonStream() {
+        webTestClient.get().uri("/api/v1/rooms")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(RoomDto.class).hasSize(2);
+    }
+
+    @Test
+    public void testGetRoom() {
+        webTestClient.get().uri("/api/v1/rooms/{id}", hamburg.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Hamburg")
+                .jsonPath("$.bookings.length()").isEqualTo(0);
+    }
+
+    @Test
+    public void testGetRoom_NotFound() {
+        webTestClient.get().uri("/api/v1/rooms/{id}", hamburg.getId() + 100)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testGetFilteredRooms() {
+        webTestClient.get().uri("/api/v1/rooms/filter?hasMinibar=false&roomSize=SINGLE")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].name").isEqualTo("Hamburg");
+    }
+
+    @Test
+    public void testGetFilteredRooms_InvalidRoomSize() {
+        webTestClient.get().uri("/api/v1/rooms/filter?roomSize=HUGE")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,106 @@
+package de.mteklic.hotelmanager.controller;
+
+import de.mteklic.hotelmanager.controller.impl.ReactiveRoomHandler;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.service.ReactiveRoomService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ReactiveRoomHandlerUnitTests {
+
+    @Mock
+    private ReactiveRoomService reactiveRoomService;
+
+    private ReactiveRoomHandler reactiveRoomHandler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reactiveRoomHandler = new ReactiveRoomHandler(reactiveRoomService);
+        when(reactiveRoomService.getFilteredRooms(any(), any(), any(), any(), any(), any(), any())).thenReturn(Flux.empty());
+    }
+
+    @Test
+    public void testGetFilteredRooms_ParsesAllParameters() {
+        MockServerRequest request = MockServerRequest.builder()
+                .uri(URI.create("/api/v1/rooms/filter"))
+                .queryParam("ids", "1,2")
+                .queryParam("ids", "3")
+                .queryParam("name", "Berlin")
+                .queryParam("description", "View")
+                .queryParam("startDate", "2030-05-01")
+                .queryParam("endDate", "2030-05-03")
+                .queryParam("hasMinibar", "true")
+                .queryParam("roomSize", "SUITE")
+                .build();
+
+        ServerResponse response = reactiveRoomHandler.getFilteredRooms(request).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.statusCode());
+        verify(reactiveRoomService).getFilteredRooms(List.of(1L, 2L, 3L), "Berlin", "View",
+                LocalDate.of(2030, 5, 1), LocalDate.of(2030, 5, 3), true, RoomSize.SUITE);
+    }
+
+    @Test
+    public void testGetFilteredRooms_MissingParametersAreNull() {
+        MockServerRequest request = MockServerRequest.builder().uri(URI.create("/api/v1/rooms/filter")).build();
+
+        ServerResponse response = reactiveRoomHandler.getFilteredRooms(request).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.statusCode());
+        verify(reactiveRoomService).getFilteredRooms(null, null, null, null, null, null, null);
+    }
+
+    @Test
+    public void testGetFilteredRooms_InvalidRoomSize_ReturnsBadRequest() {
+        assertBadRequest(MockServerRequest.builder().uri(URI.create("/api/v1/rooms/filter")).queryParam("roomSize", "HUGE").build());
+    }
+
+    @Test
+    public void testGetFilteredRooms_InvalidDate_ReturnsBadRequest() {
+        assertBadRequest(MockServerRequest.builder().uri(URI.create("/api/v1/rooms/filter")).queryParam("startDate", "2030-13-01").build());
+    }
+
+    @Test
+    public void testGetFilteredRooms_InvalidId_ReturnsBadRequest() {
+        assertBadRequest(MockServerRequest.builder().uri(URI.create("/api/v1/rooms/filter")).queryParam("ids", "1,abc").build());
+    }
+
+    @Test
+    public void testGetRoom_InvalidId_ReturnsBadRequest() {
+        MockServerRequest request = MockServerRequest.builder()
+                .uri(URI.create("/api/v1/rooms/abc"))
+                .pathVariable("id", "abc")
+                .build();
+
+        ServerResponse response = reactiveRoomHandler.getRoom(request).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.statusCode());
+        verify(reactiveRoomService, never()).getRoom(any());
+    }
+
+    private void assertBadRequest(MockServerRequest request) {
+        ServerResponse response = reactiveRoomHandler.getFilteredRooms(request).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.BAD_REQUEST, response.statusCode());
+        verify(reactiveRoomService, never()).getFilteredRooms(any(), any(), any(), any(), any(), any(), any());
+    }
+}
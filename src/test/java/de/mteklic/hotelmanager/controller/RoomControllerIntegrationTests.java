@@ -15,6 +15,9 @@ import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -28,6 +31,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -71,7 +75,7 @@ public class RoomControllerIntegrationTests {
 
         when(roomServiceMock.getAllRooms()).thenReturn(rooms);
 
-        mockMvc.perform(get("/api/v1/rooms"))
+        performAsync(get("/api/v1/rooms"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(3)))
                 .andExpect(jsonPath("$[0].name").value("Room One"))
@@ -87,7 +91,7 @@ public class RoomControllerIntegrationTests {
 
         when(roomServiceMock.getRoom(roomId)).thenReturn(roomDto1);
 
-        mockMvc.perform(get("/api/v1/rooms/{id}", roomId))
+        performAsync(get("/api/v1/rooms/{id}", roomId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("Room One"));
 
@@ -99,7 +103,7 @@ public class RoomControllerIntegrationTests {
         when(roomServiceMock.getFilteredRooms(null, "Room Two", null, null, null, null, null))
                 .thenReturn(Collections.singletonList(roomDto2));
 
-        mockMvc.perform(get("/api/v1/rooms/filter")
+        performAsync(get("/api/v1/rooms/filter")
                         .param("name", "Room Two"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
@@ -115,7 +119,7 @@ public class RoomControllerIntegrationTests {
 
         when(roomServiceMock.createRoom(any(RoomDto.class))).thenReturn(roomDto3);
 
-        mockMvc.perform(post("/api/v1/rooms")
+        performAsync(post("/api/v1/rooms")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(roomDtoJson))
                 .andExpect(status().isCreated())
@@ -128,7 +132,7 @@ public class RoomControllerIntegrationTests {
     public void testDeleteById() throws Exception {
         Long roomId = 1L;
 
-        mockMvc.perform(delete("/api/v1/rooms/{id}", roomId))
+        performAsync(delete("/api/v1/rooms/{id}", roomId))
                 .andExpect(status().isNoContent());
 
         verify(roomServiceMock, times(1)).deleteRoom(roomId);
@@ -141,12 +145,21 @@ public class RoomControllerIntegrationTests {
 
         when(roomServiceMock.updateRoom(any(RoomDto.class))).thenReturn(roomDto1);
 
-        mockMvc.perform(put("/api/v1/rooms")
+        performAsync(put("/api/v1/rooms")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(roomDtoJson))
                 .andExpect(status().isNoContent());
 
         verify(roomServiceMock, times(1)).updateRoom(any(RoomDto.class));
     }
-}
 
+    /**
+     * Performs a request to an endpoint which runs on a bulkhead and dispatches its asynchronous result.
+     */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
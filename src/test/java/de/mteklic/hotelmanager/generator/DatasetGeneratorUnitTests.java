@@ -0,0 +1,80 @@
+package de.mteklic.hotelmanager.generator;
+
+import de.mteklic.hotelmanager.model.Booking;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomSize;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatasetGeneratorUnitTests {
+
+    private final DatasetProperties properties = new DatasetProperties(7, 1000, 50000, LocalDate.of(2025, 1, 1), 365);
+
+    @Test
+    public void testGenerate_Deterministic() {
+        DatasetGenerator first = new DatasetGenerator(properties);
+        DatasetGenerator second = new DatasetGenerator(properties);
+
+        for (int index = 0; index < 20; index++) {
+            Room room = first.room(index);
+            assertEquals(room.toString(), second.room(index).toString());
+            assertEquals(first.bookings(index, room).toString(), second.bookings(index, room).toString());
+        }
+
+        DatasetGenerator otherSeed = new DatasetGenerator(new DatasetProperties(8, 1000, 50000, LocalDate.of(2025, 1, 1), 365));
+        assertNotEquals(first.bookings(0, first.room(0)).toString(), otherSeed.bookings(0, first.room(0)).toString());
+    }
+
+    @Test
+    public void testRooms_ValidAndAllSizes() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        Map<RoomSize, Integer> sizes = new EnumMap<>(RoomSize.class);
+        List<Room> rooms = new ArrayList<>();
+        new DatasetGenerator(properties).rooms().forEachRemaining(rooms::add);
+
+        assertEquals(1000, rooms.size());
+        for (Room room : rooms) {
+            assertTrue(validator.validate(room).isEmpty(), room::toString);
+            sizes.merge(room.getRoomSize(), 1, Integer::sum);
+        }
+        assertEquals(RoomSize.values().length, sizes.size());
+        assertEquals(1000, rooms.stream().map(Room::getName).distinct().count());
+    }
+
+    @Test
+    public void testBookings_NotOverlappingAndSeasonal() {
+        DatasetGenerator generator = new DatasetGenerator(properties);
+        long total = 0;
+        long august = 0;
+        long february = 0;
+
+        for (int index = 0; index < properties.rooms(); index++) {
+            List<Booking> bookings = generator.bookings(index, generator.room(index));
+            LocalDate lastEnd = properties.startDate().minusDays(1);
+            for (Booking booking : bookings) {
+                assertTrue(booking.getStartDate().isAfter(lastEnd));
+                assertFalse(booking.getEndDate().isBefore(booking.getStartDate()));
+                assertFalse(booking.getEndDate().isAfter(properties.endDate()));
+                assertTrue(booking.getCreatedAt().isBefore(booking.getStartDate().atStartOfDay()));
+                lastEnd = booking.getEndDate();
+
+                august += booking.getStartDate().getMonth() == Month.AUGUST ? 1 : 0;
+                february += booking.getStartDate().getMonth() == Month.FEBRUARY ? 1 : 0;
+            }
+            total += bookings.size();
+        }
+
+        assertEquals(properties.bookings(), total);
+        assertTrue(august > february, "august " + august + ", february " + february);
+    }
+}
@@ -0,0 +1,96 @@
+package de.mteklic.hotelmanager.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FreeNightsTreeUnitTests {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 6, 1);
+
+    @Test
+    public void testLongestFreeRun() {
+        FreeNightsTree tree = new FreeNightsTree(200);
+        assertEquals(200, tree.longestFreeRun(0, 199));
+
+        // Bookings on both sides of a word boundary
+        tree.set(60, 70, true);
+        tree.set(130, 130, true);
+
+        assertEquals(69, tree.longestFreeRun(0, 199));
+        assertEquals(59, tree.longestFreeRun(71, 129));
+        assertEquals(0, tree.longestFreeRun(60, 70));
+        assertEquals(3, tree.longestFreeRun(57, 72));
+        assertTrue(tree.isBooked(64));
+
+        tree.set(60, 70, false);
+        assertEquals(130, tree.longestFreeRun(0, 199));
+        assertFalse(tree.isBooked(64));
+    }
+
+    @Test
+    public void testRandomUpdatesMatchBruteForce() {
+        int days = 400;
+        FreeNightsTree tree = new FreeNightsTree(days);
+        boolean[] booked = new boolean[days];
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int i = 0; i < 2000; i++) {
+            int from = random.nextInt(days);
+            int to = Math.min(days - 1, from + random.nextInt(14));
+            boolean book = random.nextInt(3) > 0;
+            tree.set(from, to, book);
+            for (int day = from; day <= to; day++) {
+                booked[day] = book;
+            }
+
+            int queryFrom = random.nextInt(days);
+            int queryTo = queryFrom + random.nextInt(days - queryFrom);
+            assertEquals(longestFreeRun(booked, queryFrom, queryTo), tree.longestFreeRun(queryFrom, queryTo), "query " + queryFrom + " to " + queryTo);
+        }
+    }
+
+    @Test
+    public void testDaysOutsideTreeAreRejected() {
+        FreeNightsTree tree = new FreeNightsTree(10);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.set(5, 10, true));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.longestFreeRun(3, 2));
+    }
+
+    @Test
+    public void testIndexFindsRoomsAndClipsToWindow() {
+        FreeNightsIndex index = new FreeNightsIndex(DAY, 30);
+        index.addRoom(1L);
+        index.addRoom(2L);
+        index.addRoom(3L);
+        // Room 2 has at most 4 free nights in a row, room 3 is booked before and beyond the window
+        index.set(2L, DAY.plusDays(4), DAY.plusDays(4), true);
+        index.set(2L, DAY.plusDays(9), DAY.plusDays(9), true);
+        index.set(2L, DAY.plusDays(14), DAY.plusDays(29), true);
+        index.set(3L, DAY.minusDays(10), DAY.plusDays(24), true);
+        index.set(3L, DAY.plusDays(28), DAY.plusDays(60), true);
+
+        assertEquals(List.of(1L, 2L), index.findRooms(4, DAY, DAY.plusDays(29)));
+        assertEquals(List.of(1L), index.findRooms(5, DAY, DAY.plusDays(29)));
+        assertEquals(List.of(1L, 2L, 3L), index.findRooms(3, DAY, DAY.plusDays(100)));
+        assertEquals(List.of(), index.findRooms(5, DAY.plusDays(27), DAY.plusDays(100)));
+
+        index.removeRoom(1L);
+        assertEquals(List.of(2L), index.findRooms(4, DAY, DAY.plusDays(29)));
+    }
+
+    private static int longestFreeRun(boolean[] booked, int from, int to) {
+        int longest = 0;
+        int run = 0;
+        for (int day = from; day <= to; day++) {
+            run = booked[day] ? 0 : run + 1;
+            longest = Math.max(longest, run);
+        }
+        return longest;
+    }
+}
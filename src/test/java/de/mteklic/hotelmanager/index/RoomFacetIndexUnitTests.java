@@ -0,0 +1,77 @@
+package de.mteklic.hotelmanager.index;
+
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.RoomFacetsDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RoomFacetIndexUnitTests {
+
+    private RoomFacetIndex roomFacetIndex;
+
+    @BeforeEach
+    void setUp() {
+        roomFacetIndex = new RoomFacetIndex();
+        roomFacetIndex.rebuild(List.of(
+                room(1L, RoomSize.SINGLE, false),
+                room(2L, RoomSize.DOUBLE, true),
+                room(3L, RoomSize.DOUBLE, false),
+                room(4L, RoomSize.SUITE, true)));
+    }
+
+    @Test
+    public void testCountAll() {
+        RoomFacetsDto facets = roomFacetIndex.count(null, Map.of());
+
+        assertEquals(4, facets.total());
+        assertEquals(Map.of("SINGLE", 1L, "DOUBLE", 2L, "SUITE", 1L), facets.facets().get("roomSize"));
+        assertEquals(Map.of("true", 2L, "false", 2L), facets.facets().get("hasMinibar"));
+    }
+
+    @Test
+    public void testCountExcludesOwnSelection() {
+        RoomFacetsDto facets = roomFacetIndex.count(null, Map.of("roomSize", "DOUBLE", "hasMinibar", "true"));
+
+        assertEquals(1, facets.total());
+        // Sizes of rooms with minibar, minibar of double rooms
+        assertEquals(Map.of("SINGLE", 0L, "DOUBLE", 1L, "SUITE", 1L), facets.facets().get("roomSize"));
+        assertEquals(Map.of("true", 1L, "false", 1L), facets.facets().get("hasMinibar"));
+    }
+
+    @Test
+    public void testCountWithCandidateIds() {
+        RoomFacetsDto facets = roomFacetIndex.count(List.of(1L, 2L, 99L), Map.of());
+
+        assertEquals(2, facets.total());
+        assertEquals(Map.of("SINGLE", 1L, "DOUBLE", 1L, "SUITE", 0L), facets.facets().get("roomSize"));
+    }
+
+    @Test
+    public void testPutAndRemove() {
+        roomFacetIndex.put(room(3L, RoomSize.SUITE, true));
+        roomFacetIndex.put(room(5L, RoomSize.SINGLE, true));
+        roomFacetIndex.remove(1L);
+
+        RoomFacetsDto facets = roomFacetIndex.count(null, Map.of());
+
+        assertEquals(4, roomFacetIndex.size());
+        assertEquals(4, facets.total());
+        assertEquals(Map.of("SINGLE", 1L, "DOUBLE", 1L, "SUITE", 2L), facets.facets().get("roomSize"));
+        assertEquals(Map.of("true", 4L, "false", 0L), facets.facets().get("hasMinibar"));
+    }
+
+    private static Room room(Long id, RoomSize roomSize, boolean hasMinibar) {
+        return Room.builder()
+                .id(id)
+                .name("Room")
+                .roomSize(roomSize)
+                .hasMinibar(hasMinibar)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package de.mteklic.hotelmanager.index;
+
+import de.mteklic.hotelmanager.model.RoomSize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class WaitlistIndexUnitTests {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 5, 14);
+
+    private WaitlistIndex waitlistIndex;
+
+    @BeforeEach
+    void setUp() {
+        waitlistIndex = new WaitlistIndex();
+        waitlistIndex.add(1L, RoomSize.DOUBLE, DAY, DAY.plusDays(2));
+        waitlistIndex.add(2L, RoomSize.DOUBLE, DAY.plusDays(1), DAY.plusDays(1));
+        waitlistIndex.add(3L, RoomSize.DOUBLE, DAY.minusDays(1), DAY.plusDays(1));
+        waitlistIndex.add(4L, RoomSize.DOUBLE, DAY.plusDays(2), DAY.plusDays(5));
+        waitlistIndex.add(5L, RoomSize.SUITE, DAY, DAY.plusDays(1));
+    }
+
+    @Test
+    public void testFindContained() {
+        assertEquals(List.of(1L, 2L), waitlistIndex.findContained(RoomSize.DOUBLE, DAY, DAY.plusDays(3)));
+        assertEquals(List.of(1L, 2L, 3L, 4L), waitlistIndex.findContained(RoomSize.DOUBLE, DAY.minusDays(1), DAY.plusDays(5)));
+        assertEquals(List.of(5L), waitlistIndex.findContained(RoomSize.SUITE, DAY, DAY.plusDays(1)));
+        assertEquals(List.of(), waitlistIndex.findContained(RoomSize.SINGLE, DAY, DAY.plusDays(5)));
+        assertEquals(List.of(), waitlistIndex.findContained(RoomSize.DOUBLE, DAY.plusDays(3), DAY.plusDays(4)));
+    }
+
+    @Test
+    public void testRemoveAndMove() {
+        waitlistIndex.remove(1L);
+        waitlistIndex.remove(99L);
+        // Moved out of the range
+        waitlistIndex.add(2L, RoomSize.DOUBLE, DAY.plusDays(4), DAY.plusDays(4));
+
+        assertEquals(List.of(), waitlistIndex.findContained(RoomSize.DOUBLE, DAY, DAY.plusDays(3)));
+        assertEquals(4, waitlistIndex.size());
+    }
+}
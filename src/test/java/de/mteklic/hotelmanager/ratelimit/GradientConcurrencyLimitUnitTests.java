@@ -0,0 +1,62 @@
+package de.mteklic.hotelmanager.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GradientConcurrencyLimitUnitTests {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    public void testRequestsBeyondLimitAreRejected() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(2, 1, 10, 0.2, 1.5, 100, 10);
+
+        assertEquals(1, limit.tryAcquire());
+        assertEquals(2, limit.tryAcquire());
+        assertEquals(0, limit.tryAcquire());
+
+        limit.release(10 * MILLIS, 2, true);
+        assertEquals(2, limit.tryAcquire());
+    }
+
+    @Test
+    public void testLimitGrowsWhileLatencyIsStable() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(10, 4, 100, 0.2, 1.5, 100, 10);
+
+        for (int i = 0; i < 200; i++) {
+            limit.release(10 * MILLIS, limit.getLimit(), true);
+        }
+
+        assertEquals(100, limit.getLimit());
+    }
+
+    @Test
+    public void testLimitShrinksWhenLatencyRises() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(50, 4, 100, 0.2, 1.5, 100, 10);
+        for (int i = 0; i < 100; i++) {
+            limit.release(10 * MILLIS, limit.getLimit(), true);
+        }
+        int before = limit.getLimit();
+
+        // The database slows down: requests take five times as long
+        for (int i = 0; i < 30; i++) {
+            limit.release(50 * MILLIS, limit.getLimit(), true);
+        }
+
+        assertTrue(limit.getLimit() < before / 2, "limit " + limit.getLimit() + " should be less than half of " + before);
+        assertTrue(limit.getLimit() >= 4);
+    }
+
+    @Test
+    public void testUnusedLimitAndFailedRequestsDoNotChangeIt() {
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 4, 100, 0.2, 1.5, 100, 10);
+
+        for (int i = 0; i < 100; i++) {
+            limit.release(10 * MILLIS, 2, true);
+            limit.release(MILLIS, 20, false);
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+}
@@ -0,0 +1,113 @@
+package de.mteklic.hotelmanager.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterUnitTests {
+
+    private static final RateLimitProperties.Endpoint CREATE_BOOKING =
+            new RateLimitProperties.Endpoint("create-booking", "POST", "/api/v1/bookings/{roomId}", 2, 0.001);
+
+    @Test
+    public void testRotatingUnknownApiKeys_ShareTheBucketOfTheIpAddress() throws Exception {
+        RateLimitFilter filter = filter(Set.of("known"), 100);
+
+        assertEquals(200, post(filter, "10.0.0.1", "key-1"));
+        assertEquals(200, post(filter, "10.0.0.1", "key-2"));
+        assertEquals(429, post(filter, "10.0.0.1", "key-3"));
+        assertEquals(429, post(filter, "10.0.0.1", null));
+    }
+
+    @Test
+    public void testKnownApiKey_HasItsOwnBucket() throws Exception {
+        RateLimitFilter filter = filter(Set.of("known"), 100);
+        post(filter, "10.0.0.1", null);
+        post(filter, "10.0.0.1", null);
+
+        assertEquals(429, post(filter, "10.0.0.1", null));
+        assertEquals(200, post(filter, "10.0.0.1", "known"));
+        assertEquals(200, post(filter, "10.0.0.1", "known"));
+        assertEquals(429, post(filter, "10.0.0.1", "known"));
+    }
+
+    @Test
+    public void testMaxBuckets_EvictsLeastRecentlyUsedBucket() throws Exception {
+        RateLimitFilter filter = filter(Set.of(), 2);
+        post(filter, "10.0.0.1", null);
+        post(filter, "10.0.0.1", null);
+        post(filter, "10.0.0.2", null);
+
+        // 10.0.0.1 is used most recently, 10.0.0.2 makes room for 10.0.0.3 (all buckets fit into the eviction sample)
+        assertEquals(429, post(filter, "10.0.0.1", null));
+        assertEquals(200, post(filter, "10.0.0.3", null));
+        assertEquals(429, post(filter, "10.0.0.1", null));
+    }
+
+    @Test
+    public void testMaxBuckets_FloodOfClientsDoesNotThrottleNewClients() throws Exception {
+        RateLimitFilter filter = filter(Set.of(), 10);
+        for (int i = 0; i < 1000; i++) {
+            post(filter, "10.1." + (i / 256) + "." + (i % 256), null);
+        }
+
+        assertEquals(200, post(filter, "192.168.0.1", null));
+        assertEquals(200, post(filter, "192.168.0.2", null));
+    }
+
+    @Test
+    public void testMaxBuckets_BoundsTheNumberOfBuckets() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitFilter filter = new RateLimitFilter(properties(Set.of(), 10, Duration.ofMinutes(10)), new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+        for (int i = 0; i < 1000; i++) {
+            post(filter, "10.1." + (i / 256) + "." + (i % 256), null);
+        }
+
+        assertEquals(10, meterRegistry.get("hotelmanager.rate-limit.buckets").gauge().value());
+    }
+
+    @Test
+    public void testEvictIdleBuckets_ResetsIdleClients() throws Exception {
+        RateLimitFilter filter = filter(Set.of(), 100, Duration.ZERO);
+        post(filter, "10.0.0.1", null);
+        post(filter, "10.0.0.1", null);
+        assertEquals(429, post(filter, "10.0.0.1", null));
+
+        filter.evictIdleBuckets();
+
+        assertEquals(200, post(filter, "10.0.0.1", null));
+    }
+
+    private static RateLimitFilter filter(Set<String> apiKeys, int maxBuckets) {
+        return filter(apiKeys, maxBuckets, Duration.ofMinutes(10));
+    }
+
+    private static RateLimitFilter filter(Set<String> apiKeys, int maxBuckets, Duration idleEviction) {
+        return new RateLimitFilter(properties(apiKeys, maxBuckets, idleEviction), new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry());
+    }
+
+    private static RateLimitProperties properties(Set<String> apiKeys, int maxBuckets, Duration idleEviction) {
+        return new RateLimitProperties(true, "X-API-Key", apiKeys, idleEviction, maxBuckets, List.of(CREATE_BOOKING));
+    }
+
+    private static int post(RateLimitFilter filter, String remoteAddr, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/bookings/1");
+        request.setRemoteAddr(remoteAddr);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -3,6 +3,10 @@ package de.mteklic.hotelmanager.repository;
 import de.mteklic.hotelmanager.model.Booking;
 import de.mteklic.hotelmanager.model.Room;
 import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.service.BookingService;
+import de.mteklic.hotelmanager.service.RoomDayStatusService;
+import de.mteklic.hotelmanager.service.RoomService;
+import de.mteklic.hotelmanager.service.impl.BookingServiceImpl;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.TestPropertySource;
@@ -20,10 +25,13 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
 
 /**
  * Those Repository Tests will ensure that all Validation Annotations are kept in mind and has not changed by accident or something.
@@ -134,4 +142,31 @@ public class BookingRepositoryTests {
         var obj = bookingRepository.findAll();
         Assertions.assertInstanceOf(List.class, obj);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void Should_Return_Only_Overlapping_Bookings_Of_Requested_Rooms_When_Getting_Unavailable_Bookings() {
+        Room otherRoom = roomRepository.save(Room.builder().name("Hamburg").description("Real hanseatic experience.").hasMinibar(false).roomSize(RoomSize.SINGLE).build());
+        LocalDate startDate = LocalDate.now().plusDays(2);
+        LocalDate endDate = LocalDate.now().plusDays(5);
+        Long inside = saveBooking(room, LocalDate.now().plusDays(3), LocalDate.now().plusDays(4));
+        Long onLastDay = saveBooking(room, LocalDate.now().plusDays(5), LocalDate.now().plusDays(7));
+        saveBooking(room, LocalDate.now(), LocalDate.now().plusDays(1)); // before
+        saveBooking(room, LocalDate.now().plusDays(8), LocalDate.now().plusDays(9)); // after
+        Long ofOtherRoom = saveBooking(otherRoom, LocalDate.now().plusDays(3), LocalDate.now().plusDays(3));
+        BookingService bookingService = new BookingServiceImpl(bookingRepository, mock(RoomService.class), mock(ApplicationEventPublisher.class), mock(RoomDayStatusService.class));
+
+        Assertions.assertEquals(Set.of(inside, onLastDay), idsOf(bookingService.getUnavailableBookings(List.of(room.getId()), startDate, endDate)));
+        Assertions.assertEquals(Set.of(ofOtherRoom), idsOf(bookingService.getUnavailableBookings(List.of(otherRoom.getId()), startDate, endDate)));
+        // Without rooms the bookings of all rooms are returned
+        Assertions.assertEquals(Set.of(inside, onLastDay, ofOtherRoom), idsOf(bookingService.getUnavailableBookings(null, startDate, endDate)));
+        Assertions.assertEquals(Set.of(inside, onLastDay, ofOtherRoom), idsOf(bookingService.getUnavailableBookings(List.of(), startDate, endDate)));
+    }
+
+    private Long saveBooking(Room room, LocalDate startDate, LocalDate endDate) {
+        return bookingRepository.save(Booking.builder().room(room).startDate(startDate).endDate(endDate).build()).getId();
+    }
+
+    private static Set<Long> idsOf(List<Booking> bookings) {
+        return bookings.stream().map(Booking::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,107 @@
+package de.mteklic.hotelmanager.serialization;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.BookingDto;
+import de.mteklic.hotelmanager.model.dto.RoomDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryFormatsUnitTests {
+
+    private static final Type ROOM_LIST = new ParameterizedTypeReference<List<RoomDto>>() {}.getType();
+
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final List<RoomDto> rooms = List.of(
+            RoomDto.builder().id(1L).name("Berlin").description("Cozy room with berlin street art.").hasMinibar(true).roomSize(RoomSize.DOUBLE)
+                    .bookings(List.of(BookingDto.builder().id(10L).startDate(LocalDate.of(2030, 1, 2)).endDate(LocalDate.of(2030, 1, 5)).build()))
+                    .build(),
+            RoomDto.builder().id(2L).name("Hamburg").description("Real hanseatic experience.").hasMinibar(false).roomSize(RoomSize.SINGLE)
+                    .bookings(List.of(BookingDto.builder().id(11L).startDate(LocalDate.of(2030, 2, 1)).endDate(LocalDate.of(2030, 2, 1)).build()))
+                    .build());
+
+    @Test
+    public void testEpochDayModule() throws IOException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().modules(new EpochDayModule()).build();
+        BookingDto booking = rooms.get(0).bookings().get(0);
+
+        String json = mapper.writeValueAsString(booking);
+
+        assertTrue(json.contains("\"startDate\":" + LocalDate.of(2030, 1, 2).toEpochDay()));
+        assertEquals(booking, mapper.readValue(json, BookingDto.class));
+    }
+
+    @Test
+    public void testCborRoundTrip() throws IOException {
+        ObjectMapper cborMapper = jsonMapper.copyWith(new CBORFactory()).registerModule(new EpochDayModule());
+
+        byte[] cbor = cborMapper.writeValueAsBytes(rooms);
+
+        assertEquals(rooms, cborMapper.readValue(cbor, new TypeReference<List<RoomDto>>() {}));
+        assertTrue(cbor.length < jsonMapper.writeValueAsBytes(rooms).length);
+    }
+
+    @Test
+    public void testProtobufRoundTripList() throws IOException {
+        JacksonProtobufHttpMessageConverter converter = new JacksonProtobufHttpMessageConverter(
+                jsonMapper.copyWith(new ProtobufFactory()).registerModule(new EpochDayModule()));
+
+        assertTrue(converter.canWrite(ROOM_LIST, List.class, JacksonProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(rooms, ROOM_LIST, JacksonProtobufHttpMessageConverter.APPLICATION_PROTOBUF, output);
+        byte[] protobuf = output.getBodyAsBytes();
+
+        Object read = converter.read(ROOM_LIST, null, new MockHttpInputMessage(protobuf));
+
+        assertEquals(rooms, read);
+        assertTrue(protobuf.length < jsonMapper.writeValueAsBytes(rooms).length / 2);
+    }
+
+    @Test
+    public void testProtobufEmptyList() throws IOException {
+        JacksonProtobufHttpMessageConverter converter = new JacksonProtobufHttpMessageConverter(
+                jsonMapper.copyWith(new ProtobufFactory()).registerModule(new EpochDayModule()));
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(List.of(), ROOM_LIST, JacksonProtobufHttpMessageConverter.APPLICATION_PROTOBUF, output);
+
+        // Protobuf does not distinguish an empty from a missing repeated field
+        assertEquals(List.of(), converter.read(ROOM_LIST, null, new MockHttpInputMessage(output.getBodyAsBytes())));
+    }
+
+    @Test
+    public void testProtobufRoundTripSingle() throws IOException {
+        JacksonProtobufHttpMessageConverter converter = new JacksonProtobufHttpMessageConverter(
+                jsonMapper.copyWith(new ProtobufFactory()).registerModule(new EpochDayModule()));
+        BookingDto booking = rooms.get(0).bookings().get(0);
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(booking, BookingDto.class, JacksonProtobufHttpMessageConverter.APPLICATION_PROTOBUF, output);
+
+        assertEquals(booking, converter.read(BookingDto.class, null, new MockHttpInputMessage(output.getBodyAsBytes())));
+    }
+
+    @Test
+    public void testProtobufUnsupportedType() {
+        JacksonProtobufHttpMessageConverter converter = new JacksonProtobufHttpMessageConverter(
+                jsonMapper.copyWith(new ProtobufFactory()).registerModule(new EpochDayModule()));
+
+        assertFalse(converter.canWrite(String.class, String.class, JacksonProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        assertFalse(converter.canWrite(RoomDto.class, RoomDto.class, MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,112 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.exception.EndDateBeforeStartDateException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateNullException;
+import de.mteklic.hotelmanager.model.BookingInterval;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.OccupancyDto;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.impl.AnalyticsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class AnalyticsServiceImplUnitTests {
+
+    private static final LocalDate START = LocalDate.of(2030, 5, 1);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AnalyticsServiceImpl analyticsServiceImpl;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        analyticsServiceImpl = new AnalyticsServiceImpl(bookingRepository, roomRepository, transactionManager, Runnable::run, 2);
+        when(roomRepository.countByRoomSize(RoomSize.SINGLE)).thenReturn(3L);
+        when(roomRepository.countByRoomSize(RoomSize.DOUBLE)).thenReturn(2L);
+        when(roomRepository.countByRoomSize(RoomSize.SUITE)).thenReturn(1L);
+    }
+
+    @Test
+    public void testGetOccupancy_CountsEveryBookedDayInclusive() throws Exception {
+        when(bookingRepository.streamOverlappingIntervals(any(), any())).thenReturn(Stream.of(
+                new BookingInterval(1L, RoomSize.SINGLE, START.plusDays(1), START.plusDays(3)),
+                new BookingInterval(2L, RoomSize.SINGLE, START.plusDays(2), START.plusDays(2)),
+                new BookingInterval(3L, RoomSize.SUITE, START, START)
+        ));
+
+        OccupancyDto occupancy = analyticsServiceImpl.getOccupancy(START, START.plusDays(4), false);
+
+        assertEquals(5, entry(occupancy, RoomSize.SINGLE).occupiedRooms().length);
+        assertArrayEquals(new int[]{0, 1, 2, 1, 0}, entry(occupancy, RoomSize.SINGLE).occupiedRooms());
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0}, entry(occupancy, RoomSize.DOUBLE).occupiedRooms());
+        assertArrayEquals(new int[]{1, 0, 0, 0, 0}, entry(occupancy, RoomSize.SUITE).occupiedRooms());
+        assertEquals(3L, entry(occupancy, RoomSize.SINGLE).capacity());
+    }
+
+    @Test
+    public void testGetOccupancy_ClipsBookingsAtRangeBorders() throws Exception {
+        when(bookingRepository.streamOverlappingIntervals(any(), any())).thenReturn(Stream.of(
+                new BookingInterval(1L, RoomSize.DOUBLE, START.minusDays(10), START.plusDays(1)),
+                new BookingInterval(2L, RoomSize.DOUBLE, START.plusDays(2), START.plusDays(30))
+        ));
+
+        OccupancyDto occupancy = analyticsServiceImpl.getOccupancy(START, START.plusDays(3), false);
+
+        assertArrayEquals(new int[]{1, 1, 1, 1}, entry(occupancy, RoomSize.DOUBLE).occupiedRooms());
+    }
+
+    @Test
+    public void testGetOccupancy_ParallelMergesAllPartitions() throws Exception {
+        when(bookingRepository.streamOverlappingIntervals(any(), any(), eq(2L), eq(0L))).thenReturn(Stream.of(
+                new BookingInterval(2L, RoomSize.DOUBLE, START, START.plusDays(1))));
+        when(bookingRepository.streamOverlappingIntervals(any(), any(), eq(2L), eq(1L))).thenReturn(Stream.of(
+                new BookingInterval(1L, RoomSize.DOUBLE, START.plusDays(1), START.plusDays(2))));
+
+        OccupancyDto occupancy = analyticsServiceImpl.getOccupancy(START, START.plusDays(2), true);
+
+        assertArrayEquals(new int[]{1, 2, 1}, entry(occupancy, RoomSize.DOUBLE).occupiedRooms());
+        verify(bookingRepository, times(2)).streamOverlappingIntervals(any(), any(), eq(2L), anyLong());
+        verify(bookingRepository, never()).streamOverlappingIntervals(any(), any());
+    }
+
+    @Test
+    public void testGetOccupancy_EndDateBeforeStartDate() {
+        assertThrows(EndDateBeforeStartDateException.class, () -> analyticsServiceImpl.getOccupancy(START, START.minusDays(1), false));
+    }
+
+    @Test
+    public void testGetOccupancy_DatesNull() {
+        assertThrows(StartAndOrEndDateNullException.class, () -> analyticsServiceImpl.getOccupancy(null, START, false));
+    }
+
+    @Test
+    public void testGetOccupancy_RangeTooLong() {
+        assertThrows(ResponseStatusException.class, () -> analyticsServiceImpl.getOccupancy(START, START.plusYears(20), false));
+    }
+
+    private OccupancyDto.Entry entry(OccupancyDto occupancy, RoomSize roomSize) {
+        return occupancy.entries().stream().filter(e -> e.roomSize() == roomSize).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,183 @@
+package de.mteklic.hotelmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.mteklic.hotelmanager.model.AvailabilityChangedEvent;
+import de.mteklic.hotelmanager.service.impl.AvailabilityStreamServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitterReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailabilityStreamServiceImplUnitTests {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 5, 14);
+
+    /**
+     * Drain tasks are collected and only run on demand, which simulates subscribers that do not keep up.
+     */
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AvailabilityStreamServiceImpl availabilityStreamServiceImpl;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        availabilityStreamServiceImpl = new AvailabilityStreamServiceImpl(tasks::add, Runnable::run, meterRegistry, 2, 2,
+                Duration.ofMinutes(1), Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void testOnlyMatchingSubscribersAreNotified() {
+        availabilityStreamServiceImpl.subscribe(List.of(1L), null, null);
+        availabilityStreamServiceImpl.subscribe(null, DAY, DAY.plusDays(3));
+        runTasks();
+
+        availabilityStreamServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 2L, DAY.plusDays(4), DAY.plusDays(5), true));
+        assertEquals(0, tasks.size());
+
+        availabilityStreamServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 2L, DAY.plusDays(3), DAY.plusDays(5), true));
+        assertEquals(1, tasks.size());
+        runTasks();
+
+        availabilityStreamServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY, DAY, false));
+        assertEquals(2, tasks.size());
+    }
+
+    @Test
+    public void testSlowSubscriberIsEvicted() {
+        availabilityStreamServiceImpl.subscribe(null, null, null);
+
+        // The initial heartbeat and one change fill the queue of two events
+        availabilityStreamServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY, DAY, true));
+        assertEquals(1, availabilityStreamServiceImpl.getSubscriberCount());
+
+        availabilityStreamServiceImpl.sendHeartbeats();
+        assertEquals(0, availabilityStreamServiceImpl.getSubscriberCount());
+        assertEquals(1, meterRegistry.get("hotelmanager.availability-stream.evictions").counter().count());
+
+        // The pending drain task completes the emitter instead of writing the buffered events
+        runTasks();
+        assertEquals(0, tasks.size());
+    }
+
+    @Test
+    public void testMaxSubscribers() {
+        availabilityStreamServiceImpl.subscribe(null, null, null);
+        availabilityStreamServiceImpl.subscribe(null, null, null);
+
+        assertThrows(ResponseStatusException.class, () -> availabilityStreamServiceImpl.subscribe(null, null, null));
+        assertThrows(ResponseStatusException.class, () -> availabilityStreamServiceImpl.subscribe(null, DAY, DAY.minusDays(1)));
+    }
+
+    @Test
+    public void testStalledSubscriberIsEvictedAfterWriteTimeout() throws Exception {
+        ExecutorService writeExecutor = Executors.newCachedThreadPool();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean stalled = new AtomicBoolean();
+        try {
+            // Drains run on the publishing thread, so a stalled write would block the test
+            AvailabilityStreamServiceImpl service = new AvailabilityStreamServiceImpl(Runnable::run, writeExecutor, meterRegistry,
+                    2, 2, Duration.ofMinutes(1), Duration.ofSeconds(1));
+            MockHttpServletResponse stalledResponse = new MockHttpServletResponse() {
+                @Override
+                public ServletOutputStream getOutputStream() {
+                    return new ServletOutputStream() {
+                        @Override
+                        public boolean isReady() {
+                            return false;
+                        }
+
+                        @Override
+                        public void setWriteListener(WriteListener writeListener) {
+                        }
+
+                        @Override
+                        public void write(int b) throws IOException {
+                            if (!stalled.get()) {
+                                return;
+                            }
+                            // A client which stopped reading: the write blocks until the connection times out
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            throw new IOException("Connection timed out");
+                        }
+                    };
+                }
+            };
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            long start = System.nanoTime();
+            connect(service.subscribe(null, null, null), stalledResponse);
+            connect(service.subscribe(null, null, null), response);
+            stalled.set(true);
+            service.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY, DAY, true));
+
+            // The stalled subscriber costs one write timeout and is evicted, the other one is still served
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+            assertEquals(1, service.getSubscriberCount());
+            assertEquals(1, meterRegistry.get("hotelmanager.availability-stream.evictions").counter().count());
+            assertTrue(response.getContentAsString().contains("\"change\":\"BOOKED\""));
+
+            service.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY, DAY, false));
+            assertTrue(response.getContentAsString().contains("\"change\":\"FREED\""));
+            assertEquals(1, service.getSubscriberCount());
+        } finally {
+            release.countDown();
+            writeExecutor.shutdown();
+            assertTrue(writeExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Attaches the emitter to the response, the way Spring MVC does when the controller returns it.
+     */
+    private static void connect(SseEmitter emitter, MockHttpServletResponse response) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/availability/stream");
+        request.setAsyncSupported(true);
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        WebAsyncUtils.getAsyncManager(webRequest).setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        ResponseBodyEmitterReturnValueHandler handler = new ResponseBodyEmitterReturnValueHandler(List.of(
+                new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter(new ObjectMapper().registerModule(new JavaTimeModule()))));
+        MethodParameter returnType = new MethodParameter(
+                AvailabilityStreamService.class.getMethod("subscribe", List.class, LocalDate.class, LocalDate.class), -1);
+        handler.handleReturnValue(emitter, returnType, new ModelAndViewContainer(), webRequest);
+    }
+
+    private void runTasks() {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,136 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.service.impl.BookingPartitionServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the partition maintenance DDL against PostgreSQL.
+ * Uses months long before the partitions created on startup (current month minus archive-after-months onwards),
+ * so each test only sees its own partitions.
+ */
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(locations = {"classpath:application-test.properties"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class BookingPartitionServiceImplIntegrationTests {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3");
+
+    @DynamicPropertySource
+    static void postgresqlProperties(DynamicPropertyRegistry registry){
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private BookingPartitionServiceImpl bookingPartitionServiceImpl;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testCreatePartitions_TakesOverBookingsFromTheDefaultPartition() {
+        long roomId = createRoom("Partition A");
+        createBooking(roomId, LocalDate.of(2003, 1, 30), LocalDate.of(2003, 2, 2));
+        createBooking(roomId, LocalDate.of(2003, 3, 1), LocalDate.of(2003, 3, 2));
+        assertEquals(2, count("bookings_default", roomId));
+
+        int created = bookingPartitionServiceImpl.createPartitions(LocalDate.of(2003, 2, 10), LocalDate.of(2003, 2, 20));
+
+        assertEquals(1, created);
+        assertEquals("bookings", parentOf("bookings_p200302"));
+        // Partitioned by end date: only the booking ending in February moves
+        assertEquals(1, count("bookings_p200302", roomId));
+        assertEquals(1, count("bookings_default", roomId));
+        assertEquals(2, count("bookings", roomId));
+
+        // Second run is a no-op
+        assertEquals(0, bookingPartitionServiceImpl.createPartitions(LocalDate.of(2003, 2, 1), LocalDate.of(2003, 2, 28)));
+        assertEquals(1, count("bookings_p200302", roomId));
+        assertEquals(2, count("bookings", roomId));
+    }
+
+    @Test
+    public void testArchivePartitions_MovesPartitionToArchiveAndReleasesRooms() {
+        long roomId = createRoom("Partition B");
+        bookingPartitionServiceImpl.createPartitions(LocalDate.of(2002, 1, 1), LocalDate.of(2002, 2, 1));
+        long januaryBookingId = createBooking(roomId, LocalDate.of(2002, 1, 10), LocalDate.of(2002, 1, 12));
+        long februaryBookingId = createBooking(roomId, LocalDate.of(2002, 2, 10), LocalDate.of(2002, 2, 12));
+        recordChange(januaryBookingId, roomId);
+        recordChange(februaryBookingId, roomId);
+        // A booking of January which has been archived one by one before
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, room_id, start_date, end_date) VALUES (999001, ?, '2002-01-20', '2002-01-21')", roomId);
+        assertEquals(1, count("bookings_archive_default", roomId));
+
+        int archived = bookingPartitionServiceImpl.archivePartitions(LocalDate.of(2002, 2, 1));
+
+        assertEquals(1, archived);
+        assertEquals("bookings_archive", parentOf("bookings_p200201"));
+        assertEquals("bookings", parentOf("bookings_p200202"));
+        assertEquals(0, foreignKeysOf("bookings_p200201"));
+        assertEquals(2, count("bookings_p200201", roomId));
+        assertEquals(0, count("bookings_archive_default", roomId));
+        assertEquals(1, count("bookings", roomId));
+        assertEquals(2, count("bookings_archive", roomId));
+        // The delta sync sees the archived booking as deleted
+        assertTrue(isDeleted(januaryBookingId));
+        assertFalse(isDeleted(februaryBookingId));
+
+        // Second run is a no-op
+        assertEquals(0, bookingPartitionServiceImpl.archivePartitions(LocalDate.of(2002, 2, 1)));
+        assertEquals("bookings_archive", parentOf("bookings_p200201"));
+
+        // The room can be deleted as soon as it has no bookings left in the live table
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update("DELETE FROM rooms WHERE id = ?", roomId));
+        jdbcTemplate.update("DELETE FROM bookings WHERE room_id = ?", roomId);
+        assertEquals(1, jdbcTemplate.update("DELETE FROM rooms WHERE id = ?", roomId));
+        assertEquals(2, count("bookings_archive", roomId));
+    }
+
+    private long createRoom(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO rooms (name, room_size, has_minibar) VALUES (?, 'SINGLE', false) RETURNING id", Long.class, name);
+    }
+
+    private long createBooking(long roomId, LocalDate startDate, LocalDate endDate) {
+        return jdbcTemplate.queryForObject("INSERT INTO bookings (room_id, start_date, end_date) VALUES (?, ?, ?) RETURNING id", Long.class, roomId, startDate, endDate);
+    }
+
+    private void recordChange(long bookingId, long roomId) {
+        jdbcTemplate.update("INSERT INTO change_log (entity_type, entity_id, room_id, seq, deleted, changed_at) VALUES ('BOOKING', ?, ?, nextval('change_log_seq'), false, now())",
+                bookingId, roomId);
+    }
+
+    private boolean isDeleted(long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT deleted FROM change_log WHERE entity_type = 'BOOKING' AND entity_id = ?", Boolean.class, bookingId);
+    }
+
+    private int count(String table, long roomId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE room_id = ?", Integer.class, roomId);
+    }
+
+    private String parentOf(String partition) {
+        return jdbcTemplate.queryForObject("SELECT p.relname FROM pg_inherits i JOIN pg_class p ON p.oid = i.inhparent WHERE i.inhrelid = CAST(? AS regclass)",
+                String.class, partition);
+    }
+
+    private int foreignKeysOf(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM pg_constraint WHERE conrelid = CAST(? AS regclass) AND contype = 'f'", Integer.class, table);
+    }
+}
@@ -0,0 +1,144 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.model.BookingChangedEvent;
+import de.mteklic.hotelmanager.model.BookingsArchivedEvent;
+import de.mteklic.hotelmanager.service.impl.BookingRetentionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class BookingRetentionServiceImplUnitTests {
+
+    private static final LocalDate BEFORE = LocalDate.of(2026, 9, 1);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BookingRetentionServiceImpl bookingRetentionServiceImpl;
+
+    /**
+     * Rows (end_date, id, room_id) returned by the next batches, an empty batch means no more bookings.
+     */
+    private final Deque<List<Object[]>> batches = new ArrayDeque<>();
+
+    /**
+     * Parameters of all executed batches.
+     */
+    private final List<Object[]> executed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        bookingRetentionServiceImpl = new BookingRetentionServiceImpl(jdbcTemplate, transactionManager, eventPublisher, true, 30, 2, 0);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Object>>any(), any(Object[].class))).thenAnswer(invocation -> {
+            Object[] arguments = invocation.getArguments();
+            executed.add(new Object[]{arguments[2], arguments[3], arguments[4], arguments[5]});
+
+            List<Object[]> rows = batches.isEmpty() ? List.of() : batches.poll();
+            RowMapper<?> rowMapper = invocation.getArgument(1);
+            List<Object> moved = new ArrayList<>();
+            for (Object[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getObject("end_date", LocalDate.class)).thenReturn((LocalDate) row[0]);
+                when(rs.getLong("id")).thenReturn((Long) row[1]);
+                when(rs.getLong("room_id")).thenReturn((Long) row[2]);
+                moved.add(rowMapper.mapRow(rs, moved.size()));
+            }
+            return moved;
+        });
+    }
+
+    @Test
+    public void testArchiveBookings_KeysetBatches() {
+        batches.add(List.of(row(LocalDate.of(2026, 7, 1), 21L, 1L), row(LocalDate.of(2026, 7, 3), 17L, 1L)));
+        batches.add(List.of(row(LocalDate.of(2026, 7, 3), 20L, 2L), row(LocalDate.of(2026, 8, 1), 4L, 3L)));
+        batches.add(List.<Object[]>of(row(LocalDate.of(2026, 8, 20), 30L, 1L)));
+
+        assertEquals(5, bookingRetentionServiceImpl.archiveBookings(BEFORE));
+
+        // A batch smaller than the batch size is the last one
+        assertEquals(3, executed.size());
+        assertArrayEquals(new Object[]{BEFORE, LocalDate.MIN, Long.MIN_VALUE, 2}, executed.get(0));
+        assertArrayEquals(new Object[]{BEFORE, LocalDate.of(2026, 7, 3), 17L, 2}, executed.get(1));
+        assertArrayEquals(new Object[]{BEFORE, LocalDate.of(2026, 8, 1), 4L, 2}, executed.get(2));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    public void testArchiveBookings_PublishesMovedBookingsPerBatch() {
+        batches.add(List.of(row(LocalDate.of(2026, 7, 1), 21L, 1L), row(LocalDate.of(2026, 7, 3), 17L, 1L)));
+        batches.add(List.<Object[]>of(row(LocalDate.of(2026, 8, 20), 30L, 2L)));
+
+        bookingRetentionServiceImpl.archiveBookings(BEFORE);
+
+        ArgumentCaptor<ApplicationEvent> events = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(eventPublisher, times(4)).publishEvent(events.capture());
+        List<BookingChangedEvent> deleted = events.getAllValues().stream()
+                .filter(BookingChangedEvent.class::isInstance).map(BookingChangedEvent.class::cast).toList();
+        List<BookingsArchivedEvent> archived = events.getAllValues().stream()
+                .filter(BookingsArchivedEvent.class::isInstance).map(BookingsArchivedEvent.class::cast).toList();
+
+        assertEquals(List.of(List.of(21L, 17L), List.of(30L)), deleted.stream().map(BookingChangedEvent::getBookingIds).toList());
+        assertTrue(deleted.stream().allMatch(BookingChangedEvent::isDeleted));
+        // Room 1 is published once per batch, however many of its bookings have been moved
+        assertEquals(List.of(List.of(1L), List.of(2L)), archived.stream().map(BookingsArchivedEvent::getRoomIds).toList());
+    }
+
+    @Test
+    public void testArchiveBookings_NothingToArchive() {
+        batches.add(List.of());
+
+        assertEquals(0, bookingRetentionServiceImpl.archiveBookings(BEFORE));
+        assertEquals(1, executed.size());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testArchiveBookings_FullLastBatch() {
+        batches.add(List.of(row(LocalDate.of(2026, 7, 1), 21L, 1L), row(LocalDate.of(2026, 7, 3), 17L, 1L)));
+
+        assertEquals(2, bookingRetentionServiceImpl.archiveBookings(BEFORE));
+        // The full batch might have more bookings after it, the next (empty) batch ends the run
+        assertEquals(2, executed.size());
+    }
+
+    @Test
+    public void testApplyRetention_Disabled() {
+        new BookingRetentionServiceImpl(jdbcTemplate, transactionManager, eventPublisher, false, 30, 2, 0).applyRetention();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static Object[] row(LocalDate endDate, Long id, Long roomId) {
+        return new Object[]{endDate, id, roomId};
+    }
+}
@@ -40,6 +40,9 @@ public class BookingServiceImplUnitTests {
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
+    @Mock
+    private RoomDayStatusService roomDayStatusService;
+
     @InjectMocks
     private BookingServiceImpl bookingServiceImpl;
 
@@ -68,6 +71,7 @@ public class BookingServiceImplUnitTests {
 
         verify(roomServiceImpl).getRoom(roomId); // Verify that getRoom was called with roomId
         verify(bookingRepository).save(any()); // Verify that save was called with any booking
+        verify(roomDayStatusService).book(roomId, startDate, endDate); // Verify that the booked days were marked
         assertEquals(startDate, result.startDate());
         assertEquals(endDate, result.endDate());
         assertNotNull(result.id()); // Ensure ID is set in the result
@@ -81,8 +85,7 @@ public class BookingServiceImplUnitTests {
 
         when(roomServiceImpl.getRoom(roomId)).thenReturn(new RoomDto(roomId, "Test Room", "", true, RoomSize.SINGLE, Collections.emptyList()));
 
-        List<Booking> existingBookings = someBookings();
-        when(bookingRepository.findAllByRoomId(roomId)).thenReturn(existingBookings);
+        when(bookingRepository.existsOverlapping(roomId, startDate, endDate)).thenReturn(true);
 
         BookingDto bookingDto = new BookingDto(null, startDate, endDate);
         assertThrows(RoomBookedOutException.class, () -> bookingServiceImpl.createBooking(roomId, bookingDto));
@@ -313,7 +316,7 @@ public class BookingServiceImplUnitTests {
         assertNotNull(bookingDto.startDate());
         assertNotNull(bookingDto.endDate());
 
-        verify(bookingRepository, times(1)).findAllByRoomId(1L);
+        verify(bookingRepository, times(1)).existsOverlapping(ArgumentMatchers.eq(1L), ArgumentMatchers.any(), ArgumentMatchers.any());
         verify(bookingRepository, times(1)).delete(booking);
     }
 
@@ -455,19 +458,4 @@ public class BookingServiceImplUnitTests {
         when(bookingServiceImpl.retrieveRoom(ArgumentMatchers.any())).thenReturn(roomDto);
         assertThrows(ResponseStatusException.class, () -> bookingServiceImpl.updateBooking(bookingDto));
     }
-
-    private List<Booking> someBookings() {
-        Booking booking1 = new Booking();
-        booking1.setId(1L);
-        booking1.setStartDate(LocalDate.now().plusDays(2));
-        booking1.setEndDate(LocalDate.now().plusDays(6));
-
-        Booking booking2 = new Booking();
-        booking2.setId(2L);
-        booking2.setStartDate(LocalDate.now().plusDays(7));
-        booking2.setEndDate(LocalDate.now().plusDays(10));
-
-        return List.of(booking1, booking2);
-    }
 }
-
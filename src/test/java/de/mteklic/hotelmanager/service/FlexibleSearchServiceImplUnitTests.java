@@ -0,0 +1,118 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.model.BookingInterval;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.FlexibleSearchDto;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.impl.FlexibleSearchServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+public class FlexibleSearchServiceImplUnitTests {
+
+    private static final LocalDate START = LocalDate.now().plusDays(30);
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ForkJoinPool pool;
+
+    private FlexibleSearchServiceImpl flexibleSearchServiceImpl;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        pool = new ForkJoinPool(4);
+        flexibleSearchServiceImpl = new FlexibleSearchServiceImpl(roomRepository, bookingRepository, transactionManager, pool);
+        when(roomRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            return ((Collection<Long>) ids).stream()
+                    .map(id -> Room.builder().id(id).name("Room " + id).roomSize(RoomSize.SINGLE).build())
+                    .toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testSearch_RanksByDateDistanceThenRoom() throws Exception {
+        when(roomRepository.findIds(null, null)).thenReturn(List.of(1L, 2L));
+        // Room 1 is booked on the requested first night, room 2 on the night before
+        when(bookingRepository.streamOverlappingIntervals(any(), any())).thenReturn(Stream.of(
+                new BookingInterval(1L, RoomSize.SINGLE, START, START),
+                new BookingInterval(2L, RoomSize.SINGLE, START.minusDays(1), START.minusDays(1))
+        ));
+
+        FlexibleSearchDto result = flexibleSearchServiceImpl.search(START, START.plusDays(2), 1, null, null, 10);
+
+        // Room 1: only +1 is free, room 2: 0 and +1 are free
+        assertEquals(List.of(2L, 1L, 2L), result.options().stream().map(FlexibleSearchDto.Option::roomId).toList());
+        assertEquals(List.of(0, 1, 1), result.options().stream().map(FlexibleSearchDto.Option::shiftDays).toList());
+        assertEquals(START.plusDays(1), result.options().get(1).startDate());
+        assertEquals(START.plusDays(3), result.options().get(1).endDate());
+        verify(bookingRepository, times(1)).streamOverlappingIntervals(START.minusDays(1), START.plusDays(3));
+    }
+
+    @Test
+    public void testSearch_SplitsLargeCatalogsAndKeepsTheBestOptions() throws Exception {
+        // Enough rooms for several fork/join leaves, every odd room is booked on the requested dates
+        List<Long> ids = LongStream.rangeClosed(1, 5000).boxed().toList();
+        when(roomRepository.findIds(RoomSize.SINGLE, true)).thenReturn(ids);
+        when(bookingRepository.streamOverlappingIntervals(any(), any())).thenAnswer(invocation -> ids.stream()
+                .filter(id -> id % 2 == 1)
+                .map(id -> new BookingInterval(id, RoomSize.SINGLE, START, START.plusDays(1))));
+
+        FlexibleSearchDto result = flexibleSearchServiceImpl.search(START, START.plusDays(1), 3, RoomSize.SINGLE, true, 100);
+
+        assertEquals(100, result.options().size());
+        assertTrue(result.options().stream().allMatch(option -> option.shiftDays() == 0));
+        assertEquals(LongStream.rangeClosed(1, 100).map(i -> 2 * i).boxed().toList(),
+                result.options().stream().map(FlexibleSearchDto.Option::roomId).toList());
+    }
+
+    @Test
+    public void testSearch_SkipsStaysStartingBeforeToday() throws Exception {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        when(roomRepository.findIds(null, null)).thenReturn(List.of(1L));
+        when(bookingRepository.streamOverlappingIntervals(any(), any())).thenReturn(Stream.empty());
+
+        FlexibleSearchDto result = flexibleSearchServiceImpl.search(tomorrow, tomorrow.plusDays(1), 2, null, null, 10);
+
+        assertEquals(List.of(0, -1, 1, 2), result.options().stream().map(FlexibleSearchDto.Option::shiftDays).toList());
+    }
+
+    @Test
+    public void testSearch_InvalidFlexibleDays_ThrowsBadRequest() {
+        assertThrows(ResponseStatusException.class,
+                () -> flexibleSearchServiceImpl.search(START, START.plusDays(1), 15, null, null, 10));
+        verifyNoInteractions(bookingRepository);
+    }
+}
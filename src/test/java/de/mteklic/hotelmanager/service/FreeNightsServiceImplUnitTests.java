@@ -0,0 +1,137 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.model.AvailabilityChangedEvent;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.RoomDayStatusRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.impl.FreeNightsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class FreeNightsServiceImplUnitTests {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(10);
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RoomDayStatusRepository roomDayStatusRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Committed booked days of room 1, as read from room_day_status.
+     */
+    private final Set<LocalDate> bookedDays = new TreeSet<>();
+
+    private FreeNightsServiceImpl freeNightsServiceImpl;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        freeNightsServiceImpl = new FreeNightsServiceImpl(roomRepository, bookingRepository, roomDayStatusRepository, transactionManager, 100);
+
+        when(roomRepository.findAllIds()).thenReturn(List.of(1L));
+        when(bookingRepository.streamOverlappingIntervals(any(), any())).thenReturn(Stream.empty());
+        when(roomDayStatusRepository.findBookedDays(eq(1L), any(), any())).thenAnswer(invocation -> {
+            LocalDate startDate = invocation.getArgument(1);
+            LocalDate endDate = invocation.getArgument(2);
+            return bookedDays.stream().filter(day -> !day.isBefore(startDate) && !day.isAfter(endDate)).toList();
+        });
+        freeNightsServiceImpl.rebuild();
+    }
+
+    @Test
+    public void testEventsInReverseCommitOrder_BookedDaysStayBooked() {
+        // A cancellation is committed first, a new booking of the same days second
+        bookedDays.addAll(List.of(DAY, DAY.plusDays(1), DAY.plusDays(2)));
+
+        freeNightsServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY, DAY.plusDays(2), true));
+        freeNightsServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY, DAY.plusDays(2), false));
+
+        assertEquals(List.of(), freeNightsServiceImpl.findRoomIds(1, DAY, DAY.plusDays(2)));
+    }
+
+    @Test
+    public void testEventsInReverseCommitOrder_FreedDaysStayFree() {
+        freeNightsServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY, DAY.plusDays(2), true));
+        assertEquals(List.of(1L), freeNightsServiceImpl.findRoomIds(3, DAY, DAY.plusDays(2)));
+
+        // A booking is committed first, its cancellation second
+        freeNightsServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY, DAY.plusDays(2), false));
+        freeNightsServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY, DAY.plusDays(2), true));
+
+        assertEquals(List.of(1L), freeNightsServiceImpl.findRoomIds(3, DAY, DAY.plusDays(2)));
+    }
+
+    @Test
+    public void testEvent_WritesCommittedStateOfTheWholeRange() {
+        bookedDays.addAll(List.of(DAY.plusDays(1), DAY.plusDays(2), DAY.plusDays(4)));
+
+        freeNightsServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY, DAY.plusDays(5), true));
+
+        // Free nights: DAY, DAY + 3 and DAY + 5
+        assertEquals(List.of(1L), freeNightsServiceImpl.findRoomIds(1, DAY, DAY.plusDays(5)));
+        assertEquals(List.of(), freeNightsServiceImpl.findRoomIds(2, DAY, DAY.plusDays(5)));
+        assertEquals(List.of(), freeNightsServiceImpl.findRoomIds(1, DAY.plusDays(1), DAY.plusDays(2)));
+    }
+
+    @Test
+    public void testEventOutsideOfTheIndex_IsNotRead() {
+        freeNightsServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY.plusDays(200), DAY.plusDays(201), true));
+        freeNightsServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY.minusDays(30), DAY.minusDays(20), false));
+
+        verify(roomDayStatusRepository, never()).findBookedDays(any(), any(), any());
+    }
+
+    @Test
+    public void testEventDuringRebuild_IsReplayedIntoTheNewIndex() {
+        when(bookingRepository.streamOverlappingIntervals(any(), any())).thenAnswer(invocation -> {
+            // A booking is committed after the rebuild has read its snapshot
+            bookedDays.add(DAY);
+            freeNightsServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 1L, DAY, DAY, true));
+            return Stream.empty();
+        });
+
+        freeNightsServiceImpl.rebuild();
+
+        assertEquals(List.of(), freeNightsServiceImpl.findRoomIds(1, DAY, DAY));
+        assertEquals(List.of(1L), freeNightsServiceImpl.findRoomIds(1, DAY.plusDays(1), DAY.plusDays(1)));
+    }
+
+    @Test
+    public void testRoomDeletedDuringRebuild_IsRemovedFromTheNewIndex() {
+        when(roomRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        when(roomRepository.existsById(2L)).thenReturn(false);
+        when(bookingRepository.streamOverlappingIntervals(any(), any())).thenAnswer(invocation -> {
+            // Room 2 is deleted after the rebuild has read the rooms, a booking of it was cancelled with it
+            freeNightsServiceImpl.handleAvailabilityChangedEvent(new AvailabilityChangedEvent(this, 2L, DAY, DAY, false));
+            freeNightsServiceImpl.handleRoomChangedEvent(new RoomChangedEvent(this, 2L));
+            return Stream.empty();
+        });
+
+        freeNightsServiceImpl.rebuild();
+
+        assertEquals(List.of(1L), freeNightsServiceImpl.findRoomIds(1, DAY, DAY));
+    }
+}
@@ -0,0 +1,116 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.exception.GroupBookedOutException;
+import de.mteklic.hotelmanager.exception.StartAndOrEndDateBeforeNowException;
+import de.mteklic.hotelmanager.model.FreeRoom;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.GroupBookingDto;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.RoomDayStatusRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.impl.GroupBookingServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class GroupBookingServiceImplUnitTests {
+
+    private static final LocalDate START_DATE = LocalDate.now().plusDays(60);
+
+    private static final LocalDate END_DATE = START_DATE.plusDays(3);
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RoomDayStatusRepository roomDayStatusRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private GroupBookingServiceImpl groupBookingServiceImpl;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        groupBookingServiceImpl = new GroupBookingServiceImpl(roomRepository, bookingRepository, roomDayStatusRepository, eventPublisher, 500);
+    }
+
+    @Test
+    public void testCreateGroupBooking_BestFit() throws Exception {
+        when(roomRepository.findFreeRooms(eq(RoomSize.DOUBLE), isNull(), eq(START_DATE), eq(END_DATE), anyInt())).thenReturn(List.of(
+                // Free calendar around the range
+                new FreeRoom(1L, null, null),
+                // Fills a gap exactly
+                new FreeRoom(2L, START_DATE.minusDays(1), END_DATE.plusDays(1)),
+                // Leaves two free days before and one after
+                new FreeRoom(3L, START_DATE.minusDays(3), END_DATE.plusDays(2)),
+                // Leaves one free day after
+                new FreeRoom(4L, START_DATE.minusDays(1), END_DATE.plusDays(2))));
+        when(roomDayStatusRepository.markBookedAll(List.of(2L, 4L, 3L), START_DATE, END_DATE)).thenReturn(12);
+        when(bookingRepository.insertAll(List.of(2L, 4L, 3L), START_DATE, END_DATE)).thenReturn(Map.of(2L, 20L, 4L, 40L, 3L, 30L));
+
+        GroupBookingDto groupBookingDto = groupBookingServiceImpl.createGroupBooking(request(3));
+
+        assertEquals(List.of(new GroupBookingDto.Entry(2L, 20L), new GroupBookingDto.Entry(4L, 40L), new GroupBookingDto.Entry(3L, 30L)), groupBookingDto.bookings());
+        verify(eventPublisher, times(3)).publishEvent(any(RoomChangedEvent.class));
+    }
+
+    @Test
+    public void testCreateGroupBooking_NotEnoughRooms() {
+        when(roomRepository.findFreeRooms(any(), any(), any(), any(), anyInt())).thenReturn(List.of(new FreeRoom(1L, null, null)));
+
+        GroupBookedOutException exception = assertThrows(GroupBookedOutException.class, () -> groupBookingServiceImpl.createGroupBooking(request(2)));
+
+        assertTrue(exception.getMessage().startsWith("Only 1 of 2"));
+        verifyNoInteractions(roomDayStatusRepository, bookingRepository);
+    }
+
+    @Test
+    public void testCreateGroupBooking_BookedConcurrently() {
+        when(roomRepository.findFreeRooms(any(), any(), any(), any(), anyInt())).thenReturn(List.of(new FreeRoom(1L, null, null), new FreeRoom(2L, null, null)));
+        // One day of one room has been booked in the meantime
+        when(roomDayStatusRepository.markBookedAll(anyList(), any(), any())).thenReturn(7);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> groupBookingServiceImpl.createGroupBooking(request(2)));
+
+        assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        verifyNoInteractions(bookingRepository, eventPublisher);
+    }
+
+    @Test
+    public void testCreateGroupBooking_InvalidRequest() {
+        assertThrows(ResponseStatusException.class, () -> groupBookingServiceImpl.createGroupBooking(request(0)));
+        assertThrows(ResponseStatusException.class, () -> groupBookingServiceImpl.createGroupBooking(request(501)));
+        assertThrows(StartAndOrEndDateBeforeNowException.class, () -> groupBookingServiceImpl.createGroupBooking(GroupBookingDto.builder()
+                .rooms(1)
+                .startDate(LocalDate.now().minusDays(1))
+                .endDate(END_DATE)
+                .build()));
+    }
+
+    private static GroupBookingDto request(int rooms) {
+        return GroupBookingDto.builder()
+                .rooms(rooms)
+                .roomSize(RoomSize.DOUBLE)
+                .startDate(START_DATE)
+                .endDate(END_DATE)
+                .build();
+    }
+}
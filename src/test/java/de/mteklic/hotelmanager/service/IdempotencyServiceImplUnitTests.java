@@ -0,0 +1,144 @@
+package de.mteklic.hotelmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.mteklic.hotelmanager.exception.IdempotencyKeyReusedException;
+import de.mteklic.hotelmanager.exception.RoomBookedOutException;
+import de.mteklic.hotelmanager.model.IdempotencyKey;
+import de.mteklic.hotelmanager.model.dto.BookingDto;
+import de.mteklic.hotelmanager.repository.IdempotencyKeyRepository;
+import de.mteklic.hotelmanager.service.impl.IdempotencyServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyServiceImplUnitTests {
+
+    private static final String KEY = "3f1c2a9e-retry";
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private IdempotencyServiceImpl idempotencyServiceImpl;
+
+    private final BookingDto request = BookingDto.builder().startDate(LocalDate.now().plusDays(1)).endDate(LocalDate.now().plusDays(3)).build();
+
+    private final BookingDto created = BookingDto.builder().id(7L).startDate(request.startDate()).endDate(request.endDate()).build();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        idempotencyServiceImpl = new IdempotencyServiceImpl(idempotencyKeyRepository, bookingService, objectMapper, transactionManager, Duration.ofHours(24), 100);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    public void testCreateBooking_FirstRequest() throws Exception {
+        when(idempotencyKeyRepository.insertKey(eq(KEY), anyString(), any(), any())).thenReturn(1);
+        when(bookingService.createBooking(1L, request)).thenReturn(created);
+
+        BookingDto bookingDto = idempotencyServiceImpl.createBooking(KEY, 1L, request);
+
+        assertEquals(created, bookingDto);
+        verify(idempotencyKeyRepository, times(1)).storeResponse(eq(KEY), anyString());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    public void testCreateBooking_RetryServedFromCache() throws Exception {
+        when(idempotencyKeyRepository.insertKey(eq(KEY), anyString(), any(), any())).thenReturn(1);
+        when(bookingService.createBooking(1L, request)).thenReturn(created);
+        idempotencyServiceImpl.createBooking(KEY, 1L, request);
+
+        BookingDto replayed = idempotencyServiceImpl.createBooking(KEY, 1L, request);
+
+        assertEquals(created, replayed);
+        verify(bookingService, times(1)).createBooking(any(), any());
+        verify(idempotencyKeyRepository, times(1)).insertKey(any(), any(), any(), any());
+    }
+
+    @Test
+    public void testCreateBooking_RetryServedFromDatabase() throws Exception {
+        // First request has been handled by another instance
+        when(idempotencyKeyRepository.insertKey(eq(KEY), anyString(), any(), any())).thenReturn(0);
+        String fingerprint = captureFingerprint();
+        when(idempotencyKeyRepository.findById(KEY)).thenReturn(Optional.of(IdempotencyKey.builder()
+                .key(KEY)
+                .fingerprint(fingerprint)
+                .responseBody(objectMapper.writeValueAsString(created))
+                .createdAt(LocalDateTime.now())
+                .build()));
+
+        BookingDto replayed = idempotencyServiceImpl.createBooking(KEY, 1L, request);
+
+        assertEquals(created, replayed);
+        verify(bookingService, never()).createBooking(any(), any());
+    }
+
+    @Test
+    public void testCreateBooking_KeyReusedForOtherRequest() throws Exception {
+        when(idempotencyKeyRepository.insertKey(eq(KEY), anyString(), any(), any())).thenReturn(1);
+        when(bookingService.createBooking(1L, request)).thenReturn(created);
+        idempotencyServiceImpl.createBooking(KEY, 1L, request);
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyServiceImpl.createBooking(KEY, 2L, request));
+        verify(bookingService, times(1)).createBooking(any(), any());
+    }
+
+    @Test
+    public void testCreateBooking_FailureIsNotStored() throws Exception {
+        when(idempotencyKeyRepository.insertKey(eq(KEY), anyString(), any(), any())).thenReturn(1);
+        when(bookingService.createBooking(1L, request)).thenThrow(new RoomBookedOutException(1L, request.startDate(), request.endDate()));
+
+        assertThrows(RoomBookedOutException.class, () -> idempotencyServiceImpl.createBooking(KEY, 1L, request));
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(idempotencyKeyRepository, never()).storeResponse(any(), any());
+    }
+
+    @Test
+    public void testCreateBooking_InvalidKey() {
+        assertThrows(ResponseStatusException.class, () -> idempotencyServiceImpl.createBooking(" ", 1L, request));
+        assertThrows(ResponseStatusException.class, () -> idempotencyServiceImpl.createBooking("k".repeat(256), 1L, request));
+    }
+
+    /**
+     * Lets a first request with the key run, to capture the fingerprint the service computes for the request.
+     */
+    private String captureFingerprint() throws Exception {
+        IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+        when(repository.insertKey(any(), anyString(), any(), any())).thenReturn(1);
+        when(bookingService.createBooking(1L, request)).thenReturn(created);
+        new IdempotencyServiceImpl(repository, bookingService, objectMapper, transactionManager, Duration.ofHours(24), 100)
+                .createBooking("other", 1L, request);
+        reset(bookingService);
+
+        ArgumentCaptor<String> fingerprint = ArgumentCaptor.forClass(String.class);
+        verify(repository).insertKey(any(), fingerprint.capture(), any(), any());
+        return fingerprint.getValue();
+    }
+}
@@ -0,0 +1,162 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.BookingDto;
+import de.mteklic.hotelmanager.model.dto.RoomDto;
+import de.mteklic.hotelmanager.service.impl.ReactiveRoomServiceImpl;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ReactiveRoomServiceImplUnitTests {
+
+    private static final LocalDate START = LocalDate.of(2030, 5, 1);
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private DatabaseClient.GenericExecuteSpec spec;
+
+    private final Map<String, Object> bindings = new LinkedHashMap<>();
+
+    private List<Map<String, Object>> rows = List.of();
+
+    private ReactiveRoomServiceImpl reactiveRoomServiceImpl;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reactiveRoomServiceImpl = new ReactiveRoomServiceImpl(databaseClient);
+
+        when(databaseClient.sql(anyString())).thenReturn(spec);
+        when(spec.bind(anyString(), any())).thenAnswer(invocation -> {
+            bindings.put(invocation.getArgument(0), invocation.getArgument(1));
+            return spec;
+        });
+        when(spec.filter(any(Function.class))).thenReturn(spec);
+        // Feeds the rows of the test through the mapping function of the service
+        when(spec.map(any(Function.class))).thenAnswer(invocation -> {
+            Function<Readable, Object> mapper = invocation.getArgument(0);
+            RowsFetchSpec<Object> fetchSpec = mock(RowsFetchSpec.class);
+            when(fetchSpec.all()).thenAnswer(all -> Flux.fromIterable(rows).map(row -> mapper.apply(new MapReadable(row))));
+            return fetchSpec;
+        });
+    }
+
+    @Test
+    public void testGetAllRooms_FoldsRowsOfOneRoomIntoOneRoomDto() {
+        rows = List.of(
+                row(1L, "Berlin", null, null, null),
+                row(2L, "Hamburg", 10L, START, START.plusDays(1)),
+                row(2L, "Hamburg", 11L, START.plusDays(5), START.plusDays(6)),
+                row(2L, "Hamburg", 12L, START.plusDays(9), START.plusDays(9)),
+                row(3L, "Munich", 13L, START, START)
+        );
+
+        List<RoomDto> rooms = reactiveRoomServiceImpl.getAllRooms().collectList().block();
+
+        assertNotNull(rooms);
+        assertEquals(List.of(1L, 2L, 3L), rooms.stream().map(RoomDto::id).toList());
+        // A room without bookings has one row with null booking columns and no bookings
+        assertEquals(List.of(), rooms.get(0).bookings());
+        assertEquals(List.of(10L, 11L, 12L), rooms.get(1).bookings().stream().map(BookingDto::id).toList());
+        assertEquals(START.plusDays(5), rooms.get(1).bookings().get(1).startDate());
+        assertEquals(START.plusDays(6), rooms.get(1).bookings().get(1).endDate());
+        assertEquals(List.of(13L), rooms.get(2).bookings().stream().map(BookingDto::id).toList());
+        assertEquals("Hamburg", rooms.get(1).name());
+        assertEquals(RoomSize.DOUBLE, rooms.get(1).roomSize());
+    }
+
+    @Test
+    public void testGetAllRooms_OrdersRowsByRoomSoThatRowsOfOneRoomAreAdjacent() {
+        reactiveRoomServiceImpl.getAllRooms().collectList().block();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(databaseClient).sql(sql.capture());
+        assertTrue(sql.getValue().endsWith("ORDER BY r.id, b.id"));
+    }
+
+    @Test
+    public void testGetRoom_NotFound_ThrowsNotFound() {
+        rows = List.of();
+
+        assertThrows(ResponseStatusException.class, () -> reactiveRoomServiceImpl.getRoom(42L).block());
+        assertEquals(42L, bindings.get("id"));
+    }
+
+    @Test
+    public void testGetFilteredRooms_BindsOnlyGivenFilters() {
+        reactiveRoomServiceImpl.getFilteredRooms(List.of(1L, 2L), "Ber", " ", START, START.plusDays(2), true, RoomSize.SUITE)
+                .collectList().block();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(databaseClient).sql(sql.capture());
+        assertTrue(sql.getValue().contains("r.id = ANY(:ids)"));
+        assertTrue(sql.getValue().contains("r.name LIKE :name"));
+        assertFalse(sql.getValue().contains(":description"));
+        assertTrue(sql.getValue().contains("NOT EXISTS"));
+        assertArrayEquals(new Long[]{1L, 2L}, (Long[]) bindings.get("ids"));
+        assertEquals("%Ber%", bindings.get("name"));
+        assertEquals(true, bindings.get("hasMinibar"));
+        assertEquals("SUITE", bindings.get("roomSize"));
+        assertEquals(START, bindings.get("startDate"));
+        assertEquals(START.plusDays(2), bindings.get("endDate"));
+    }
+
+    @Test
+    public void testGetFilteredRooms_OnlyStartDate_DoesNotFilterAvailability() {
+        reactiveRoomServiceImpl.getFilteredRooms(null, null, null, START, null, null, null).collectList().block();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(databaseClient).sql(sql.capture());
+        assertFalse(sql.getValue().contains("WHERE"));
+        assertTrue(bindings.isEmpty());
+    }
+
+    private static Map<String, Object> row(Long id, String name, Long bookingId, LocalDate startDate, LocalDate endDate) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        row.put("description", "Description of " + name);
+        row.put("has_minibar", true);
+        row.put("room_size", RoomSize.DOUBLE.name());
+        row.put("booking_id", bookingId);
+        row.put("start_date", startDate);
+        row.put("end_date", endDate);
+        return row;
+    }
+
+    /**
+     * Row of the left join, backed by a map of column names to values.
+     */
+    private record MapReadable(Map<String, Object> values) implements Readable {
+
+        @Override
+        public <T> T get(int index, Class<T> type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T get(String name, Class<T> type) {
+            return type.cast(this.values.get(name));
+        }
+    }
+}
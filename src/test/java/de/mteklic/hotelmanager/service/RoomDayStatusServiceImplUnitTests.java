@@ -0,0 +1,100 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.exception.RoomBookedOutException;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.RoomDayStatusRepository;
+import de.mteklic.hotelmanager.service.impl.RoomDayStatusServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RoomDayStatusServiceImplUnitTests {
+
+    private static final LocalDate START = LocalDate.of(2030, 5, 1);
+
+    @Mock
+    private RoomDayStatusRepository roomDayStatusRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RoomDayStatusServiceImpl roomDayStatusServiceImpl;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        roomDayStatusServiceImpl = new RoomDayStatusServiceImpl(roomDayStatusRepository, bookingRepository, transactionManager);
+    }
+
+    @Test
+    public void testBook_AllDaysMarked_Passes() {
+        when(roomDayStatusRepository.markBooked(1L, START, START.plusDays(2))).thenReturn(3);
+
+        assertDoesNotThrow(() -> roomDayStatusServiceImpl.book(1L, START, START.plusDays(2)));
+        verify(roomDayStatusRepository, times(1)).markBooked(1L, START, START.plusDays(2));
+    }
+
+    @Test
+    public void testBook_SingleDay_Passes() {
+        when(roomDayStatusRepository.markBooked(1L, START, START)).thenReturn(1);
+
+        assertDoesNotThrow(() -> roomDayStatusServiceImpl.book(1L, START, START));
+    }
+
+    @Test
+    public void testBook_FewerDaysMarked_ThrowsRoomBookedOut() {
+        // One of the three days has been booked concurrently
+        when(roomDayStatusRepository.markBooked(1L, START, START.plusDays(2))).thenReturn(2);
+
+        assertThrows(RoomBookedOutException.class, () -> roomDayStatusServiceImpl.book(1L, START, START.plusDays(2)));
+    }
+
+    @Test
+    public void testBook_NoDayMarked_ThrowsRoomBookedOut() {
+        when(roomDayStatusRepository.markBooked(1L, START, START.plusDays(2))).thenReturn(0);
+
+        assertThrows(RoomBookedOutException.class, () -> roomDayStatusServiceImpl.book(1L, START, START.plusDays(2)));
+    }
+
+    @Test
+    public void testRepair_LocksDeletesAndRebuildsEveryChunkInOrder() {
+        LocalDate today = LocalDate.now();
+        LocalDate lastBookedDay = today.plusDays(40);
+        when(bookingRepository.findLastBookedDay()).thenReturn(Optional.of(lastBookedDay));
+        when(roomDayStatusRepository.rebuildRange(any(), any())).thenReturn(5);
+
+        roomDayStatusServiceImpl.repair();
+
+        // Chunks of 31 days from today up to the last booked day
+        InOrder inOrder = inOrder(roomDayStatusRepository);
+        inOrder.verify(roomDayStatusRepository).lockForRebuild();
+        inOrder.verify(roomDayStatusRepository).deleteRange(today, today.plusDays(30));
+        inOrder.verify(roomDayStatusRepository).rebuildRange(today, today.plusDays(30));
+        inOrder.verify(roomDayStatusRepository).lockForRebuild();
+        inOrder.verify(roomDayStatusRepository).deleteRange(today.plusDays(31), lastBookedDay);
+        inOrder.verify(roomDayStatusRepository).rebuildRange(today.plusDays(31), lastBookedDay);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void testRepair_NoFutureBookings_DoesNothing() {
+        when(bookingRepository.findLastBookedDay()).thenReturn(Optional.of(LocalDate.now().minusDays(1)));
+
+        roomDayStatusServiceImpl.repair();
+
+        verifyNoInteractions(roomDayStatusRepository);
+    }
+}
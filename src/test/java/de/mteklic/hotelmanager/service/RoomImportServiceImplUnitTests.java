@@ -0,0 +1,131 @@
+package de.mteklic.hotelmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.RoomImportDto;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.impl.RoomImportServiceImpl;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class RoomImportServiceImplUnitTests {
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SyncService syncService;
+
+    private RoomImportServiceImpl roomImportServiceImpl;
+
+    private final List<Room> copied = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        roomImportServiceImpl = new RoomImportServiceImpl(roomRepository, Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), eventPublisher, syncService);
+        when(roomRepository.findMaxId()).thenReturn(41L);
+        when(roomRepository.copyAll(any())).thenAnswer(invocation -> {
+            Iterator<Room> rooms = invocation.getArgument(0);
+            rooms.forEachRemaining(copied::add);
+            return (long) copied.size();
+        });
+    }
+
+    @Test
+    public void testImportRooms_Csv() throws Exception {
+        String csv = """
+                name,description,roomSize,hasMinibar
+                Berlin,"Nice, quiet \"\"view\"\"",DOUBLE,true
+                Rom,Too short,SINGLE,false
+
+                Paris,,HUGE,true
+                Vienna,,SUITE,maybe
+                Madrid,,SUITE,false
+                """;
+
+        RoomImportDto report = roomImportServiceImpl.importRooms(stream(csv), RoomImportService.TEXT_CSV);
+
+        assertEquals(2, report.imported());
+        assertEquals(3, report.rejected());
+        assertEquals(List.of("Berlin", "Madrid"), copied.stream().map(Room::getName).toList());
+        assertEquals("Nice, quiet \"view\"", copied.get(0).getDescription());
+        assertNull(copied.get(1).getDescription());
+        assertEquals(RoomSize.SUITE, copied.get(1).getRoomSize());
+
+        assertEquals(List.of(3L, 5L, 6L), report.errors().stream().map(RoomImportDto.Error::line).toList());
+        assertEquals(List.of("name", "roomSize", "hasMinibar"), report.errors().stream().map(RoomImportDto.Error::fieldName).toList());
+        assertEquals("Rom", report.errors().get(0).invalidValue());
+        verify(syncService).recordCreatedRooms(41L);
+        verify(eventPublisher).publishEvent(any(RoomChangedEvent.class));
+    }
+
+    @Test
+    public void testImportRooms_Ndjson() throws Exception {
+        String ndjson = """
+                {"name":"Berlin","roomSize":"DOUBLE","hasMinibar":true}
+                {"name":"Hamburg","roomSize":"TINY","hasMinibar":true}
+                {"name":"Munich","roomSize":"SUITE"}
+                {"name":
+                """;
+
+        RoomImportDto report = roomImportServiceImpl.importRooms(stream(ndjson), MediaType.APPLICATION_NDJSON);
+
+        assertEquals(1, report.imported());
+        assertEquals(3, report.rejected());
+        assertEquals(List.of(2L, 3L, 4L), report.errors().stream().map(RoomImportDto.Error::line).toList());
+        assertEquals("roomSize", report.errors().get(0).fieldName());
+        assertEquals("TINY", report.errors().get(0).invalidValue());
+        assertEquals("hasMinibar", report.errors().get(1).fieldName());
+    }
+
+    @Test
+    public void testImportRooms_NothingValid() throws Exception {
+        RoomImportDto report = roomImportServiceImpl.importRooms(stream("name,roomSize,hasMinibar\nX,SINGLE,true\n"), RoomImportService.TEXT_CSV);
+
+        assertEquals(0, report.imported());
+        assertEquals(1, report.rejected());
+        verify(syncService, never()).recordCreatedRooms(anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testImportRooms_InvalidInput() {
+        ResponseStatusException missingColumn = assertThrows(ResponseStatusException.class,
+                () -> roomImportServiceImpl.importRooms(stream("name,description\nBerlin,x\n"), RoomImportService.TEXT_CSV));
+        assertEquals(HttpStatus.BAD_REQUEST, missingColumn.getStatusCode());
+
+        ResponseStatusException mediaType = assertThrows(ResponseStatusException.class,
+                () -> roomImportServiceImpl.importRooms(stream("{}"), MediaType.APPLICATION_XML));
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, mediaType.getStatusCode());
+        verify(roomRepository, never()).copyAll(any());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,6 +2,7 @@ package de.mteklic.hotelmanager.service;
 
 import de.mteklic.hotelmanager.model.Booking;
 import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
 import de.mteklic.hotelmanager.model.RoomSize;
 import de.mteklic.hotelmanager.model.dto.RoomDto;
 import de.mteklic.hotelmanager.repository.RoomRepository;
@@ -13,9 +14,11 @@ import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -37,12 +40,21 @@ public class RoomServiceImplUnitTests {
     @Mock
     private HousekeepingService housekeepingService;
 
-    @InjectMocks
+    @Mock
+    private RoomDayStatusService roomDayStatusService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FreeNightsService freeNightsService;
+
     private RoomServiceImpl roomServiceImpl;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        roomServiceImpl = new RoomServiceImpl(roomRepository, housekeepingService, bookingServiceImpl, roomDayStatusService, eventPublisher, freeNightsService, Duration.ZERO);
     }
 
     @Test
@@ -95,7 +107,9 @@ public class RoomServiceImplUnitTests {
 
         roomServiceImpl.deleteRoom(1L);
 
+        verify(roomDayStatusService, times(1)).releaseRoom(1L);
         verify(roomRepository, times(1)).deleteById(1L);
+        verify(eventPublisher, times(1)).publishEvent(any(RoomChangedEvent.class));
     }
 
     @Test
@@ -147,8 +161,9 @@ public class RoomServiceImplUnitTests {
         LocalDate endDate = LocalDate.now().plusDays(7);
         roomServiceImpl.getFilteredRooms(null, "RoomOne", null, startDate, endDate, null, null);
 
+        // Availability is part of the room specification (anti-join on room_day_status), bookings are not loaded anymore
         verify(roomRepository, times(1)).findAll(any(Specification.class));
-        verify(bookingServiceImpl, times(1)).getUnavailableBookings(any(), any(), any());
+        verify(bookingServiceImpl, never()).getUnavailableBookings(any(), any(), any());
     }
 }
 
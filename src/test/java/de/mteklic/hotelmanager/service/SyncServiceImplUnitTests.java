@@ -0,0 +1,144 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.model.ChangeLogEntry;
+import de.mteklic.hotelmanager.model.Room;
+import de.mteklic.hotelmanager.model.RoomChangedEvent;
+import de.mteklic.hotelmanager.model.RoomSize;
+import de.mteklic.hotelmanager.model.dto.SyncDto;
+import de.mteklic.hotelmanager.repository.BookingRepository;
+import de.mteklic.hotelmanager.repository.ChangeLogRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.service.impl.SyncServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class SyncServiceImplUnitTests {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 5, 14);
+
+    @Mock
+    private ChangeLogRepository changeLogRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SyncServiceImpl syncServiceImpl;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        syncServiceImpl = new SyncServiceImpl(changeLogRepository, roomRepository, bookingRepository, transactionManager, 3, 2, Duration.ofDays(30));
+    }
+
+    @Test
+    public void testChangesAreSplitIntoUpdatesAndTombstones() {
+        when(changeLogRepository.findAllBySeqGreaterThanOrderBySeq(0, Limit.of(3))).thenReturn(List.of(
+                change(ChangeLogEntry.EntityType.ROOM, 1L, 4L, false),
+                change(ChangeLogEntry.EntityType.BOOKING, 7L, 5L, false),
+                change(ChangeLogEntry.EntityType.BOOKING, 8L, 6L, true)));
+        when(roomRepository.findAllById(List.of(1L))).thenReturn(List.of(Room.builder().id(1L).name("Berlin").roomSize(RoomSize.DOUBLE).hasMinibar(true).build()));
+        when(bookingRepository.findSyncEntries(List.of(7L))).thenReturn(List.of(new SyncDto.BookingEntry(7L, 1L, DAY, DAY)));
+
+        SyncDto syncDto = syncServiceImpl.getChanges(null, null);
+
+        assertEquals(1L, syncDto.rooms().get(0).id());
+        assertNull(syncDto.rooms().get(0).bookings());
+        assertEquals(List.of(new SyncDto.BookingEntry(7L, 1L, DAY, DAY)), syncDto.bookings());
+        assertEquals(List.of(), syncDto.deletedRoomIds());
+        assertEquals(List.of(8L), syncDto.deletedBookingIds());
+        assertTrue(syncDto.more());
+
+        // The returned token continues after the last change
+        when(changeLogRepository.findAllBySeqGreaterThanOrderBySeq(6, Limit.of(2))).thenReturn(List.of());
+        SyncDto nextSyncDto = syncServiceImpl.getChanges(syncDto.token(), 2);
+
+        assertFalse(nextSyncDto.more());
+        assertEquals(syncDto.token(), nextSyncDto.token());
+    }
+
+    @Test
+    public void testExpiredAndInvalidTokens() {
+        when(changeLogRepository.findAllBySeqGreaterThanOrderBySeq(eq(0L), eq(Limit.of(3)))).thenReturn(List.of(change(ChangeLogEntry.EntityType.BOOKING, 1L, 5L, true)));
+        when(changeLogRepository.findAllBySeqGreaterThanOrderBySeq(anyLong(), eq(Limit.of(1)))).thenReturn(List.of());
+        String token = syncServiceImpl.getChanges(null, null).token();
+        when(changeLogRepository.findPurgedSeq()).thenReturn(6L);
+
+        ResponseStatusException expired = assertThrows(ResponseStatusException.class, () -> syncServiceImpl.getChanges(token, 1));
+        assertEquals(HttpStatus.GONE, expired.getStatusCode());
+
+        ResponseStatusException invalid = assertThrows(ResponseStatusException.class, () -> syncServiceImpl.getChanges("not a token", 1));
+        assertEquals(HttpStatus.BAD_REQUEST, invalid.getStatusCode());
+
+        // A first sync does not need the purged tombstones
+        assertNotNull(syncServiceImpl.getChanges(null, 1).token());
+    }
+
+    @Test
+    public void testRecordCreatedBookings_InBatchesOfIds() {
+        when(bookingRepository.findMaxId()).thenReturn(15L);
+        when(changeLogRepository.recordBookingRange(anyLong(), anyLong())).thenAnswer(invocation ->
+                (int) ((long) invocation.getArgument(1) - (long) invocation.getArgument(0) + 1));
+
+        assertEquals(5, syncServiceImpl.recordCreatedBookings(10L));
+
+        // Every batch takes the sequence lock in a transaction of its own
+        InOrder inOrder = inOrder(changeLogRepository, transactionManager);
+        inOrder.verify(changeLogRepository).lockSequence(ChangeLogRepository.SEQUENCE_LOCK);
+        inOrder.verify(changeLogRepository).recordBookingRange(11L, 12L);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(changeLogRepository).lockSequence(ChangeLogRepository.SEQUENCE_LOCK);
+        inOrder.verify(changeLogRepository).recordBookingRange(13L, 14L);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(changeLogRepository).lockSequence(ChangeLogRepository.SEQUENCE_LOCK);
+        inOrder.verify(changeLogRepository).recordBookingRange(15L, 15L);
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    public void testRecordCreatedRooms_NothingCreated() {
+        when(roomRepository.findMaxId()).thenReturn(7L);
+
+        assertEquals(0, syncServiceImpl.recordCreatedRooms(7L));
+        verifyNoInteractions(changeLogRepository);
+    }
+
+    @Test
+    public void testRoomChangedEventWithoutRoom_DoesNotScanTheTables() {
+        syncServiceImpl.handleRoomChangedEvent(new RoomChangedEvent(this, null));
+
+        verifyNoInteractions(changeLogRepository, transactionManager);
+    }
+
+    private static ChangeLogEntry change(ChangeLogEntry.EntityType entityType, Long entityId, Long seq, boolean deleted) {
+        return ChangeLogEntry.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .roomId(1L)
+                .seq(seq)
+                .deleted(deleted)
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package de.mteklic.hotelmanager.service;
+
+import de.mteklic.hotelmanager.exception.RoomBookedOutException;
+import de.mteklic.hotelmanager.model.*;
+import de.mteklic.hotelmanager.model.dto.BookingDto;
+import de.mteklic.hotelmanager.model.dto.WaitlistEntryDto;
+import de.mteklic.hotelmanager.repository.RoomDayStatusRepository;
+import de.mteklic.hotelmanager.repository.RoomRepository;
+import de.mteklic.hotelmanager.repository.WaitlistEntryRepository;
+import de.mteklic.hotelmanager.service.impl.WaitlistServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class WaitlistServiceImplUnitTests {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(100);
+
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private RoomDayStatusRepository roomDayStatusRepository;
+
+    @Mock
+    private BookingService bookingService;
+
+    private WaitlistServiceImpl waitlistServiceImpl;
+
+    private final Map<Long, WaitlistEntry> entries = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Matching runs in the calling thread
+        waitlistServiceImpl = new WaitlistServiceImpl(waitlistEntryRepository, roomRepository, roomDayStatusRepository, bookingService, Runnable::run);
+
+        when(waitlistEntryRepository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> {
+            WaitlistEntry entry = invocation.getArgument(0);
+            if (entry.getId() == null) {
+                entry.setId(entries.size() + 1L);
+            }
+            entries.put(entry.getId(), entry);
+            return entry;
+        });
+        when(waitlistEntryRepository.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(copy(entries.get(invocation.<Long>getArgument(0)))));
+        // Conditional updates of the database, on the stored entries
+        when(waitlistEntryRepository.claim(anyLong(), any(), anyLong())).thenAnswer(invocation -> {
+            WaitlistEntry entry = entries.get(invocation.<Long>getArgument(0));
+            if (entry == null || entry.getStatus() != WaitlistStatus.WAITING) {
+                return 0;
+            }
+            entry.setStatus(invocation.getArgument(1));
+            entry.setRoomId(invocation.getArgument(2));
+            return 1;
+        });
+        when(waitlistEntryRepository.unclaim(anyLong())).thenAnswer(invocation -> {
+            WaitlistEntry entry = entries.get(invocation.<Long>getArgument(0));
+            entry.setStatus(WaitlistStatus.WAITING);
+            entry.setRoomId(null);
+            return 1;
+        });
+        when(waitlistEntryRepository.setBookingId(anyLong(), anyLong())).thenAnswer(invocation -> {
+            entries.get(invocation.<Long>getArgument(0)).setBookingId(invocation.getArgument(1));
+            return 1;
+        });
+        when(roomRepository.findById(1L)).thenReturn(Optional.of(Room.builder().id(1L).roomSize(RoomSize.DOUBLE).build()));
+    }
+
+    @Test
+    public void testReleasedDaysAreBookedAndOffered() throws Exception {
+        Long booked = createEntry(DAY, DAY.plusDays(2), true);
+        Long overlapping = createEntry(DAY.plusDays(1), DAY.plusDays(4), false);
+        Long offered = createEntry(DAY.plusDays(3), DAY.plusDays(4), false);
+        Long tooLong = createEntry(DAY, DAY.plusDays(9), false);
+        // The room is booked again from DAY + 5
+        when(roomDayStatusRepository.findBookedDays(eq(1L), any(), any())).thenReturn(List.of(DAY.minusDays(1), DAY.plusDays(5), DAY.plusDays(6)));
+        when(bookingService.createBooking(1L, new BookingDto(null, DAY, DAY.plusDays(2)))).thenReturn(new BookingDto(7L, DAY, DAY.plusDays(2)));
+
+        waitlistServiceImpl.handleBookingReleasedEvent(new BookingReleasedEvent(this, 1L, DAY, DAY.plusDays(6)));
+
+        assertEquals(WaitlistStatus.BOOKED, entries.get(booked).getStatus());
+        assertEquals(7L, entries.get(booked).getBookingId());
+        assertEquals(WaitlistStatus.WAITING, entries.get(overlapping).getStatus());
+        assertEquals(WaitlistStatus.OFFERED, entries.get(offered).getStatus());
+        assertEquals(1L, entries.get(offered).getRoomId());
+        assertEquals(WaitlistStatus.WAITING, entries.get(tooLong).getStatus());
+    }
+
+    @Test
+    public void testEntryStaysWaitingIfBookedConcurrently() throws Exception {
+        Long waiting = createEntry(DAY, DAY.plusDays(1), true);
+        when(roomDayStatusRepository.findBookedDays(eq(1L), any(), any())).thenReturn(List.of());
+        when(bookingService.createBooking(anyLong(), any())).thenThrow(new RoomBookedOutException(1L, DAY, DAY.plusDays(1)));
+
+        waitlistServiceImpl.handleBookingReleasedEvent(new BookingReleasedEvent(this, 1L, DAY, DAY.plusDays(1)));
+
+        assertEquals(WaitlistStatus.WAITING, entries.get(waiting).getStatus());
+        assertNull(entries.get(waiting).getRoomId());
+    }
+
+    @Test
+    public void testOtherRoomSizeIsNotMatched() throws Exception {
+        Long waiting = createEntry(DAY, DAY.plusDays(1), false);
+        when(roomRepository.findById(2L)).thenReturn(Optional.of(Room.builder().id(2L).roomSize(RoomSize.SUITE).build()));
+        when(roomDayStatusRepository.findBookedDays(eq(2L), any(), any())).thenReturn(List.of());
+
+        waitlistServiceImpl.handleBookingReleasedEvent(new BookingReleasedEvent(this, 2L, DAY, DAY.plusDays(1)));
+
+        assertEquals(WaitlistStatus.WAITING, entries.get(waiting).getStatus());
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    public void testEntryClaimedConcurrentlyIsNotBookedAgain() throws Exception {
+        Long claimed = createEntry(DAY, DAY.plusDays(1), true);
+        when(roomDayStatusRepository.findBookedDays(eq(1L), any(), any())).thenReturn(List.of());
+        // Another release has claimed the entry after it has been loaded
+        when(waitlistEntryRepository.claim(eq(claimed), any(), anyLong())).thenReturn(0);
+
+        waitlistServiceImpl.handleBookingReleasedEvent(new BookingReleasedEvent(this, 1L, DAY, DAY.plusDays(1)));
+
+        verifyNoInteractions(bookingService);
+        verify(waitlistEntryRepository, never()).setBookingId(anyLong(), anyLong());
+    }
+
+    @Test
+    public void testTwoReleasesBookAnEntryOnlyOnce() throws Exception {
+        Long waiting = createEntry(DAY, DAY.plusDays(1), true);
+        // Both releases load the entry before either of them has claimed it
+        when(waitlistEntryRepository.findById(waiting)).thenReturn(Optional.of(copy(entries.get(waiting))));
+        when(roomRepository.findById(2L)).thenReturn(Optional.of(Room.builder().id(2L).roomSize(RoomSize.DOUBLE).build()));
+        when(roomDayStatusRepository.findBookedDays(anyLong(), any(), any())).thenReturn(List.of());
+        when(bookingService.createBooking(eq(1L), any())).thenAnswer(invocation -> {
+            // The release of room 2 is matched while the entry is being booked into room 1
+            waitlistServiceImpl.handleBookingReleasedEvent(new BookingReleasedEvent(this, 2L, DAY, DAY.plusDays(1)));
+            return new BookingDto(7L, DAY, DAY.plusDays(1));
+        });
+
+        waitlistServiceImpl.handleBookingReleasedEvent(new BookingReleasedEvent(this, 1L, DAY, DAY.plusDays(1)));
+
+        verify(bookingService, never()).createBooking(eq(2L), any());
+        assertEquals(WaitlistStatus.BOOKED, entries.get(waiting).getStatus());
+        assertEquals(1L, entries.get(waiting).getRoomId());
+        assertEquals(7L, entries.get(waiting).getBookingId());
+    }
+
+    private static WaitlistEntry copy(WaitlistEntry entry) {
+        return entry == null ? null : WaitlistEntry.builder()
+                .id(entry.getId())
+                .roomSize(entry.getRoomSize())
+                .startDate(entry.getStartDate())
+                .endDate(entry.getEndDate())
+                .autoBook(entry.getAutoBook())
+                .status(entry.getStatus())
+                .roomId(entry.getRoomId())
+                .bookingId(entry.getBookingId())
+                .build();
+    }
+
+    private Long createEntry(LocalDate startDate, LocalDate endDate, boolean autoBook) throws Exception {
+        return waitlistServiceImpl.createEntry(WaitlistEntryDto.builder()
+                .roomSize(RoomSize.DOUBLE)
+                .startDate(startDate)
+                .endDate(endDate)
+                .autoBook(autoBook)
+                .build()).id();
+    }
+}